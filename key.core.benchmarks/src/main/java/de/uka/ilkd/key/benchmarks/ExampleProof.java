@@ -0,0 +1,187 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.TacletIndex;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.util.ProofStarter;
+
+/**
+ * A problem from <code>key.ui/examples</code> on which a limited number of automatic rule
+ * applications has been performed. The sequents of the resulting proof tree are the
+ * representative input of the benchmarks.
+ * <p>
+ * The examples directory is taken from the system property {@value #EXAMPLES_DIR_PROPERTY}, the
+ * number of rule applications from {@value #STEPS_PROPERTY}.
+ * </p>
+ */
+public final class ExampleProof implements AutoCloseable {
+    /** system property pointing to the directory <code>key.ui/examples</code> */
+    public static final String EXAMPLES_DIR_PROPERTY = "key.examples.dir";
+
+    /** system property for the number of rule applications performed after loading */
+    public static final String STEPS_PROPERTY = "key.benchmarks.steps";
+
+    /** a heap heavy contract with many frame conditions */
+    public static final String DISJOINT =
+        "performance-test/Disjoint(Disjoint__disjoint2_05()).JML_operation_contract.0.key";
+
+    /** a loop with a loop invariant on arrays */
+    public static final String REVERSE_ARRAY = "firstTouch/05-ReverseArray/reverseArray.key";
+
+    /** a pure first order logic puzzle */
+    public static final String AGATHA = "firstTouch/01-Agatha/project.key";
+
+    private final KeYEnvironment<DefaultUserInterfaceControl> environment;
+
+    private final Proof proof;
+
+    private final TacletIndex tacletIndex;
+
+    private ExampleProof(KeYEnvironment<DefaultUserInterfaceControl> environment, Proof proof,
+            TacletIndex tacletIndex) {
+        this.environment = environment;
+        this.proof = proof;
+        this.tacletIndex = tacletIndex;
+    }
+
+    /**
+     * Loads the given problem and applies up to {@value #STEPS_PROPERTY} (default 1000) rules
+     * automatically.
+     *
+     * @param problem the path of the problem file relative to the examples directory
+     * @return the loaded proof
+     * @throws ProblemLoaderException if the problem could not be loaded
+     */
+    public static ExampleProof load(String problem) throws ProblemLoaderException {
+        final File file =
+            new File(System.getProperty(EXAMPLES_DIR_PROPERTY, "key.ui/examples"), problem);
+        if (!file.exists()) {
+            throw new IllegalArgumentException("Example not found: " + file.getAbsolutePath()
+                + ", set -D" + EXAMPLES_DIR_PROPERTY + " to the examples directory.");
+        }
+
+        final KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(file, null, null, null);
+        final Proof proof = env.getLoadedProof();
+        if (proof == null) {
+            env.dispose();
+            throw new IllegalArgumentException("Example does not define a proof: " + file);
+        }
+        // the taclet index of the root contains the taclets of the initial configuration
+        final TacletIndex tacletIndex = proof.openGoals().head().indexOfTaclets().copy();
+
+        final ProofStarter starter = new ProofStarter(false);
+        starter.init(proof);
+        starter.setMaxRuleApplications(Integer.getInteger(STEPS_PROPERTY, 1000));
+        starter.start();
+
+        return new ExampleProof(env, proof, tacletIndex);
+    }
+
+    public Proof getProof() {
+        return proof;
+    }
+
+    public Services getServices() {
+        return proof.getServices();
+    }
+
+    /**
+     * @return a copy of the taclet index of the root node before the proof search
+     */
+    public TacletIndex getTacletIndex() {
+        return tacletIndex;
+    }
+
+    /**
+     * @return the nodes of the proof tree in depth first order
+     */
+    public List<Node> nodes() {
+        final List<Node> result = new ArrayList<>();
+        final Iterator<Node> it = proof.root().subtreeIterator();
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * @return the sequents of all nodes of the proof tree
+     */
+    public List<Sequent> sequents() {
+        final List<Sequent> result = new ArrayList<>();
+        for (Node node : nodes()) {
+            result.add(node.sequent());
+        }
+        return result;
+    }
+
+    /**
+     * Collects all distinct (w.r.t. identity) terms occurring in the given sequents. Sub terms
+     * precede their super terms, i.e., the terms can be rebuilt bottom up in the returned order.
+     *
+     * @param sequents the sequents
+     * @return the terms
+     */
+    public static List<Term> subterms(Iterable<Sequent> sequents) {
+        final Set<Term> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Term> result = new ArrayList<>();
+        for (Sequent sequent : sequents) {
+            for (SequentFormula sf : sequent) {
+                collect(sf.formula(), seen, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selects at most <code>max</code> evenly spaced elements of the given list, so that expensive
+     * benchmarks still cover the whole proof and not only its beginning.
+     *
+     * @param list the list
+     * @param max the maximal number of elements
+     * @return the selected elements
+     */
+    public static <T> List<T> sample(List<T> list, int max) {
+        if (list.size() <= max) {
+            return list;
+        }
+        final List<T> result = new ArrayList<>(max);
+        for (int i = 0; i < max; i++) {
+            result.add(list.get((int) ((long) i * list.size() / max)));
+        }
+        return result;
+    }
+
+    private static void collect(Term term, Set<Term> seen, List<Term> result) {
+        if (seen.add(term)) {
+            for (Term sub : term.subs()) {
+                collect(sub, seen, result);
+            }
+            result.add(term);
+        }
+    }
+
+    @Override
+    public void close() {
+        environment.dispose();
+    }
+}
@@ -0,0 +1,74 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.strategy.AutomatedRuleApplicationManager;
+import de.uka.ilkd.key.strategy.QueueRuleApplicationManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link QueueRuleApplicationManager#peekNext()} with an empty queue on the open goals
+ * of an example proof, i.e., the computation of the costs of all rule applications of a goal and
+ * the selection of the cheapest one. The rule app indexes are kept, so taclet matching is not
+ * part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleApplicationManagerBenchmark {
+    /* only examples which are not closed after the default number of steps */
+    @Param({ ExampleProof.DISJOINT, ExampleProof.REVERSE_ARRAY })
+    public String problem;
+
+    private ExampleProof example;
+
+    private Proof proof;
+
+    @Setup
+    public void setUp() throws ProblemLoaderException {
+        example = ExampleProof.load(problem);
+        proof = example.getProof();
+        if (proof.closed()) {
+            throw new IllegalStateException("Proof of " + problem + " is already closed, "
+                + "decrease -D" + ExampleProof.STEPS_PROPERTY);
+        }
+        proof.setRuleAppIndexToAutoMode();
+    }
+
+    @TearDown
+    public void tearDown() {
+        proof.setRuleAppIndexToInteractiveMode();
+        example.close();
+    }
+
+    @Benchmark
+    public void peekNext(Blackhole bh) {
+        for (Goal goal : proof.openGoals()) {
+            final AutomatedRuleApplicationManager manager = goal.getRuleAppManager();
+            manager.clearCache();
+            bh.consume(manager.peekNext());
+        }
+    }
+}
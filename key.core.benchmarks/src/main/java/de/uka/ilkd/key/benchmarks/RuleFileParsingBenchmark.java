@@ -0,0 +1,65 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.nparser.KeyIO;
+import de.uka.ilkd.key.nparser.ParsingFacade;
+import de.uka.ilkd.key.proof.init.JavaProfile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the loading of the rule files shipped with KeY: parsing only, and parsing together
+ * with the construction of the declared sorts, functions and taclets by {@link KeyIO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleFileParsingBenchmark {
+    /** resource path of the rule files */
+    private static final String RULES = "/de/uka/ilkd/key/proof/rules/";
+
+    @Param({ "standardRules.key", "ldt.key" })
+    public String ruleFile;
+
+    private URL url;
+
+    @Setup
+    public void setUp() {
+        url = JavaProfile.class.getResource(RULES + ruleFile);
+        if (url == null) {
+            throw new IllegalArgumentException("Rule file not found: " + ruleFile);
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        bh.consume(ParsingFacade.parseFiles(url));
+    }
+
+    @Benchmark
+    public void load(Blackhole bh) throws IOException {
+        final KeyIO io = new KeyIO(new Services(new JavaProfile()));
+        bh.consume(io.load(url).loadComplete());
+    }
+}
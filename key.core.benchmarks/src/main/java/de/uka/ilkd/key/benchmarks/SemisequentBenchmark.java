@@ -0,0 +1,93 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.logic.Semisequent;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Semisequent#insert} and {@link Semisequent#replace} on the semisequents of an
+ * example proof. Inserting rebuilds every semisequent formula by formula, replacing exchanges
+ * every formula by a formula of the next semisequent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SemisequentBenchmark {
+    /** number of semisequents used per invocation */
+    private static final int SAMPLES = 500;
+
+    @Param({ ExampleProof.DISJOINT, ExampleProof.REVERSE_ARRAY, ExampleProof.AGATHA })
+    public String problem;
+
+    private ExampleProof example;
+
+    private List<Semisequent> semisequents;
+
+    @Setup
+    public void setUp() throws ProblemLoaderException {
+        example = ExampleProof.load(problem);
+        final List<Semisequent> all = new ArrayList<>();
+        for (Sequent sequent : example.sequents()) {
+            if (!sequent.antecedent().isEmpty()) {
+                all.add(sequent.antecedent());
+            }
+            if (!sequent.succedent().isEmpty()) {
+                all.add(sequent.succedent());
+            }
+        }
+        semisequents = ExampleProof.sample(all, SAMPLES);
+    }
+
+    @TearDown
+    public void tearDown() {
+        example.close();
+    }
+
+    @Benchmark
+    public void insert(Blackhole bh) {
+        for (Semisequent semi : semisequents) {
+            Semisequent result = Semisequent.EMPTY_SEMISEQUENT;
+            for (int i = 0, sz = semi.size(); i < sz; i++) {
+                result = result.insert(i, semi.get(i)).semisequent();
+            }
+            bh.consume(result);
+        }
+    }
+
+    @Benchmark
+    public void replace(Blackhole bh) {
+        for (int s = 0, count = semisequents.size(); s < count; s++) {
+            final Semisequent semi = semisequents.get(s);
+            final Semisequent replacements = semisequents.get((s + 1) % count);
+            for (int i = 0, sz = semi.size(); i < sz; i++) {
+                final SequentFormula replacement = replacements.get(i % replacements.size());
+                bh.consume(semi.replace(i, replacement));
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.rule.TacletMatcher;
+import de.uka.ilkd.key.rule.match.vm.VMTacletMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link VMTacletMatcher#matchFind} on the pairs of find taclets and terms of an example
+ * proof the taclet index would try to match, i.e., all pairs where the find expression has the
+ * operator of the term or is a schema variable. The matchers use interpreted or compiled match
+ * programs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TacletMatcherBenchmark {
+    /** upper bound for the number of matched pairs per benchmark invocation */
+    private static final int MAX_PAIRS = 200_000;
+
+    @Param({ ExampleProof.DISJOINT, ExampleProof.REVERSE_ARRAY, ExampleProof.AGATHA })
+    public String problem;
+
+    @Param({ "false", "true" })
+    public boolean compiled;
+
+    private ExampleProof example;
+
+    private Services services;
+
+    private final List<TacletMatcher> matchers = new ArrayList<>();
+
+    private final List<Term> targets = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws ProblemLoaderException {
+        example = ExampleProof.load(problem);
+        services = example.getServices();
+
+        final List<FindTaclet> taclets = new ArrayList<>();
+        for (NoPosTacletApp app : example.getTacletIndex().allNoPosTacletApps()) {
+            if (app.taclet() instanceof FindTaclet) {
+                taclets.add((FindTaclet) app.taclet());
+            }
+        }
+        // fixed order, independent of hashing
+        taclets.sort(Comparator.comparing((Taclet t) -> t.name().toString()));
+
+        final Map<Taclet, TacletMatcher> matcherOfTaclet = new HashMap<>();
+        for (Term term : ExampleProof.subterms(example.sequents())) {
+            for (FindTaclet taclet : taclets) {
+                final Term find = taclet.find();
+                if (find.op() == term.op() || find.op() instanceof SchemaVariable) {
+                    matchers.add(matcherOfTaclet.computeIfAbsent(taclet,
+                        t -> new VMTacletMatcher(t, compiled)));
+                    targets.add(term);
+                    if (matchers.size() == MAX_PAIRS) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        example.close();
+    }
+
+    @Benchmark
+    public void matchFind(Blackhole bh) {
+        for (int i = 0, sz = matchers.size(); i < sz; i++) {
+            bh.consume(matchers.get(i).matchFind(targets.get(i),
+                MatchConditions.EMPTY_MATCHCONDITIONS, services));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermFactory;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link TermFactory#createTerm} by recreating all terms of the sequents of an example
+ * proof from their components, once with the term cache of the proof and once without a cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TermFactoryBenchmark {
+    @Param({ ExampleProof.DISJOINT, ExampleProof.REVERSE_ARRAY, ExampleProof.AGATHA })
+    public String problem;
+
+    private ExampleProof example;
+
+    private List<Term> terms;
+
+    private TermFactory cachingFactory;
+
+    private TermFactory plainFactory;
+
+    @Setup
+    public void setUp() throws ProblemLoaderException {
+        example = ExampleProof.load(problem);
+        terms = ExampleProof.subterms(example.sequents());
+        cachingFactory = example.getServices().getTermFactory();
+        plainFactory = new TermFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        example.close();
+    }
+
+    @Benchmark
+    public void createTermCached(Blackhole bh) {
+        createAll(cachingFactory, bh);
+    }
+
+    @Benchmark
+    public void createTermUncached(Blackhole bh) {
+        createAll(plainFactory, bh);
+    }
+
+    private void createAll(TermFactory tf, Blackhole bh) {
+        for (Term t : terms) {
+            bh.consume(tf.createTerm(t.op(), t.subs(), t.boundVars(), t.javaBlock(),
+                t.getLabels()));
+        }
+    }
+}
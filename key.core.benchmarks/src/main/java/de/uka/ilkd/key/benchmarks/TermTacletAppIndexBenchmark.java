@@ -0,0 +1,134 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.FormulaChangeInfo;
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.PosInTerm;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentChangeInfo;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.NullNewRuleListener;
+import de.uka.ilkd.key.proof.TacletIndex;
+import de.uka.ilkd.key.proof.TermTacletAppIndex;
+import de.uka.ilkd.key.proof.TermTacletAppIndexCacheSet;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.proof.rulefilter.AnyRuleSetTacletFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the creation of {@link TermTacletAppIndex}es for the formulas of an example proof and
+ * their updates for the formula modifications recorded in its proof tree. Every invocation starts
+ * with empty index caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TermTacletAppIndexBenchmark {
+    /** number of formulas indexed resp. modifications applied per invocation */
+    private static final int SAMPLES = 200;
+
+    @Param({ ExampleProof.DISJOINT, ExampleProof.REVERSE_ARRAY, ExampleProof.AGATHA })
+    public String problem;
+
+    private ExampleProof example;
+
+    private Services services;
+
+    private TacletIndex tacletIndex;
+
+    /** top level positions of the formulas to index */
+    private List<PosInOccurrence> formulas;
+
+    /** indexes of the original formulas of {@link #modifications} */
+    private final List<TermTacletAppIndex> originalIndexes = new ArrayList<>();
+
+    /** positions of the modifications within the new formulas */
+    private final List<PosInOccurrence> modifications = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws ProblemLoaderException {
+        example = ExampleProof.load(problem);
+        services = example.getServices();
+        tacletIndex = example.getTacletIndex();
+
+        final List<PosInOccurrence> allFormulas = new ArrayList<>();
+        for (Sequent sequent : example.sequents()) {
+            for (SequentFormula sf : sequent.antecedent()) {
+                allFormulas.add(new PosInOccurrence(sf, PosInTerm.getTopLevel(), true));
+            }
+            for (SequentFormula sf : sequent.succedent()) {
+                allFormulas.add(new PosInOccurrence(sf, PosInTerm.getTopLevel(), false));
+            }
+        }
+        formulas = ExampleProof.sample(allFormulas, SAMPLES);
+
+        final List<FormulaChangeInfo> allChanges = new ArrayList<>();
+        for (Node node : example.nodes()) {
+            final SequentChangeInfo sci = node.getNodeInfo().getSequentChangeInfo();
+            if (sci != null) {
+                for (FormulaChangeInfo info : sci.modifiedFormulas()) {
+                    allChanges.add(info);
+                }
+            }
+        }
+        final TermTacletAppIndexCacheSet caches = newCaches();
+        for (FormulaChangeInfo info : ExampleProof.sample(allChanges, SAMPLES)) {
+            final PosInOccurrence pos = info.positionOfModification();
+            originalIndexes.add(TermTacletAppIndex.create(pos.topLevel(), services, tacletIndex,
+                NullNewRuleListener.INSTANCE, AnyRuleSetTacletFilter.INSTANCE, caches));
+            modifications.add(pos.replaceConstrainedFormula(info.newFormula()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        example.close();
+    }
+
+    @Benchmark
+    public void create(Blackhole bh) {
+        final TermTacletAppIndexCacheSet caches = newCaches();
+        for (PosInOccurrence pos : formulas) {
+            bh.consume(TermTacletAppIndex.create(pos, services, tacletIndex,
+                NullNewRuleListener.INSTANCE, AnyRuleSetTacletFilter.INSTANCE, caches));
+        }
+    }
+
+    @Benchmark
+    public void update(Blackhole bh) {
+        final TermTacletAppIndexCacheSet caches = newCaches();
+        for (int i = 0, sz = modifications.size(); i < sz; i++) {
+            bh.consume(originalIndexes.get(i).update(modifications.get(i), services,
+                tacletIndex, NullNewRuleListener.INSTANCE, caches));
+        }
+    }
+
+    private static TermTacletAppIndexCacheSet newCaches() {
+        return new TermTacletAppIndexCacheSet(new HashMap<>());
+    }
+}
@@ -3,6 +3,7 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.control;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -243,6 +244,7 @@ public abstract class AbstractProofControl implements ProofControl {
 
     @Override
     public void applyInteractive(RuleApp app, Goal goal) {
+        ensureReplayed(goal);
         goal.node().getNodeInfo().setInteractiveRuleApplication(true);
         var node = goal.node();
         goal.apply(app);
@@ -610,6 +612,7 @@ public abstract class AbstractProofControl implements ProofControl {
      */
     @Override
     public void startFocussedAutoMode(PosInOccurrence focus, Goal goal) {
+        ensureReplayed(goal);
         if (focus != null) {
             // exchange the rule app manager of that goal to filter rule apps
 
@@ -624,6 +627,27 @@ public abstract class AbstractProofControl implements ProofControl {
             new FocussedAutoModeTaskListener(goal.proof()));
     }
 
+    /**
+     * Makes sure that the user does not work on a goal of a lazily loaded proof whose branch is
+     * continued by the proof file. In the user interface, such branches are replayed once their
+     * goal is selected.
+     *
+     * @param goal the goal to work on
+     * @throws IllegalStateException if the replay of the branch of the goal had been deferred, the
+     *         branch is replayed then and the goal is no longer open
+     */
+    protected void ensureReplayed(Goal goal) {
+        final DeferredReplay replay = goal.proof().lookup(DeferredReplay.class);
+        if (replay == null || !replay.isDeferred(goal.node())) {
+            return;
+        }
+        final List<Throwable> replayErrors = new ArrayList<>();
+        replay.replayBranch(goal.node(), replayErrors);
+        throw new IllegalStateException("Goal " + goal.node().serialNr()
+            + " had not been replayed from the proof file yet. It has been replayed now.",
+            replayErrors.isEmpty() ? null : replay.replayFailure(replayErrors));
+    }
+
     /**
      * TODO
      */
@@ -23,7 +23,7 @@ import de.uka.ilkd.key.strategy.TopRuleAppCost;
 import de.uka.ilkd.key.strategy.feature.FocusIsSubFormulaOfInfFlowContractAppFeature;
 import de.uka.ilkd.key.strategy.feature.InfFlowContractAppFeature;
 
-import org.key_project.util.collection.DefaultImmutableSet;
+import org.key_project.util.collection.HashImmutableSet;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSet;
 
@@ -63,7 +63,7 @@ public class UseInformationFlowContractMacro extends StrategyProofMacro {
 
     private static final Set<String> ADMITTED_RULENAME_SET = asSet(ADMITTED_RULENAMES);
 
-    private static ImmutableSet<String> appliedInfFlowRules = DefaultImmutableSet.nil();
+    private static ImmutableSet<String> appliedInfFlowRules = HashImmutableSet.nil();
 
     /**
      * Gets the set of admitted rule names.
@@ -11,7 +11,7 @@ import de.uka.ilkd.key.logic.op.SchemaVariable;
 import de.uka.ilkd.key.rule.*;
 import de.uka.ilkd.key.rule.tacletbuilder.TacletGoalTemplate;
 
-import org.key_project.util.collection.DefaultImmutableSet;
+import org.key_project.util.collection.HashImmutableSet;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableMap;
 import org.key_project.util.collection.ImmutableSet;
@@ -29,7 +29,7 @@ import org.key_project.util.collection.ImmutableSet;
 public class InfFlowContractAppTaclet extends RewriteTaclet {
 
     public static final String USE_IF = "Use information flow contract for ";
-    private static ImmutableSet<Name> alreadyRegistered = DefaultImmutableSet.nil();
+    private static ImmutableSet<Name> alreadyRegistered = HashImmutableSet.nil();
 
 
 
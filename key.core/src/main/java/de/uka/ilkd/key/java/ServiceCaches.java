@@ -3,11 +3,14 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.java;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
+import de.uka.ilkd.key.logic.HashConsingTermTable;
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermFactory;
 import de.uka.ilkd.key.logic.op.Operator;
 import de.uka.ilkd.key.logic.sort.Sort;
 import de.uka.ilkd.key.proof.Node;
@@ -15,18 +18,21 @@ import de.uka.ilkd.key.proof.PrefixTermTacletAppIndexCacheImpl.CacheKey;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.TermTacletAppIndex;
 import de.uka.ilkd.key.proof.TermTacletAppIndexCacheSet;
+import de.uka.ilkd.key.proof.init.InitConfig;
+import de.uka.ilkd.key.proof.mgt.ProofEnvironment;
 import de.uka.ilkd.key.rule.IfFormulaInstantiationCache;
 import de.uka.ilkd.key.rule.metaconstruct.arith.Monomial;
 import de.uka.ilkd.key.rule.metaconstruct.arith.Polynomial;
 import de.uka.ilkd.key.strategy.IfInstantiationCachePool;
 import de.uka.ilkd.key.strategy.RuleAppCost;
 import de.uka.ilkd.key.strategy.feature.AbstractBetaFeature.TermInfo;
-import de.uka.ilkd.key.strategy.feature.AppliedRuleAppsNameCache;
+import de.uka.ilkd.key.strategy.feature.AppliedRuleAppsIndex;
 import de.uka.ilkd.key.strategy.quantifierHeuristics.ClausesGraph;
+import de.uka.ilkd.key.strategy.quantifierHeuristics.HandleArith;
 import de.uka.ilkd.key.strategy.quantifierHeuristics.TriggersSet;
 import de.uka.ilkd.key.util.Pair;
 
-import org.key_project.util.LRUCache;
+import org.key_project.util.TinyLFUCache;
 
 /**
  * <p>
@@ -64,6 +70,22 @@ import org.key_project.util.LRUCache;
  * proofs.</li>
  * </ul>
  * </p>
+ * <p>
+ * Some caches only depend on terms and sorts, but not on the proof they are used in: the
+ * hash-consing table of the {@link TermFactory}, the normal forms of {@link Monomial}s and
+ * {@link Polynomial}s, the results of {@link HandleArith} and the disjointness of sorts. These
+ * caches form an environment-wide tier which is shared by all {@link ServiceCaches} created by
+ * {@link #ServiceCaches(ServiceCaches)}. {@link Services#copy(boolean)} does so, and thereby the
+ * proofs started from the {@link InitConfig} of a {@link ProofEnvironment} share this tier instead
+ * of warming up their own caches. The shared caches are thread-safe and assigned to final fields,
+ * so they are safely published to the proofs of other threads.
+ * </p>
+ * <p>
+ * The bounded caches are {@link TinyLFUCache}s, which are thread-safe without external
+ * synchronization, so that parallel goals and strategies can share them. Their bounds are numbers
+ * of entries (as there is no cheap estimate of the memory held by a term) and their statistics are
+ * available by {@link #getStatistics()}.
+ * </p>
  *
  * @author Martin Hentschel
  */
@@ -76,8 +98,8 @@ public class ServiceCaches {
     /**
      * The cache used by {@link TermTacletAppIndexCacheSet} instances.
      */
-    private final Map<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
-        new LRUCache<>(MAX_TERM_TACLET_APP_INDEX_ENTRIES);
+    private final TinyLFUCache<CacheKey, TermTacletAppIndex> termTacletAppIndexCache =
+        new TinyLFUCache<>(MAX_TERM_TACLET_APP_INDEX_ENTRIES);
 
     /*
      * Table of formulas which could be splitted using the beta rule This is the cache the method
@@ -85,52 +107,50 @@ public class ServiceCaches {
      *
      * keys: Term values: TermInfo
      */
-    private final LRUCache<Term, TermInfo> betaCandidates = new LRUCache<>(1000);
+    private final TinyLFUCache<Term, TermInfo> betaCandidates = new TinyLFUCache<>(1000);
 
-    private final LRUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
-        new LRUCache<>(1000);
+    private final TinyLFUCache<PosInOccurrence, RuleAppCost> ifThenElseMalusCache =
+        new TinyLFUCache<>(1000);
 
-    private final LRUCache<Operator, Integer> introductionTimeCache =
-        new LRUCache<>(10000);
+    private final TinyLFUCache<Operator, Integer> introductionTimeCache =
+        new TinyLFUCache<>(10000);
 
-    private final LRUCache<Term, Monomial> monomialCache = new LRUCache<>(2000);
+    private final TinyLFUCache<Term, Monomial> monomialCache;
 
-    private final LRUCache<Term, Polynomial> polynomialCache = new LRUCache<>(2000);
+    private final TinyLFUCache<Term, Polynomial> polynomialCache;
 
     /**
      * a <code>HashMap</code> from <code>Term</code> to <code>TriggersSet</code> uses to cache all
      * created TriggersSets
      */
-    private final Map<Term, TriggersSet> triggerSetCache = new LRUCache<>(1000);
+    private final TinyLFUCache<Term, TriggersSet> triggerSetCache = new TinyLFUCache<>(1000);
 
     /**
      * Map from <code>Term</code>(allTerm) to <code>ClausesGraph</code>
      */
-    private final Map<Term, ClausesGraph> graphCache = new LRUCache<>(1000);
+    private final TinyLFUCache<Term, ClausesGraph> graphCache = new TinyLFUCache<>(1000);
 
     /**
-     * Cache used by the TermFactory to avoid unnecessary creation of terms
+     * Hash-consing table used by the TermFactory to avoid unnecessary creation of terms
      */
-    private final Map<Term, Term> termCache = new LRUCache<>(20000);
+    private final HashConsingTermTable termCache;
 
     /**
      * Cache used by TypeComparisonCondition
      */
-    private final Map<Sort, Map<Sort, Boolean>> disjointnessCache =
-        new WeakHashMap<>();
+    private final Map<Sort, Map<Sort, Boolean>> disjointnessCache;
 
     /**
      * Cache used by HandleArith for caching formatted terms
      */
-    private final LRUCache<Term, Term> formattedTermCache = new LRUCache<>(5000);
+    private final TinyLFUCache<Term, Term> formattedTermCache;
 
     /**
      * Caches used bu HandleArith to cache proof results
      */
-    private final LRUCache<Term, Term> provedByArithFstCache = new LRUCache<>(5000);
+    private final TinyLFUCache<Term, Term> provedByArithFstCache;
 
-    private final LRUCache<Pair<Term, Term>, Term> provedByArithSndCache =
-        new LRUCache<>(5000);
+    private final TinyLFUCache<Pair<Term, Term>, Term> provedByArithSndCache;
 
     /** Cache used by the exhaustive macro */
     private final Map<Node, PosInOccurrence> exhaustiveMacroCache =
@@ -143,9 +163,37 @@ public class ServiceCaches {
     private final IfFormulaInstantiationCache ifFormulaInstantiationCache =
         new IfFormulaInstantiationCache();
 
-    /** applied rule apps name cache */
-    private final AppliedRuleAppsNameCache appliedRuleAppsNameCache =
-        new AppliedRuleAppsNameCache();
+    /** index of the applied taclet apps per branch */
+    private final AppliedRuleAppsIndex appliedRuleAppsIndex = new AppliedRuleAppsIndex();
+
+    /**
+     * Creates new caches, none of which is shared.
+     */
+    public ServiceCaches() {
+        this.monomialCache = new TinyLFUCache<>(2000);
+        this.polynomialCache = new TinyLFUCache<>(2000);
+        this.termCache = new HashConsingTermTable();
+        this.disjointnessCache = new WeakHashMap<>();
+        this.formattedTermCache = new TinyLFUCache<>(5000);
+        this.provedByArithFstCache = new TinyLFUCache<>(5000);
+        this.provedByArithSndCache = new TinyLFUCache<>(5000);
+    }
+
+    /**
+     * Creates new proof specific caches which share the environment-wide caches with the given
+     * instance.
+     *
+     * @param environment the {@link ServiceCaches} to share the environment-wide caches with
+     */
+    public ServiceCaches(ServiceCaches environment) {
+        this.monomialCache = environment.monomialCache;
+        this.polynomialCache = environment.polynomialCache;
+        this.termCache = environment.termCache;
+        this.disjointnessCache = environment.disjointnessCache;
+        this.formattedTermCache = environment.formattedTermCache;
+        this.provedByArithFstCache = environment.provedByArithFstCache;
+        this.provedByArithSndCache = environment.provedByArithSndCache;
+    }
 
     /**
      * Returns the cache used by {@link TermTacletAppIndexCacheSet} instances.
@@ -156,35 +204,35 @@ public class ServiceCaches {
         return termTacletAppIndexCache;
     }
 
-    public final LRUCache<Term, TermInfo> getBetaCandidates() {
+    public final TinyLFUCache<Term, TermInfo> getBetaCandidates() {
         return betaCandidates;
     }
 
-    public final LRUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
+    public final TinyLFUCache<PosInOccurrence, RuleAppCost> getIfThenElseMalusCache() {
         return ifThenElseMalusCache;
     }
 
-    public final LRUCache<Operator, Integer> getIntroductionTimeCache() {
+    public final TinyLFUCache<Operator, Integer> getIntroductionTimeCache() {
         return introductionTimeCache;
     }
 
-    public final LRUCache<Term, Monomial> getMonomialCache() {
+    public final TinyLFUCache<Term, Monomial> getMonomialCache() {
         return monomialCache;
     }
 
-    public final LRUCache<Term, Polynomial> getPolynomialCache() {
+    public final TinyLFUCache<Term, Polynomial> getPolynomialCache() {
         return polynomialCache;
     }
 
-    public final Map<Term, TriggersSet> getTriggerSetCache() {
+    public final TinyLFUCache<Term, TriggersSet> getTriggerSetCache() {
         return triggerSetCache;
     }
 
-    public final Map<Term, ClausesGraph> getGraphCache() {
+    public final TinyLFUCache<Term, ClausesGraph> getGraphCache() {
         return graphCache;
     }
 
-    public final Map<Term, Term> getTermFactoryCache() {
+    public final HashConsingTermTable getTermFactoryCache() {
         return termCache;
     }
 
@@ -192,15 +240,15 @@ public class ServiceCaches {
         return disjointnessCache;
     }
 
-    public final LRUCache<Term, Term> getFormattedTermCache() {
+    public final TinyLFUCache<Term, Term> getFormattedTermCache() {
         return formattedTermCache;
     }
 
-    public final LRUCache<Term, Term> getProvedByArithFstCache() {
+    public final TinyLFUCache<Term, Term> getProvedByArithFstCache() {
         return provedByArithFstCache;
     }
 
-    public final LRUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
+    public final TinyLFUCache<Pair<Term, Term>, Term> getProvedByArithSndCache() {
         return provedByArithSndCache;
     }
 
@@ -216,7 +264,26 @@ public class ServiceCaches {
         return ifFormulaInstantiationCache;
     }
 
-    public AppliedRuleAppsNameCache getAppliedRuleAppsNameCache() {
-        return appliedRuleAppsNameCache;
+    public AppliedRuleAppsIndex getAppliedRuleAppsIndex() {
+        return appliedRuleAppsIndex;
+    }
+
+    /**
+     * @return the hit, miss and eviction statistics of the bounded caches by their names
+     */
+    public Map<String, TinyLFUCache.Stats> getStatistics() {
+        final Map<String, TinyLFUCache.Stats> result = new LinkedHashMap<>();
+        result.put("termTacletAppIndex", termTacletAppIndexCache.stats());
+        result.put("betaCandidates", betaCandidates.stats());
+        result.put("ifThenElseMalus", ifThenElseMalusCache.stats());
+        result.put("introductionTime", introductionTimeCache.stats());
+        result.put("monomial", monomialCache.stats());
+        result.put("polynomial", polynomialCache.stats());
+        result.put("triggerSet", triggerSetCache.stats());
+        result.put("graph", graphCache.stats());
+        result.put("formattedTerm", formattedTermCache.stats());
+        result.put("provedByArithFst", provedByArithFstCache.stats());
+        result.put("provedByArithSnd", provedByArithSndCache.stats());
+        return result;
     }
 }
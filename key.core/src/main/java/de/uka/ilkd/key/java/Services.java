@@ -210,7 +210,8 @@ public class Services implements TermServices {
      *
      * @param shareCaches {@code true} The created {@link Services} will use the same
      *        {@link ServiceCaches} like this instance; {@code false} the created {@link Services}
-     *        will use a new empty {@link ServiceCaches} instance.
+     *        will use new {@link ServiceCaches} which only share the environment-wide caches
+     *        with this instance (see {@link ServiceCaches#ServiceCaches(ServiceCaches)}).
      * @return the copy
      */
     public Services copy(boolean shareCaches) {
@@ -224,7 +225,8 @@ public class Services implements TermServices {
      * @param profile The new {@link Profile} to use in the copy of this {@link Services}.
      * @param shareCaches {@code true} The created {@link Services} will use the same
      *        {@link ServiceCaches} like this instance; {@code false} the created {@link Services}
-     *        will use a new empty {@link ServiceCaches} instance.
+     *        will use new {@link ServiceCaches} which only share the environment-wide caches
+     *        with this instance (see {@link ServiceCaches#ServiceCaches(ServiceCaches)}).
      * @return The created copy.
      */
     public Services copy(Profile profile, boolean shareCaches) {
@@ -232,7 +234,7 @@ public class Services implements TermServices {
             !(getJavaInfo().getKeYProgModelInfo()
                     .getServConf() instanceof SchemaCrossReferenceServiceConfiguration),
             "services: tried to copy schema cross reference service config.");
-        ServiceCaches newCaches = shareCaches ? caches : new ServiceCaches();
+        ServiceCaches newCaches = shareCaches ? caches : new ServiceCaches(caches);
         Services s = new Services(profile, getJavaInfo().getKeYProgModelInfo().getServConf(),
             getJavaInfo().getKeYProgModelInfo().rec2key().copy(), copyCounters(), newCaches);
         s.specRepos = specRepos;
@@ -302,7 +304,7 @@ public class Services implements TermServices {
 
 
     public Services copyProofSpecific(Proof p_proof, boolean shareCaches) {
-        ServiceCaches newCaches = shareCaches ? caches : new ServiceCaches();
+        ServiceCaches newCaches = shareCaches ? caches : new ServiceCaches(caches);
         final Services s =
             new Services(getProfile(), getJavaInfo().getKeYProgModelInfo().getServConf(),
                 getJavaInfo().getKeYProgModelInfo().rec2key(), copyCounters(), newCaches);
@@ -0,0 +1,252 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.logic;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.function.Supplier;
+
+import de.uka.ilkd.key.logic.label.TermLabel;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+
+import org.key_project.util.collection.ImmutableArray;
+
+/**
+ * A thread safe hash-consing table for {@link Term}s used by the {@link TermFactory}.
+ * <p>
+ * Terms are looked up by their components (operator, sub terms, bound variables and labels)
+ * <em>before</em> a new term object is allocated, so a cache hit neither creates a temporary term
+ * nor checks it again. The table only holds weak references to its terms, terms no longer used
+ * anywhere else are collected by the garbage collector and their entries are removed lazily.
+ * </p>
+ * <p>
+ * The table is split into independently locked segments, so concurrent term creation (e.g., by
+ * parallel goal preparation) rarely contends for the same lock.
+ * </p>
+ * <p>
+ * Terms with a {@link JavaBlock} other than {@link JavaBlock#EMPTY_JAVABLOCK} (directly or in one
+ * of their sub terms) must not be stored in this table, because their meta information like
+ * position information may be different even if they are equal.
+ * </p>
+ */
+public final class HashConsingTermTable {
+    /** number of segments, has to be a power of two */
+    private static final int SEGMENTS = 64;
+
+    /** the segment is selected by the upper bits of the hash, the bucket by the lower ones */
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+
+    /** initial number of buckets per segment, has to be a power of two */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public HashConsingTermTable() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns the term with the given components. If the table does not contain such a term yet,
+     * the term provided by <code>factory</code> is stored and returned.
+     *
+     * @param op the operator
+     * @param subs the sub terms, none of them contains a non-empty {@link JavaBlock}
+     * @param boundVars the bound variables
+     * @param labels the term labels, <code>null</code> or empty if the term is not labeled
+     * @param factory creates the term in case of a cache miss, the created term has to consist of
+     *        exactly the given components
+     * @return the unique term with the given components
+     */
+    public Term lookup(Operator op, ImmutableArray<Term> subs,
+            ImmutableArray<QuantifiableVariable> boundVars, ImmutableArray<TermLabel> labels,
+            Supplier<Term> factory) {
+        final int hash = hash(op, subs, boundVars, labels);
+        final Segment segment = segments[spread(hash) >>> SEGMENT_SHIFT];
+
+        Term result = segment.get(hash, op, subs, boundVars, labels);
+        if (result == null) {
+            // create the term outside the lock, a concurrently created equal term wins
+            result = segment.putIfAbsent(hash, factory.get());
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of terms currently stored (including terms which are not reachable any
+     *         longer but have not yet been removed)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.expungeStaleEntries();
+                size += segment.count;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all terms from the table.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private static int hash(Operator op, ImmutableArray<Term> subs,
+            ImmutableArray<QuantifiableVariable> boundVars, ImmutableArray<TermLabel> labels) {
+        int hash = op.hashCode();
+        hash = hash * 17 + subs.hashCode();
+        hash = hash * 17 + (boundVars == null ? 0 : boundVars.hashCode());
+        if (labels != null) {
+            // order independent, labels are compared as sets
+            for (int i = 0, sz = labels.size(); i < sz; i++) {
+                hash += 7 * labels.get(i).hashCode();
+            }
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash << 16);
+    }
+
+    private static boolean matches(Term term, Operator op, ImmutableArray<Term> subs,
+            ImmutableArray<QuantifiableVariable> boundVars, ImmutableArray<TermLabel> labels) {
+        if (!term.op().equals(op) || !term.subs().equals(subs)) {
+            return false;
+        }
+        final ImmutableArray<QuantifiableVariable> termBoundVars = term.boundVars();
+        if (boundVars == null || boundVars.isEmpty()) {
+            if (!termBoundVars.isEmpty()) {
+                return false;
+            }
+        } else if (!termBoundVars.equals(boundVars)) {
+            return false;
+        }
+        final ImmutableArray<TermLabel> termLabels = term.getLabels();
+        final int labelCount = labels == null ? 0 : labels.size();
+        if (termLabels.size() != labelCount) {
+            return false;
+        }
+        for (int i = 0; i < labelCount; i++) {
+            if (!termLabels.contains(labels.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Weak reference to a stored term, chained within a bucket.
+     */
+    private static final class Entry extends WeakReference<Term> {
+        final int hash;
+        Entry next;
+
+        Entry(Term term, int hash, Entry next, ReferenceQueue<Term> queue) {
+            super(term, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A separately locked part of the table: an open hash table with chained weak entries.
+     */
+    private static final class Segment {
+        private final ReferenceQueue<Term> queue = new ReferenceQueue<>();
+        private Entry[] buckets = new Entry[INITIAL_CAPACITY];
+        private int count;
+
+        synchronized Term get(int hash, Operator op, ImmutableArray<Term> subs,
+                ImmutableArray<QuantifiableVariable> boundVars,
+                ImmutableArray<TermLabel> labels) {
+            for (Entry e = buckets[hash & (buckets.length - 1)]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final Term term = e.get();
+                    if (term != null && matches(term, op, subs, boundVars, labels)) {
+                        return term;
+                    }
+                }
+            }
+            return null;
+        }
+
+        synchronized Term putIfAbsent(int hash, Term term) {
+            expungeStaleEntries();
+            final int index = hash & (buckets.length - 1);
+            for (Entry e = buckets[index]; e != null; e = e.next) {
+                if (e.hash == hash) {
+                    final Term existing = e.get();
+                    if (existing != null && existing.equals(term)) {
+                        return existing;
+                    }
+                }
+            }
+            buckets[index] = new Entry(term, hash, buckets[index], queue);
+            if (++count > buckets.length) {
+                resize();
+            }
+            return term;
+        }
+
+        void expungeStaleEntries() {
+            Object stale;
+            while ((stale = queue.poll()) != null) {
+                final Entry entry = (Entry) stale;
+                final int index = entry.hash & (buckets.length - 1);
+                Entry prev = null;
+                for (Entry e = buckets[index]; e != null; prev = e, e = e.next) {
+                    if (e == entry) {
+                        if (prev == null) {
+                            buckets[index] = e.next;
+                        } else {
+                            prev.next = e.next;
+                        }
+                        e.next = null;
+                        count--;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void resize() {
+            final Entry[] newBuckets = new Entry[buckets.length << 1];
+            for (Entry head : buckets) {
+                Entry e = head;
+                while (e != null) {
+                    final Entry next = e.next;
+                    if (e.get() == null) {
+                        // already collected, will be skipped when dequeued
+                        e.next = null;
+                        count--;
+                    } else {
+                        final int index = e.hash & (newBuckets.length - 1);
+                        e.next = newBuckets[index];
+                        newBuckets[index] = e;
+                    }
+                    e = next;
+                }
+            }
+            buckets = newBuckets;
+        }
+
+        void clear() {
+            while (queue.poll() != null) {
+                // drop pending references
+            }
+            buckets = new Entry[INITIAL_CAPACITY];
+            count = 0;
+        }
+    }
+}
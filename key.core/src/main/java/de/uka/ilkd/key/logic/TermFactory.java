@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.logic;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 
@@ -27,7 +26,7 @@ public final class TermFactory {
 
 
     private static final ImmutableArray<Term> NO_SUBTERMS = new ImmutableArray<>();
-    private final Map<Term, Term> cache;
+    private final HashConsingTermTable cache;
 
 
     // -------------------------------------------------------------------------
@@ -39,7 +38,7 @@ public final class TermFactory {
         this.cache = null;
     }
 
-    public TermFactory(Map<Term, Term> cache) {
+    public TermFactory(HashConsingTermTable cache) {
         this.cache = cache;
     }
 
@@ -127,27 +126,33 @@ public final class TermFactory {
     private Term doCreateTerm(Operator op, ImmutableArray<Term> subs,
             ImmutableArray<QuantifiableVariable> boundVars, JavaBlock javaBlock,
             ImmutableArray<TermLabel> labels) {
-        final Term newTerm =
-            (labels == null || labels.isEmpty() ? new TermImpl(op, subs, boundVars, javaBlock)
-                    : new LabeledTermImpl(op, subs, boundVars, javaBlock, labels)).checked();
         // Check if caching is possible. It is not possible if a non empty JavaBlock is available
         // in the term or in one of its children because the meta information like PositionInfos
-        // may be different.
-        if (cache != null && !newTerm.containsJavaBlockRecursive()) {
-            Term term;
-            synchronized (cache) {
-                term = cache.get(newTerm);
-            }
-            if (term == null) {
-                term = newTerm;
-                synchronized (cache) {
-                    cache.put(term, term);
-                }
-            }
-            return term;
+        // may be different. The lookup happens before the term is created, so cache hits do not
+        // allocate anything.
+        if (cache != null && (javaBlock == null || javaBlock == JavaBlock.EMPTY_JAVABLOCK)
+                && !containsJavaBlockRecursive(subs)) {
+            return cache.lookup(op, subs, boundVars, labels,
+                () -> newTerm(op, subs, boundVars, javaBlock, labels));
         } else {
-            return newTerm;
+            return newTerm(op, subs, boundVars, javaBlock, labels);
+        }
+    }
+
+    private static Term newTerm(Operator op, ImmutableArray<Term> subs,
+            ImmutableArray<QuantifiableVariable> boundVars, JavaBlock javaBlock,
+            ImmutableArray<TermLabel> labels) {
+        return (labels == null || labels.isEmpty() ? new TermImpl(op, subs, boundVars, javaBlock)
+                : new LabeledTermImpl(op, subs, boundVars, javaBlock, labels)).checked();
+    }
+
+    private static boolean containsJavaBlockRecursive(ImmutableArray<Term> subs) {
+        for (int i = 0, sz = subs.size(); i < sz; i++) {
+            if (subs.get(i).containsJavaBlockRecursive()) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -3,8 +3,12 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.macros;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import de.uka.ilkd.key.control.UserInterfaceControl;
 import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.proof.DeferredReplay;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
@@ -70,7 +74,17 @@ public abstract class AbstractProofMacro implements ProofMacro {
     public ProofMacroFinishedInfo applyTo(UserInterfaceControl uic, Node node,
             PosInOccurrence posInOcc, ProverTaskListener listener)
             throws Exception {
-        return applyTo(uic, node.proof(), getGoals(node), posInOcc, listener);
+        // the branches of a lazily loaded proof have to be replayed before the macro works on them
+        final DeferredReplay replay = node.proof().lookup(DeferredReplay.class);
+        ImmutableList<Goal> goals = getGoals(node);
+        if (replay != null) {
+            final List<Throwable> replayErrors = new ArrayList<>();
+            goals = replay.replayDeferred(goals, replayErrors);
+            if (!replayErrors.isEmpty()) {
+                throw replay.replayFailure(replayErrors);
+            }
+        }
+        return applyTo(uic, node.proof(), goals, posInOcc, listener);
     }
 
     /**
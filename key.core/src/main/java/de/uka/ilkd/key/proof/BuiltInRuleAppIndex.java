@@ -3,9 +3,9 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.proof;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 import de.uka.ilkd.key.logic.*;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.rule.BuiltInRule;
 import de.uka.ilkd.key.rule.IBuiltInRuleApp;
 
@@ -13,8 +13,6 @@ import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
 public class BuiltInRuleAppIndex {
-    public static final AtomicLong PERF_CREATE_ALL = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE = new AtomicLong();
     private final BuiltInRuleIndex index;
 
     private SequentChangeInfo sequentChangeInfo = null;
@@ -126,10 +124,11 @@ public class BuiltInRuleAppIndex {
     }
 
     public void reportRuleApps(Goal goal, NewRuleListener l) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         scanSimplificationRule(goal, l);
         sequentChangeInfo = null;
-        PERF_CREATE_ALL.getAndAdd(System.nanoTime() - time);
+        metrics.stop(Phase.BUILT_IN_INDEX_CREATE, time);
     }
 
     /**
@@ -155,14 +154,15 @@ public class BuiltInRuleAppIndex {
         if (sequentChangeInfo == null) {
             return;
         }
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         scanAddedFormulas(goal, true, sequentChangeInfo, listener);
         scanAddedFormulas(goal, false, sequentChangeInfo, listener);
 
         scanModifiedFormulas(goal, true, sequentChangeInfo, listener);
         scanModifiedFormulas(goal, false, sequentChangeInfo, listener);
         sequentChangeInfo = null;
-        PERF_UPDATE.getAndAdd(System.nanoTime() - time);
+        metrics.stop(Phase.BUILT_IN_INDEX_UPDATE, time);
     }
 
     private void scanAddedFormulas(Goal goal, boolean antec, SequentChangeInfo sci,
@@ -0,0 +1,59 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof;
+
+import java.util.List;
+
+import org.key_project.util.collection.ImmutableList;
+
+/**
+ * Replays the branches of a lazily loaded proof whose replay from the proof file has been
+ * deferred. As long as there are such branches, the loader registers its implementation at the
+ * proof (see {@link Proof#register(Object, Class)}), so that the prover, the user interface and
+ * the saver can have the branches replayed before they work on their goals, without depending on
+ * the loader.
+ */
+public interface DeferredReplay {
+    /**
+     * @param node a node of the proof
+     * @return true iff the node is the open node of a branch whose replay has been deferred
+     */
+    boolean isDeferred(Node node);
+
+    /**
+     * Replays a branch whose replay has been deferred. The replay of its own branches (but the
+     * first) may be deferred again.
+     *
+     * @param node the open node of the branch
+     * @param replayErrors the list the errors of the replay are added to
+     * @return true iff the replay of the branch had been deferred
+     */
+    boolean replayBranch(Node node, List<Throwable> replayErrors);
+
+    /**
+     * Completely replays the deferred branches of the given goals, e.g. before the automatic
+     * prover is started on them.
+     *
+     * @param goals the goals to be worked on
+     * @param replayErrors the list the errors of the replay are added to
+     * @return the given goals, where the goal of each replayed branch is replaced by the open
+     *         goals of that branch
+     */
+    ImmutableList<Goal> replayDeferred(ImmutableList<Goal> goals, List<Throwable> replayErrors);
+
+    /**
+     * Completely replays all deferred branches, e.g. before the proof is saved.
+     *
+     * @param replayErrors the list the errors of the replay are added to
+     */
+    void replayAll(List<Throwable> replayErrors);
+
+    /**
+     * Summarizes the errors of replaying deferred branches for the user.
+     *
+     * @param replayErrors the errors, not empty
+     * @return an exception describing the errors, caused by the first one
+     */
+    Exception replayFailure(List<Throwable> replayErrors);
+}
@@ -7,7 +7,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 
 import de.uka.ilkd.key.java.Services;
@@ -17,6 +16,8 @@ import de.uka.ilkd.key.logic.op.IProgramVariable;
 import de.uka.ilkd.key.logic.op.ProgramVariable;
 import de.uka.ilkd.key.pp.LogicPrinter;
 import de.uka.ilkd.key.pp.NotationInfo;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.proof.proofevent.NodeChangeJournal;
 import de.uka.ilkd.key.proof.proofevent.RuleAppInfo;
 import de.uka.ilkd.key.proof.rulefilter.TacletFilter;
@@ -48,12 +49,6 @@ import org.key_project.util.collection.ImmutableSLList;
  */
 public final class Goal {
 
-    public static final AtomicLong PERF_APP_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_TAG_MANAGER = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_RULE_APP_INDEX = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE_LISTENERS = new AtomicLong();
-
     /**
      * If an application of a rule added some information for the strategy, then this information is
      * stored in this map.
@@ -161,6 +156,25 @@ public final class Goal {
         ruleAppManager.clearCache();
     }
 
+    /**
+     * Executes <code>action</code> while <code>p_goalStrategy</code> is temporarily installed as
+     * the strategy of this goal. In contrast to {@link #setGoalStrategy(Strategy)} the rule
+     * application cache is kept, hence the given strategy has to compute exactly the same costs as
+     * the current one. This allows worker threads to use their own copy of a stateful strategy.
+     *
+     * @param p_goalStrategy the strategy to use while executing <code>action</code>
+     * @param action the action to execute
+     */
+    public void runWithGoalStrategy(Strategy p_goalStrategy, Runnable action) {
+        final Strategy previous = goalStrategy;
+        goalStrategy = p_goalStrategy;
+        try {
+            action.run();
+        } finally {
+            goalStrategy = previous;
+        }
+    }
+
     public AutomatedRuleApplicationManager getRuleAppManager() {
         return ruleAppManager;
     }
@@ -222,17 +236,18 @@ public final class Goal {
      * event object.
      */
     private void fireSequentChanged(SequentChangeInfo sci) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(proof());
+        var time = metrics.start();
         getFormulaTagManager().sequentChanged(this, sci);
-        var time1 = System.nanoTime();
-        PERF_UPDATE_TAG_MANAGER.getAndAdd(time1 - time);
+        metrics.stop(Phase.GOAL_UPDATE_TAG_MANAGER, time);
+        time = metrics.start();
         ruleAppIndex.sequentChanged(sci);
-        var time2 = System.nanoTime();
-        PERF_UPDATE_RULE_APP_INDEX.getAndAdd(time2 - time1);
+        metrics.stop(Phase.GOAL_UPDATE_RULE_APP_INDEX, time);
+        time = metrics.start();
         for (GoalListener listener : listeners) {
             listener.sequentChanged(this, sci);
         }
-        PERF_UPDATE_LISTENERS.getAndAdd(System.nanoTime() - time2);
+        metrics.stop(Phase.GOAL_UPDATE_LISTENERS, time);
     }
 
     private void fireGoalReplaced(Goal goal, Node parent, ImmutableList<Goal> newGoals) {
@@ -374,10 +389,11 @@ public final class Goal {
         assert sci.sequent() != sci.getOriginalSequent();
         node().setSequent(sci.sequent());
         node().getNodeInfo().setSequentChangeInfo(sci);
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(proof());
+        var time = metrics.start();
         // updates the index
         fireSequentChanged(sci);
-        PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - time);
+        metrics.stop(Phase.GOAL_SET_SEQUENT, time);
     }
 
     /**
@@ -564,6 +580,8 @@ public final class Goal {
 
             parent.addAll(newNode);
 
+            // update the indices once here instead of once for each new goal
+            ruleAppIndex.flushDeltaUpdates();
             this.setNode(newNode[0]);
             goalList = goalList.prepend(this);
 
@@ -623,11 +641,12 @@ public final class Goal {
         NamespaceSet originalNamespaces = getLocalNamespaces();
         Services overlayServices = proof.getServices().getOverlay(originalNamespaces);
         final ImmutableList<Goal> goalList;
-        var time = System.nanoTime();
+        final ProofMetrics metrics = proof.getMetrics();
+        var time = metrics.start();
         try {
             goalList = ruleApp.execute(this, overlayServices);
         } finally {
-            PERF_APP_EXECUTE.getAndAdd(System.nanoTime() - time);
+            metrics.ruleApplied(ruleApp.rule(), time);
         }
         // can be null when the taclet failed to apply (RuleAbortException)
         if (goalList == null) {
@@ -36,7 +36,10 @@ public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTaclet
     }
 
     public TermTacletAppIndex getIndexForTerm(Term t) {
-        return cache.get(getQueryKey(t));
+        // the query key is shared, hence the whole lookup has to be guarded
+        synchronized (cache) {
+            return cache.get(getQueryKey(t));
+        }
     }
 
     private int hits = 0;
@@ -55,7 +58,9 @@ public abstract class PrefixTermTacletAppIndexCacheImpl extends PrefixTermTaclet
     }
 
     public void putIndexForTerm(Term t, TermTacletAppIndex index) {
-        cache.put(getNewKey(t), index);
+        synchronized (cache) {
+            cache.put(getNewKey(t), index);
+        }
     }
 
     /**
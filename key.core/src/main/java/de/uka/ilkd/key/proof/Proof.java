@@ -25,6 +25,7 @@ import de.uka.ilkd.key.proof.init.InitConfig;
 import de.uka.ilkd.key.proof.init.Profile;
 import de.uka.ilkd.key.proof.io.IntermediateProofReplayer;
 import de.uka.ilkd.key.proof.io.ProofSaver;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
 import de.uka.ilkd.key.proof.mgt.ProofCorrectnessMgt;
 import de.uka.ilkd.key.proof.mgt.ProofEnvironment;
 import de.uka.ilkd.key.proof.reference.ClosedBy;
@@ -115,6 +116,9 @@ public class Proof implements Named {
 
     private long autoModeTime = 0;
 
+    /** performance metrics of this proof, {@link ProofMetrics#DISABLED} if not collected */
+    private ProofMetrics metrics = ProofMetrics.createDefault();
+
     private Strategy activeStrategy;
 
     private PropertyChangeListener settingsListener;
@@ -451,6 +455,24 @@ public class Proof implements Named {
         return pis;
     }
 
+    /**
+     * @return the performance metrics of this proof, {@link ProofMetrics#DISABLED} unless metrics
+     *         are enabled
+     */
+    public ProofMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the registry in which the performance metrics of this proof are recorded, e.g.,
+     * {@link ProofMetrics#create()} to enable metrics for this proof only.
+     *
+     * @param metrics the registry, {@link ProofMetrics#DISABLED} to disable metrics
+     */
+    public void setMetrics(@Nonnull ProofMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Returns the list of open goals.
      *
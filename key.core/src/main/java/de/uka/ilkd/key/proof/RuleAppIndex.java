@@ -328,6 +328,19 @@ public final class RuleAppIndex {
         builtInRuleAppIndex.flushSequentChanges(goal, newRuleListener);
     }
 
+    /**
+     * Performs the pending delta updates of the taclet app indices that are in use, so that the
+     * copies made for new goals when splitting share the updated indices
+     *
+     * @see TacletAppIndex#flushDeltaUpdate()
+     */
+    void flushDeltaUpdates() {
+        if (!autoMode) {
+            interactiveTacletAppIndex.flushDeltaUpdate();
+        }
+        automatedTacletAppIndex.flushDeltaUpdate();
+    }
+
     /**
      * Report all rule applications that are supposed to be applied automatically, and that are
      * currently stored by the index
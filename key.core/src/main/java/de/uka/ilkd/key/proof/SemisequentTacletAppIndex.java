@@ -6,10 +6,11 @@ package de.uka.ilkd.key.proof;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.*;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.proof.rulefilter.RuleFilter;
 import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.TacletApp;
@@ -20,9 +21,6 @@ import org.key_project.util.collection.*;
  * This class holds <code>TermTacletAppIndex</code>s for all formulas of a semisequent.
  */
 public class SemisequentTacletAppIndex {
-    public static final AtomicLong PERF_UPDATE = new AtomicLong();
-    public static final AtomicLong PERF_ADD = new AtomicLong();
-    public static final AtomicLong PERF_REMOVE = new AtomicLong();
 
     private ImmutableMap<SequentFormula, TermTacletAppIndex> termIndices =
         DefaultImmutableMap.nilMap();
@@ -211,18 +209,19 @@ public class SemisequentTacletAppIndex {
             TacletIndex tacletIndex, NewRuleListener listener) {
         if (sci.hasChanged(antec)) {
             final SemisequentTacletAppIndex result = copy();
+            final ProofMetrics metrics = ProofMetrics.of(services.getProof());
 
-            var time = System.nanoTime();
+            var time = metrics.start();
             result.removeTermIndices(sci.removedFormulas(antec));
-            PERF_REMOVE.getAndAdd(System.nanoTime() - time);
+            metrics.stop(Phase.SEMISEQUENT_INDEX_REMOVE, time);
 
-            time = System.nanoTime();
+            time = metrics.start();
             result.updateTermIndices(sci.modifiedFormulas(antec), services, tacletIndex, listener);
-            PERF_UPDATE.getAndAdd(System.nanoTime() - time);
+            metrics.stop(Phase.SEMISEQUENT_INDEX_UPDATE, time);
 
-            time = System.nanoTime();
+            time = metrics.start();
             result.addTermIndices(sci.addedFormulas(antec), services, tacletIndex, listener);
-            PERF_ADD.getAndAdd(System.nanoTime() - time);
+            metrics.stop(Phase.SEMISEQUENT_INDEX_ADD, time);
             return result;
         }
 
@@ -262,7 +261,14 @@ public class SemisequentTacletAppIndex {
         }
     }
 
-    void setIndexCache(TermTacletAppIndexCacheSet indexCaches) {
-        this.indexCaches = indexCaches;
+    /**
+     * @param indexCaches the cache to be used for subsequent updates
+     * @return a copy of this index using the given cache; this index may be shared by the
+     *         indices of several goals and is not changed
+     */
+    SemisequentTacletAppIndex withIndexCache(TermTacletAppIndexCacheSet indexCaches) {
+        final SemisequentTacletAppIndex result = copy();
+        result.indexCaches = indexCaches;
+        return result;
     }
 }
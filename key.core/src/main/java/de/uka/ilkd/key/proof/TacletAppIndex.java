@@ -5,7 +5,6 @@ package de.uka.ilkd.key.proof;
 
 import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -14,6 +13,8 @@ import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.logic.Sequent;
 import de.uka.ilkd.key.logic.SequentChangeInfo;
 import de.uka.ilkd.key.proof.PrefixTermTacletAppIndexCacheImpl.CacheKey;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.proof.rulefilter.AndRuleFilter;
 import de.uka.ilkd.key.proof.rulefilter.RuleFilter;
 import de.uka.ilkd.key.proof.rulefilter.SetRuleFilter;
@@ -34,8 +35,6 @@ import org.key_project.util.collection.ImmutableSLList;
  */
 
 public class TacletAppIndex {
-    public static final AtomicLong PERF_CREATE_ALL = new AtomicLong();
-    public static final AtomicLong PERF_UPDATE = new AtomicLong();
 
     private final TacletIndex tacletIndex;
 
@@ -118,11 +117,13 @@ public class TacletAppIndex {
 
     private void createNewIndexCache() {
         indexCaches = new TermTacletAppIndexCacheSet(cache);
+        // the semisequent indices may be shared with the indices of sibling goals, which must
+        // keep using their own cache
         if (antecIndex != null) {
-            antecIndex.setIndexCache(indexCaches);
+            antecIndex = antecIndex.withIndexCache(indexCaches);
         }
         if (succIndex != null) {
-            succIndex.setIndexCache(indexCaches);
+            succIndex = succIndex.withIndexCache(indexCaches);
         }
     }
 
@@ -135,7 +136,8 @@ public class TacletAppIndex {
     }
 
     private void createAllFromGoal(boolean silent) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
 
         this.state.seq = goal.sequent();
         var listener = silent ? NullNewRuleListener.INSTANCE : newRuleListener;
@@ -151,31 +153,59 @@ public class TacletAppIndex {
         this.state.sci = null;
         this.state.newRules = null;
 
-        PERF_CREATE_ALL.getAndAdd(System.nanoTime() - time);
+        metrics.stop(Phase.TACLET_INDEX_CREATE, time);
+    }
+
+    /**
+     * Performs a pending delta update of indices that have already been built. This is called
+     * before the goal is split, so that all new goals share the updated semisequent indices
+     * instead of each of them repeating the update. Indices that have not been built yet or need
+     * a complete rebuild are left alone, the rebuild is still delayed until they are accessed.
+     */
+    void flushDeltaUpdate() {
+        if (isOutdated() && canUpdateIncrementally()) {
+            update(false);
+        }
     }
 
     private void update(boolean silent) {
         if (!isOutdated()) {
             return;
         }
-        if (this.state.sci != null && this.state.sci.sequent() == goal.sequent()) {
-            deltaUpdateIndices(this.state.sci, silent);
+        if (canUpdateIncrementally()) {
+            deltaUpdateIndices(silent);
         } else {
             createAllFromGoal(silent);
         }
         this.state.sci = null;
     }
 
-    private void deltaUpdateIndices(SequentChangeInfo sci, boolean silent) {
-        var time = System.nanoTime();
-        this.state.seq = sci.sequent();
+    /**
+     * @return true iff the indices can be brought up-to-date by re-indexing the formulas
+     *         changed since the last update and adding the new rules
+     */
+    private boolean canUpdateIncrementally() {
+        if (state.sci != null) {
+            return state.sci.sequent() == goal.sequent();
+        }
+        // only new rules have been added
+        return state.seq == goal.sequent();
+    }
+
+    private void deltaUpdateIndices(boolean silent) {
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
+        final SequentChangeInfo sci = this.state.sci;
+        this.state.seq = goal.sequent();
 
         var listener = silent ? NullNewRuleListener.INSTANCE : newRuleListener;
-        // Sequent changes
-        antecIndex =
-            antecIndex.sequentChanged(sci, getServices(), tacletIndex, listener);
-        succIndex =
-            succIndex.sequentChanged(sci, getServices(), tacletIndex, listener);
+        if (sci != null) {
+            // Sequent changes
+            antecIndex =
+                antecIndex.sequentChanged(sci, getServices(), tacletIndex, listener);
+            succIndex =
+                succIndex.sequentChanged(sci, getServices(), tacletIndex, listener);
+        }
 
         if (this.state.newRules != null) {
             // New rules
@@ -186,7 +216,7 @@ public class TacletAppIndex {
             this.state.newRules = null;
         }
 
-        PERF_UPDATE.getAndAdd(System.nanoTime() - time);
+        metrics.stop(Phase.TACLET_INDEX_UPDATE, time);
     }
 
     /**
@@ -410,6 +440,11 @@ public class TacletAppIndex {
      * @param tacletApp the partially instantiated Taclet to remove
      */
     public void removedNoPosTacletApp(NoPosTacletApp tacletApp) {
+        if (tacletApp.taclet() instanceof NoFindTaclet || !ruleFilter.filter(tacletApp.taclet())) {
+            // the taclet does not occur in the indices of this object, apps of taclets without
+            // find are taken from the taclet index directly
+            return;
+        }
         if (indexCaches.isRelevantTaclet(tacletApp.taclet())) {
             // we must flush the index cache, and we must no longer use a cache
             // that we share with other instances of <code>TacletAppIndex</code>
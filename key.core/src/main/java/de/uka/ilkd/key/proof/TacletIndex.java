@@ -284,7 +284,32 @@ public abstract class TacletIndex {
      */
     private ImmutableList<NoPosTacletApp> getFindTaclet(ImmutableList<NoPosTacletApp> taclets,
             RuleFilter filter, PosInOccurrence pos, Services services) {
-        return matchTaclets(taclets, filter, pos, services);
+        return matchTaclets(prefilter(taclets, pos.subTerm()), filter, pos, services);
+    }
+
+    /**
+     * removes the taclets whose find term cannot match the given term according to their
+     * {@link FindTaclet#getFindPrefilter()}, so that the matcher is not invoked for them
+     *
+     * @param taclets the candidates selected by the top level operator of the term
+     * @param term the term to match
+     * @return the remaining candidates in the original order
+     */
+    private static ImmutableList<NoPosTacletApp> prefilter(ImmutableList<NoPosTacletApp> taclets,
+            Term term) {
+        if (taclets == null) {
+            return null;
+        }
+        ImmutableList<NoPosTacletApp> result = ImmutableSLList.nil();
+        boolean removed = false;
+        for (NoPosTacletApp tacletApp : taclets) {
+            if (((FindTaclet) tacletApp.taclet()).getFindPrefilter().isCompatible(term)) {
+                result = result.prepend(tacletApp);
+            } else {
+                removed = true;
+            }
+        }
+        return removed ? result.reverse() : taclets;
     }
 
     /**
@@ -470,9 +495,7 @@ public abstract class TacletIndex {
      */
     public ImmutableList<NoPosTacletApp> getRewriteTaclet(PosInOccurrence pos, RuleFilter filter,
             Services services) {
-        ImmutableList<NoPosTacletApp> result =
-            matchTaclets(getList(rwList, pos.subTerm(), false), filter, pos, services);
-        return result;
+        return getFindTaclet(getList(rwList, pos.subTerm(), false), filter, pos, services);
     }
 
 
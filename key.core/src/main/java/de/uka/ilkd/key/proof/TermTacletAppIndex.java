@@ -401,8 +401,9 @@ public class TermTacletAppIndex {
      * @param indexCaches caches
      * @return the updated index object
      */
-    TermTacletAppIndex update(PosInOccurrence pos, Services services, TacletIndex tacletIndex,
-            NewRuleListener listener, TermTacletAppIndexCacheSet indexCaches) {
+    public TermTacletAppIndex update(PosInOccurrence pos, Services services,
+            TacletIndex tacletIndex, NewRuleListener listener,
+            TermTacletAppIndexCacheSet indexCaches) {
 
         final ITermTacletAppIndexCache indexCache = determineIndexCache(pos, indexCaches);
 
@@ -161,12 +161,14 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return topLevelCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = topLevelCaches.get(prefix);
-        if (res == null) {
-            res = new TopLevelCache(prefix, cache);
-            topLevelCaches.put(prefix, res);
+        synchronized (topLevelCaches) {
+            ITermTacletAppIndexCache res = topLevelCaches.get(prefix);
+            if (res == null) {
+                res = new TopLevelCache(prefix, cache);
+                topLevelCaches.put(prefix, res);
+            }
+            return res;
         }
-        return res;
     }
 
     /**
@@ -177,12 +179,14 @@ public class TermTacletAppIndexCacheSet {
         if (prefix.isEmpty()) {
             return belowProgCacheEmptyPrefix;
         }
-        ITermTacletAppIndexCache res = belowProgCaches.get(prefix);
-        if (res == null) {
-            res = new BelowProgCache(prefix, cache);
-            belowProgCaches.put(prefix, res);
+        synchronized (belowProgCaches) {
+            ITermTacletAppIndexCache res = belowProgCaches.get(prefix);
+            if (res == null) {
+                res = new BelowProgCache(prefix, cache);
+                belowProgCaches.put(prefix, res);
+            }
+            return res;
         }
-        return res;
     }
 
     /**
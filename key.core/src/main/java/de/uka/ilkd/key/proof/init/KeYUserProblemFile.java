@@ -16,6 +16,7 @@ import de.uka.ilkd.key.nparser.ProblemInformation;
 import de.uka.ilkd.key.nparser.ProofReplayer;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.proof.io.BinaryProofRuleSource;
 import de.uka.ilkd.key.proof.io.IProofFileParser;
 import de.uka.ilkd.key.proof.io.KeYFile;
 import de.uka.ilkd.key.proof.io.consistency.FileRepo;
@@ -189,6 +190,10 @@ public final class KeYUserProblemFile extends KeYFile implements ProofOblInput {
      * Reads a saved proof of a .key file.
      */
     public void readProof(IProofFileParser prl) throws IOException {
+        if (file instanceof BinaryProofRuleSource) {
+            ((BinaryProofRuleSource) file).readProof(prl);
+            return;
+        }
         KeyAst.File ctx = getParseContext();
         Token token = ctx.findProof();
         if (token != null) {
@@ -513,7 +513,8 @@ public abstract class AbstractProblemLoader {
             return new KeYUserProblemFile(unzippedProof.toString(), unzippedProof.toFile(),
                 fileRepo, control, profileOfNewProofs, false);
         } else if (filename.endsWith(".key") || filename.endsWith(".proof")
-                || filename.endsWith(".proof.gz")) {
+                || filename.endsWith(".proof.gz")
+                || filename.endsWith(BinaryProofFormat.EXTENSION)) {
             // KeY problem specification or saved proof
             return new KeYUserProblemFile(filename, file, fileRepo, control, profileOfNewProofs,
                 filename.endsWith(".proof.gz"));
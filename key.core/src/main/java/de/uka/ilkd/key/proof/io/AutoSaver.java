@@ -5,6 +5,7 @@ package de.uka.ilkd.key.proof.io;
 
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
 
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.prover.ProverTaskListener;
@@ -26,6 +27,13 @@ import org.slf4j.LoggerFactory;
  * listener, <b>a proof must be set</b> with <code>setProof()</code>. AutoSaver writes .key files to
  * a temporary location (i.e., "/tmp" on most Linux machines). These are possibly overwritten on
  * each strategy run. Write errors (e.g., missing permissions) are silently ignored.
+ * <p>
+ * If the system property {@value #JOURNAL_PROPERTY} is <code>true</code>, the steps are appended to
+ * a {@link ProofJournal} at the end of each interval instead, so that the cost of autosaving does
+ * not grow with the size of the proof. The journal is kept as long as the same proof is saved and
+ * can be turned into a proof file by {@link ProofJournal#recover(java.io.Reader,
+ * java.io.Writer)}.
+ * </p>
  *
  * @author bruns
  */
@@ -35,7 +43,11 @@ public class AutoSaver implements ProverTaskListener {
     private static final File TMP_DIR = IOUtil.getTempDirectory();
     private static final String PREFIX = TMP_DIR + File.separator + ".autosave.";
 
+    /** system property enabling the journal */
+    public static final String JOURNAL_PROPERTY = "key.autosave.journal";
+
     private Proof proof;
+    private ProofJournal journal;
     private final int interval;
     private final boolean saveClosed;
 
@@ -99,6 +111,17 @@ public class AutoSaver implements ProverTaskListener {
      */
     public void setProof(Proof p) {
         proof = p;
+        if (journal != null && journal.getProof() != p) {
+            closeJournal();
+        }
+        if (journal == null && p != null && Boolean.getBoolean(JOURNAL_PROPERTY)) {
+            final File file = new File(PREFIX + "proof" + ProofJournal.EXTENSION);
+            try {
+                journal = new ProofJournal(p, file);
+            } catch (IOException e) {
+                LOGGER.error("Creating journal {} failed.", file, e);
+            }
+        }
     }
 
     /**
@@ -115,6 +138,10 @@ public class AutoSaver implements ProverTaskListener {
             return;
         }
         if (progress > 0 && progress % interval == 0) {
+            if (journal != null) {
+                checkpoint();
+                return;
+            }
             final int quot = progress / interval;
             final String filename = PREFIX + quot + ".key";
             save(filename, proof);
@@ -128,6 +155,10 @@ public class AutoSaver implements ProverTaskListener {
 
     @Override
     public void taskFinished(TaskFinishedInfo info) {
+        if (journal != null) {
+            checkpoint();
+        }
+
         // save proof if closed
         if (saveClosed) {
             if (proof == null) {
@@ -142,6 +173,24 @@ public class AutoSaver implements ProverTaskListener {
         proof = null;
     }
 
+    private void checkpoint() {
+        try {
+            journal.checkpoint();
+        } catch (IOException e) {
+            LOGGER.error("Writing journal {} failed.", journal.getFile(), e);
+            closeJournal();
+        }
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            LOGGER.error("Closing journal {} failed.", journal.getFile(), e);
+        }
+        journal = null;
+    }
+
     private void save(final String filename, final Proof proof) {
         // there may be concurrent changes to the proof... whatever
         final Runnable r = () -> {
@@ -0,0 +1,400 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.io.IProofFileParser.ProofElementID;
+
+/**
+ * The binary proof format (files ending with {@value #EXTENSION}).
+ * <p>
+ * A binary proof file starts with the magic number {@value #MAGIC}, the format version and the
+ * textual part of an ordinary proof file (profile, settings, declarations, problem), which is
+ * parsed as usual. The proof steps follow as a sequence of the events an {@link IProofFileParser}
+ * receives when a textual proof is read, hence binary proofs are replayed by the same
+ * {@link IntermediatePresentationProofFileParser} and {@link IntermediateProofReplayer}:
+ * </p>
+ * <ul>
+ * <li>Each element starts with one byte encoding its {@link ProofElementID} and the kind of its
+ * argument and is closed by the byte <code>0</code>.</li>
+ * <li>Numbers (formula numbers, ids, times) are written as varints, term positions as lists of
+ * varints.</li>
+ * <li>All other arguments (rule names, instantiations, ...) are written to a string table on
+ * their first occurrence and referenced by their index afterwards.</li>
+ * </ul>
+ * <p>
+ * Since an element of a binary proof has no line, the elements are numbered instead; the number
+ * is passed to {@link IProofFileParser#endExpr(ProofElementID, int)} in place of the line.
+ * </p>
+ */
+public final class BinaryProofFormat {
+    /** the file extension of binary proofs */
+    public static final String EXTENSION = ".proof.bin";
+
+    /** "KPRB" */
+    public static final int MAGIC = 0x4b505242;
+
+    /** the version of the format */
+    public static final int VERSION = 1;
+
+    /** closes the current element */
+    private static final int END = 0;
+
+    /** argument kinds */
+    private static final int NO_ARG = 0;
+    private static final int STRING_ARG = 1;
+    private static final int NUMBER_ARG = 2;
+    private static final int POSITION_ARG = 3;
+
+    /** the elements by their names in textual proofs */
+    private static final Map<String, ProofElementID> ELEMENTS = new LinkedHashMap<>();
+
+    static {
+        for (ProofElementID id : ProofElementID.values()) {
+            ELEMENTS.put(id.getRawName(), id);
+        }
+        assert ProofElementID.values().length <= 31 : "element ids do not fit into a byte";
+    }
+
+    private BinaryProofFormat() {
+    }
+
+    /**
+     * Writes the start of a binary proof file.
+     *
+     * @param out the stream to write to
+     * @param header the textual part of the proof file
+     * @throws IOException if writing fails
+     */
+    static void writeHeader(DataOutputStream out, String header) throws IOException {
+        final byte[] bytes = header.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the start of a binary proof file, leaving the stream at the proof steps.
+     *
+     * @param in the stream to read from
+     * @return the textual part of the proof file
+     * @throws IOException if the stream is not a binary proof of a supported version
+     */
+    static String readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary proof file");
+        }
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version + " of binary proof file");
+        }
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the proof steps of a binary proof and passes them to a proof file parser.
+     *
+     * @param in the stream positioned after the header
+     * @param prl the receiver of the proof elements
+     * @throws IOException if reading fails or the proof steps are malformed
+     */
+    static void readProof(DataInputStream in, IProofFileParser prl) throws IOException {
+        final ProofElementID[] ids = ProofElementID.values();
+        final List<String> strings = new ArrayList<>();
+        final Deque<ProofElementID> stack = new ArrayDeque<>();
+        final Deque<Integer> numbers = new ArrayDeque<>();
+        int count = 0;
+        int op;
+        while ((op = in.read()) >= 0) {
+            if (op == END) {
+                if (stack.isEmpty()) {
+                    throw new IOException("Unbalanced proof element");
+                }
+                prl.endExpr(stack.pop(), numbers.pop());
+                continue;
+            }
+            final int ordinal = (op - 1) >> 2;
+            if (ordinal >= ids.length) {
+                throw new IOException("Unknown proof element " + ordinal);
+            }
+            final String arg = switch ((op - 1) & 3) {
+            case STRING_ARG -> {
+                final int ref = readVarInt(in);
+                if (ref == 0) {
+                    final byte[] bytes = new byte[readVarInt(in)];
+                    in.readFully(bytes);
+                    final String s = new String(bytes, StandardCharsets.UTF_8);
+                    strings.add(s);
+                    yield s;
+                } else if (ref <= strings.size()) {
+                    yield strings.get(ref - 1);
+                } else {
+                    throw new IOException("Invalid string reference " + ref);
+                }
+            }
+            case NUMBER_ARG -> Long.toString(readVarLong(in));
+            case POSITION_ARG -> {
+                final int n = readVarInt(in);
+                final StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < n; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(readVarInt(in));
+                }
+                yield sb.toString();
+            }
+            default -> null;
+            };
+            prl.beginExpr(ids[ordinal], arg);
+            stack.push(ids[ordinal]);
+            numbers.push(++count);
+        }
+        if (!stack.isEmpty()) {
+            throw new IOException("Unexpected end of binary proof");
+        }
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        final long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Number too large: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * @return true iff the string is a number that is written back in the same way
+     */
+    private static boolean isNumber(String s, int from, int to) {
+        final int length = to - from;
+        if (length == 0 || length > 18 || length > 1 && s.charAt(from) == '0') {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPosition(String s) {
+        int from = 0;
+        while (true) {
+            final int to = s.indexOf(',', from);
+            if (!isNumber(s, from, to < 0 ? s.length() : to)
+                    || Long.parseLong(s, from, to < 0 ? s.length() : to, 10) > Integer.MAX_VALUE) {
+                return false;
+            }
+            if (to < 0) {
+                return true;
+            }
+            from = to + 1;
+        }
+    }
+
+    /**
+     * Writes the proof elements it receives in the binary format.
+     */
+    static final class Encoder implements IProofFileParser {
+        private final DataOutputStream out;
+
+        /** the indices (starting at 1) of the strings written so far */
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        /**
+         * @param out the stream to write the proof steps to
+         */
+        Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void beginExpr(ProofElementID eid, String str) {
+            try {
+                final int op = 1 + (eid.ordinal() << 2);
+                if (str == null) {
+                    out.writeByte(op + NO_ARG);
+                } else if (eid != ProofElementID.TERM && isNumber(str, 0, str.length())) {
+                    out.writeByte(op + NUMBER_ARG);
+                    writeVarLong(out, Long.parseLong(str));
+                } else if (eid == ProofElementID.TERM && isPosition(str)) {
+                    out.writeByte(op + POSITION_ARG);
+                    final String[] parts = str.split(",");
+                    writeVarLong(out, parts.length);
+                    for (String part : parts) {
+                        writeVarLong(out, Integer.parseInt(part));
+                    }
+                } else {
+                    out.writeByte(op + STRING_ARG);
+                    final Integer ref = strings.get(str);
+                    if (ref != null) {
+                        writeVarLong(out, ref);
+                    } else {
+                        strings.put(str, strings.size() + 1);
+                        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                        writeVarLong(out, 0);
+                        writeVarLong(out, bytes.length);
+                        out.write(bytes);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void endExpr(ProofElementID eid, int stringLiteralLine) {
+            try {
+                out.writeByte(END);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public String getStatus() {
+            return "";
+        }
+
+        @Override
+        public List<Throwable> getErrors() {
+            return List.of();
+        }
+    }
+
+    /**
+     * Splits the text of proof steps, as written by
+     * {@link OutputStreamProofSaver#node2Proof(de.uka.ilkd.key.proof.Node, Appendable)}, into
+     * proof elements as they are found by {@link de.uka.ilkd.key.nparser.ProofReplayer} and passes
+     * them to a proof file parser. The text is processed as it is appended, so that it is never
+     * built as a whole.
+     */
+    static final class TextReader implements Appendable {
+        private enum State {
+            OUTSIDE, NAME, AFTER_NAME, STRING, ESCAPE
+        }
+
+        private final IProofFileParser prl;
+        private final Deque<ProofElementID> stack = new ArrayDeque<>();
+        private final StringBuilder buffer = new StringBuilder();
+        private State state = State.OUTSIDE;
+        private ProofElementID current;
+
+        /**
+         * @param prl the receiver of the proof elements
+         */
+        TextReader(IProofFileParser prl) {
+            this.prl = prl;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            switch (state) {
+            case OUTSIDE -> outside(c);
+            case NAME -> {
+                if (c == '(' || c == ')' || c == '"' || Character.isWhitespace(c)) {
+                    current = ELEMENTS.get(buffer.toString());
+                    if (current == null) {
+                        throw new IllegalArgumentException("Unknown proof element: " + buffer);
+                    }
+                    state = State.AFTER_NAME;
+                    append(c);
+                } else {
+                    buffer.append(c);
+                }
+            }
+            case AFTER_NAME -> {
+                if (c == '"') {
+                    buffer.setLength(0);
+                    state = State.STRING;
+                } else if (!Character.isWhitespace(c)) {
+                    begin(null);
+                    outside(c);
+                }
+            }
+            case STRING -> {
+                if (c == '"') {
+                    begin(buffer.toString().replace("\\\\", "\\").replace("\\\"", "\""));
+                } else {
+                    buffer.append(c);
+                    if (c == '\\') {
+                        state = State.ESCAPE;
+                    }
+                }
+            }
+            case ESCAPE -> {
+                buffer.append(c);
+                state = State.STRING;
+            }
+            default -> throw new IllegalStateException();
+            }
+            return this;
+        }
+
+        private void outside(char c) {
+            if (c == '(') {
+                buffer.setLength(0);
+                state = State.NAME;
+            } else if (c == ')') {
+                if (stack.isEmpty()) {
+                    throw new IllegalArgumentException("Unbalanced parentheses in proof");
+                }
+                prl.endExpr(stack.pop(), -1);
+            }
+        }
+
+        private void begin(String arg) {
+            prl.beginExpr(current, arg);
+            stack.push(current);
+            state = State.OUTSIDE;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+
+/**
+ * This file rule source derivative reads proofs in the {@link BinaryProofFormat}. The textual part
+ * of the file is provided as the content of the rule source; the proof steps are read by
+ * {@link #readProof(IProofFileParser)}.
+ */
+public class BinaryProofRuleSource extends FileRuleSource {
+
+    /**
+     * Instantiates a new rule source.
+     *
+     * This is only instantiated from {@link RuleSourceFactory#initRuleFile(File, boolean)}.
+     *
+     * @param ruleFile the file to read from.
+     */
+    BinaryProofRuleSource(File ruleFile) {
+        super(ruleFile);
+    }
+
+    private DataInputStream open() throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(ruleFile)));
+    }
+
+    private String readHeader() throws IOException {
+        try (DataInputStream in = open()) {
+            return BinaryProofFormat.readHeader(in);
+        }
+    }
+
+    @Override
+    public InputStream getNewStream() {
+        try {
+            return new ByteArrayInputStream(readHeader().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Error while reading rules.", e);
+        }
+    }
+
+    @Override
+    public CharStream getCharStream() throws IOException {
+        return CharStreams.fromString(readHeader(), file().toString());
+    }
+
+    /**
+     * Reads the proof steps and passes them to the given parser.
+     *
+     * @param prl the receiver of the proof elements
+     * @throws IOException if reading fails
+     */
+    public void readProof(IProofFileParser prl) throws IOException {
+        try (DataInputStream in = open()) {
+            BinaryProofFormat.readHeader(in);
+            BinaryProofFormat.readProof(in, prl);
+        }
+    }
+}
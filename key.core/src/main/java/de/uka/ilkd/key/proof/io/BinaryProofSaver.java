@@ -0,0 +1,58 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.*;
+
+import de.uka.ilkd.key.proof.Proof;
+
+/**
+ * This proof saver derivative writes proofs in the {@link BinaryProofFormat}. The proof steps are
+ * encoded while they are printed, the textual proof is never built.
+ */
+public class BinaryProofSaver extends ProofSaver {
+
+    /**
+     * Instantiates a new proof saver.
+     *
+     * @param proof the non-<code>null</code> proof to save
+     * @param fileName the name of the file to write to
+     * @param internalVersion the internal version
+     */
+    public BinaryProofSaver(Proof proof, String fileName, String internalVersion) {
+        super(proof, fileName, internalVersion);
+    }
+
+    /**
+     * Instantiates a new proof saver.
+     *
+     * @param proof the non-<code>null</code> proof to save
+     * @param file the file to write to
+     */
+    public BinaryProofSaver(Proof proof, File file) {
+        super(proof, file);
+    }
+
+    @Override
+    public void save(OutputStream out) throws IOException {
+        completeProof();
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            final StringWriter header = new StringWriter();
+            try (PrintWriter ps = new PrintWriter(header)) {
+                writeHeader(ps);
+            }
+            BinaryProofFormat.writeHeader(data, header.toString());
+
+            if (saveProofSteps) {
+                final Appendable steps =
+                    new BinaryProofFormat.TextReader(new BinaryProofFormat.Encoder(data));
+                steps.append(writeLog());
+                steps.append("(autoModeTime \"" + proof.getAutoModeTime() + "\")\n");
+                node2Proof(proof.root(), steps);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
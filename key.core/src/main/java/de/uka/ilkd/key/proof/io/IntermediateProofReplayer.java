@@ -22,6 +22,7 @@ import de.uka.ilkd.key.logic.sort.Sort;
 import de.uka.ilkd.key.parser.DefaultTermParser;
 import de.uka.ilkd.key.parser.ParserException;
 import de.uka.ilkd.key.pp.AbbrevMap;
+import de.uka.ilkd.key.proof.DeferredReplay;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
@@ -74,6 +75,17 @@ import static de.uka.ilkd.key.util.mergerule.MergeRuleUtils.sequentToSETriple;
  * {@link #replay(ProblemInitializer.ProblemInitializerListener, ProgressMonitor)}. In the course of
  * replaying, new nodes are added to the supplied proof object. The last goal touched during replay
  * can be obtained by {@link #getLastSelectedGoal()}.
+ * <p>
+ *
+ * In lazy mode (see {@link #setLazy(boolean)}, enabled by default if the system property
+ * {@value #LAZY_PROPERTY} is <code>true</code>), only the first branch of every branching rule
+ * is replayed. The other branches remain open goals until they are replayed by
+ * {@link #replayBranch(Node)}, {@link #replayDeferred(ImmutableList, List)} or
+ * {@link #replayAll()}. As long as there are such deferred branches, the replayer is registered at
+ * the proof as {@link DeferredReplay} (see {@link Proof#lookup(Class)}), so that they can be
+ * replayed when they are opened. The prover replays them before it works on their goals, and so
+ * does the saver. Note that the serial numbers of the nodes depend on the order in which branches
+ * are replayed.
  *
  * TODO: Check if joining with more than one partner works out of the box. Potential problem:
  * Different order may result in syntactically different nodes.
@@ -82,7 +94,7 @@ import static de.uka.ilkd.key.util.mergerule.MergeRuleUtils.sequentToSETriple;
  *
  * @author Dominic Scheurer
  */
-public class IntermediateProofReplayer {
+public class IntermediateProofReplayer implements DeferredReplay {
     /**
      * Set as {@link #getStatus()} if the proof contains SMT steps that didn't reload successfully.
      * Usually occurs if the timeout is set too low.
@@ -90,6 +102,9 @@ public class IntermediateProofReplayer {
     public static final String SMT_NOT_RUN =
         "Your proof has been loaded, but SMT solvers have not been run";
 
+    /** System property enabling the lazy mode by default */
+    public static final String LAZY_PROPERTY = "key.replay.lazy";
+
     private static final String ERROR_LOADING_PROOF_LINE = "Error loading proof.\n";
     private static final String NOT_APPLICABLE =
         " not available or not applicable in this context.";
@@ -110,6 +125,12 @@ public class IntermediateProofReplayer {
     private final LinkedList<Pair<Node, NodeIntermediate>> queue =
         new LinkedList<>();
 
+    /** Stores branches whose replay has been deferred (lazy mode) by their open nodes */
+    private final Map<Node, NodeIntermediate> deferred = new LinkedHashMap<>();
+
+    /** Whether the replay of all but the first branch of a branching rule is deferred */
+    private boolean lazy = Boolean.getBoolean(LAZY_PROPERTY);
+
     /** Maps join node IDs to previously seen join partners */
     private final HashMap<Integer, HashSet<Triple<Node, PosInOccurrence, NodeIntermediate>>> joinPartnerNodes =
         new HashMap<>();
@@ -147,6 +168,127 @@ public class IntermediateProofReplayer {
         this.loader = loader;
     }
 
+    /**
+     * Sets whether the replay of all but the first branch of a branching rule is deferred until
+     * the branch is opened.
+     *
+     * @param lazy true to enable the lazy mode
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /**
+     * @return true iff the replay of all but the first branch of a branching rule is deferred
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * @param node a node of the proof
+     * @return true iff the node is the open node of a branch whose replay has been deferred
+     */
+    @Override
+    public synchronized boolean isDeferred(Node node) {
+        return deferred.containsKey(node);
+    }
+
+    /**
+     * Replays a branch whose replay has been deferred. In lazy mode, the replay of its own branches
+     * (but the first) is deferred again.
+     *
+     * @param node the open node of the branch
+     * @return result of the replay procedure, containing only the errors of this branch, null if
+     *         the replay of the branch was not deferred
+     */
+    public synchronized Result replayBranch(Node node) {
+        final NodeIntermediate interm = deferred.remove(node);
+        if (interm == null || proof.getOpenGoal(node) == null) {
+            // not deferred or pruned in the meantime
+            return null;
+        }
+        queue.add(new Pair<>(node, interm));
+        final int knownErrors = errors.size();
+        status = "";
+        final Result result = replay(null, null);
+        return new Result(status, new ArrayList<>(errors.subList(knownErrors, errors.size())),
+            result.getLastSelectedGoal());
+    }
+
+    @Override
+    public synchronized boolean replayBranch(Node node, List<Throwable> replayErrors) {
+        final Result replayed = replayBranch(node);
+        if (replayed == null) {
+            return false;
+        }
+        replayErrors.addAll(replayed.getErrors());
+        return true;
+    }
+
+    @Override
+    public synchronized ImmutableList<Goal> replayDeferred(ImmutableList<Goal> goals,
+            List<Throwable> replayErrors) {
+        final boolean wasLazy = lazy;
+        lazy = false;
+        try {
+            ImmutableList<Goal> result = ImmutableSLList.nil();
+            for (Goal goal : goals) {
+                final Node node = goal.node();
+                if (replayBranch(node, replayErrors)) {
+                    result = result.append(proof.getSubtreeEnabledGoals(node));
+                } else {
+                    result = result.append(goal);
+                }
+            }
+            return result;
+        } finally {
+            lazy = wasLazy;
+        }
+    }
+
+    /**
+     * Completely replays all deferred branches, e.g. before the proof is saved.
+     *
+     * @return result of the replay procedure, containing the errors of all replayed branches
+     */
+    public synchronized Result replayAll() {
+        final boolean wasLazy = lazy;
+        lazy = false;
+        String replayStatus = "";
+        final List<Throwable> replayErrors = new ArrayList<>();
+        Goal lastGoal = null;
+        try {
+            for (Node node : new ArrayList<>(deferred.keySet())) {
+                final Result replayed = replayBranch(node);
+                if (replayed != null) {
+                    if (!replayed.getStatus().isEmpty()) {
+                        replayStatus = replayed.getStatus();
+                    }
+                    replayErrors.addAll(replayed.getErrors());
+                    lastGoal = replayed.getLastSelectedGoal();
+                }
+            }
+        } finally {
+            lazy = wasLazy;
+        }
+        return new Result(replayStatus, replayErrors, lastGoal);
+    }
+
+    @Override
+    public void replayAll(List<Throwable> replayErrors) {
+        replayErrors.addAll(replayAll().getErrors());
+    }
+
+    @Override
+    public ProblemLoaderException replayFailure(List<Throwable> replayErrors) {
+        return new ProblemLoaderException(null,
+            "Deferred branches of the proof could only be replayed partially.\n" + "In summary "
+                + replayErrors.size() + " not loadable rule application(s) have been detected.\n"
+                + "The first one:\n" + replayErrors.get(0).getMessage(),
+            replayErrors.get(0));
+    }
+
     /**
      * @return the lastSelectedGoal
      */
@@ -277,7 +419,15 @@ public class IntermediateProofReplayer {
                                 // this will result in non-termination.
 
                                 if (queue.isEmpty()) {
-                                    continue;
+                                    if (deferred.isEmpty()) {
+                                        continue;
+                                    }
+                                    // the partners may be in deferred branches
+                                    for (Map.Entry<Node, NodeIntermediate> e : deferred
+                                            .entrySet()) {
+                                        queue.add(new Pair<>(e.getKey(), e.getValue()));
+                                    }
+                                    deferred.clear();
                                 }
 
                                 // Wait until all partners are found: Add node
@@ -374,6 +524,11 @@ public class IntermediateProofReplayer {
         if (listener != null && progressMonitor != null) {
             progressMonitor.setProgress(max);
         }
+        if (deferred.isEmpty()) {
+            proof.deregister(this, DeferredReplay.class);
+        } else if (proof.lookup(DeferredReplay.class) != this) {
+            proof.register(this, DeferredReplay.class);
+        }
         LOGGER.debug("Proof replay took " + PerfScope.formatTime(System.nanoTime() - time));
         return new Result(status, errors, currGoal);
     }
@@ -383,7 +538,8 @@ public class IntermediateProofReplayer {
      * they are added in the order they were parsed. For the future, it may be sensible to choose a
      * different procedure, for instance one that minimizes the number of open goals per time
      * interval to save memory. Note that in this case, some test cases might be adapted which
-     * depend on fixed node serial numbers.
+     * depend on fixed node serial numbers. In lazy mode, only the first child is added to the
+     * queue, the other ones are deferred.
      *
      * @param children Iterator of proof node children.
      * @param intermChildren List of corresponding intermediate children.
@@ -400,7 +556,16 @@ public class IntermediateProofReplayer {
 
             Node child = children.next();
             if (!proof.getOpenGoal(child).isLinked()) {
-                queue.add(i, new Pair<>(child, intermChildren.get(i++)));
+                if (lazy && i > 0) {
+                    final NodeIntermediate intermChild = intermChildren.get(i++);
+                    if (intermChild instanceof BranchNodeIntermediate) {
+                        child.getNodeInfo().setBranchLabel(
+                            ((BranchNodeIntermediate) intermChild).getBranchTitle());
+                    }
+                    deferred.put(child, intermChild);
+                } else {
+                    queue.add(i, new Pair<>(child, intermChildren.get(i++)));
+                }
             }
         }
     }
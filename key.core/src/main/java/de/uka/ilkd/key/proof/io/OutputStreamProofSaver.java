@@ -22,6 +22,7 @@ import de.uka.ilkd.key.logic.sort.Sort;
 import de.uka.ilkd.key.pp.LogicPrinter;
 import de.uka.ilkd.key.pp.NotationInfo;
 import de.uka.ilkd.key.pp.PrettyPrinter;
+import de.uka.ilkd.key.proof.DeferredReplay;
 import de.uka.ilkd.key.proof.NameRecorder;
 import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
@@ -152,70 +153,9 @@ public class OutputStreamProofSaver {
     }
 
     public void save(OutputStream out) throws IOException {
-        proof.copyCachedGoals(null, null, null);
+        completeProof();
         try (var ps = new PrintWriter(out, true, StandardCharsets.UTF_8)) {
-            final ProofOblInput po =
-                proof.getServices().getSpecificationRepository().getProofOblInput(proof);
-            LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
-
-            // profile
-            ps.println(writeProfile(proof.getServices().getProfile()));
-
-            // settings
-            final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
-            final StrategyProperties strategyProperties =
-                strategySettings.getActiveStrategyProperties();
-            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_TRUE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-                for (final SequentFormula s : proof.root().sequent().succedent().asList()) {
-                    ((InfFlowProof) proof).addLabeledTotalTerm(s.formula());
-                }
-            } else {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-            }
-            ps.println(writeSettings(proof.getSettings()));
-
-            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
-                    StrategyProperties.INF_FLOW_CHECK_FALSE);
-                strategySettings.setActiveStrategyProperties(strategyProperties);
-            }
-
-            // declarations of symbols, sorts
-            String header = proof.header();
-            header = makePathsRelative(header);
-            ps.print(header);
-
-            // \problem or \proofObligation
-            if (po instanceof IPersistablePO
-                    && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
-                            && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
-                final Properties properties = new Properties();
-                ((IPersistablePO) po).fillSaveProperties(properties);
-                try (StringWriter writer = new StringWriter()) {
-                    properties.store(writer, "Proof Obligation Settings");
-                    ps.println(
-                        "\\proofObligation \"" + escapeCharacters(writer.toString()) + "\";\n");
-                }
-            } else {
-                if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
-                        || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
-                    final Properties properties = new Properties();
-                    ((IPersistablePO) po).fillSaveProperties(properties);
-                    ps.print(((InfFlowProof) proof).printIFSymbols());
-                }
-                final Sequent problemSeq = proof.root().sequent();
-                ps.println("\\problem {");
-                printer.printSemisequent(problemSeq.succedent());
-                ps.println(printer.result());
-                ps.println("}\n");
-            }
+            writeHeader(ps);
 
             if (saveProofSteps) {
                 // \proof
@@ -228,6 +168,99 @@ public class OutputStreamProofSaver {
         }
     }
 
+    /**
+     * Adds the steps to the proof tree which are not part of it yet, but have to be saved: the
+     * branches whose replay has been deferred and the steps of branches closed by reference to
+     * another proof.
+     *
+     * @throws IOException if a deferred branch could not be replayed completely, since the proof
+     *         would be saved truncated. The branches are replayed as far as possible, so saving
+     *         again writes the proof as it is now, like saving a partially loaded proof.
+     */
+    protected void completeProof() throws IOException {
+        final DeferredReplay replay = proof.lookup(DeferredReplay.class);
+        if (replay != null) {
+            final List<Throwable> replayErrors = new ArrayList<>();
+            replay.replayAll(replayErrors);
+            if (!replayErrors.isEmpty()) {
+                final Exception failure = replay.replayFailure(replayErrors);
+                throw new IOException("The proof was not saved. " + failure.getMessage(), failure);
+            }
+        }
+        proof.copyCachedGoals(null, null, null);
+    }
+
+    /**
+     * Writes everything but the proof steps: profile, settings, declarations and the problem or
+     * proof obligation.
+     *
+     * @param ps the writer to write to
+     * @throws IOException if writing fails
+     */
+    protected void writeHeader(PrintWriter ps) throws IOException {
+        final ProofOblInput po =
+            proof.getServices().getSpecificationRepository().getProofOblInput(proof);
+        LogicPrinter printer = createLogicPrinter(proof.getServices(), false);
+
+        // profile
+        ps.println(writeProfile(proof.getServices().getProfile()));
+
+        // settings
+        final StrategySettings strategySettings = proof.getSettings().getStrategySettings();
+        final StrategyProperties strategyProperties =
+            strategySettings.getActiveStrategyProperties();
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_TRUE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+            for (final SequentFormula s : proof.root().sequent().succedent().asList()) {
+                ((InfFlowProof) proof).addLabeledTotalTerm(s.formula());
+            }
+        } else {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+        ps.println(writeSettings(proof.getSettings()));
+
+        if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+            strategyProperties.put(StrategyProperties.INF_FLOW_CHECK_PROPERTY,
+                StrategyProperties.INF_FLOW_CHECK_FALSE);
+            strategySettings.setActiveStrategyProperties(strategyProperties);
+        }
+
+        // declarations of symbols, sorts
+        String header = proof.header();
+        header = makePathsRelative(header);
+        ps.print(header);
+
+        // \problem or \proofObligation
+        if (po instanceof IPersistablePO
+                && (!(po instanceof AbstractInfFlowPO) || (!(po instanceof InfFlowCompositePO)
+                        && ((InfFlowProof) proof).getIFSymbols().isFreshContract()))) {
+            final Properties properties = new Properties();
+            ((IPersistablePO) po).fillSaveProperties(properties);
+            try (StringWriter writer = new StringWriter()) {
+                properties.store(writer, "Proof Obligation Settings");
+                ps.println("\\proofObligation \"" + escapeCharacters(writer.toString()) + "\";\n");
+            }
+        } else {
+            if (po instanceof AbstractInfFlowPO && (po instanceof InfFlowCompositePO
+                    || !((InfFlowProof) proof).getIFSymbols().isFreshContract())) {
+                final Properties properties = new Properties();
+                ((IPersistablePO) po).fillSaveProperties(properties);
+                ps.print(((InfFlowProof) proof).printIFSymbols());
+            }
+            final Sequent problemSeq = proof.root().sequent();
+            ps.println("\\problem {");
+            printer.printSemisequent(problemSeq.succedent());
+            ps.println(printer.result());
+            ps.println("}\n");
+        }
+    }
+
     protected String getBasePath() throws IOException {
         File javaSourceLocation = getJavaSourceLocation(proof);
         if (javaSourceLocation != null) {
@@ -579,7 +612,7 @@ public class OutputStreamProofSaver {
      * @param output the writer in which the rule(s) is /are printed
      * @throws IOException an exception thrown when printing fails
      */
-    private void printSingleNode(Node node, String prefix, Appendable output) throws IOException {
+    void printSingleNode(Node node, String prefix, Appendable output) throws IOException {
         final RuleApp appliedRuleApp = node.getAppliedRuleApp();
         if (appliedRuleApp == null && (proof.getOpenGoal(node) != null)) {
             // open goal
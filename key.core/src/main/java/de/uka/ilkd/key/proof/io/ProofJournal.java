@@ -0,0 +1,336 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.ProofEvent;
+import de.uka.ilkd.key.proof.ProofTreeEvent;
+import de.uka.ilkd.key.proof.ProofTreeListener;
+import de.uka.ilkd.key.proof.RuleAppListener;
+
+/**
+ * An append-only record of the changes of a proof tree. Other than saving the proof, which prints
+ * the whole tree, a {@link #checkpoint()} only appends the rule applications and prunings since
+ * the previous checkpoint. The journal is self-contained: it starts with the header of the proof
+ * file (see {@link OutputStreamProofSaver#writeHeader(PrintWriter)}), and {@link #recover(Reader,
+ * Writer)} turns it into an ordinary proof file, e.g. after a crash.
+ * <p>
+ * Entries of the journal consist of a line and, for the header and nodes, the number of
+ * characters given in that line:
+ * </p>
+ * <ul>
+ * <li><code>header &lt;root&gt; &lt;length&gt;</code>: the header of the proof file, where
+ * <code>root</code> is the serial number of the root node.</li>
+ * <li><code>node &lt;serial&gt; &lt;children&gt; &lt;length&gt;</code>: the rule applied to a node
+ * as printed in proof files, the serial numbers of its children are separated by commas (or
+ * <code>-</code> if there are none). A later entry for the same node replaces an earlier one.</li>
+ * <li><code>label &lt;serial&gt; &lt;length&gt;</code>: the branch label of a node, written along
+ * with the entry of its parent for every child that has a label.</li>
+ * <li><code>prune &lt;serial&gt;</code>: the subtree below the node has been pruned.</li>
+ * </ul>
+ * <p>
+ * Once the number of entries written since the last compaction exceeds
+ * {@value #COMPACTION_FACTOR} times the number of entries written by it, the journal is
+ * compacted, i.e., rewritten with one entry per node of the current proof tree. Goals closed by
+ * reference to another proof are recorded as open.
+ * </p>
+ */
+public class ProofJournal implements RuleAppListener, ProofTreeListener {
+    /** the file extension of journals */
+    public static final String EXTENSION = ".journal";
+
+    /** ratio of appended entries to entries of the last compaction which triggers a compaction */
+    static final int COMPACTION_FACTOR = 2;
+
+    /** the minimum number of appended entries before a compaction */
+    private static final int MIN_ENTRIES = 1024;
+
+    private static final String HEADER = "header";
+    private static final String NODE = "node";
+    private static final String LABEL = "label";
+    private static final String PRUNE = "prune";
+
+    private final Proof proof;
+    private final File file;
+    private final OutputStreamProofSaver saver;
+
+    /**
+     * The nodes to which rules have been applied (<code>true</code>) or below which the proof has
+     * been pruned (<code>false</code>) since the last checkpoint, in order.
+     */
+    private final List<Map.Entry<Node, Boolean>> changes = new ArrayList<>();
+
+    private Writer out;
+
+    /** number of entries written by the last compaction */
+    private int compacted;
+
+    /** number of entries appended since the last compaction */
+    private int appended;
+
+    /**
+     * Creates a journal for the given proof, which starts with the current proof tree, and
+     * registers it as a listener of the proof.
+     *
+     * @param proof the proof to record
+     * @param file the file to write the journal to, an existing file is overwritten
+     * @throws IOException if the journal cannot be written
+     */
+    public ProofJournal(Proof proof, File file) throws IOException {
+        this.proof = proof;
+        this.file = file;
+        this.saver = new ProofSaver(proof, file);
+        compact();
+        proof.addRuleAppListener(this);
+        proof.addProofTreeListener(this);
+    }
+
+    /**
+     * @return the recorded proof
+     */
+    public Proof getProof() {
+        return proof;
+    }
+
+    /**
+     * @return the file of the journal
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void ruleApplied(ProofEvent e) {
+        changes.add(Map.entry(e.getRuleAppInfo().getOriginalNode(), true));
+    }
+
+    @Override
+    public synchronized void proofPruned(ProofTreeEvent e) {
+        changes.add(Map.entry(e.getNode(), false));
+    }
+
+    /**
+     * Appends the changes since the last checkpoint to the journal, compacting it if it has
+     * become too large.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void checkpoint() throws IOException {
+        for (Map.Entry<Node, Boolean> change : changes) {
+            if (!change.getValue()) {
+                out.write(PRUNE + " " + change.getKey().serialNr() + "\n");
+                appended++;
+            } else if (change.getKey().getAppliedRuleApp() != null) {
+                // otherwise, it has been pruned in the meantime
+                writeNode(change.getKey());
+                appended++;
+            }
+        }
+        changes.clear();
+        out.flush();
+        if (appended > MIN_ENTRIES && appended > COMPACTION_FACTOR * compacted) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the journal with one entry per node of the current proof tree.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void compact() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+        final File tmp = new File(file.getPath() + ".tmp");
+        try (Writer w = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            out = w;
+            final StringWriter header = new StringWriter();
+            try (PrintWriter ps = new PrintWriter(header)) {
+                saver.writeHeader(ps);
+            }
+            out.write(HEADER + " " + proof.root().serialNr() + " " + header.getBuffer().length()
+                + "\n");
+            out.write(header.toString());
+            compacted = 0;
+            final Iterator<Node> it = proof.root().subtreeIterator();
+            while (it.hasNext()) {
+                final Node node = it.next();
+                if (node.getAppliedRuleApp() != null) {
+                    writeNode(node);
+                    compacted++;
+                }
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        appended = 0;
+        changes.clear();
+        out = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    }
+
+    private void writeNode(Node node) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        saver.printSingleNode(node, "", text);
+        final StringBuilder children = new StringBuilder();
+        for (int i = 0; i < node.childrenCount(); i++) {
+            if (i > 0) {
+                children.append(',');
+            }
+            children.append(node.child(i).serialNr());
+        }
+        out.write(NODE + " " + node.serialNr() + " "
+            + (children.length() == 0 ? "-" : children.toString()) + " " + text.length() + "\n");
+        out.write(text.toString());
+        for (int i = 0; i < node.childrenCount(); i++) {
+            final Node child = node.child(i);
+            final String branchLabel = child.getNodeInfo().getBranchLabel();
+            if (branchLabel != null) {
+                out.write(LABEL + " " + child.serialNr() + " " + branchLabel.length() + "\n");
+                out.write(branchLabel);
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining changes and stops recording the proof.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void close() throws IOException {
+        proof.removeRuleAppListener(this);
+        proof.removeProofTreeListener(this);
+        try {
+            checkpoint();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Turns a journal into a proof file. An incomplete last entry, e.g. of a crashed run, is
+     * ignored. Paths in the header are relative to the directory of the journal.
+     *
+     * @param journal the journal to read
+     * @param proofFile the writer of the proof file
+     * @throws IOException if reading or writing fails or the journal is malformed
+     */
+    public static void recover(Reader journal, Writer proofFile) throws IOException {
+        final BufferedReader in = new BufferedReader(journal);
+        final Map<Integer, int[]> children = new HashMap<>();
+        final Map<Integer, String> texts = new HashMap<>();
+        final Map<Integer, String> labels = new HashMap<>();
+        String header = null;
+        int root = -1;
+        String line;
+        try {
+            while ((line = in.readLine()) != null) {
+                final String[] parts = line.split(" ");
+                if (HEADER.equals(parts[0]) && parts.length == 3 && header == null) {
+                    root = Integer.parseInt(parts[1]);
+                    header = read(in, Integer.parseInt(parts[2]));
+                    if (header == null) {
+                        break;
+                    }
+                } else if (NODE.equals(parts[0]) && parts.length == 4) {
+                    final String text = read(in, Integer.parseInt(parts[3]));
+                    if (text == null) {
+                        break;
+                    }
+                    final int serial = Integer.parseInt(parts[1]);
+                    texts.put(serial, text);
+                    children.put(serial, "-".equals(parts[2]) ? new int[0]
+                            : Arrays.stream(parts[2].split(","))
+                                    .mapToInt(Integer::parseInt).toArray());
+                } else if (LABEL.equals(parts[0]) && parts.length == 3) {
+                    final String label = read(in, Integer.parseInt(parts[2]));
+                    if (label == null) {
+                        break;
+                    }
+                    labels.put(Integer.parseInt(parts[1]), label);
+                } else if (PRUNE.equals(parts[0]) && parts.length == 2) {
+                    texts.remove(Integer.parseInt(parts[1]));
+                } else {
+                    in.mark(1);
+                    if (in.read() < 0) {
+                        // the last line has been written incompletely
+                        break;
+                    }
+                    throw new IOException("Malformed journal entry: " + line);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed journal", e);
+        }
+        if (header == null) {
+            throw new IOException("Journal without header");
+        }
+        proofFile.write(header);
+        proofFile.write("\n\\proof {\n(branch \"dummy ID\"\n");
+        recover(root, "", children, texts, labels, proofFile);
+        proofFile.write(")\n}\n");
+        proofFile.flush();
+    }
+
+    /**
+     * Writes the steps of a subtree like {@link OutputStreamProofSaver#node2Proof(Node,
+     * Appendable)}.
+     */
+    private static void recover(int serial, String prefix, Map<Integer, int[]> children,
+            Map<Integer, String> texts, Map<Integer, String> labels, Writer out)
+            throws IOException {
+        String text = texts.get(serial);
+        while (text != null) {
+            out.write(prefix);
+            out.write(text);
+            final int[] next = children.get(serial);
+            if (next.length == 1) {
+                serial = next[0];
+                text = texts.get(serial);
+            } else {
+                for (int child : next) {
+                    final String branchLabel = labels.get(child);
+                    if (branchLabel == null) {
+                        out.write(prefix + "(branch\n");
+                    } else {
+                        out.write(prefix + "(branch \""
+                            + OutputStreamProofSaver.escapeCharacters(branchLabel) + "\"\n");
+                    }
+                    recover(child, prefix + "   ", children, texts, labels, out);
+                    out.write(prefix + ")\n");
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the next <code>length</code> characters, null if the reader ends before
+     */
+    private static String read(Reader in, int length) throws IOException {
+        final char[] buffer = new char[length];
+        int read = 0;
+        while (read < length) {
+            final int n = in.read(buffer, read, length - read);
+            if (n < 0) {
+                return null;
+            }
+            read += n;
+        }
+        return new String(buffer);
+    }
+}
@@ -46,14 +46,16 @@ public class RuleSourceFactory {
     }
 
     /**
-     * Initialise this object from a file
+     * Initialise this object from a file. Binary proofs are recognized by their file extension.
      *
      * @param file the non-<code>null</code> file reference
      * @param compressed <code>true</code> iff the file is gzip-compressed
      * @return the rule source read from the file.
      */
     public static RuleSource initRuleFile(final File file, boolean compressed) {
-        if (compressed) {
+        if (file.getName().endsWith(BinaryProofFormat.EXTENSION)) {
+            return new BinaryProofRuleSource(file);
+        } else if (compressed) {
             return new GZipFileRuleSource(file);
         } else {
             return new FileRuleSource(file);
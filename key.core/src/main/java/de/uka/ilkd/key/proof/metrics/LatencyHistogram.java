@@ -0,0 +1,129 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of durations in nanoseconds with logarithmic buckets.
+ * <p>
+ * Every power of two is divided into {@value #SUB_BUCKETS} linear sub buckets, so a percentile is
+ * reported with a relative error of at most 12.5%. Recording is wait free and does not allocate.
+ * </p>
+ */
+public final class LatencyHistogram {
+    /** number of bits used for the sub bucket of a value */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** number of linear sub buckets per power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** number of buckets needed to cover all non negative long values */
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * @return the number of recorded durations
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of all recorded durations in nanoseconds
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the longest recorded duration in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the recorded durations. The result is
+     * exact for durations below {@value #SUB_BUCKETS} nanoseconds and never exceeds {@link #max()}.
+     *
+     * @param quantile the percentile as value between 0 and 1, e.g., 0.99
+     * @return the percentile in nanoseconds, 0 if nothing has been recorded
+     */
+    public long percentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile out of range: " + quantile);
+        }
+        long total = 0;
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Removes all recorded durations. Concurrently recorded durations may get lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
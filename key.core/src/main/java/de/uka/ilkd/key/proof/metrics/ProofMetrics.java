@@ -0,0 +1,349 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.Rule;
+import de.uka.ilkd.key.rule.RuleSet;
+import de.uka.ilkd.key.rule.Taclet;
+
+import org.key_project.util.collection.ImmutableList;
+
+/**
+ * Performance metrics of a single {@link Proof}: the time spent in the phases of rule application
+ * and index maintenance (see {@link Phase}) and the latency distribution of rule applications,
+ * overall and per rule set.
+ * <p>
+ * Metrics are collected only if enabled, either for all proofs by the system property
+ * {@value #ENABLED_PROPERTY} or for a single proof by {@link Proof#setMetrics(ProofMetrics)}.
+ * Proofs without metrics use {@link #DISABLED}, whose methods return immediately, in particular
+ * without reading the clock. Instrumented code therefore follows the pattern
+ * </p>
+ *
+ * <pre>
+ * final long start = metrics.start();
+ * ...
+ * metrics.stop(Phase.GOAL_SET_SEQUENT, start);
+ * </pre>
+ * <p>
+ * All counters are {@link LongAdder}s resp. {@link LatencyHistogram}s, so metrics may be recorded
+ * concurrently, e.g., by parallel goal preparation.
+ * </p>
+ *
+ * @see ProofMetricsExporter
+ */
+public final class ProofMetrics {
+    /** system property enabling metrics for all proofs created afterwards */
+    public static final String ENABLED_PROPERTY = "key.metrics.enabled";
+
+    /** the registry of proofs without metrics, records nothing */
+    public static final ProofMetrics DISABLED = new ProofMetrics(false);
+
+    /** rule set name used for rules which are not taclets */
+    public static final String BUILT_IN_RULES = "builtin";
+
+    /** rule set name used for taclets without rule set */
+    public static final String NO_RULE_SET = "none";
+
+    /**
+     * The measured phases. Phases may be nested, e.g., {@link #TACLET_APP_EXECUTE} is part of
+     * {@link #RULE_APP_EXECUTE}.
+     */
+    public enum Phase {
+        /** a complete run of the automatic strategy */
+        STRATEGY("strategy", "Strategy run"),
+        /** a step of the automatic strategy, i.e., selection and application of a rule */
+        STRATEGY_STEP("strategy_step", "applyAutomaticRule"),
+        /** application of a rule by the automatic strategy */
+        GOAL_APPLY("goal_apply", "Goal apply"),
+        /** execution of a rule app including the update of the goals */
+        RULE_APP_EXECUTE("rule_app_execute", "RuleApp execute"),
+        /** update of a goal after its sequent has changed */
+        GOAL_SET_SEQUENT("goal_set_sequent", "Goal setSequent"),
+        /** update of the formula tag manager after a sequent change */
+        GOAL_UPDATE_TAG_MANAGER("goal_update_tag_manager", "Goal update tag manager"),
+        /** notification of the rule app index about a sequent change */
+        GOAL_UPDATE_RULE_APP_INDEX("goal_update_rule_app_index", "Goal update rule app index"),
+        /** notification of the goal listeners about a sequent change */
+        GOAL_UPDATE_LISTENERS("goal_update_listeners", "Goal update listeners"),
+        /** cost computation of the strategy */
+        STRATEGY_COMPUTE_COST("strategy_compute_cost", "JavaCardDLStrategy compute"),
+        /** approval of rule apps by the strategy */
+        STRATEGY_APPROVE("strategy_approve", "JavaCardDLStrategy approve"),
+        /** instantiation of rule apps by the strategy */
+        STRATEGY_INSTANTIATE("strategy_instantiate", "JavaCardDLStrategy instantiate"),
+        /** determination of the next rule app of a goal */
+        QUEUE_PEEK("queue_peek", "QueueRuleApplicationManager peek"),
+        /** operations on the rule app queue */
+        QUEUE_OPS("queue_ops", "QueueRuleApplicationManager queue ops"),
+        /** creation of rule app containers (including their costs) */
+        QUEUE_CREATE_CONTAINER("queue_create_container",
+            "QueueRuleApplicationManager create container"),
+        /** removal of formulas from a semisequent taclet app index */
+        SEMISEQUENT_INDEX_REMOVE("semisequent_index_remove",
+            "Semi Taclet app index update remove"),
+        /** update of modified formulas in a semisequent taclet app index */
+        SEMISEQUENT_INDEX_UPDATE("semisequent_index_update",
+            "Semi Taclet app index update update"),
+        /** addition of formulas to a semisequent taclet app index */
+        SEMISEQUENT_INDEX_ADD("semisequent_index_add", "Semi Taclet app index update add"),
+        /** incremental update of a taclet app index */
+        TACLET_INDEX_UPDATE("taclet_index_update", "Taclet app index update"),
+        /** creation of a taclet app index from scratch */
+        TACLET_INDEX_CREATE("taclet_index_create", "Taclet app index create all"),
+        /** incremental update of a built in rule app index */
+        BUILT_IN_INDEX_UPDATE("built_in_index_update", "Builtin app index update"),
+        /** creation of a built in rule app index from scratch */
+        BUILT_IN_INDEX_CREATE("built_in_index_create", "Builtin app index create all"),
+        /** execution of a taclet app */
+        TACLET_APP_EXECUTE("taclet_app_execute", "TacletApp execute"),
+        /** preparation of a taclet app before its execution */
+        TACLET_APP_PRE("taclet_app_pre", "TacletApp pre"),
+        /** application of a taclet without find expression */
+        NO_FIND_TACLET_APPLY("no_find_taclet_apply", "NoFindTacletExecutor apply"),
+        /** sequent updates of taclets without find expression */
+        NO_FIND_TACLET_SET_SEQUENT("no_find_taclet_set_sequent",
+            "NoFindTacletExecutor setSequent"),
+        /** term label refactorings of taclets without find expression */
+        NO_FIND_TACLET_TERM_LABELS("no_find_taclet_term_labels",
+            "NoFindTacletExecutor term labels"),
+        /** application of a taclet with find expression */
+        FIND_TACLET_APPLY("find_taclet_apply", "FindTacletExecutor apply"),
+        /** sequent updates of taclets with find expression */
+        FIND_TACLET_SET_SEQUENT("find_taclet_set_sequent", "FindTacletExecutor setSequent"),
+        /** term label refactorings of taclets with find expression */
+        FIND_TACLET_TERM_LABELS("find_taclet_term_labels", "FindTacletExecutor term labels"),
+        /** execution of a built in rule app */
+        BUILT_IN_APP_EXECUTE("built_in_app_execute", "AbstractBuiltInRuleApp execute");
+
+        private final String id;
+        private final String displayName;
+
+        Phase(String id, String displayName) {
+            this.id = id;
+            this.displayName = displayName;
+        }
+
+        /**
+         * @return the identifier used for export
+         */
+        public String id() {
+            return id;
+        }
+
+        /**
+         * @return a human readable name
+         */
+        public String displayName() {
+            return displayName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final boolean enabled;
+
+    private final LongAdder[] phaseTimes;
+
+    private final LongAdder[] phaseCounts;
+
+    /** latencies of all rule applications */
+    private final LatencyHistogram ruleApplications;
+
+    /** latencies of rule applications per rule set name */
+    private final Map<String, LatencyHistogram> ruleSets;
+
+    /** the rule set histograms a rule contributes to */
+    private final Map<Rule, LatencyHistogram[]> ruleSetsOfRule;
+
+    private ProofMetrics(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) {
+            phaseTimes = new LongAdder[PHASES.length];
+            phaseCounts = new LongAdder[PHASES.length];
+            for (int i = 0; i < PHASES.length; i++) {
+                phaseTimes[i] = new LongAdder();
+                phaseCounts[i] = new LongAdder();
+            }
+            ruleApplications = new LatencyHistogram();
+            ruleSets = new ConcurrentHashMap<>();
+            ruleSetsOfRule = new ConcurrentHashMap<>();
+        } else {
+            phaseTimes = null;
+            phaseCounts = null;
+            ruleApplications = null;
+            ruleSets = null;
+            ruleSetsOfRule = null;
+        }
+    }
+
+    /**
+     * @return a new registry collecting metrics
+     */
+    public static ProofMetrics create() {
+        return new ProofMetrics(true);
+    }
+
+    /**
+     * @return a new registry if metrics are enabled by {@value #ENABLED_PROPERTY}, otherwise
+     *         {@link #DISABLED}
+     */
+    public static ProofMetrics createDefault() {
+        return Boolean.getBoolean(ENABLED_PROPERTY) ? create() : DISABLED;
+    }
+
+    /**
+     * @param proof a proof, may be <code>null</code>
+     * @return the metrics of the proof or {@link #DISABLED} if <code>proof</code> is
+     *         <code>null</code>
+     */
+    public static ProofMetrics of(Proof proof) {
+        return proof == null ? DISABLED : proof.getMetrics();
+    }
+
+    /**
+     * @return true iff this registry collects metrics
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a measurement.
+     *
+     * @return the start time to be passed to {@link #stop(Phase, long)}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Finishes the measurement of a phase started by {@link #start()}.
+     *
+     * @param phase the measured phase
+     * @param start the result of {@link #start()}
+     */
+    public void stop(Phase phase, long start) {
+        if (enabled) {
+            add(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds the given duration to a phase.
+     *
+     * @param phase the phase
+     * @param nanos the duration in nanoseconds
+     */
+    public void add(Phase phase, long nanos) {
+        if (enabled) {
+            phaseTimes[phase.ordinal()].add(nanos);
+            phaseCounts[phase.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Finishes the measurement of a rule application started by {@link #start()}. The duration is
+     * recorded for all rule sets of the rule.
+     *
+     * @param rule the applied rule
+     * @param start the result of {@link #start()}
+     */
+    public void ruleApplied(Rule rule, long start) {
+        if (enabled) {
+            final long nanos = System.nanoTime() - start;
+            add(Phase.RULE_APP_EXECUTE, nanos);
+            ruleApplications.record(nanos);
+            for (LatencyHistogram histogram : ruleSetsOfRule.computeIfAbsent(rule,
+                this::ruleSetHistograms)) {
+                histogram.record(nanos);
+            }
+        }
+    }
+
+    private LatencyHistogram[] ruleSetHistograms(Rule rule) {
+        if (!(rule instanceof Taclet)) {
+            return new LatencyHistogram[] { ruleSet(BUILT_IN_RULES) };
+        }
+        final ImmutableList<RuleSet> sets = ((Taclet) rule).getRuleSets();
+        if (sets.isEmpty()) {
+            return new LatencyHistogram[] { ruleSet(NO_RULE_SET) };
+        }
+        final LatencyHistogram[] result = new LatencyHistogram[sets.size()];
+        int i = 0;
+        for (RuleSet set : sets) {
+            result[i++] = ruleSet(set.name().toString());
+        }
+        return result;
+    }
+
+    private LatencyHistogram ruleSet(String name) {
+        return ruleSets.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /**
+     * @param phase a phase
+     * @return the total time spent in the phase in nanoseconds
+     */
+    public long time(Phase phase) {
+        return enabled ? phaseTimes[phase.ordinal()].sum() : 0;
+    }
+
+    /**
+     * @param phase a phase
+     * @return the number of measurements of the phase
+     */
+    public long count(Phase phase) {
+        return enabled ? phaseCounts[phase.ordinal()].sum() : 0;
+    }
+
+    /**
+     * @return the number of rules applied per second by the automatic strategy, 0 if the strategy
+     *         has not been run
+     */
+    public double ruleApplicationRate() {
+        final long time = time(Phase.STRATEGY);
+        return time == 0 ? 0 : count(Phase.GOAL_APPLY) * 1e9 / time;
+    }
+
+    /**
+     * @return the latencies of all rule applications, <code>null</code> if disabled
+     */
+    public LatencyHistogram getRuleApplications() {
+        return ruleApplications;
+    }
+
+    /**
+     * @return the latencies of rule applications per rule set, sorted by name. A taclet
+     *         belonging to several rule sets is recorded for each of them; rules which are not
+     *         taclets are recorded as {@value #BUILT_IN_RULES}.
+     */
+    public Map<String, LatencyHistogram> getRuleSets() {
+        final Map<String, LatencyHistogram> result = new TreeMap<>();
+        if (enabled) {
+            result.putAll(ruleSets);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all collected metrics.
+     */
+    public void reset() {
+        if (enabled) {
+            for (int i = 0; i < PHASES.length; i++) {
+                phaseTimes[i].reset();
+                phaseCounts[i].reset();
+            }
+            ruleApplications.reset();
+            ruleSets.clear();
+            ruleSetsOfRule.clear();
+        }
+    }
+}
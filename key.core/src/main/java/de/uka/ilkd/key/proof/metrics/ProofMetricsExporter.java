@@ -0,0 +1,179 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
+
+/**
+ * Exports {@link ProofMetrics} as JSON or in the text exposition format of Prometheus. Durations
+ * are given in nanoseconds in JSON and in seconds in the Prometheus format, as required by its
+ * naming conventions.
+ */
+public final class ProofMetricsExporter {
+    /** the exported percentiles */
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    private ProofMetricsExporter() {
+    }
+
+    /**
+     * Exports the metrics of a proof as JSON object.
+     *
+     * @param proofName the name of the proof
+     * @param metrics the metrics
+     * @return the JSON text
+     */
+    public static String toJson(String proofName, ProofMetrics metrics) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"proof\":");
+        jsonString(sb, proofName);
+        sb.append(",\"enabled\":").append(metrics.isEnabled());
+        sb.append(",\"ruleApplicationsPerSecond\":")
+                .append(String.format(Locale.ROOT, "%.3f", metrics.ruleApplicationRate()));
+
+        sb.append(",\"phases\":{");
+        boolean first = true;
+        for (Phase phase : Phase.values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            jsonString(sb, phase.id());
+            sb.append(":{\"count\":").append(metrics.count(phase)).append(",\"nanos\":")
+                    .append(metrics.time(phase)).append('}');
+        }
+        sb.append('}');
+
+        if (metrics.isEnabled()) {
+            sb.append(",\"ruleApplications\":");
+            jsonHistogram(sb, metrics.getRuleApplications());
+            sb.append(",\"ruleSets\":{");
+            first = true;
+            for (Map.Entry<String, LatencyHistogram> entry : metrics.getRuleSets().entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                jsonString(sb, entry.getKey());
+                sb.append(':');
+                jsonHistogram(sb, entry.getValue());
+            }
+            sb.append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Exports the metrics of a proof in the Prometheus text format. All samples are labeled with
+     * the name of the proof.
+     *
+     * @param proofName the name of the proof
+     * @param metrics the metrics
+     * @return the exposition text
+     */
+    public static String toPrometheus(String proofName, ProofMetrics metrics) {
+        final StringBuilder sb = new StringBuilder();
+        final String proofLabel = "proof=\"" + escapeLabel(proofName) + "\"";
+
+        header(sb, "key_phase_seconds_total", "counter", "Time spent in a prover phase.");
+        for (Phase phase : Phase.values()) {
+            sample(sb, "key_phase_seconds_total",
+                proofLabel + ",phase=\"" + phase.id() + "\"", seconds(metrics.time(phase)));
+        }
+        header(sb, "key_phase_calls_total", "counter", "Number of executions of a prover phase.");
+        for (Phase phase : Phase.values()) {
+            sample(sb, "key_phase_calls_total", proofLabel + ",phase=\"" + phase.id() + "\"",
+                Long.toString(metrics.count(phase)));
+        }
+        header(sb, "key_rule_applications_per_second", "gauge",
+            "Rules applied per second by the automatic strategy.");
+        sample(sb, "key_rule_applications_per_second", proofLabel,
+            String.format(Locale.ROOT, "%.3f", metrics.ruleApplicationRate()));
+
+        if (metrics.isEnabled()) {
+            header(sb, "key_rule_application_seconds", "summary",
+                "Duration of rule applications.");
+            summary(sb, "key_rule_application_seconds", proofLabel,
+                metrics.getRuleApplications());
+            header(sb, "key_rule_set_application_seconds", "summary",
+                "Duration of rule applications per rule set.");
+            for (Map.Entry<String, LatencyHistogram> entry : metrics.getRuleSets().entrySet()) {
+                summary(sb, "key_rule_set_application_seconds",
+                    proofLabel + ",rule_set=\"" + escapeLabel(entry.getKey()) + "\"",
+                    entry.getValue());
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void jsonHistogram(StringBuilder sb, LatencyHistogram histogram) {
+        sb.append("{\"count\":").append(histogram.count()).append(",\"nanos\":")
+                .append(histogram.sum());
+        for (double quantile : QUANTILES) {
+            sb.append(",\"p").append(quantileName(quantile)).append("\":")
+                    .append(histogram.percentile(quantile));
+        }
+        sb.append(",\"max\":").append(histogram.max()).append('}');
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels,
+            LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            sample(sb, name, labels + ",quantile=\"" + quantile + "\"",
+                seconds(histogram.percentile(quantile)));
+        }
+        sample(sb, name + "_sum", labels, seconds(histogram.sum()));
+        sample(sb, name + "_count", labels, Long.toString(histogram.count()));
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, String value) {
+        sb.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    /**
+     * @return e.g. "50" for 0.5 and "99" for 0.99
+     */
+    private static String quantileName(double quantile) {
+        final String digits = Double.toString(quantile).substring(2);
+        return digits.length() == 1 ? digits + "0" : digits;
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void jsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '"' -> sb.append("\\\"");
+            case '\\' -> sb.append("\\\\");
+            case '\n' -> sb.append("\\n");
+            case '\r' -> sb.append("\\r");
+            case '\t' -> sb.append("\\t");
+            default -> {
+                if (c < 0x20) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            }
+        }
+        sb.append('"');
+    }
+}
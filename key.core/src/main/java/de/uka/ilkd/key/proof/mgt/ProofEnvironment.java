@@ -8,6 +8,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import de.uka.ilkd.key.java.ServiceCaches;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.proof.JavaModel;
 import de.uka.ilkd.key.proof.Proof;
@@ -19,7 +20,8 @@ import de.uka.ilkd.key.proof.init.ProofOblInput;
  * The unique environment a proof is performed in. The environment consists of a java model,
  * specifications, and a set of justified rules. Since the starting point of the proofs contained in
  * the environment is equal, there is an InitConfig contained to be used to start proofs of this
- * environment.
+ * environment. The proofs started from copies of this InitConfig ({@link InitConfig#deepCopy()})
+ * share the environment-wide caches of its {@link Services}, see {@link ServiceCaches}.
  */
 public class ProofEnvironment {
 
@@ -0,0 +1,555 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import de.uka.ilkd.key.logic.Semisequent;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.Taclet;
+import de.uka.ilkd.key.rule.merge.CloseAfterMerge;
+
+import org.key_project.util.collection.ImmutableList;
+
+/**
+ * A cache of the closed branches of proofs, used to close new goals by reference
+ * (see {@link ClosedBy}).
+ * <p>
+ * A branch of a previous proof can be referenced if the sequent at its start is contained in
+ * the sequent of the new goal. For every proof, the start sequents of its closed branches are
+ * kept in an inverted index from formula fingerprints to branches, so a query only verifies the
+ * branches all of whose formulas occur in the new goal instead of comparing every branch. The
+ * index of a proof is built on the first query and rebuilt once the closed goals of the proof
+ * changed; it is stored in the user data of the proof and thus shared by all caches.
+ * </p>
+ * <p>
+ * The fingerprint of a formula is computed from the names of its operators and bound variables.
+ * It is implied by {@link SequentFormula#equalsModProofIrrelevancy(Object)}, but other than
+ * {@link SequentFormula#hashCodeModProofIrrelevancy()} it does not depend on object identities.
+ * It is hence equal for the proofs of different environments and across runs, which allows to
+ * {@link #save(Path)} the cache and to {@link #load(Path)} it again in a later (batch) run. The
+ * branches read from disk are only found by {@link #findStored(Node)}; the caller has to load the
+ * proof file, {@link #add(Proof)} it and verify the reference with {@link #find(Node)}.
+ * </p>
+ *
+ * @see ReferenceSearcher
+ */
+public final class BranchCache {
+    /** "KBRC" */
+    private static final int MAGIC = 0x4b425243;
+
+    /** version of the file format */
+    private static final int VERSION = 1;
+
+    /** multiplier of the fingerprints, an odd constant with well-distributed bits */
+    private static final long PRIME = 0x9e3779b97f4a7c15L;
+
+    /** proof file of proofs without one, which no rule originates from */
+    private static final String NO_PROOF_FILE = "////";
+
+    /** the proofs searched by {@link #find(Node)}, in the order they were added */
+    private final List<Proof> proofs = new ArrayList<>();
+
+    /** the branches read by {@link #load(Path)} */
+    private final List<StoredProof> storedProofs = new ArrayList<>();
+
+    /**
+     * Adds a proof to search in. The proofs are searched in the order they were added.
+     *
+     * @param proof a proof
+     */
+    public void add(@Nonnull Proof proof) {
+        if (!proofs.contains(proof)) {
+            proofs.add(proof);
+        }
+    }
+
+    /**
+     * @param proof a proof that is no longer searched in
+     */
+    public void remove(Proof proof) {
+        proofs.remove(proof);
+    }
+
+    /**
+     * @return the proofs searched by {@link #find(Node)}
+     */
+    public List<Proof> getProofs() {
+        return Collections.unmodifiableList(proofs);
+    }
+
+    /**
+     * Try to find a closed branch in one of the proofs of this cache that is equivalent to
+     * <code>newNode</code>.
+     *
+     * @param newNode new node (must be an open goal)
+     * @return a reference (or null, if none found)
+     */
+    public @Nullable ClosedBy find(Node newNode) {
+        return search(proofs, newNode);
+    }
+
+    /**
+     * Try to find a closed branch in one of the given proofs that is equivalent to
+     * <code>newNode</code>. The first proof containing such a branch is referenced, the branches
+     * of a proof are searched starting from its closed goals.
+     *
+     * @param previousProofs old proofs
+     * @param newNode new node (must be an open goal)
+     * @return a reference (or null, if none found)
+     */
+    public static @Nullable ClosedBy search(Iterable<Proof> previousProofs, Node newNode) {
+        // first verify that the new node does not contain any terms that depend on external
+        // influences
+        if (!ReferenceSearcher.suitableForCloseByReference(newNode)) {
+            return null;
+        }
+        final Proof newProof = newNode.proof();
+        final long[] keys = keys(newNode.sequent(), new IdentityHashMap<>());
+        // the user-defined rules of the new proof, computed on demand
+        Set<String> newTaclets = null;
+        for (Proof p : previousProofs) {
+            if (p == newProof || p.isDisposed()) {
+                continue; // doesn't make sense
+            }
+            // only search in compatible proofs
+            if (!p.getSettings().getChoiceSettings()
+                    .equals(newProof.getSettings().getChoiceSettings())) {
+                continue;
+            }
+            // conservative check: all user-defined rules in a previous proof
+            // have to also be available in the new proof
+            final BranchIndex index = BranchIndex.of(p);
+            if (!index.userTaclets.isEmpty()) {
+                if (newTaclets == null) {
+                    newTaclets = new HashSet<>();
+                    for (NoPosTacletApp app : newProof.allGoals().head().ruleAppIndex()
+                            .tacletIndex().allNoPosTacletApps()) {
+                        newTaclets.add(app.taclet().toString());
+                    }
+                }
+                if (!newTaclets.containsAll(index.userTaclets)) {
+                    continue;
+                }
+            }
+            for (int branch : index.branches.candidates(keys)) {
+                final Node n = index.nodes[branch];
+                if (containedIn(newNode.sequent().antecedent(), n.sequent().antecedent())
+                        && containedIn(newNode.sequent().succedent(), n.sequent().succedent())) {
+                    return new ClosedBy(p, n);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the branches read from disk that may close <code>newNode</code>. Only the
+     * fingerprints of the formulas and the choice settings are compared, so the caller has to
+     * verify a branch after loading its proof.
+     *
+     * @param newNode new node (must be an open goal)
+     * @return the candidate branches, in the order in which {@link #find(Node)} would check them
+     */
+    public List<StoredBranch> findStored(Node newNode) {
+        if (storedProofs.isEmpty() || !ReferenceSearcher.suitableForCloseByReference(newNode)) {
+            return List.of();
+        }
+        final Map<String, String> choices =
+            newNode.proof().getSettings().getChoiceSettings().getDefaultChoices();
+        final long[] keys = keys(newNode.sequent(), new IdentityHashMap<>());
+        final List<StoredBranch> result = new ArrayList<>();
+        for (StoredProof stored : storedProofs) {
+            if (!stored.choices.equals(choices)) {
+                continue;
+            }
+            for (int branch : stored.branches.candidates(keys)) {
+                result.add(new StoredBranch(stored.proofFile, stored.serialNrs[branch]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the branches of all proofs of this cache that were loaded from a file to disk,
+     * together with the branches read by {@link #load(Path)} for other proof files.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        final List<StoredProof> toWrite = new ArrayList<>();
+        final Set<Path> proofFiles = new HashSet<>();
+        for (Proof p : proofs) {
+            if (p.isDisposed() || p.getProofFile() == null) {
+                continue;
+            }
+            final Path proofFile = p.getProofFile().toPath().toAbsolutePath();
+            if (!proofFiles.add(proofFile)) {
+                continue;
+            }
+            final BranchIndex index = BranchIndex.of(p);
+            final int[] serialNrs = new int[index.nodes.length];
+            for (int i = 0; i < serialNrs.length; i++) {
+                serialNrs[i] = index.nodes[i].serialNr();
+            }
+            toWrite.add(new StoredProof(proofFile,
+                p.getSettings().getChoiceSettings().getDefaultChoices(), serialNrs,
+                index.branches));
+        }
+        for (StoredProof stored : storedProofs) {
+            if (proofFiles.add(stored.proofFile)) {
+                toWrite.add(stored);
+            }
+        }
+
+        final Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        // write to a temporary file first, other runs may read the cache concurrently
+        final Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(toWrite.size());
+                for (StoredProof stored : toWrite) {
+                    out.writeUTF(stored.proofFile.toString());
+                    final Map<String, String> choices = new TreeMap<>(stored.choices);
+                    out.writeInt(choices.size());
+                    for (Map.Entry<String, String> choice : choices.entrySet()) {
+                        out.writeUTF(choice.getKey());
+                        out.writeUTF(choice.getValue());
+                    }
+                    out.writeInt(stored.serialNrs.length);
+                    for (int i = 0; i < stored.serialNrs.length; i++) {
+                        out.writeInt(stored.serialNrs[i]);
+                        final long[] keys = stored.branches.keys(i);
+                        out.writeInt(keys.length);
+                        for (long key : keys) {
+                            out.writeLong(key);
+                        }
+                    }
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Reads a cache written by {@link #save(Path)}. Its branches are found by
+     * {@link #findStored(Node)}.
+     *
+     * @param file the file to read
+     * @return a new cache without proofs
+     * @throws IOException if the file cannot be read or is not a branch cache of this version
+     */
+    public static BranchCache load(Path file) throws IOException {
+        final BranchCache cache = new BranchCache();
+        try (DataInputStream in =
+            new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a branch cache of version " + VERSION);
+            }
+            final int proofCount = in.readInt();
+            for (int p = 0; p < proofCount; p++) {
+                final Path proofFile = Paths.get(in.readUTF());
+                final int choiceCount = in.readInt();
+                final Map<String, String> choices = new HashMap<>();
+                for (int i = 0; i < choiceCount; i++) {
+                    choices.put(in.readUTF(), in.readUTF());
+                }
+                final int branchCount = in.readInt();
+                final int[] serialNrs = new int[branchCount];
+                final InvertedIndex branches = new InvertedIndex();
+                for (int i = 0; i < branchCount; i++) {
+                    serialNrs[i] = in.readInt();
+                    final long[] keys = new long[in.readInt()];
+                    for (int k = 0; k < keys.length; k++) {
+                        keys[k] = in.readLong();
+                    }
+                    branches.add(keys);
+                }
+                cache.storedProofs.add(new StoredProof(proofFile, choices, serialNrs, branches));
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Check whether all formulas in {@code subset} are conatined in {@code superset}.
+     *
+     * @param superset Semisequent supposed to contain {@code subset}
+     * @param subset Semisequent supposed to be in {@code superset}
+     * @return whether all formulas are present
+     */
+    private static boolean containedIn(Semisequent superset, Semisequent subset) {
+        for (SequentFormula sf : subset) {
+            boolean found = false;
+            for (SequentFormula sf2 : superset) {
+                if (sf2.equalsModProofIrrelevancy(sf)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param sequent a sequent
+     * @param cache the fingerprints of the terms visited so far
+     * @return the sorted, distinct keys of the formulas of the sequent: their fingerprints,
+     *         shifted left by one and marked in the lowest bit if they are in the antecedent
+     */
+    static long[] keys(Sequent sequent, Map<Term, Long> cache) {
+        final long[] keys = new long[sequent.size()];
+        int i = 0;
+        for (SequentFormula sf : sequent.antecedent()) {
+            keys[i++] = fingerprint(sf.formula(), cache) << 1 | 1;
+        }
+        for (SequentFormula sf : sequent.succedent()) {
+            keys[i++] = fingerprint(sf.formula(), cache) << 1;
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int k = 0; k < keys.length; k++) {
+            if (k == 0 || keys[k] != keys[k - 1]) {
+                keys[distinct++] = keys[k];
+            }
+        }
+        return distinct == keys.length ? keys : Arrays.copyOf(keys, distinct);
+    }
+
+    /**
+     * @param term a term
+     * @param cache the fingerprints of the terms visited so far
+     * @return a hash of the term that is equal for terms which are equal modulo proof
+     *         irrelevancy, independent of object identities
+     */
+    static long fingerprint(Term term, Map<Term, Long> cache) {
+        final Long cached = cache.get(term);
+        if (cached != null) {
+            return cached;
+        }
+        long hash = term.op().name().toString().hashCode();
+        hash = hash * PRIME + term.arity();
+        for (QuantifiableVariable var : term.boundVars()) {
+            hash = hash * PRIME + var.name().toString().hashCode();
+        }
+        for (int i = 0; i < term.arity(); i++) {
+            hash = hash * PRIME + fingerprint(term.sub(i), cache);
+        }
+        hash ^= hash >>> 31;
+        cache.put(term, hash);
+        return hash;
+    }
+
+    /**
+     * A branch read from disk.
+     *
+     * @param proofFile the file of the proof containing the branch
+     * @param serialNr the serial number of the first node of the branch
+     */
+    public record StoredBranch(Path proofFile, int serialNr) {
+    }
+
+    /**
+     * The branches of a proof read from disk.
+     *
+     * @param proofFile the file of the proof
+     * @param choices the choice settings of the proof
+     * @param serialNrs the serial numbers of the first nodes of the branches
+     * @param branches the keys of the start sequents of the branches
+     */
+    private record StoredProof(Path proofFile, Map<String, String> choices, int[] serialNrs,
+            InvertedIndex branches) {
+    }
+
+    /**
+     * The closed branches of a proof, kept in the user data of the proof.
+     */
+    private static final class BranchIndex {
+        /**
+         * guards the registration of the indices in the user data of the proofs, a private lock
+         * so that no other code synchronizing on a proof can block or be blocked by the search
+         */
+        private static final Object LOCK = new Object();
+
+        /** the closed goals the index was built from, replaced by every change */
+        private final ImmutableList<Goal> closedGoals;
+
+        /** the first nodes of the closed branches, in the order they are searched */
+        private final Node[] nodes;
+
+        /** the keys of the start sequents of the branches */
+        private final InvertedIndex branches = new InvertedIndex();
+
+        /** the string representations of the user-defined rules of the proof */
+        private final List<String> userTaclets = new ArrayList<>();
+
+        private BranchIndex(Proof p) {
+            closedGoals = p.closedGoals();
+            final Map<Term, Long> cache = new IdentityHashMap<>();
+            final List<Node> starts = new ArrayList<>();
+            final Set<Node> checkedNodes = new HashSet<>();
+            final Set<Node> startSet = new HashSet<>();
+            final Queue<Node> nodesToCheck = new ArrayDeque<>();
+            for (Goal goal : closedGoals) {
+                // first, find the initial node in this branch
+                final Node n = goal.node();
+                if (n.parent() == null
+                        || n.parent().getAppliedRuleApp().rule() != CloseAfterMerge.INSTANCE) {
+                    // cannot reference the other kind of branch
+                    nodesToCheck.add(n);
+                }
+            }
+            while (!nodesToCheck.isEmpty()) {
+                Node n = nodesToCheck.remove();
+                if (!checkedNodes.add(n)) {
+                    continue;
+                }
+                // find the first node in the branch
+                while (n.parent() != null && n.parent().childrenCount() == 1) {
+                    n = n.parent();
+                }
+                if (n.parent() != null) {
+                    nodesToCheck.add(n.parent());
+                }
+                if (startSet.add(n)) {
+                    starts.add(n);
+                    branches.add(keys(n.sequent(), cache));
+                }
+            }
+            nodes = starts.toArray(new Node[0]);
+
+            final String proofFile =
+                p.getProofFile() != null ? p.getProofFile().toString() : NO_PROOF_FILE;
+            for (NoPosTacletApp app : p.allGoals().head().ruleAppIndex().tacletIndex()
+                    .allNoPosTacletApps()) {
+                final Taclet taclet = app.taclet();
+                if (taclet.getOrigin() != null && taclet.getOrigin().contains(proofFile)) {
+                    userTaclets.add(taclet.toString());
+                }
+            }
+        }
+
+        /**
+         * @param p a proof
+         * @return the up-to-date index of the proof
+         */
+        static BranchIndex of(Proof p) {
+            synchronized (LOCK) {
+                BranchIndex index = p.lookup(BranchIndex.class);
+                if (index == null || index.closedGoals != p.closedGoals()) {
+                    if (index != null) {
+                        p.deregister(index, BranchIndex.class);
+                    }
+                    index = new BranchIndex(p);
+                    p.register(index, BranchIndex.class);
+                }
+                return index;
+            }
+        }
+    }
+
+    /**
+     * An inverted index from keys to the sets of keys containing them. Answers which of the
+     * sets are subsets of a given set.
+     */
+    private static final class InvertedIndex {
+        /** the keys of the sets, sorted and distinct */
+        private final List<long[]> sets = new ArrayList<>();
+
+        /** the numbers of the sets containing a key, in ascending order */
+        private final Map<Long, List<Integer>> postings = new HashMap<>();
+
+        /** the numbers of the empty sets */
+        private final List<Integer> emptySets = new ArrayList<>(0);
+
+        /**
+         * @param keys the sorted, distinct keys of the next set
+         */
+        void add(long[] keys) {
+            final int number = sets.size();
+            sets.add(keys);
+            if (keys.length == 0) {
+                emptySets.add(number);
+            }
+            for (long key : keys) {
+                postings.computeIfAbsent(key, k -> new ArrayList<>(1)).add(number);
+            }
+        }
+
+        /**
+         * @param number the number of a set
+         * @return the keys of the set
+         */
+        long[] keys(int number) {
+            return sets.get(number);
+        }
+
+        /**
+         * @param keys distinct keys
+         * @return the numbers of the sets contained in <code>keys</code>, in ascending order
+         */
+        int[] candidates(long[] keys) {
+            final int[] hits = new int[sets.size()];
+            final int[] result = new int[sets.size()];
+            int count = 0;
+            for (int number : emptySets) {
+                result[count++] = number;
+            }
+            for (long key : keys) {
+                final List<Integer> numbers = postings.get(key);
+                if (numbers == null) {
+                    continue;
+                }
+                for (int number : numbers) {
+                    if (++hits[number] == sets.get(number).length) {
+                        result[count++] = number;
+                    }
+                }
+            }
+            final int[] candidates = Arrays.copyOf(result, count);
+            Arrays.sort(candidates);
+            return candidates;
+        }
+    }
+}
@@ -4,9 +4,14 @@
 package de.uka.ilkd.key.prover.impl;
 
 
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import de.uka.ilkd.key.proof.*;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.proof.proofevent.RuleAppInfo;
 import de.uka.ilkd.key.prover.GoalChooser;
 import de.uka.ilkd.key.prover.StopCondition;
@@ -33,7 +38,12 @@ import org.slf4j.LoggerFactory;
 public class ApplyStrategy extends AbstractProverCore {
     public static final Logger LOGGER = LoggerFactory.getLogger(ApplyStrategy.class);
 
-    public static final AtomicLong PERF_GOAL_APPLY = new AtomicLong();
+    /**
+     * System property defining the default number of worker threads used to prepare goals in
+     * parallel (see {@link ParallelGoalPreparation}). Values smaller than 2 disable the
+     * preparation.
+     */
+    public static final String PARALLELISM_PROPERTY = "strategy.threading.workers";
 
     /**
      * the proof that is worked with
@@ -66,11 +76,33 @@ public class ApplyStrategy extends AbstractProverCore {
     /** the goal choose picks the next goal to work on */
     private GoalChooser goalChooser;
 
+    /** the number of worker threads used to prepare goals */
+    private final int parallelism;
+    /** prepares goals concurrently, <code>null</code> if disabled */
+    private ParallelGoalPreparation goalPreparation;
+    /** goals created since the last parallel preparation */
+    private final Set<Goal> unpreparedGoals = new HashSet<>();
+
     // Please create this object beforehand and re-use it.
     // Otherwise the addition/removal of the InteractiveProofListener
     // can cause a ConcurrentModificationException during ongoing operation
     public ApplyStrategy(GoalChooser defaultGoalChooser) {
+        this(defaultGoalChooser, Integer.getInteger(PARALLELISM_PROPERTY, 1));
+    }
+
+    /**
+     * Creates a prover which prepares the rule applications of independent open goals on
+     * <code>parallelism</code> worker threads. Rules are still selected and applied by the calling
+     * thread in the order given by the goal chooser, so the resulting proof is the same as the one
+     * of a sequential run.
+     *
+     * @param defaultGoalChooser the goal chooser used if the proof does not define its own
+     * @param parallelism the number of worker threads, values smaller than 2 disable parallel
+     *        preparation
+     */
+    public ApplyStrategy(GoalChooser defaultGoalChooser, int parallelism) {
         this.defaultGoalChooser = defaultGoalChooser;
+        this.parallelism = parallelism;
     }
 
     /**
@@ -79,7 +111,8 @@ public class ApplyStrategy extends AbstractProverCore {
      * @return true iff a rule has been applied, false otherwise
      */
     private synchronized SingleRuleApplicationInfo applyAutomaticRule(final GoalChooser goalChooser,
-            final StopCondition stopCondition, boolean stopAtFirstNonClosableGoal) {
+            final StopCondition stopCondition, boolean stopAtFirstNonClosableGoal)
+            throws InterruptedException {
         // Look for the strategy ...
         RuleApp app = null;
         Goal g;
@@ -89,6 +122,7 @@ public class ApplyStrategy extends AbstractProverCore {
                 return new SingleRuleApplicationInfo(stopCondition.getGoalNotAllowedMessage(
                     maxApplications, timeout, proof, time, countApplied, g), g, null);
             }
+            prepareGoals(g);
             app = g.getRuleAppManager().next();
             // Hack: built in rules may become applicable without BuiltInRuleAppIndex noticing---->
             if (app == null) {
@@ -111,16 +145,38 @@ public class ApplyStrategy extends AbstractProverCore {
                 "No more rules automatically applicable to any goal.", g, app);
         } else {
             assert g != null;
-            var time = System.nanoTime();
+            final ProofMetrics metrics = proof.getMetrics();
+            var time = metrics.start();
             try {
                 g.apply(app);
             } finally {
-                PERF_GOAL_APPLY.getAndAdd(System.nanoTime() - time);
+                metrics.stop(Phase.GOAL_APPLY, time);
             }
             return new SingleRuleApplicationInfo(g, app);
         }
     }
 
+    /**
+     * If <code>goal</code> has not been prepared yet, all open goals created since the last
+     * preparation are prepared in parallel.
+     *
+     * @param goal the goal the next rule is applied to
+     * @throws InterruptedException if the thread has been interrupted while waiting for the workers
+     */
+    private void prepareGoals(Goal goal) throws InterruptedException {
+        if (goalPreparation == null || !unpreparedGoals.contains(goal)) {
+            return;
+        }
+        final List<Goal> goals = new ArrayList<>(unpreparedGoals.size());
+        for (Goal openGoal : proof.openGoals()) {
+            if (unpreparedGoals.contains(openGoal)) {
+                goals.add(openGoal);
+            }
+        }
+        unpreparedGoals.clear();
+        goalPreparation.prepare(goals);
+    }
+
     /**
      * applies rules until this is no longer possible or the thread is interrupted.
      */
@@ -129,20 +185,21 @@ public class ApplyStrategy extends AbstractProverCore {
         time = System.currentTimeMillis();
         SingleRuleApplicationInfo srInfo = null;
 
-        var perfScope = new PerfScope();
-        long applyAutomatic = 0;
+        final ProofMetrics metrics = proof.getMetrics();
+        var perfScope = new PerfScope(metrics);
+        final long strategyTime = metrics.start();
         try {
             LOGGER.trace("Strategy started.");
             boolean shouldStop = stopCondition.shouldStop(maxApplications, timeout, proof, time,
                 countApplied, srInfo);
 
             while (!shouldStop) {
-                var applyAutomaticTime = System.nanoTime();
+                var applyAutomaticTime = metrics.start();
                 try {
                     srInfo =
                         applyAutomaticRule(goalChooser, stopCondition, stopAtFirstNonClosableGoal);
                 } finally {
-                    applyAutomatic += System.nanoTime() - applyAutomaticTime;
+                    metrics.stop(Phase.STRATEGY_STEP, applyAutomaticTime);
                 }
                 if (!srInfo.isSuccess()) {
                     return new ApplyStrategyInfo(srInfo.message(), proof, null, srInfo.getGoal(),
@@ -172,10 +229,10 @@ public class ApplyStrategy extends AbstractProverCore {
             return new ApplyStrategyInfo("Error.", proof, t, null,
                 System.currentTimeMillis() - time, countApplied, closedGoals);
         } finally {
+            metrics.stop(Phase.STRATEGY, strategyTime);
             time = (System.currentTimeMillis() - time);
             LOGGER.trace("Strategy stopped, applied {} steps in {}ms", countApplied, time);
 
-            LOGGER.trace("applyAutomaticRule: " + PerfScope.formatTime(applyAutomatic));
             perfScope.report();
         }
         assert srInfo != null;
@@ -196,6 +253,13 @@ public class ApplyStrategy extends AbstractProverCore {
         goalChooser = getGoalChooserForProof(proof);
         assert goalChooser != null;
         goalChooser.init(newProof, goals);
+        goalPreparation = ParallelGoalPreparation.create(newProof, parallelism);
+        unpreparedGoals.clear();
+        if (goalPreparation != null) {
+            for (Goal goal : goals) {
+                unpreparedGoals.add(goal);
+            }
+        }
         setAutoModeActive(true);
         fireTaskStarted(stopCondition.getMaximalWork(maxSteps, timeout, newProof));
     }
@@ -256,8 +320,20 @@ public class ApplyStrategy extends AbstractProverCore {
 
         this.stopAtFirstNonClosableGoal = stopAtFirstNonCloseableGoal;
 
+        // the branches of a lazily loaded proof have to be replayed before rules are applied
+        final DeferredReplay replay = proof.lookup(DeferredReplay.class);
+        final List<Throwable> replayErrors = new ArrayList<>();
+        if (replay != null) {
+            goals = replay.replayDeferred(goals, replayErrors);
+        }
+
         ProofTreeListener treeListener = prepareStrategy(proof, goals, maxSteps, timeout);
         ApplyStrategyInfo result = executeStrategy(treeListener);
+        if (!replayErrors.isEmpty() && !result.isError()) {
+            result = new ApplyStrategyInfo(result.reason(), proof,
+                replay.replayFailure(replayErrors), result.nonCloseableGoal(),
+                result.getTime(), result.getAppliedRuleApps(), result.getClosedGoals());
+        }
         finishStrategy(result);
         return result;
     }
@@ -294,6 +370,11 @@ public class ApplyStrategy extends AbstractProverCore {
             proof.removeProofTreeListener(treeListener);
             proof.removeRuleAppListener(pl);
             setAutoModeActive(false);
+            if (goalPreparation != null) {
+                goalPreparation.shutdown();
+                goalPreparation = null;
+            }
+            unpreparedGoals.clear();
         }
         return result;
     }
@@ -338,6 +419,11 @@ public class ApplyStrategy extends AbstractProverCore {
                 // reverse just to keep old order
                 goalChooser.updateGoalList(rai.getOriginalNode(), e.getNewGoals().reverse());
             }
+            if (goalPreparation != null) {
+                for (Goal goal : e.getNewGoals()) {
+                    unpreparedGoals.add(goal);
+                }
+            }
         }
     }
 
@@ -5,6 +5,8 @@ package de.uka.ilkd.key.prover.impl;
 
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetricsExporter;
 
 /**
  * The final result of the strategy application is stored in this container and returned to the
@@ -70,6 +72,33 @@ public class ApplyStrategyInfo {
         return proof;
     }
 
+    /**
+     * @return the metrics collected for the proof, accumulated over all strategy runs
+     */
+    public ProofMetrics getMetrics() {
+        return ProofMetrics.of(proof);
+    }
+
+    /**
+     * @return the metrics of the proof as JSON
+     * @see ProofMetricsExporter#toJson(String, ProofMetrics)
+     */
+    public String metricsToJson() {
+        return ProofMetricsExporter.toJson(proofName(), getMetrics());
+    }
+
+    /**
+     * @return the metrics of the proof in the Prometheus text format
+     * @see ProofMetricsExporter#toPrometheus(String, ProofMetrics)
+     */
+    public String metricsToPrometheus() {
+        return ProofMetricsExporter.toPrometheus(proofName(), getMetrics());
+    }
+
+    private String proofName() {
+        return proof == null ? "" : proof.name().toString();
+    }
+
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("Apply Strategy Info:");
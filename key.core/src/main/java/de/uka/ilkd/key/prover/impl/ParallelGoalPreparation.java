@@ -0,0 +1,162 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.uka.ilkd.key.logic.Name;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.Profile;
+import de.uka.ilkd.key.strategy.JavaCardDLStrategy;
+import de.uka.ilkd.key.strategy.Strategy;
+import de.uka.ilkd.key.strategy.StrategyFactory;
+import de.uka.ilkd.key.strategy.StrategyProperties;
+
+/**
+ * Prepares the rule application queues of several goals of one proof concurrently on a pool of
+ * worker threads.
+ * <p>
+ * Preparing a goal (see
+ * {@link de.uka.ilkd.key.strategy.AutomatedRuleApplicationManager#prepareNext()}) updates its
+ * rule app index, i.e. matches taclets against modified formulas, and computes the costs of all
+ * new rule applications. This is where most of the time of an automatic proof search is spent,
+ * and it only depends on the goal itself. The selection and the application of rules remain
+ * sequential in {@link ApplyStrategy}, so the proof tree and the namespaces are only modified by
+ * the strategy thread while no worker is running, and the resulting proof is the same as the one
+ * found without preparation.
+ * </p>
+ * <p>
+ * Strategies keep intermediate results in mutable feature objects, therefore every worker thread
+ * uses its own copy of the active strategy created by the same {@link StrategyFactory}. The
+ * {@link de.uka.ilkd.key.java.ServiceCaches} accessed during cost computation are guarded by their
+ * users.
+ * </p>
+ *
+ * @see ApplyStrategy#ApplyStrategy(de.uka.ilkd.key.prover.GoalChooser, int)
+ */
+public class ParallelGoalPreparation {
+    /** counter used to name the worker threads */
+    private static final AtomicInteger WORKER_COUNTER = new AtomicInteger();
+
+    /** the active strategy of the proof at creation time */
+    private final Strategy strategy;
+
+    /** the worker threads */
+    private final ExecutorService workers;
+
+    /** copies of {@link #strategy} not yet assigned to a worker thread */
+    private final Queue<Strategy> spareStrategies;
+
+    /** the strategy copies owned by the worker threads */
+    private final Map<Thread, Strategy> workerStrategies = new ConcurrentHashMap<>();
+
+    private ParallelGoalPreparation(Strategy strategy, Queue<Strategy> strategyCopies) {
+        this.strategy = strategy;
+        this.spareStrategies = strategyCopies;
+        final int parallelism = strategyCopies.size();
+        this.workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "KeY strategy worker " + WORKER_COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Creates a preparation pool for the given proof.
+     *
+     * @param proof the proof to work on
+     * @param parallelism the number of worker threads
+     * @return the pool or <code>null</code> if parallel preparation is not supported for the
+     *         currently active strategy of the proof, which has to be a
+     *         {@link JavaCardDLStrategy} created by the factory registered for its name
+     */
+    public static ParallelGoalPreparation create(Proof proof, int parallelism) {
+        if (parallelism <= 1) {
+            return null;
+        }
+        final Strategy strategy = proof.getActiveStrategy();
+        final Profile profile = proof.getServices().getProfile();
+        final Name name = strategy.name();
+        if (!(strategy instanceof JavaCardDLStrategy) || !profile.supportsStrategyFactory(name)) {
+            return null;
+        }
+        final StrategyFactory factory = profile.getStrategyFactory(name);
+        final StrategyProperties properties =
+            ((JavaCardDLStrategy) strategy).getStrategyProperties();
+        // strategies are not necessarily thread safe to create, so all copies are created here
+        final Queue<Strategy> copies = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < parallelism; i++) {
+            final Strategy copy = factory.create(proof, properties);
+            if (copy.getClass() != strategy.getClass()) {
+                return null;
+            }
+            copies.add(copy);
+        }
+        return new ParallelGoalPreparation(strategy, copies);
+    }
+
+    /**
+     * Prepares the given goals concurrently and waits until all of them are done. Goals which do
+     * not use the active strategy of the proof are skipped; they are prepared on demand by the
+     * strategy thread.
+     *
+     * @param goals the goals to prepare
+     * @throws InterruptedException if the calling thread has been interrupted while waiting
+     */
+    public void prepare(Iterable<Goal> goals) throws InterruptedException {
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (final Goal goal : goals) {
+            if (goal.isAutomatic() && goal.getGoalStrategy() == strategy) {
+                tasks.add(() -> {
+                    goal.runWithGoalStrategy(workerStrategy(),
+                        () -> goal.getRuleAppManager().prepareNext());
+                    return null;
+                });
+            }
+        }
+        if (tasks.size() < 2) {
+            // not worth the synchronisation
+            return;
+        }
+
+        for (Future<Void> result : workers.invokeAll(tasks)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+        workerStrategies.clear();
+    }
+
+    private Strategy workerStrategy() {
+        return workerStrategies.computeIfAbsent(Thread.currentThread(),
+            t -> spareStrategies.remove());
+    }
+}
@@ -5,21 +5,19 @@ package de.uka.ilkd.key.rule;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.logic.op.LocationVariable;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableSLList;
 
 public abstract class AbstractBuiltInRuleApp implements IBuiltInRuleApp {
-    public static final AtomicLong PERF_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-
     protected final BuiltInRule builtInRule;
 
     protected final PosInOccurrence pio;
@@ -72,8 +70,8 @@ public abstract class AbstractBuiltInRuleApp implements IBuiltInRuleApp {
      */
     @Override
     public @Nullable ImmutableList<Goal> execute(Goal goal, Services services) {
-        var time = System.nanoTime();
-        var timeSetSequent = Goal.PERF_SET_SEQUENT.get();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         try {
             goal.addAppliedRuleApp(this);
             try {
@@ -84,8 +82,7 @@ public abstract class AbstractBuiltInRuleApp implements IBuiltInRuleApp {
                 return null;
             }
         } finally {
-            PERF_EXECUTE.getAndAdd(System.nanoTime() - time);
-            PERF_SET_SEQUENT.getAndAdd(Goal.PERF_SET_SEQUENT.get() - timeSetSequent);
+            metrics.stop(Phase.BUILT_IN_APP_EXECUTE, time);
         }
     }
 
@@ -6,6 +6,7 @@ package de.uka.ilkd.key.rule;
 import de.uka.ilkd.key.logic.*;
 import de.uka.ilkd.key.logic.op.QuantifiableVariable;
 import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.rule.match.FindPrefilter;
 import de.uka.ilkd.key.rule.tacletbuilder.TacletGoalTemplate;
 
 import org.key_project.util.collection.ImmutableList;
@@ -28,6 +29,9 @@ public abstract class FindTaclet extends Taclet {
     /** Set of schemavariables of the if and the (optional) find part */
     private ImmutableSet<SchemaVariable> ifFindVariables = null;
 
+    /** prefilter for the find term, created on demand */
+    private FindPrefilter findPrefilter = null;
+
     /**
      * this method is used to determine if top level updates are allowed to be ignored. This is the
      * case if we have an Antec or SuccTaclet but not for a RewriteTaclet
@@ -92,6 +96,17 @@ public abstract class FindTaclet extends Taclet {
         return find;
     }
 
+    /**
+     * @return the prefilter used by the taclet index to discard terms the find term cannot match
+     */
+    public FindPrefilter getFindPrefilter() {
+        if (findPrefilter == null) {
+            // prefilters are immutable, concurrent initialization is harmless
+            findPrefilter = FindPrefilter.create(this);
+        }
+        return findPrefilter;
+    }
+
 
     protected StringBuffer toStringFind(StringBuffer sb) {
         return sb.append("\\find(").append(find().toString()).append(")\n");
@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule;
 
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 
 import de.uka.ilkd.key.logic.Semisequent;
@@ -22,17 +21,17 @@ public final class IfFormulaInstantiationCache {
         new LRUCache<>(50);
 
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final ReadLock readLock = lock.readLock();
     private final WriteLock writeLock = lock.writeLock();
 
     public ImmutableList<IfFormulaInstantiation> get(boolean antec, Semisequent s) {
+        // the caches are access ordered, so a lookup modifies them as well
         try {
-            readLock.lock();
+            writeLock.lock();
             final Pair<Semisequent, ImmutableList<IfFormulaInstantiation>> p =
                 (antec ? antecCache : succCache).get(System.identityHashCode(s));
             return p != null && p.first == s ? p.second : null;
         } finally {
-            readLock.unlock();
+            writeLock.unlock();
         }
     }
 
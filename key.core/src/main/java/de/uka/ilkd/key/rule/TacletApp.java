@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 import de.uka.ilkd.key.java.*;
@@ -17,6 +16,8 @@ import de.uka.ilkd.key.logic.sort.ProgramSVSort;
 import de.uka.ilkd.key.logic.sort.Sort;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.VariableNameProposer;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.rule.inst.*;
 import de.uka.ilkd.key.rule.inst.SVInstantiations.UpdateLabelPair;
 import de.uka.ilkd.key.util.Debug;
@@ -37,9 +38,6 @@ import org.key_project.util.collection.*;
  * complete, so that is can be applied.
  */
 public abstract class TacletApp implements RuleApp, EqualsModProofIrrelevancy {
-    public static final AtomicLong PERF_EXECUTE = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_PRE = new AtomicLong();
 
     /** the taclet for which the application information is collected */
     private final Taclet taclet;
@@ -329,10 +327,10 @@ public abstract class TacletApp implements RuleApp, EqualsModProofIrrelevancy {
      */
     @Override
     public @Nullable ImmutableList<Goal> execute(Goal goal, Services services) {
-        var time = System.nanoTime();
-        var timeSetSequent = Goal.PERF_SET_SEQUENT.get();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         try {
-            var timePre = System.nanoTime();
+            var timePre = metrics.start();
             try {
                 if (!complete()) {
                     throw new IllegalStateException(
@@ -346,13 +344,12 @@ public abstract class TacletApp implements RuleApp, EqualsModProofIrrelevancy {
                 registerSkolemConstants(goal.getLocalNamespaces());
                 goal.addAppliedRuleApp(this);
             } finally {
-                PERF_PRE.getAndAdd(System.nanoTime() - timePre);
+                metrics.stop(Phase.TACLET_APP_PRE, timePre);
             }
 
             return taclet().apply(goal, services, this);
         } finally {
-            PERF_EXECUTE.getAndAdd(System.nanoTime() - time);
-            PERF_SET_SEQUENT.getAndAdd(Goal.PERF_SET_SEQUENT.get() - timeSetSequent);
+            metrics.stop(Phase.TACLET_APP_EXECUTE, time);
         }
     }
 
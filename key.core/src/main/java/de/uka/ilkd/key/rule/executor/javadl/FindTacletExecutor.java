@@ -4,13 +4,14 @@
 package de.uka.ilkd.key.rule.executor.javadl;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.*;
 import de.uka.ilkd.key.logic.label.TermLabelManager;
 import de.uka.ilkd.key.logic.label.TermLabelState;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.rule.FindTaclet;
 import de.uka.ilkd.key.rule.MatchConditions;
 import de.uka.ilkd.key.rule.RuleApp;
@@ -21,9 +22,6 @@ import org.key_project.util.collection.ImmutableList;
 
 public abstract class FindTacletExecutor<TacletKind extends FindTaclet>
         extends TacletExecutor<TacletKind> {
-    public static final AtomicLong PERF_APPLY = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_TERM_LABELS = new AtomicLong();
 
     public FindTacletExecutor(TacletKind taclet) {
         super(taclet);
@@ -94,6 +92,8 @@ public abstract class FindTacletExecutor<TacletKind extends FindTaclet>
 
         final ImmutableList<Goal> newGoals = goal.split(newSequentsForGoals.size());
 
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+
         final Iterator<TacletGoalTemplate> it = taclet.goalTemplates().iterator();
         final Iterator<Goal> goalIt = newGoals.iterator();
         final Iterator<SequentChangeInfo> newSequentsIt = newSequentsForGoals.iterator();
@@ -103,7 +103,7 @@ public abstract class FindTacletExecutor<TacletKind extends FindTaclet>
             final Goal currentGoal = goalIt.next();
             final SequentChangeInfo currentSequent = newSequentsIt.next();
 
-            var timeApply = System.nanoTime();
+            var timeApply = metrics.start();
             applyReplacewith(gt, termLabelState, currentSequent, tacletApp.posInOccurrence(), mc,
                 currentGoal, ruleApp, services);
 
@@ -124,22 +124,22 @@ public abstract class FindTacletExecutor<TacletKind extends FindTaclet>
             // in the new sequent
             applyAddProgVars(gt.addedProgVars(), currentSequent, currentGoal,
                 tacletApp.posInOccurrence(), services, mc);
-            PERF_APPLY.getAndAdd(System.nanoTime() - timeApply);
+            metrics.stop(Phase.FIND_TACLET_APPLY, timeApply);
 
-            var timeTermLabels = System.nanoTime();
+            var timeTermLabels = metrics.start();
             TermLabelManager.mergeLabels(currentSequent, services);
-            timeTermLabels = System.nanoTime() - timeTermLabels;
+            final long mergeLabelsTime = metrics.start() - timeTermLabels;
 
-            var timeSetSequent = System.nanoTime();
+            var timeSetSequent = metrics.start();
             currentGoal.setSequent(currentSequent);
-            PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - timeSetSequent);
+            metrics.stop(Phase.FIND_TACLET_SET_SEQUENT, timeSetSequent);
 
             currentGoal.setBranchLabel(gt.name());
 
-            timeTermLabels = System.nanoTime() + timeTermLabels;
+            timeTermLabels = metrics.start() - mergeLabelsTime;
             TermLabelManager.refactorSequent(termLabelState, services, ruleApp.posInOccurrence(),
                 ruleApp.rule(), currentGoal, null, null);
-            PERF_TERM_LABELS.getAndAdd(System.nanoTime() - timeTermLabels);
+            metrics.stop(Phase.FIND_TACLET_TERM_LABELS, timeTermLabels);
         }
 
         // in case the assumes sequent of the taclet did not
@@ -4,7 +4,6 @@
 package de.uka.ilkd.key.rule.executor.javadl;
 
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.logic.Sequent;
@@ -12,6 +11,8 @@ import de.uka.ilkd.key.logic.SequentChangeInfo;
 import de.uka.ilkd.key.logic.label.TermLabelManager;
 import de.uka.ilkd.key.logic.label.TermLabelState;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.rule.MatchConditions;
 import de.uka.ilkd.key.rule.NoFindTaclet;
 import de.uka.ilkd.key.rule.RuleApp;
@@ -23,9 +24,6 @@ import de.uka.ilkd.key.rule.tacletbuilder.TacletGoalTemplate;
 import org.key_project.util.collection.ImmutableList;
 
 public class NoFindTacletExecutor extends TacletExecutor<NoFindTaclet> {
-    public static final AtomicLong PERF_APPLY = new AtomicLong();
-    public static final AtomicLong PERF_SET_SEQUENT = new AtomicLong();
-    public static final AtomicLong PERF_TERM_LABELS = new AtomicLong();
 
     public NoFindTacletExecutor(NoFindTaclet taclet) {
         super(taclet);
@@ -73,6 +71,8 @@ public class NoFindTacletExecutor extends TacletExecutor<NoFindTaclet> {
 
         ImmutableList<Goal> newGoals = goal.split(newSequentsForGoals.size());
 
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+
         Iterator<TacletGoalTemplate> it = taclet.goalTemplates().iterator();
         Iterator<Goal> goalIt = newGoals.iterator();
         Iterator<SequentChangeInfo> newSequentsIt = newSequentsForGoals.iterator();
@@ -85,28 +85,28 @@ public class NoFindTacletExecutor extends TacletExecutor<NoFindTaclet> {
 
             SequentChangeInfo currentSequent = newSequentsIt.next();
 
-            var timeApply = System.nanoTime();
+            var timeApply = metrics.start();
             applyAdd(termLabelState, gt.sequent(), currentSequent, services, mc, goal, ruleApp);
 
             applyAddrule(gt.rules(), currentGoal, services, mc);
 
             applyAddProgVars(gt.addedProgVars(), currentSequent, currentGoal,
                 tacletApp.posInOccurrence(), services, mc);
-            PERF_APPLY.getAndAdd(System.nanoTime() - timeApply);
+            metrics.stop(Phase.NO_FIND_TACLET_APPLY, timeApply);
 
-            var timeTermLabels = System.nanoTime();
+            var timeTermLabels = metrics.start();
             TermLabelManager.mergeLabels(currentSequent, services);
-            timeTermLabels = System.nanoTime() - timeTermLabels;
+            final long mergeLabelsTime = metrics.start() - timeTermLabels;
 
-            var timeSetSequent = System.nanoTime();
+            var timeSetSequent = metrics.start();
             currentGoal.setSequent(currentSequent);
-            PERF_SET_SEQUENT.getAndAdd(System.nanoTime() - timeSetSequent);
+            metrics.stop(Phase.NO_FIND_TACLET_SET_SEQUENT, timeSetSequent);
 
             currentGoal.setBranchLabel(gt.name());
-            timeTermLabels = System.nanoTime() + timeTermLabels;
+            timeTermLabels = metrics.start() - mergeLabelsTime;
             TermLabelManager.refactorSequent(termLabelState, services, ruleApp.posInOccurrence(),
                 ruleApp.rule(), currentGoal, null, null);
-            PERF_TERM_LABELS.getAndAdd(System.nanoTime() - timeTermLabels);
+            metrics.stop(Phase.NO_FIND_TACLET_TERM_LABELS, timeTermLabels);
         }
 
         return newGoals;
@@ -0,0 +1,186 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match;
+
+import java.util.Arrays;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.ElementaryUpdate;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.logic.op.SortDependingFunction;
+import de.uka.ilkd.key.logic.op.UpdateApplication;
+import de.uka.ilkd.key.rule.FindTaclet;
+
+/**
+ * A cheap necessary condition for the find term of a taclet to match a term, used by the taclet
+ * index to discard candidates before running the matcher.
+ * <p>
+ * The taclet index selects candidate taclets by the top level operator of their find term only.
+ * For heavily used operators like equality, conjunction or heap access this leaves many
+ * candidates, most of which fail to match in the first levels below the top. A prefilter is the
+ * path of a discrimination tree for the find term: it contains the operators of the find term up
+ * to the depth {@value #DEFAULT_DEPTH} (or as given by {@value #DEPTH_PROPERTY}), with schema
+ * variables and bound variables as wildcards. A term is compatible if it has the same operators
+ * at these positions. Everything else (sorts, program blocks, variable conditions) is left to the
+ * matcher.
+ * </p>
+ * <p>
+ * Operators are compared as by the matchers: by identity, sort depending functions by their kind,
+ * and elementary updates regardless of their left hand side.
+ * </p>
+ *
+ * @see FindTaclet#getFindPrefilter()
+ */
+public final class FindPrefilter {
+    /** system property for the depth of the prefilter, <code>0</code> disables prefiltering */
+    public static final String DEPTH_PROPERTY = "key.tacletIndex.prefilterDepth";
+
+    /** the default depth */
+    public static final int DEFAULT_DEPTH = 3;
+
+    private static final int DEPTH = Integer.getInteger(DEPTH_PROPERTY, DEFAULT_DEPTH);
+
+    private static final FindPrefilter[] NO_SUBS = new FindPrefilter[0];
+
+    /** accepts every term */
+    private static final FindPrefilter WILDCARD = new FindPrefilter(null, NO_SUBS, false);
+
+    /**
+     * the operator (or for sort depending functions its kind, for elementary updates their class)
+     * that compatible terms must have, <code>null</code> for a wildcard
+     */
+    private final Object key;
+
+    /** the prefilters for the subterms, empty if the subterms are not checked */
+    private final FindPrefilter[] subs;
+
+    /** whether top level updates of the term are skipped, as done by the taclet */
+    private final boolean ignoreTopLevelUpdates;
+
+    private FindPrefilter(Object key, FindPrefilter[] subs, boolean ignoreTopLevelUpdates) {
+        this.key = key;
+        this.subs = subs;
+        this.ignoreTopLevelUpdates = ignoreTopLevelUpdates;
+    }
+
+    /**
+     * Creates the prefilter for the find term of a taclet.
+     *
+     * @param taclet the taclet
+     * @return the prefilter of the find term
+     */
+    public static FindPrefilter create(FindTaclet taclet) {
+        final Term find = taclet.find();
+        if (taclet.ignoreTopLevelUpdates() && find.op() instanceof UpdateApplication) {
+            // the matchers differ in whether they ignore the update in the pattern or not
+            return WILDCARD;
+        }
+        final FindPrefilter result = create(find, DEPTH);
+        if (result == WILDCARD || !taclet.ignoreTopLevelUpdates()) {
+            return result;
+        }
+        return new FindPrefilter(result.key, result.subs, true);
+    }
+
+    private static FindPrefilter create(Term pattern, int depth) {
+        final Operator op = pattern.op();
+        if (depth <= 0 || op instanceof SchemaVariable || op instanceof QuantifiableVariable) {
+            return WILDCARD;
+        }
+
+        final Object key;
+        if (op instanceof SortDependingFunction) {
+            key = ((SortDependingFunction) op).getKind();
+        } else if (op instanceof ElementaryUpdate) {
+            key = ElementaryUpdate.class;
+        } else {
+            key = op;
+        }
+
+        FindPrefilter[] subs = NO_SUBS;
+        for (int i = 0; i < pattern.arity(); i++) {
+            final FindPrefilter sub = create(pattern.sub(i), depth - 1);
+            if (sub != WILDCARD) {
+                if (subs == NO_SUBS) {
+                    subs = new FindPrefilter[pattern.arity()];
+                    Arrays.fill(subs, WILDCARD);
+                }
+                subs[i] = sub;
+            }
+        }
+        return new FindPrefilter(key, subs, false);
+    }
+
+    /**
+     * @return true iff the prefilter does not reject any term
+     */
+    public boolean acceptsAll() {
+        return key == null;
+    }
+
+    /**
+     * Checks whether the find term of the taclet might match the given term: if the result is
+     * false, it does not match.
+     *
+     * @param term the term to match
+     * @return false if the find term does not match
+     */
+    public boolean isCompatible(Term term) {
+        if (key == null) {
+            return true;
+        }
+        if (ignoreTopLevelUpdates) {
+            while (term.op() instanceof UpdateApplication) {
+                term = UpdateApplication.getTarget(term);
+            }
+        }
+        return matches(term);
+    }
+
+    private boolean matches(Term term) {
+        if (key == null) {
+            return true;
+        }
+        final Operator op = term.op();
+        if (op != key) {
+            if (op instanceof SortDependingFunction) {
+                if (!((SortDependingFunction) op).getKind().equals(key)) {
+                    return false;
+                }
+            } else if (!(op instanceof ElementaryUpdate && key == ElementaryUpdate.class)) {
+                return false;
+            }
+        }
+        if (subs.length > term.arity()) {
+            return true;
+        }
+        for (int i = 0; i < subs.length; i++) {
+            if (!subs[i].matches(term.sub(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (key == null) {
+            return "*";
+        }
+        final StringBuilder sb = new StringBuilder(key.toString());
+        if (subs.length > 0) {
+            sb.append('(');
+            for (int i = 0; i < subs.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(subs[i]);
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+}
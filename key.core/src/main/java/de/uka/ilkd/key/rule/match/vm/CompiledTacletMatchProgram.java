@@ -0,0 +1,234 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.vm;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.ElementaryUpdate;
+import de.uka.ilkd.key.logic.op.ModalOperatorSV;
+import de.uka.ilkd.key.logic.op.Modality;
+import de.uka.ilkd.key.logic.op.Operator;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.logic.op.SortDependingFunction;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.rule.match.vm.instructions.BindVariablesInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.Instruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchProgramInstruction;
+import de.uka.ilkd.key.rule.match.vm.instructions.MatchTermLabelInstruction;
+
+/**
+ * A {@link TacletMatchProgram} that is compiled into a tree of matchers, one per node of the
+ * pattern, instead of being interpreted.
+ * <p>
+ * The interpreted program walks through the term with a {@link TermNavigator} and dispatches on
+ * the instruction at the current position. The compiled program descends into the term along
+ * the structure of the pattern, so neither the navigator nor its pooled stack entries are needed.
+ * Pattern nodes consisting of an operator only, which are by far the most common ones, are
+ * matched by an identity check of the operator followed by the matchers of the subterms. All
+ * other nodes reuse the instructions of the interpreter, hence both programs accept the same
+ * terms with the same results.
+ * </p>
+ * <p>
+ * The compiled programs are used if the system property <code>taclet.match</code> is set to
+ * <code>compiled</code>.
+ * </p>
+ *
+ * @see de.uka.ilkd.key.rule.match.TacletMatcherKit
+ */
+public final class CompiledTacletMatchProgram extends TacletMatchProgram {
+
+    /** the matcher of the complete pattern */
+    private final TermMatcher root;
+
+    private CompiledTacletMatchProgram(TermMatcher root) {
+        super(new MatchInstruction[0]);
+        this.root = root;
+    }
+
+    /**
+     * creates a compiled matcher for the given pattern
+     *
+     * @param pattern the {@link Term} specifying the pattern
+     * @return the compiled matcher for the given pattern
+     */
+    public static TacletMatchProgram createProgram(Term pattern) {
+        return new CompiledTacletMatchProgram(compile(pattern, true));
+    }
+
+    /**
+     * compiles the given pattern
+     *
+     * @param pattern the pattern
+     * @param last whether the pattern is the last subterm of its parent and all ancestors; the
+     *        interpreter does not execute the instructions following the last matched subterm,
+     *        so the rename table is not shrunk for these patterns
+     * @return the matcher of the pattern
+     */
+    private static TermMatcher compile(Term pattern, boolean last) {
+        final Operator op = pattern.op();
+        final int arity = pattern.arity();
+
+        final TermMatcher[] subs = new TermMatcher[arity];
+        for (int i = 0; i < arity; i++) {
+            subs[i] = compile(pattern.sub(i), last && i == arity - 1);
+        }
+
+        final boolean hasBoundVars = !pattern.boundVars().isEmpty();
+        final boolean hasProgram = op instanceof Modality || op instanceof ModalOperatorSV;
+        if (!hasBoundVars && !hasProgram && !pattern.hasLabels()) {
+            if (op instanceof SchemaVariable) {
+                if (arity == 0) {
+                    return new SchemaVariableMatcher(
+                        TacletMatchProgram.getMatchInstructionForSV((SchemaVariable) op));
+                }
+            } else if (!(op instanceof SortDependingFunction || op instanceof ElementaryUpdate)) {
+                return arity == 0 ? new ConstantMatcher(op) : new OperatorMatcher(op, subs);
+            }
+        }
+
+        final Instruction<? extends Operator> opInstruction;
+        if (op instanceof SchemaVariable) {
+            opInstruction = TacletMatchProgram.getMatchInstructionForSV((SchemaVariable) op);
+        } else if (op instanceof SortDependingFunction) {
+            opInstruction = Instruction.matchSortDependingFunction((SortDependingFunction) op);
+        } else if (op instanceof ElementaryUpdate) {
+            opInstruction = Instruction.matchElementaryUpdate((ElementaryUpdate) op);
+        } else {
+            opInstruction = Instruction.matchOp(op);
+        }
+        return new GeneralMatcher(
+            hasBoundVars ? Instruction.matchAndBindVariables(pattern.boundVars()) : null,
+            hasProgram ? Instruction.matchProgram(pattern.javaBlock().program()) : null,
+            pattern.hasLabels() ? Instruction.matchTermLabelSV(pattern.getLabels()) : null,
+            opInstruction, subs, hasBoundVars && !last);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MatchConditions match(Term p_toMatch, MatchConditions p_matchCond, Services services) {
+        if (p_matchCond == null) {
+            return null;
+        }
+        return root.match(p_toMatch, p_matchCond, services);
+    }
+
+    /**
+     * The matcher of a node of the pattern.
+     */
+    private interface TermMatcher {
+        /**
+         * @param term the term to match
+         * @param mc the match conditions so far, not <code>null</code>
+         * @param services the {@link Services}
+         * @return the resulting match conditions or <code>null</code> if the term does not match
+         */
+        MatchConditions match(Term term, MatchConditions mc, Services services);
+    }
+
+    /**
+     * Matches a constant, i.e., an operator without subterms.
+     */
+    private static final class ConstantMatcher implements TermMatcher {
+        private final Operator op;
+
+        ConstantMatcher(Operator op) {
+            this.op = op;
+        }
+
+        @Override
+        public MatchConditions match(Term term, MatchConditions mc, Services services) {
+            return term.op() == op ? mc : null;
+        }
+    }
+
+    /**
+     * Matches an operator and its subterms.
+     */
+    private static final class OperatorMatcher implements TermMatcher {
+        private final Operator op;
+        private final TermMatcher[] subs;
+
+        OperatorMatcher(Operator op, TermMatcher[] subs) {
+            this.op = op;
+            this.subs = subs;
+        }
+
+        @Override
+        public MatchConditions match(Term term, MatchConditions mc, Services services) {
+            if (term.op() != op) {
+                return null;
+            }
+            for (int i = 0; i < subs.length && mc != null; i++) {
+                mc = subs[i].match(term.sub(i), mc, services);
+            }
+            return mc;
+        }
+    }
+
+    /**
+     * Matches a schema variable.
+     */
+    private static final class SchemaVariableMatcher implements TermMatcher {
+        private final Instruction<? extends SchemaVariable> instruction;
+
+        SchemaVariableMatcher(Instruction<? extends SchemaVariable> instruction) {
+            this.instruction = instruction;
+        }
+
+        @Override
+        public MatchConditions match(Term term, MatchConditions mc, Services services) {
+            return instruction.match(term, mc, services);
+        }
+    }
+
+    /**
+     * Matches a node of the pattern with bound variables, a program, term labels or an operator
+     * requiring a special instruction, in the order of the interpreted program.
+     */
+    private static final class GeneralMatcher implements TermMatcher {
+        private final BindVariablesInstruction bindVariables;
+        private final MatchProgramInstruction program;
+        private final MatchTermLabelInstruction labels;
+        private final Instruction<? extends Operator> op;
+        private final TermMatcher[] subs;
+        private final boolean unbindVariables;
+
+        GeneralMatcher(BindVariablesInstruction bindVariables, MatchProgramInstruction program,
+                MatchTermLabelInstruction labels, Instruction<? extends Operator> op,
+                TermMatcher[] subs, boolean unbindVariables) {
+            this.bindVariables = bindVariables;
+            this.program = program;
+            this.labels = labels;
+            this.op = op;
+            this.subs = subs;
+            this.unbindVariables = unbindVariables;
+        }
+
+        @Override
+        public MatchConditions match(Term term, MatchConditions mc, Services services) {
+            if (bindVariables != null) {
+                mc = bindVariables.match(term, mc, services);
+            }
+            if (mc != null && program != null) {
+                mc = program.match(term, mc, services);
+            }
+            if (mc != null && labels != null) {
+                mc = labels.match(term, mc, services);
+            }
+            if (mc != null) {
+                mc = op.match(term, mc, services);
+            }
+            for (int i = 0; i < subs.length && mc != null; i++) {
+                mc = subs[i].match(term.sub(i), mc, services);
+            }
+            if (mc != null && unbindVariables) {
+                mc = mc.shrinkRenameTable();
+            }
+            return mc;
+        }
+    }
+}
@@ -36,6 +36,8 @@ import org.key_project.util.collection.ImmutableArray;
  *
  * The program is executed by invoking
  * {@link TacletMatchProgram#match(Term, MatchConditions, Services)}.
+ *
+ * @see CompiledTacletMatchProgram
  */
 public class TacletMatchProgram {
 
@@ -59,7 +61,7 @@ public class TacletMatchProgram {
     private final MatchInstruction[] instruction;
 
     /** creates an instance of the matcher consisting of the instruction */
-    private TacletMatchProgram(MatchInstruction[] instruction) {
+    TacletMatchProgram(MatchInstruction[] instruction) {
         this.instruction = instruction;
     }
 
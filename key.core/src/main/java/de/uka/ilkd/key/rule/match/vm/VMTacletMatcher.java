@@ -80,6 +80,15 @@ public class VMTacletMatcher implements TacletMatcher {
      * @param taclet the Taclet matched by this matcher
      */
     public VMTacletMatcher(Taclet taclet) {
+        this(taclet, false);
+    }
+
+    /**
+     * @param taclet the Taclet matched by this matcher
+     * @param compiled whether to use {@link CompiledTacletMatchProgram}s instead of interpreted
+     *        ones
+     */
+    public VMTacletMatcher(Taclet taclet, boolean compiled) {
         varconditions = taclet.getVariableConditions();
         assumesSequent = taclet.ifSequent();
         boundVars = taclet.getBoundVariables();
@@ -89,7 +98,7 @@ public class VMTacletMatcher implements TacletMatcher {
             findExp = ((FindTaclet) taclet).find();
             ignoreTopLevelUpdates = ((FindTaclet) taclet).ignoreTopLevelUpdates()
                     && !(findExp.op() instanceof UpdateApplication);
-            findMatchProgram = TacletMatchProgram.createProgram(findExp);
+            findMatchProgram = createProgram(findExp, compiled);
 
         } else {
             ignoreTopLevelUpdates = false;
@@ -98,10 +107,15 @@ public class VMTacletMatcher implements TacletMatcher {
         }
 
         for (SequentFormula sf : assumesSequent) {
-            assumesMatchPrograms.put(sf.formula(), TacletMatchProgram.createProgram(sf.formula()));
+            assumesMatchPrograms.put(sf.formula(), createProgram(sf.formula(), compiled));
         }
     }
 
+    private static TacletMatchProgram createProgram(Term pattern, boolean compiled) {
+        return compiled ? CompiledTacletMatchProgram.createProgram(pattern)
+                : TacletMatchProgram.createProgram(pattern);
+    }
+
 
     /**
      * (non-Javadoc)
@@ -100,9 +100,22 @@ private static class VariableSVBinder extends MatchSchemaVariableInstruction<Var
     @Override
     public MatchConditions match(TermNavigator termPosition, MatchConditions matchConditions,
             Services services) {
+        return match(termPosition.getCurrentSubterm(), matchConditions, services);
+    }
+
+    /**
+     * binds the variables bound by the given term to the variables bound by the pattern
+     *
+     * @param term the {@link Term} whose bound variables are matched
+     * @param matchConditions the {@link MatchConditions} accumulated so far
+     * @param services the {@link Services}
+     * @return {@code null} if the bound variables do not match, otherwise the resulting match
+     *         conditions with an extended rename table
+     */
+    public MatchConditions match(Term term, MatchConditions matchConditions,
+            Services services) {
 
-        ImmutableArray<QuantifiableVariable> variablesToMatchAndBind =
-            termPosition.getCurrentSubterm().boundVars();
+        ImmutableArray<QuantifiableVariable> variablesToMatchAndBind = term.boundVars();
 
         matchConditions = matchConditions.extendRenameTable();
 
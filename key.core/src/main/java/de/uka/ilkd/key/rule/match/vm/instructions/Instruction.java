@@ -63,15 +63,15 @@ public abstract class Instruction<OP extends Operator> implements MatchInstructi
         return new MatchUpdateSVInstruction(sv);
     }
 
-    public static MatchInstruction matchTermLabelSV(ImmutableArray<TermLabel> labels) {
+    public static MatchTermLabelInstruction matchTermLabelSV(ImmutableArray<TermLabel> labels) {
         return new MatchTermLabelInstruction(labels);
     }
 
-    public static MatchInstruction matchProgram(JavaProgramElement prg) {
+    public static MatchProgramInstruction matchProgram(JavaProgramElement prg) {
         return new MatchProgramInstruction(prg);
     }
 
-    public static MatchInstruction matchAndBindVariables(
+    public static BindVariablesInstruction matchAndBindVariables(
             ImmutableArray<QuantifiableVariable> boundVars) {
         return new BindVariablesInstruction(boundVars);
     }
@@ -80,7 +80,8 @@ public abstract class Instruction<OP extends Operator> implements MatchInstructi
         return new UnbindVariablesInstruction();
     }
 
-    public static MatchInstruction matchElementaryUpdate(ElementaryUpdate elementaryUpdate) {
+    public static Instruction<ElementaryUpdate> matchElementaryUpdate(
+            ElementaryUpdate elementaryUpdate) {
         return new MatchElementaryUpdateInstruction(elementaryUpdate);
     }
 
@@ -6,6 +6,7 @@ package de.uka.ilkd.key.rule.match.vm.instructions;
 import de.uka.ilkd.key.java.ProgramElement;
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.java.SourceData;
+import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.rule.MatchConditions;
 import de.uka.ilkd.key.rule.match.vm.TermNavigator;
 
@@ -20,9 +21,21 @@ public class MatchProgramInstruction implements MatchInstruction {
     @Override
     public MatchConditions match(TermNavigator termPosition, MatchConditions matchConditions,
             Services services) {
+        return match(termPosition.getCurrentSubterm(), matchConditions, services);
+    }
+
+    /**
+     * matches the program of the given term against the program of the pattern
+     *
+     * @param term the {@link Term} whose java block is matched
+     * @param matchConditions the {@link MatchConditions} accumulated so far
+     * @param services the {@link Services}
+     * @return {@code null} if the programs do not match, otherwise the resulting match conditions
+     */
+    public MatchConditions match(Term term, MatchConditions matchConditions,
+            Services services) {
         final MatchConditions result = pe.match(
-            new SourceData(termPosition.getCurrentSubterm().javaBlock().program(), -1, services),
-            matchConditions);
+            new SourceData(term.javaBlock().program(), -1, services), matchConditions);
         return result;
     }
 }
@@ -0,0 +1,308 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+import de.uka.ilkd.key.smt.solvertypes.SolverType;
+
+import org.key_project.util.LRUCache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of the results of SMT solvers, addressed by the content of the translated problem.
+ * <p>
+ * Identical problems are sent to the solvers again and again: for sibling goals after splits,
+ * when macros are retried and when the same proofs are run again. The cache stores the result of
+ * a solver run together with the output of the solver (models, unsat cores) under a SHA-256 hash
+ * of the normalized problem text (comments and layout removed) and the solver's name, command
+ * line and version. A cached <code>unknown</code> is only reused for a timeout not larger than the
+ * one it was obtained with; results of interrupted runs are never stored.
+ * </p>
+ * <p>
+ * The cache is kept in memory with LRU eviction if the system property {@value #ENABLED_PROPERTY}
+ * is <code>true</code>, its size is given by {@value #SIZE_PROPERTY}. If the system property
+ * {@value #DIRECTORY_PROPERTY} is set to a writable directory, the results are also stored on
+ * disk and shared by all JVMs using the same directory.
+ * </p>
+ */
+public final class SMTResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SMTResultCache.class);
+
+    /** system property enabling the in-memory cache */
+    public static final String ENABLED_PROPERTY = "key.smt.resultCache";
+
+    /** system property with the maximal number of results kept in memory */
+    public static final String SIZE_PROPERTY = "key.smt.resultCacheSize";
+
+    /** system property with the directory of the persistent cache */
+    public static final String DIRECTORY_PROPERTY = "key.smt.resultCacheDir";
+
+    /** the default number of results kept in memory */
+    public static final int DEFAULT_SIZE = 10000;
+
+    /** "KSMT" */
+    private static final int MAGIC = 0x4b534d54;
+
+    /** version of the cache format, part of the hash */
+    private static final int VERSION = 1;
+
+    private static final String SUFFIX = ".smtresult";
+
+    private static SMTResultCache defaultCache;
+
+    /** the versions of the solver commands, determined once per JVM */
+    private static final Map<String, String> VERSIONS = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> memory;
+
+    private final Path directory;
+
+    /**
+     * A cached solver result.
+     *
+     * @param truth the result
+     * @param timeout the timeout of the run in milliseconds
+     * @param output the output messages of the solver
+     */
+    public record Entry(@Nonnull ThreeValuedTruth truth, long timeout,
+            @Nonnull List<String> output) {
+        /**
+         * @param timeout a timeout in milliseconds
+         * @return whether a run with the given timeout would have this result
+         */
+        public boolean isValidFor(long timeout) {
+            return truth != ThreeValuedTruth.UNKNOWN || timeout <= this.timeout;
+        }
+
+        /**
+         * @param solverName the name of the solver
+         * @return the result as obtained from the given solver
+         */
+        public SMTSolverResult toResult(String solverName) {
+            return switch (truth) {
+            case VALID -> SMTSolverResult.createValidResult(solverName);
+            case FALSIFIABLE -> SMTSolverResult.createInvalidResult(solverName);
+            default -> SMTSolverResult.createUnknownResult(solverName);
+            };
+        }
+    }
+
+    /**
+     * @param maxEntries the number of results kept in memory
+     * @param directory the directory of the persistent cache, created on demand, or
+     *        <code>null</code> for an in-memory cache
+     */
+    public SMTResultCache(int maxEntries, @Nullable Path directory) {
+        this.memory = Collections.synchronizedMap(new LRUCache<>(maxEntries));
+        this.directory = directory;
+    }
+
+    /**
+     * @return the cache as configured by the system properties, or <code>null</code> if
+     *         caching is disabled
+     */
+    @Nullable
+    public static synchronized SMTResultCache getDefault() {
+        final String dir = System.getProperty(DIRECTORY_PROPERTY);
+        final Path path = dir == null || dir.isEmpty() ? null : Paths.get(dir);
+        if (path == null && !Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return null;
+        }
+        if (defaultCache == null || !Objects.equals(defaultCache.directory, path)) {
+            defaultCache =
+                new SMTResultCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE), path);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Computes the key of a problem for the given solver type.
+     *
+     * @param type the solver type
+     * @param problem the translated problem
+     * @return the key of the problem
+     */
+    public String key(@Nonnull SolverType type, @Nonnull String problem) {
+        final String command = type.getSolverCommand() + " " + type.getSolverParameters();
+        final String version = VERSIONS.computeIfAbsent(command, c -> {
+            final String v = type.getRawVersion();
+            return v == null ? "" : v;
+        });
+        return key(type.getName() + "\n" + command + "\n" + version, problem);
+    }
+
+    /**
+     * Computes the key of a problem for a solver.
+     *
+     * @param solver a description of the solver, including its version
+     * @param problem the translated problem
+     * @return the key of the problem
+     */
+    public static String key(@Nonnull String solver, @Nonnull String problem) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+        digest.update((VERSION + "\n" + solver + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(normalize(problem).getBytes(StandardCharsets.UTF_8));
+        final StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes the comments from an SMT-LIB script and replaces all whitespace between tokens by a
+     * single blank. String literals and quoted symbols are kept as they are.
+     *
+     * @param problem the script
+     * @return the normalized script
+     */
+    static String normalize(String problem) {
+        final StringBuilder sb = new StringBuilder(problem.length());
+        boolean space = false;
+        for (int i = 0; i < problem.length(); i++) {
+            final char c = problem.charAt(i);
+            if (c == ';') {
+                while (i + 1 < problem.length() && problem.charAt(i + 1) != '\n') {
+                    i++;
+                }
+                space = true;
+            } else if (Character.isWhitespace(c)) {
+                space = true;
+            } else {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                space = false;
+                if (c == '"' || c == '|') {
+                    // copy the literal up to its end; "" is an escaped quote in strings
+                    int end = problem.indexOf(c, i + 1);
+                    end = end < 0 ? problem.length() - 1 : end;
+                    sb.append(problem, i, end + 1);
+                    i = end;
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Looks up the result of a problem.
+     *
+     * @param key the key of the problem
+     * @param timeout the timeout of the intended solver run in milliseconds
+     * @return the cached result if it is valid for the timeout, <code>null</code> otherwise
+     */
+    @Nullable
+    public Entry lookup(@Nonnull String key, long timeout) {
+        Entry entry = memory.get(key);
+        if (entry == null && directory != null) {
+            entry = read(directory.resolve(key + SUFFIX));
+            if (entry != null) {
+                memory.put(key, entry);
+            }
+        }
+        return entry != null && entry.isValidFor(timeout) ? entry : null;
+    }
+
+    /**
+     * Stores the result of a solver run. A cached <code>unknown</code> is only replaced by an
+     * <code>unknown</code> obtained with a larger timeout.
+     *
+     * @param key the key of the problem
+     * @param entry the result
+     */
+    public void store(@Nonnull String key, @Nonnull Entry entry) {
+        final Entry old = memory.get(key);
+        if (old != null && old.truth() != ThreeValuedTruth.UNKNOWN
+                || old != null && entry.truth() == ThreeValuedTruth.UNKNOWN
+                        && old.timeout() >= entry.timeout()) {
+            return;
+        }
+        memory.put(key, entry);
+        if (directory != null) {
+            try {
+                write(directory.resolve(key + SUFFIX), entry);
+            } catch (IOException e) {
+                LOGGER.warn("Could not write SMT result to {}", directory, e);
+            }
+        }
+    }
+
+    @Nullable
+    private static Entry read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in =
+            new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.debug("Ignoring invalid SMT result {}", file);
+                return null;
+            }
+            final ThreeValuedTruth truth = ThreeValuedTruth.values()[in.readInt()];
+            final long timeout = in.readLong();
+            final int size = in.readInt();
+            final List<String> output = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                output.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return new Entry(truth, timeout, Collections.unmodifiableList(output));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not read SMT result {}", file, e);
+            return null;
+        }
+    }
+
+    private static void write(Path file, Entry entry) throws IOException {
+        Files.createDirectories(file.getParent());
+        final Path tmp = Files.createTempFile(file.getParent(), "result", ".tmp");
+        try {
+            try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entry.truth().ordinal());
+                out.writeLong(entry.timeout());
+                out.writeInt(entry.output().size());
+                for (String msg : entry.output()) {
+                    final byte[] bytes = msg.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
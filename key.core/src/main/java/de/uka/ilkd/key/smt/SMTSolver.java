@@ -27,7 +27,12 @@ public interface SMTSolver {
      * Possible reasons for why a solver process was interrupted/stopped.
      */
     enum ReasonOfInterruption {
-        User, Timeout, Exception, NoInterruption
+        User, Timeout, Exception, NoInterruption,
+        /**
+         * Another solver of the portfolio has already decided the problem (see
+         * {@link SolverPortfolio})
+         */
+        Portfolio
     }
 
     /**
@@ -87,8 +92,9 @@ public interface SMTSolver {
      * Use this method in order to interrupt a running solver process.
      *
      * @param reasonOfInterruption The reason of interruption. Can only be set to
-     *        <code>ReasonOfInterruption.Timeout</code> or <code>ReasonOfInterruption.User</code>
-     *        other wise a <code>IllegalArgumentException</code> is thrown.
+     *        <code>ReasonOfInterruption.Timeout</code>, <code>ReasonOfInterruption.User</code> or
+     *        <code>ReasonOfInterruption.Portfolio</code> other wise a
+     *        <code>IllegalArgumentException</code> is thrown.
      */
     void interrupt(ReasonOfInterruption reasonOfInterruption);
 
@@ -153,6 +159,12 @@ public interface SMTSolver {
      **/
     SMTSolverResult getFinalResult();
 
+    /**
+     * @return true iff the final result has been taken from the result cache instead of running
+     *         the solver process
+     */
+    boolean isResultCached();
+
     /**
      * Returns the raw solver output. This includes the result (sat/unsat/unknown), possibly
      * error/warning messages, and possibly model/proof as certificate for sat/unsat.
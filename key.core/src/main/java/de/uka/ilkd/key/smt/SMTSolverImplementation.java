@@ -4,8 +4,16 @@
 package de.uka.ilkd.key.smt;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 
@@ -16,8 +24,15 @@ import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.mgt.SpecificationRepository;
 import de.uka.ilkd.key.smt.communication.AbstractSolverSocket;
 import de.uka.ilkd.key.smt.communication.ExternalProcessLauncher;
+import de.uka.ilkd.key.smt.communication.Pipe;
 import de.uka.ilkd.key.smt.communication.SolverCommunication;
 import de.uka.ilkd.key.smt.communication.SolverCommunication.Message;
+import de.uka.ilkd.key.smt.communication.SolverCommunication.MessageType;
+import de.uka.ilkd.key.smt.communication.SolverSession;
+import de.uka.ilkd.key.smt.communication.SolverSessionPool;
+import de.uka.ilkd.key.smt.communication.TeeWriter;
+import de.uka.ilkd.key.smt.newsmt2.ModularSMTLib2Translator;
+import de.uka.ilkd.key.smt.newsmt2.Writable;
 import de.uka.ilkd.key.smt.solvertypes.SolverType;
 import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
 import de.uka.ilkd.key.taclettranslation.assumptions.TacletSetTranslation;
@@ -34,6 +49,16 @@ import org.slf4j.LoggerFactory;
  * <li>Sends the problem to the process.</li>
  * <li>Communicates with the solver via the solver socket.</li>
  * </ol>
+ * If persistent solver sessions are enabled (see {@link SolverSessionPool}), the problem is sent
+ * to a running process of a previous problem with the same preamble instead. If the result of the
+ * problem is known from a previous run (see {@link SMTResultCache}), no solver is run at all.
+ * <p>
+ * If the system property {@value #STREAM_PROPERTY} is <code>true</code> and neither of the above
+ * is enabled, problems of the modular translation are written directly to the input of the
+ * solver instead of being built as a String first. The text of the problem is then only built
+ * if {@link #getTranslation()} is called. If the system property {@value #DUMP_PROPERTY} names a
+ * directory, the streamed problems are also written to files in it.
+ * </p>
  *
  * @author ?
  * @author Wolfram Pfeifer (SMT communication overhaul)
@@ -41,6 +66,12 @@ import org.slf4j.LoggerFactory;
 public final class SMTSolverImplementation implements SMTSolver, Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(SMTSolverImplementation.class);
 
+    /** system property enabling the streaming of problems to the solver */
+    public static final String STREAM_PROPERTY = "key.smt.streamProblems";
+
+    /** system property with the directory the streamed problems are written to */
+    public static final String DUMP_PROPERTY = "key.smt.problemDumpDir";
+
     /**
      * used to generate unique ids for each running solver instance
      */
@@ -77,6 +108,12 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
      */
     private final ExternalProcessLauncher processLauncher;
 
+    /**
+     * the persistent solver session solving the problem, <code>null</code> if the solver process
+     * is started by the {@link #processLauncher}
+     */
+    private volatile SolverSession session;
+
     /**
      * The services object is stored in order to have the possibility to access it in every method
      */
@@ -124,6 +161,12 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
      */
     private String problemString = "NOT YET COMPUTED";
 
+    /**
+     * The translation of the problem if it is streamed to the solver, <code>null</code> otherwise.
+     * In that case {@link #problemString} is computed from it on demand.
+     */
+    private Writable problemWriter;
+
     /**
      * Stores the taclet translation that is associated with this solver.
      */
@@ -263,18 +306,69 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             return;
         }
 
-        // Thirdly: start the external process.
+        // Problems decided before need not be sent to the solver again.
+        // (streamed problems are not cached, their text is not materialized)
+        final SMTResultCache cache = getType() == SolverTypes.Z3_CE_SOLVER || problemWriter != null
+                ? null
+                : SMTResultCache.getDefault();
+        final String cacheKey = cache == null ? null : cache.key(type, problemString);
+        if (cacheKey != null) {
+            final SMTResultCache.Entry cached = cache.lookup(cacheKey, timeout);
+            if (cached != null) {
+                solverCommunication.setCachedResult(cached.toResult(type.getName()),
+                    cached.output());
+                solverTimeout.cancel();
+                setSolverState(SolverState.Stopped);
+                listener.processStopped(this, problem);
+                return;
+            }
+        }
+
+        // Thirdly: start the external process (or reuse a running one).
         try {
-            processLauncher.launch(commands);
-            processLauncher.getPipe().sendMessage(type.modifyProblem(problemString));
-            // processLauncher.getPipe().sendEOF();
+            final String modifiedProblem =
+                problemWriter == null ? type.modifyProblem(problemString) : "";
+            final int sequentPart = modifiedProblem.indexOf(
+                ModularSMTLib2Translator.DECLARATIONS_SECTION);
+            final Pipe pipe;
+            if (problemWriter != null) {
+                processLauncher.launch(commands);
+                pipe = processLauncher.getPipe();
+                pipe.sendMessage(this::writeProblem);
+            } else if (SolverSessionPool.isEnabled() && sequentPart >= 0
+                    && getType() != SolverTypes.Z3_CE_SOLVER) {
+                session = SolverSessionPool.getInstance().acquire(commands,
+                    modifiedProblem.substring(0, sequentPart), type.getDelimiters());
+                session.startProblem(solverCommunication,
+                    modifiedProblem.substring(sequentPart));
+                pipe = session;
+            } else {
+                processLauncher.launch(commands);
+                pipe = processLauncher.getPipe();
+                pipe.sendMessage(modifiedProblem);
+                // pipe.sendEOF();
+            }
 
-            String msg = processLauncher.getPipe().readMessage();
+            String msg = pipe.readMessage();
             while (msg != null) {
-                socket.messageIncoming(processLauncher.getPipe(), msg);
-                msg = processLauncher.getPipe().readMessage();
+                socket.messageIncoming(pipe, msg);
+                msg = pipe.readMessage();
+            }
+
+            final SMTSolverResult result = solverCommunication.getFinalResult();
+            if (cacheKey != null && result != SMTSolverResult.NO_IDEA
+                    && reasonOfInterruption == ReasonOfInterruption.NoInterruption) {
+                final List<String> output = new ArrayList<>();
+                for (Message m : solverCommunication.getMessages(MessageType.OUTPUT)) {
+                    output.add(m.content());
+                }
+                cache.store(cacheKey, new SMTResultCache.Entry(result.isValid(), timeout,
+                    Collections.unmodifiableList(output)));
             }
         } catch (IllegalStateException | IOException | InterruptedException e) {
+            if (session != null) {
+                session.close();
+            }
             interruptionOccurred(e);
             Thread.currentThread().interrupt();
         } finally {
@@ -282,10 +376,43 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             solverTimeout.cancel();
             setSolverState(SolverState.Stopped);
             listener.processStopped(this, problem);
-            processLauncher.stop();
+            if (session != null) {
+                SolverSessionPool.getInstance().release(session);
+            } else {
+                processLauncher.stop();
+            }
         }
     }
 
+    /**
+     * Writes the streamed problem, and a copy of it to the dump directory if one is configured.
+     */
+    private void writeProblem(Writer out) throws IOException {
+        final String dir = System.getProperty(DUMP_PROPERTY);
+        if (dir == null || dir.isEmpty()) {
+            problemWriter.writeTo(out);
+            return;
+        }
+        final Path file = Paths.get(dir).resolve(type.getName() + "-" + id + ".smt2");
+        Files.createDirectories(file.getParent());
+        try (Writer dump = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            final Writer tee = new TeeWriter(out, dump);
+            problemWriter.writeTo(tee);
+            tee.flush();
+        }
+    }
+
+    /**
+     * Problems are only streamed if nothing else needs their text before they are sent: neither
+     * the result cache nor persistent sessions are enabled and the socket does not modify the
+     * problem.
+     */
+    private boolean isStreamed(SMTTranslator trans) {
+        return Boolean.getBoolean(STREAM_PROPERTY) && trans instanceof ModularSMTLib2Translator
+                && SMTResultCache.getDefault() == null && !SolverSessionPool.isEnabled()
+                && !socket.modifiesProblem();
+    }
+
     private void interruptionOccurred(Throwable e) {
         ReasonOfInterruption reason = getReasonOfInterruption();
         setReasonOfInterruption(ReasonOfInterruption.Exception, e);
@@ -299,6 +426,7 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             listener.processTimeout(this, problem);
             break;
         case User:
+        case Portfolio:
             listener.processUser(this, problem);
             break;
         }
@@ -344,8 +472,14 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
 
         } else {
             SMTTranslator trans = getType().createTranslator();
-            problemString =
-                indent(trans.translateProblem(sequent, services, smtSettings).toString());
+            if (isStreamed(trans)) {
+                problemWriter = ((ModularSMTLib2Translator) trans).translate(sequent, services,
+                    smtSettings);
+                problemString = null;
+            } else {
+                problemString =
+                    indent(trans.translateProblem(sequent, services, smtSettings).toString());
+            }
             if (trans instanceof AbstractSMTTranslator) {
                 // Since taclet translation in the old form is no longer used,
                 // this will likely disappear.
@@ -371,7 +505,13 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
             solverTimeout.cancel();
         }
         if (thread != null) {
-            processLauncher.stop();
+            final SolverSession s = session;
+            if (s != null) {
+                // an interrupted problem leaves the session in an unknown state
+                s.close();
+            } else {
+                processLauncher.stop();
+            }
             thread.interrupt();
         }
     }
@@ -381,6 +521,11 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
         return isRunning() ? null : solverCommunication.getFinalResult();
     }
 
+    @Override
+    public boolean isResultCached() {
+        return solverCommunication.isCachedResult();
+    }
+
     @Override
     public TacletSetTranslation getTacletTranslation() {
         return isRunning() ? null : tacletTranslation;
@@ -388,7 +533,15 @@ public final class SMTSolverImplementation implements SMTSolver, Runnable {
 
     @Override
     public String getTranslation() {
-        return isRunning() ? null : problemString;
+        if (isRunning()) {
+            return null;
+        }
+        if (problemString == null) {
+            StringBuilder sb = new StringBuilder();
+            problemWriter.appendTo(sb);
+            problemString = indent(sb.toString());
+        }
+        return problemString;
     }
 
     @Override
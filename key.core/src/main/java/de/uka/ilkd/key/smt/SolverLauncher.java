@@ -4,12 +4,14 @@
 package de.uka.ilkd.key.smt;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.smt.SMTSolver.ReasonOfInterruption;
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
 import de.uka.ilkd.key.smt.solvertypes.SolverType;
 
 /**
@@ -74,6 +76,9 @@ import de.uka.ilkd.key.smt.solvertypes.SolverType;
  * NOTE: In case that you add at least one listener to a launcher no exception is thrown when a
  * solver produces an error. The exceptions of the solvers are stored within the solver object and
  * can be accessed by <code>solver.getException</code>.
+ * <p>
+ * If enabled, the solvers are scheduled as a portfolio, see {@link SolverPortfolio}.
+ * </p>
  */
 
 public class SolverLauncher implements SolverListener {
@@ -183,6 +188,16 @@ public class SolverLauncher implements SolverListener {
 
     private final LinkedList<SolverLauncherListener> listeners = new LinkedList<>();
 
+    /**
+     * The solvers not started yet. Only accessed while holding {@link #lock}.
+     */
+    private Queue<SMTSolver> pending;
+
+    /**
+     * The times the running solvers have been started at, for the {@link SolverPortfolio}.
+     */
+    private final Map<SMTSolver, Long> startTimes = new ConcurrentHashMap<>();
+
     /**
      * Every launcher object should be used only once.
      */
@@ -197,7 +212,12 @@ public class SolverLauncher implements SolverListener {
             for (SolverType factory : factories) {
                 if (factory.isInstalled(false)) {
                     SMTSolver solver = factory.createSolver(problem, this, services);
-                    solver.setTimeout(settings.getTimeout(factory));
+                    long timeout = settings.getTimeout(factory);
+                    if (SolverPortfolio.isAdaptingTimeouts()) {
+                        timeout =
+                            SolverPortfolio.getInstance().timeout(factory.getName(), timeout);
+                    }
+                    solver.setTimeout(timeout);
                     problem.addSolver(solver);
                 }
             }
@@ -238,8 +258,25 @@ public class SolverLauncher implements SolverListener {
     private void launchIntern(Collection<SMTProblem> problems, Collection<SolverType> factories) {
 
         LinkedList<SMTSolver> solvers = new LinkedList<>();
-        for (SMTProblem problem : problems) {
-            solvers.addAll(problem.getSolvers());
+        if (SolverPortfolio.isEnabled()) {
+            // the most promising solver for all problems first, the others are only started for
+            // the problems still open by then
+            List<SolverType> types = new ArrayList<>(factories);
+            Comparator<String> order = SolverPortfolio.getInstance().order();
+            types.sort((a, b) -> order.compare(a.getName(), b.getName()));
+            for (SolverType type : types) {
+                for (SMTProblem problem : problems) {
+                    for (SMTSolver solver : problem.getSolvers()) {
+                        if (solver.getType() == type) {
+                            solvers.add(solver);
+                        }
+                    }
+                }
+            }
+        } else {
+            for (SMTProblem problem : problems) {
+                solvers.addAll(problem.getSolvers());
+            }
         }
         launchSolvers(solvers, problems, factories);
     }
@@ -256,6 +293,7 @@ public class SolverLauncher implements SolverListener {
             SolverTimeout solverTimeout = new SolverTimeout(solver, session);
             timer.schedule(solverTimeout, solver.getTimeout(), PERIOD);
             session.addCurrentlyRunning(solver);
+            startTimes.put(solver, System.currentTimeMillis());
 
             // This cast is okay since there is only the class
             // SMTSolverImplementation that implements SMTSolver.
@@ -280,6 +318,13 @@ public class SolverLauncher implements SolverListener {
 
     private void launchSolvers(Queue<SMTSolver> solvers, Collection<SMTProblem> problems,
             Collection<SolverType> solverTypes) {
+        lock.lock();
+        try {
+            pending = solvers;
+        } finally {
+            lock.unlock();
+        }
+
         // Show progress dialog
         notifyListenersOfStart(problems, solverTypes);
 
@@ -392,6 +437,58 @@ public class SolverLauncher implements SolverListener {
         }
     }
 
+    /**
+     * Records the run of a solver in the {@link SolverPortfolio}. Results taken from the result
+     * cache are not recorded, their runtime says nothing about the solver.
+     */
+    private void recordRun(SMTSolver solver) {
+        Long start = startTimes.remove(solver);
+        ReasonOfInterruption reason = solver.getReasonOfInterruption();
+        if (start == null || solver.isResultCached() || reason == ReasonOfInterruption.User
+                || reason == ReasonOfInterruption.Portfolio) {
+            return;
+        }
+        SMTSolverResult result = solver.getFinalResult();
+        ThreeValuedTruth truth = reason == ReasonOfInterruption.NoInterruption && result != null
+                ? result.isValid()
+                : ThreeValuedTruth.UNKNOWN;
+        SolverPortfolio.getInstance().record(solver.name(), truth,
+            System.currentTimeMillis() - start);
+    }
+
+    /**
+     * If the solver has proven or disproven its problem, the other solvers of the problem are
+     * stopped, or not started at all. Solvers that are not started are reported as stopped, like
+     * the running ones when their process ends.
+     */
+    private void cancelSiblings(SMTSolver solver, SMTProblem problem) {
+        SMTSolverResult result = solver.getFinalResult();
+        if (problem == null || result == null
+                || result.isValid() == ThreeValuedTruth.UNKNOWN) {
+            return;
+        }
+        List<SMTSolver> notStarted = new ArrayList<>();
+        lock.lock();
+        try {
+            for (SMTSolver sibling : problem.getSolvers()) {
+                if (sibling == solver) {
+                    continue;
+                }
+                if (pending != null && pending.remove(sibling)) {
+                    sibling.interrupt(ReasonOfInterruption.Portfolio);
+                    notStarted.add(sibling);
+                } else if (sibling.getState() != SMTSolver.SolverState.Stopped) {
+                    session.interruptSolver(sibling, ReasonOfInterruption.Portfolio);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (SMTSolver sibling : notStarted) {
+            processStopped(sibling, problem);
+        }
+    }
+
     /**
      * If there is some exception that is caused by the launcher (not by the solvers) just forward
      * it
@@ -407,6 +504,12 @@ public class SolverLauncher implements SolverListener {
     @Override
     public void processStopped(SMTSolver solver, SMTProblem problem) {
         session.addFinishedSolver(solver);
+        if (SolverPortfolio.isEnabled() || SolverPortfolio.isAdaptingTimeouts()) {
+            recordRun(solver);
+        }
+        if (SolverPortfolio.isEnabled()) {
+            cancelSiblings(solver, problem);
+        }
         notifySolverHasFinished(solver);
     }
 
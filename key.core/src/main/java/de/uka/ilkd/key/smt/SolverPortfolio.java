@@ -0,0 +1,169 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+/**
+ * Statistics on the solver runs of this JVM, used by the {@link SolverLauncher} to schedule the
+ * solvers of many problems as a portfolio.
+ * <p>
+ * If the system property {@value #PORTFOLIO_PROPERTY} is <code>true</code>, the launcher starts
+ * the solvers in the order of their historical success rate (and mean runtime for equal rates),
+ * the best solver for all problems first, and cancels the other solvers of a problem as soon as
+ * one of them proves or disproves it. If the system property {@value #TIMEOUT_PROPERTY} is
+ * <code>true</code>, the timeout of a solver is lowered to a multiple of the runtime it needed
+ * for {@value #QUANTILE_PERCENT} percent of its successful runs, once there are at least
+ * {@value #MIN_SAMPLES} of them. The configured timeout is never exceeded.
+ * </p>
+ */
+public final class SolverPortfolio {
+    /** system property enabling the portfolio scheduling */
+    public static final String PORTFOLIO_PROPERTY = "key.smt.portfolio";
+
+    /** system property enabling the adaptation of timeouts */
+    public static final String TIMEOUT_PROPERTY = "key.smt.adaptiveTimeouts";
+
+    /** number of successful runs needed before the timeout of a solver is adapted */
+    static final int MIN_SAMPLES = 20;
+
+    /** the percentage of successful runs the adapted timeout is based on */
+    static final int QUANTILE_PERCENT = 95;
+
+    /** the factor between the quantile of the runtimes and the adapted timeout */
+    private static final int TIMEOUT_FACTOR = 2;
+
+    /** lower bound of adapted timeouts in milliseconds */
+    private static final long MIN_TIMEOUT = 1000;
+
+    /** number of the most recent successful runtimes kept per solver */
+    private static final int WINDOW = 256;
+
+    private static final SolverPortfolio INSTANCE = new SolverPortfolio();
+
+    /** the statistics of solvers without recorded runs */
+    private static final Statistics NO_RUNS = new Statistics();
+
+    /** the statistics by solver name */
+    private final Map<String, Statistics> statistics = new HashMap<>();
+
+    /**
+     * Creates a portfolio without recorded runs, use {@link #getInstance()} to share the
+     * statistics.
+     */
+    SolverPortfolio() {
+    }
+
+    /**
+     * The runs of one solver.
+     */
+    private static final class Statistics {
+        /** number of runs */
+        private int runs;
+        /** number of runs proving or disproving the problem */
+        private int decided;
+        /** sum of the runtimes of the decided runs */
+        private long decidedTime;
+        /** the runtimes of the most recent decided runs, a ring buffer */
+        private final long[] runtimes = new long[WINDOW];
+
+        double successRate() {
+            // add-one smoothing: solvers without runs are neither preferred nor avoided
+            return (decided + 1.0) / (runs + 2.0);
+        }
+
+        double meanRuntime() {
+            return decided == 0 ? Double.MAX_VALUE : (double) decidedTime / decided;
+        }
+
+        long quantile(int percent) {
+            long[] sorted = Arrays.copyOf(runtimes, Math.min(decided, WINDOW));
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (sorted.length * percent + 99) / 100 - 1)];
+        }
+    }
+
+    /**
+     * @return the portfolio shared by all launchers
+     */
+    public static SolverPortfolio getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true iff the launchers schedule the solvers as a portfolio
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PORTFOLIO_PROPERTY);
+    }
+
+    /**
+     * @return true iff the timeouts of the solvers are adapted
+     */
+    public static boolean isAdaptingTimeouts() {
+        return Boolean.getBoolean(TIMEOUT_PROPERTY);
+    }
+
+    /**
+     * Records a finished solver run. Runs interrupted by the user or in favor of another solver
+     * should not be recorded.
+     *
+     * @param solver the name of the solver
+     * @param truth the result of the run, {@link ThreeValuedTruth#UNKNOWN} for timeouts and errors
+     * @param runtime the runtime in milliseconds
+     */
+    public synchronized void record(@Nonnull String solver, @Nonnull ThreeValuedTruth truth,
+            long runtime) {
+        Statistics s = statistics.computeIfAbsent(solver, k -> new Statistics());
+        s.runs++;
+        if (truth != ThreeValuedTruth.UNKNOWN) {
+            s.runtimes[s.decided % WINDOW] = runtime;
+            s.decided++;
+            s.decidedTime += runtime;
+        }
+    }
+
+    /**
+     * @return orders solver names from the most to the least promising one
+     */
+    public Comparator<String> order() {
+        return (a, b) -> {
+            synchronized (this) {
+                Statistics sa = statistics.getOrDefault(a, NO_RUNS);
+                Statistics sb = statistics.getOrDefault(b, NO_RUNS);
+                int result = Double.compare(sb.successRate(), sa.successRate());
+                return result != 0 ? result
+                        : Double.compare(sa.meanRuntime(), sb.meanRuntime());
+            }
+        };
+    }
+
+    /**
+     * @param solver the name of the solver
+     * @param configured the configured timeout in milliseconds
+     * @return the timeout learned from the previous runs of the solver, not larger than the
+     *         configured one
+     */
+    public synchronized long timeout(@Nonnull String solver, long configured) {
+        Statistics s = statistics.get(solver);
+        if (s == null || s.decided < MIN_SAMPLES) {
+            return configured;
+        }
+        long learned = Math.max(MIN_TIMEOUT, TIMEOUT_FACTOR * s.quantile(QUANTILE_PERCENT));
+        return Math.min(configured, learned);
+    }
+
+    /**
+     * Forgets all recorded runs.
+     */
+    public synchronized void clear() {
+        statistics.clear();
+    }
+}
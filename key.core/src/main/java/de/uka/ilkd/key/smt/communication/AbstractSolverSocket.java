@@ -79,7 +79,8 @@ public abstract class AbstractSolverSocket {
 
     /**
      * Modify an SMT problem String in some way (e.g. prepend some SMT commands). By default, the
-     * String is not changed at all.
+     * String is not changed at all. Sockets overriding this method have to override
+     * {@link #modifiesProblem()} as well.
      *
      * @param problem the SMT problem String to be modified
      * @return a modified version of the problem
@@ -88,6 +89,14 @@ public abstract class AbstractSolverSocket {
         return problem;
     }
 
+    /**
+     * @return true iff {@link #modifyProblem(String)} changes the problem, so that the problem
+     *         has to be translated to a String instead of being streamed to the solver
+     */
+    public boolean modifiesProblem() {
+        return false;
+    }
+
     /**
      * Creates a new solver socket that can handle the communication for the given solver type.
      *
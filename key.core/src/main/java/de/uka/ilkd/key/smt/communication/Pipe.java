@@ -4,6 +4,8 @@
 package de.uka.ilkd.key.smt.communication;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -22,6 +24,33 @@ public interface Pipe {
      */
     void sendMessage(@Nonnull String message) throws IOException;
 
+    /**
+     * Writes a message to the external process the Pipe is connected to. Pipes supporting it
+     * write the message directly to the input of the process, so that large messages are not
+     * materialized as a String. By default, the message is sent by
+     * {@link #sendMessage(String)}.
+     *
+     * @param message writes the message to the given writer
+     * @throws IOException if an I/O error occurs
+     */
+    default void sendMessage(@Nonnull MessageWriter message) throws IOException {
+        StringWriter sw = new StringWriter();
+        message.writeTo(sw);
+        sendMessage(sw.toString());
+    }
+
+    /**
+     * Writes a message to a {@link Pipe}.
+     */
+    @FunctionalInterface
+    interface MessageWriter {
+        /**
+         * @param out the writer to write the message to, must not be closed
+         * @throws IOException if writing fails
+         */
+        void writeTo(@Nonnull Writer out) throws IOException;
+    }
+
     /**
      * Reads a message from the external process. This method blocks until there is a further
      * message or the underlying stream has been closed.
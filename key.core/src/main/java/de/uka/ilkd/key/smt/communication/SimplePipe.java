@@ -45,6 +45,11 @@ public class SimplePipe implements Pipe {
      */
     private final Writer processWriter;
 
+    /**
+     * stdin of the SMT process without capture, used for streamed messages
+     */
+    private final Writer rawProcessWriter;
+
     /**
      * Input of the SMT stdout. Use with care in error cases. The output stream is owned by
      * {@link BufferedMessageReader}.
@@ -75,8 +80,9 @@ public class SimplePipe implements Pipe {
     public SimplePipe(@Nonnull InputStream input, @Nonnull String[] messageDelimiters,
             @Nonnull OutputStream output, @Nonnull SolverCommunication session,
             @Nonnull Process process) {
-        processWriter =
-            new TeeWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), stdin);
+        rawProcessWriter =
+            new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        processWriter = new TeeWriter(rawProcessWriter, stdin);
         processReader = new TeeReader(new InputStreamReader(input, StandardCharsets.UTF_8), stdout);
 
         this.session = session;
@@ -111,6 +117,56 @@ public class SimplePipe implements Pipe {
         }
     }
 
+    /**
+     * Writes the message directly to stdin of the process. Neither the message log nor the
+     * capture of stdin receives a copy of the message, only a note of its length.
+     */
+    @Override
+    public void sendMessage(@Nonnull MessageWriter message) throws IOException {
+        final long[] length = new long[1];
+        final Writer counting = new FilterWriter(rawProcessWriter) {
+            @Override
+            public void write(int c) throws IOException {
+                out.write(c);
+                length[0]++;
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                out.write(cbuf, off, len);
+                length[0] += len;
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+                out.write(str, off, len);
+                length[0] += len;
+            }
+
+            @Override
+            public void close() {
+                // stdin stays open
+            }
+        };
+        try {
+            message.writeTo(counting);
+            rawProcessWriter.write(System.lineSeparator());
+            rawProcessWriter.flush();
+        } catch (IOException e) {
+            if (!process.isAlive()) {
+                tryToReadExhaustively();
+                int exit = process.exitValue();
+                throw new IllegalStateException("Process terminated (exit code " + exit
+                    + "). Process report:\n" + getReadMessages());
+            } else {
+                throw e;
+            }
+        }
+        final String note = "; " + length[0] + " characters streamed to the solver";
+        session.addMessage(note, SolverCommunication.MessageType.INPUT);
+        stdin.write(note + System.lineSeparator());
+    }
+
     public void tryToReadExhaustively() {
         try {
             while (-1 != processReader.read()) {
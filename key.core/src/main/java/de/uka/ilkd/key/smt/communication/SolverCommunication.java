@@ -31,6 +31,9 @@ public class SolverCommunication {
     /** The current state of the communication. The states are defined by the solver sockets. */
     private int state = 0;
 
+    /** Whether the final result has been taken from a previous run instead of the solver. */
+    private volatile boolean cached;
+
     /**
      * The message type depends on the channel which was used for sending the message.
      */
@@ -101,6 +104,28 @@ public class SolverCommunication {
         messages.add(new Message(message, type));
     }
 
+    /**
+     * Sets the final result and the output of a previous run of the solver on the same problem,
+     * instead of running the solver.
+     *
+     * @param result the final result
+     * @param output the output messages of the solver
+     */
+    public void setCachedResult(SMTSolverResult result, Iterable<String> output) {
+        for (String msg : output) {
+            addMessage(msg, MessageType.OUTPUT);
+        }
+        setFinalResult(result);
+        cached = true;
+    }
+
+    /**
+     * @return true iff the final result has been set by {@link #setCachedResult}
+     */
+    public boolean isCachedResult() {
+        return cached;
+    }
+
     public SMTSolverResult getFinalResult() {
         return finalResult;
     }
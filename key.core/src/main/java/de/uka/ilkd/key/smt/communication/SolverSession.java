@@ -0,0 +1,223 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived external solver process that solves several problems one after another.
+ * <p>
+ * The prelude shared by all problems of the session (options, logic, basic sorts and axioms) is
+ * sent once when the first problem is started. Each problem is then sent within its own assertion
+ * scope, i.e., between <code>(push 1)</code> and <code>(pop 1)</code>, so declarations and
+ * assertions of one problem are not visible to the next one.
+ * </p>
+ * <p>
+ * The session is the {@link Pipe} handed to the {@link AbstractSolverSocket} of the current
+ * problem. The sockets terminate the solver by sending <code>(exit)</code> once they have their
+ * result. The session replaces this message by popping the scope of the problem, followed by an
+ * <code>(echo)</code> command whose answer marks the end of the problem: {@link #readMessage()}
+ * returns <code>null</code> when it arrives, just like a pipe returns <code>null</code> when the
+ * solver terminates.
+ * </p>
+ *
+ * @see SolverSessionPool
+ */
+public final class SolverSession implements Pipe {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverSession.class);
+
+    /** the text echoed by the solver after the scope of a problem has been popped */
+    private static final String END_OF_PROBLEM = "key-end-of-problem";
+
+    /** the command line the solver process has been started with */
+    private final @Nonnull String[] command;
+
+    /** the commands asserted once at the bottom of the assertion stack */
+    private final @Nonnull String prelude;
+
+    /** the solver process */
+    private final @Nonnull Process process;
+
+    /** the writer connected to stdin of the process */
+    private final @Nonnull Writer writer;
+
+    /** splits the merged stdout and stderr of the process into messages */
+    private final @Nonnull BufferedMessageReader reader;
+
+    /** the store for the messages of the current problem */
+    private SolverCommunication communication;
+
+    /** whether the prelude has already been sent */
+    private boolean preludeSent;
+
+    /** whether the current problem has been sent, but not yet been popped */
+    private boolean inProblem;
+
+    /** whether the end of the current problem has been read */
+    private boolean problemFinished = true;
+
+    /** whether the process has been closed or the communication failed */
+    private boolean broken;
+
+    /** the number of problems started in this session */
+    private int problems;
+
+    /**
+     * Starts the solver process of a new session.
+     *
+     * @param command the command line of the solver
+     * @param prelude the prelude shared by all problems solved in this session
+     * @param delimiters the delimiters separating the messages of the solver
+     * @throws IOException if the process cannot be started
+     */
+    SolverSession(@Nonnull String[] command, @Nonnull String prelude,
+            @Nonnull String[] delimiters) throws IOException {
+        this.command = command.clone();
+        this.prelude = prelude;
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        process = builder.start();
+        writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        reader = new BufferedMessageReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8), delimiters);
+    }
+
+    /**
+     * @param command a command line
+     * @param prelude a prelude
+     * @return true iff this session has been started with the given command line and prelude
+     */
+    boolean fits(String[] command, String prelude) {
+        return Arrays.equals(this.command, command) && this.prelude.equals(prelude);
+    }
+
+    /**
+     * @return true iff the session can solve a further problem
+     */
+    boolean isReusable() {
+        return !broken && problemFinished && process.isAlive();
+    }
+
+    /**
+     * @return the number of problems started in this session
+     */
+    public int getProblemCount() {
+        return problems;
+    }
+
+    /**
+     * Sends a problem to the solver. The prelude is sent before the first problem of the session.
+     * The replies of the solver are available via {@link #readMessage()}, until it returns
+     * <code>null</code>.
+     *
+     * @param session the store for the messages of the problem
+     * @param problem the problem without the prelude, ending with <code>(check-sat)</code>
+     * @throws IOException if sending the problem fails
+     */
+    public void startProblem(@Nonnull SolverCommunication session, @Nonnull String problem)
+            throws IOException {
+        if (!isReusable()) {
+            throw new IllegalStateException("Solver session cannot be reused");
+        }
+        communication = session;
+        problemFinished = false;
+        problems++;
+        if (!preludeSent) {
+            sendMessage(prelude);
+            preludeSent = true;
+        }
+        sendMessage("(push 1)");
+        inProblem = true;
+        sendMessage(problem);
+    }
+
+    @Override
+    public void sendMessage(@Nonnull String message) throws IOException {
+        if (inProblem && message.trim().equals("(exit)")) {
+            // keep the process alive and discard the problem instead
+            inProblem = false;
+            write("(pop 1)");
+            write("(echo \"" + END_OF_PROBLEM + "\")");
+        } else {
+            write(message);
+        }
+    }
+
+    private void write(String message) throws IOException {
+        communication.addMessage(message, SolverCommunication.MessageType.INPUT);
+        try {
+            writer.write(message + System.lineSeparator());
+            writer.flush();
+        } catch (IOException e) {
+            broken = true;
+            if (!process.isAlive()) {
+                throw new IllegalStateException(
+                    "Process terminated (exit code " + process.exitValue() + ")", e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public @Nullable String readMessage() throws IOException, InterruptedException {
+        if (problemFinished) {
+            return null;
+        }
+        final String msg;
+        try {
+            msg = reader.readMessage();
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        }
+        if (msg == null) {
+            // the process has terminated
+            broken = true;
+            problemFinished = true;
+            return null;
+        }
+        if (!inProblem && msg.contains(END_OF_PROBLEM)) {
+            problemFinished = true;
+            return null;
+        }
+        return msg;
+    }
+
+    @Override
+    public @Nonnull SolverCommunication getSolverCommunication() {
+        return communication;
+    }
+
+    @Override
+    public void close() {
+        broken = true;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close process writer", e);
+        }
+        process.destroy();
+    }
+
+    @Override
+    public void sendEOF() {
+        // closing stdin would terminate the session
+        close();
+    }
+
+    @Override
+    public String toString() {
+        return "SolverSession[" + String.join(" ", command) + ", " + problems + " problems]";
+    }
+}
@@ -0,0 +1,126 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The idle {@link SolverSession}s of this JVM.
+ * <p>
+ * Starting a solver process and parsing the prelude of the translation takes a considerable part
+ * of the time spent on simple goals. If the system property {@value #ENABLED_PROPERTY} is set to
+ * <code>true</code>, solver processes are not terminated after a problem has been solved, but kept
+ * in this pool for the next problem that is solved with the same command line and prelude, for
+ * the same or another proof. At most {@value #MAX_IDLE_PROPERTY} sessions are kept idle (by
+ * default as many as there are processors); the least recently used sessions are terminated
+ * first.
+ * </p>
+ */
+public final class SolverSessionPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverSessionPool.class);
+
+    /** system property enabling persistent solver sessions */
+    public static final String ENABLED_PROPERTY = "key.smt.persistentSessions";
+
+    /** system property for the maximal number of idle sessions */
+    public static final String MAX_IDLE_PROPERTY = "key.smt.maxIdleSessions";
+
+    private static final SolverSessionPool INSTANCE = new SolverSessionPool(
+        Integer.getInteger(MAX_IDLE_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+    /** the idle sessions, the most recently used first */
+    private final Deque<SolverSession> idle = new ArrayDeque<>();
+
+    private final int maxIdle;
+
+    private SolverSessionPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::clear, "SolverSessionPool"));
+    }
+
+    /**
+     * @return true iff persistent solver sessions are enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    /**
+     * @return the pool of this JVM
+     */
+    public static SolverSessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Takes an idle session started with the given command line and prelude out of the pool, or
+     * starts a new one if there is none.
+     *
+     * @param command the command line of the solver
+     * @param prelude the prelude shared by the problems of the session
+     * @param delimiters the delimiters separating the messages of the solver
+     * @return a session exclusively used by the caller until it is {@link #release released}
+     * @throws IOException if a new process cannot be started
+     */
+    public @Nonnull SolverSession acquire(@Nonnull String[] command, @Nonnull String prelude,
+            @Nonnull String[] delimiters) throws IOException {
+        synchronized (idle) {
+            Iterator<SolverSession> it = idle.iterator();
+            while (it.hasNext()) {
+                SolverSession session = it.next();
+                if (!session.isReusable()) {
+                    it.remove();
+                    session.close();
+                } else if (session.fits(command, prelude)) {
+                    it.remove();
+                    return session;
+                }
+            }
+        }
+        return new SolverSession(command, prelude, delimiters);
+    }
+
+    /**
+     * Returns a session to the pool after its problem has been solved. Sessions whose problem
+     * was interrupted or failed are terminated instead.
+     *
+     * @param session the session acquired from this pool
+     */
+    public void release(@Nonnull SolverSession session) {
+        if (!session.isReusable()) {
+            session.close();
+            return;
+        }
+        SolverSession evicted = null;
+        synchronized (idle) {
+            idle.addFirst(session);
+            if (idle.size() > maxIdle) {
+                evicted = idle.removeLast();
+            }
+        }
+        if (evicted != null) {
+            LOGGER.debug("Terminating {}", evicted);
+            evicted.close();
+        }
+    }
+
+    /**
+     * Terminates all idle sessions.
+     */
+    public void clear() {
+        synchronized (idle) {
+            for (SolverSession session : idle) {
+                session.close();
+            }
+            idle.clear();
+        }
+    }
+}
@@ -12,6 +12,9 @@
  * behaviour for handling solver results.</li>
  * <li>{@link de.uka.ilkd.key.smt.communication.SolverCommunication} stores the messages sent to and
  * from the external solver.</li>
+ * <li>{@link de.uka.ilkd.key.smt.communication.SolverSession} keeps a solver process alive to solve
+ * several problems, idle sessions are kept by
+ * {@link de.uka.ilkd.key.smt.communication.SolverSessionPool}.</li>
  * </ul>
  */
 package de.uka.ilkd.key.smt.communication;
@@ -6,10 +6,13 @@ package de.uka.ilkd.key.smt.newsmt2;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 
 import de.uka.ilkd.key.java.Services;
@@ -54,6 +57,12 @@ public class ModularSMTLib2Translator implements SMTTranslator {
      */
     private static final String GET_UNSAT_CORE = "getUnsatCore";
 
+    /**
+     * The comment starting the part of the translation that depends on the sequent. Everything
+     * before it is the same for all sequents translated with the same preamble.
+     */
+    public static final String DECLARATIONS_SECTION = "; --- Declarations";
+
     /**
      * The smt preamble prepended to smt problems that are created with this translator.
      */
@@ -109,6 +118,22 @@ public class ModularSMTLib2Translator implements SMTTranslator {
 
     @Override
     public CharSequence translateProblem(Sequent sequent, Services services, SMTSettings settings) {
+        StringBuilder sb = new StringBuilder();
+        translate(sequent, services, settings).appendTo(sb);
+        return sb;
+    }
+
+    /**
+     * Translates a sequent like {@link #translateProblem(Sequent, Services, SMTSettings)}, but
+     * does not build the text of the problem. It is produced when the result is written, e.g.,
+     * streamed to the input of the solver by {@link Writable#writeTo(Appendable)}.
+     *
+     * @param sequent the sequent to translate
+     * @param services the services
+     * @param settings the SMT settings
+     * @return the translated problem
+     */
+    public Writable translate(Sequent sequent, Services services, SMTSettings settings) {
 
         MasterHandler master;
         try {
@@ -119,28 +144,17 @@ public class ModularSMTLib2Translator implements SMTTranslator {
 
         List<Term> sequentAsserts = getTermsFromSequent(sequent, services);
         List<SExpr> sequentSMTAsserts = makeSMTAsserts(master, sequentAsserts);
-
-        StringBuilder sb = new StringBuilder();
-
-        sb.append("; --- Preamble\n");
-        sb.append(preamble);
-        sb.append(System.lineSeparator());
-
-        sb.append("; --- Declarations\n");
         extractSortDeclarations(sequent, services, master, sequentAsserts);
-        for (Writable decl : master.getDeclarations()) {
-            decl.appendTo(sb);
-            sb.append("\n");
-        }
 
-        sb.append("\n; --- Axioms\n");
-        for (Writable ax : master.getAxioms()) {
-            ax.appendTo(sb);
-            sb.append("\n");
+        List<Writable> definitions = List.of();
+        if (SharedSubexpressions.isEnabled()) {
+            SharedSubexpressions sharing = new SharedSubexpressions();
+            sequentSMTAsserts = sharing.share(sequentSMTAsserts);
+            definitions = sharing.getDefinitions();
         }
 
         boolean getUnsatCore = Arrays.asList(handlerOptions).contains(GET_UNSAT_CORE);
-        sb.append("\n; --- Sequent\n");
+        List<SExpr> assertions = new ArrayList<>(sequentSMTAsserts.size());
         int i = 1;
         for (SExpr ass : sequentSMTAsserts) {
             if (getUnsatCore) {
@@ -148,35 +162,98 @@ public class ModularSMTLib2Translator implements SMTTranslator {
                 i++;
                 ass = SExprs.named(ass, label);
             }
-            SExpr assertion = new SExpr("assert", ass);
-            assertion.appendTo(sb);
-            sb.append("\n");
+            assertions.add(new SExpr("assert", ass));
         }
 
-        sb.append("\n(check-sat)");
-
-        if (!master.getUnknownValues().isEmpty()) {
-            sb.append("\n\n; --- Translation of unknown values\n");
-            for (Term t : master.getUnknownValues().keySet()) {
-                sb.append("; ").append(master.getUnknownValues().get(t).toString()).append(" :  ")
-                        .append(t.toString().replace("\n", "")).append("\n");
-            }
-        }
+        Translation result = new Translation(preamble, master.getDeclarations(),
+            master.getAxioms(), definitions, assertions, master.getUnknownValues(),
+            master.getExceptions());
 
         // any exceptions?
         List<Throwable> exceptions = master.getExceptions();
         for (Throwable t : exceptions) {
-            sb.append("\n; ").append(t.toString().replace("\n", "\n;"));
             LOGGER.warn("Exception", t);
         }
 
         // TODO Find a concept for exceptions here
         if (!exceptions.isEmpty()) {
-            LOGGER.error("Exception while translating: {}", sb);
+            LOGGER.error("Exception while translating: {}", result);
             throw new RuntimeException(exceptions.get(0));
         }
 
-        return sb;
+        return result;
+    }
+
+    /**
+     * The translation of a sequent, written on demand.
+     */
+    private record Translation(String preamble, List<Writable> declarations,
+            List<Writable> axioms, List<Writable> definitions, List<SExpr> assertions,
+            Map<Term, SExpr> unknownValues, List<Throwable> exceptions) implements Writable {
+
+        @Override
+        public void appendTo(StringBuilder sb) {
+            try {
+                writeTo(sb);
+            } catch (IOException e) {
+                // a StringBuilder does not throw
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void writeTo(Appendable out) throws IOException {
+            out.append("; --- Preamble\n");
+            out.append(preamble);
+            out.append(System.lineSeparator());
+
+            out.append(DECLARATIONS_SECTION).append("\n");
+            for (Writable decl : declarations) {
+                decl.writeTo(out);
+                out.append("\n");
+            }
+
+            out.append("\n; --- Axioms\n");
+            for (Writable ax : axioms) {
+                ax.writeTo(out);
+                out.append("\n");
+            }
+
+            if (!definitions.isEmpty()) {
+                out.append("\n; --- Shared subexpressions\n");
+                for (Writable def : definitions) {
+                    def.writeTo(out);
+                    out.append("\n");
+                }
+            }
+
+            out.append("\n; --- Sequent\n");
+            for (SExpr assertion : assertions) {
+                assertion.writeTo(out);
+                out.append("\n");
+            }
+
+            out.append("\n(check-sat)");
+
+            if (!unknownValues.isEmpty()) {
+                out.append("\n\n; --- Translation of unknown values\n");
+                for (Map.Entry<Term, SExpr> e : unknownValues.entrySet()) {
+                    out.append("; ").append(e.getValue().toString()).append(" :  ")
+                            .append(e.getKey().toString().replace("\n", "")).append("\n");
+                }
+            }
+
+            for (Throwable t : exceptions) {
+                out.append("\n; ").append(t.toString().replace("\n", "\n;"));
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            appendTo(sb);
+            return sb.toString();
+        }
     }
 
     /*
@@ -3,6 +3,8 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.smt.newsmt2;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -231,20 +233,36 @@ public class SExpr implements Writable {
      */
     @Override
     public void appendTo(StringBuilder sb) {
+        try {
+            writeTo(sb);
+        } catch (IOException e) {
+            // a StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the SMTLIB2-representation of this object to the given output.
+     *
+     * @param out a non-null output to write to.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException {
         boolean noSpace = name.isEmpty();
         if (!children.isEmpty() || noSpace) {
-            sb.append("(").append(getEscapedName());
+            out.append("(").append(getEscapedName());
             for (SExpr child : children) {
                 if (!noSpace) {
-                    sb.append(" ");
+                    out.append(" ");
                 } else {
                     noSpace = false;
                 }
-                child.appendTo(sb);
+                child.writeTo(out);
             }
-            sb.append(")");
+            out.append(")");
         } else {
-            sb.append(getEscapedName());
+            out.append(getEscapedName());
         }
     }
 
@@ -0,0 +1,172 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.newsmt2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.uka.ilkd.key.smt.newsmt2.SExpr.Type;
+
+/**
+ * Replaces subexpressions occurring several times in the translated sequent by constants defined
+ * with <code>define-fun</code>, which shrinks the problems of sequents with large heap terms
+ * considerably.
+ * <p>
+ * Subexpressions are compared structurally. Only subexpressions outside of binders
+ * (quantifiers, <code>let</code>, ...) are shared, hence they are closed and can be defined at the
+ * top level. Moreover, their sort must be known from their {@link Type}, so only boolean, integer
+ * and universe expressions with at least {@value #MIN_SIZE} nodes are shared.
+ * </p>
+ * <p>
+ * Sharing is enabled by the system property {@value #PROPERTY}.
+ * </p>
+ */
+final class SharedSubexpressions {
+    /** system property enabling the sharing of subexpressions */
+    static final String PROPERTY = "key.smt.shareSubexpressions";
+
+    /** prefix of the names of the defined constants */
+    static final String PREFIX = "share_";
+
+    /** minimal number of nodes of a shared subexpression */
+    private static final int MIN_SIZE = 4;
+
+    /** operators below which variables may be bound */
+    private static final Set<String> BINDERS = Set.of("forall", "exists", "let", "lambda",
+        "match", "!");
+
+    /** the sorts of the types of shareable subexpressions */
+    private static final Map<Type, String> SORTS =
+        Map.of(Type.BOOL, "Bool", IntegerOpHandler.INT, "Int", Type.UNIVERSE, "U");
+
+    /** structural key of a subexpression, the children given by their ids */
+    private record Key(String name, Type type, List<Integer> children) {
+    }
+
+    /** the ids of the subexpressions, structurally equal subexpressions have the same id */
+    private final Map<SExpr, Integer> ids = new IdentityHashMap<>();
+
+    private final Map<Key, Integer> idsByKey = new HashMap<>();
+
+    /** the number of nodes of the subexpressions by id */
+    private final List<Integer> sizes = new ArrayList<>();
+
+    /** the number of occurrences outside binders by id */
+    private final List<Integer> occurrences = new ArrayList<>();
+
+    /** the constants replacing the shared subexpressions by id */
+    private final Map<Integer, SExpr> constants = new HashMap<>();
+
+    /** the definitions of the constants in the order of their dependencies */
+    private final List<Writable> definitions = new ArrayList<>();
+
+    /**
+     * @return true iff sharing is enabled
+     */
+    static boolean isEnabled() {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Replaces the subexpressions occurring several times in the given formulas by constants.
+     *
+     * @param formulas the formulas
+     * @return the formulas with shared subexpressions replaced, in the same order
+     */
+    List<SExpr> share(List<SExpr> formulas) {
+        for (SExpr formula : formulas) {
+            count(formula);
+        }
+        List<SExpr> result = new ArrayList<>(formulas.size());
+        for (SExpr formula : formulas) {
+            result.add(replace(formula));
+        }
+        return result;
+    }
+
+    /**
+     * @return the <code>define-fun</code> commands of the constants introduced by
+     *         {@link #share(List)}, each definition preceding its uses
+     */
+    List<Writable> getDefinitions() {
+        return definitions;
+    }
+
+    private int id(SExpr e) {
+        Integer id = ids.get(e);
+        if (id == null) {
+            List<SExpr> children = e.getChildren();
+            List<Integer> childIds = new ArrayList<>(children.size());
+            int size = 1;
+            for (SExpr child : children) {
+                int childId = id(child);
+                childIds.add(childId);
+                size = Math.min(Integer.MAX_VALUE / 2, size + sizes.get(childId));
+            }
+            final int newId = sizes.size();
+            id = idsByKey.computeIfAbsent(new Key(e.getName(), e.getType(), childIds), k -> newId);
+            if (id == newId) {
+                sizes.add(size);
+                occurrences.add(0);
+            }
+            ids.put(e, id);
+        }
+        return id;
+    }
+
+    /**
+     * Counts the occurrences of the subexpressions outside binders. The subexpressions of a
+     * repeated subexpression are counted only once, since the subexpression itself is shared.
+     */
+    private void count(SExpr e) {
+        int id = id(e);
+        int n = occurrences.get(id);
+        occurrences.set(id, n + 1);
+        if (n > 0) {
+            return;
+        }
+        if (e.getName().equals("!")) {
+            count(e.getChildren().get(0));
+        } else if (!BINDERS.contains(e.getName())) {
+            for (SExpr child : e.getChildren()) {
+                count(child);
+            }
+        }
+    }
+
+    private boolean isShared(SExpr e, int id) {
+        return occurrences.get(id) > 1 && sizes.get(id) >= MIN_SIZE
+                && SORTS.containsKey(e.getType());
+    }
+
+    private SExpr replace(SExpr e) {
+        int id = id(e);
+        SExpr constant = constants.get(id);
+        if (constant != null) {
+            return constant;
+        }
+        SExpr replaced;
+        if (e.getName().equals("!")) {
+            List<SExpr> children = new ArrayList<>(e.getChildren());
+            children.set(0, replace(children.get(0)));
+            replaced = new SExpr("!", e.getType(), children);
+        } else if (BINDERS.contains(e.getName()) || e.getChildren().isEmpty()) {
+            replaced = e;
+        } else {
+            replaced = e.map(this::replace);
+        }
+        if (!isShared(e, id)) {
+            return replaced;
+        }
+        constant = new SExpr(PREFIX + constants.size(), e.getType());
+        constants.put(id, constant);
+        definitions.add(new SExpr("define-fun", Type.VERBATIM, constant, new SExpr(),
+            new SExpr(SORTS.get(e.getType()), Type.VERBATIM), replaced));
+        return constant;
+    }
+}
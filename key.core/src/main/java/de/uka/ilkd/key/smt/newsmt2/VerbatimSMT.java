@@ -3,6 +3,8 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.smt.newsmt2;
 
+import java.io.IOException;
+
 /**
  * Objects of this class are writable (like {@link SExpr}s), but are not really structured as such.
  * They are just arbitrary strings.
@@ -15,4 +17,9 @@ record VerbatimSMT(String string) implements Writable {
     public void appendTo(StringBuilder sb) {
         sb.append(string);
     }
+
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        out.append(string);
+    }
 }
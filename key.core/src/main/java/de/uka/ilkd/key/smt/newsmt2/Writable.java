@@ -3,8 +3,11 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.smt.newsmt2;
 
+import java.io.IOException;
+
 /**
- * Writeable objects have the possibility to be written to a {@link StringBuilder}.
+ * Writeable objects have the possibility to be written to a {@link StringBuilder} or streamed to
+ * an arbitrary {@link Appendable}, e.g., the input of a solver process.
  *
  * This avoids to explicitly invoke {@link #toString()} on larger objects which might be
  * inefficient.
@@ -18,4 +21,17 @@ package de.uka.ilkd.key.smt.newsmt2;
  */
 public interface Writable {
     void appendTo(StringBuilder sb);
+
+    /**
+     * Writes this object to the given output. By default, the object is appended to a
+     * {@link StringBuilder} first.
+     *
+     * @param out the output
+     * @throws IOException if writing fails
+     */
+    default void writeTo(Appendable out) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        out.append(sb);
+    }
 }
@@ -26,6 +26,16 @@ public interface AutomatedRuleApplicationManager extends NewRuleListener {
      */
     RuleApp peekNext();
 
+    /**
+     * Brings the rule application index and the queue of this manager up to date with the current
+     * sequent of the goal, without selecting or completing the next rule application. All work
+     * done here only depends on the goal itself, so this method may be called concurrently for
+     * different goals of the same proof (see
+     * {@link de.uka.ilkd.key.prover.impl.ParallelGoalPreparation}). The default implementation
+     * does nothing.
+     */
+    default void prepareNext() {}
+
     /**
      * @return the next rule that is supposed to be applied
      */
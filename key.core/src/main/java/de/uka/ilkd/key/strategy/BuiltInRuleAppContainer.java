@@ -38,7 +38,7 @@ public class BuiltInRuleAppContainer extends RuleAppContainer {
 
     private BuiltInRuleAppContainer(IBuiltInRuleApp bir, PosInOccurrence pio, RuleAppCost cost,
             Goal goal) {
-        super(bir, cost);
+        super(bir, cost, goal);
         applicationPosition = pio;
         positionTag = pio == null ? null : goal.getFormulaTagManager().getTagForPos(pio.topLevel());
         this.bir = bir;
@@ -129,7 +129,13 @@ public class BuiltInRuleAppContainer extends RuleAppContainer {
 
         final PosInOccurrence pio = getPosInOccurrence(goal);
 
-        RuleAppContainer container = createAppContainer(bir, pio, goal);
+        final RuleAppContainer container;
+        if (isCostUpToDate(goal)) {
+            // the goal has not changed, so the cost would not either
+            container = new BuiltInRuleAppContainer(bir, pio, getCost(), goal);
+        } else {
+            container = createAppContainer(bir, pio, goal);
+        }
         if (container.getCost() instanceof TopRuleAppCost) {
             return ImmutableSLList.nil();
         }
@@ -43,7 +43,7 @@ public class FindTacletAppContainer extends TacletAppContainer {
      */
     FindTacletAppContainer(NoPosTacletApp app, PosInOccurrence pio, RuleAppCost cost, Goal goal,
             long age) {
-        super(app, cost, age);
+        super(app, cost, goal, age);
         applicationPosition = pio;
         positionTag = goal.getFormulaTagManager().getTagForPos(pio.topLevel());
 
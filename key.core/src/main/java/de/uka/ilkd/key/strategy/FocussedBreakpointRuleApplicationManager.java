@@ -63,6 +63,11 @@ public class FocussedBreakpointRuleApplicationManager
         return delegate.peekNext();
     }
 
+    @Override
+    public void prepareNext() {
+        delegate.prepareNext();
+    }
+
     @Override
     public RuleApp next() {
         final RuleApp app = delegate.next();
@@ -3,8 +3,6 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package de.uka.ilkd.key.strategy;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 import de.uka.ilkd.key.java.Services;
 import de.uka.ilkd.key.ldt.BooleanLDT;
 import de.uka.ilkd.key.ldt.CharListLDT;
@@ -21,6 +19,8 @@ import de.uka.ilkd.key.logic.op.Quantifier;
 import de.uka.ilkd.key.logic.op.SortDependingFunction;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.proof.rulefilter.SetRuleFilter;
 import de.uka.ilkd.key.rule.RuleApp;
 import de.uka.ilkd.key.rule.UseDependencyContractRule;
@@ -64,10 +64,6 @@ import de.uka.ilkd.key.util.MiscTools;
  * Strategy tailored to be used as long as a java program can be found in the sequent.
  */
 public class JavaCardDLStrategy extends AbstractFeatureStrategy {
-    public static final AtomicLong PERF_COMPUTE = new AtomicLong();
-    public static final AtomicLong PERF_APPROVE = new AtomicLong();
-    public static final AtomicLong PERF_INSTANTIATE = new AtomicLong();
-
     public static final String JAVA_CARD_DL_STRATEGY = "JavaCardDLStrategy";
 
     private static final int IN_EQ_SIMP_NON_LIN_COST = 1000;
@@ -110,6 +106,13 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
 
     }
 
+    /**
+     * @return a copy of the properties this strategy has been created with
+     */
+    public StrategyProperties getStrategyProperties() {
+        return (StrategyProperties) strategyProperties.clone();
+    }
+
     protected final RuleSetDispatchFeature getCostComputationDispatcher() {
         return costComputationDispatcher;
     }
@@ -2044,11 +2047,12 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
      */
     @Override
     public RuleAppCost computeCost(RuleApp app, PosInOccurrence pio, Goal goal) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         try {
             return costComputationF.computeCost(app, pio, goal);
         } finally {
-            PERF_COMPUTE.addAndGet(System.nanoTime() - time);
+            metrics.stop(Phase.STRATEGY_COMPUTE_COST, time);
         }
     }
 
@@ -2063,21 +2067,23 @@ public class JavaCardDLStrategy extends AbstractFeatureStrategy {
      */
     @Override
     public final boolean isApprovedApp(RuleApp app, PosInOccurrence pio, Goal goal) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         try {
             return !(approvalF.computeCost(app, pio, goal) == TopRuleAppCost.INSTANCE);
         } finally {
-            PERF_APPROVE.addAndGet(System.nanoTime() - time);
+            metrics.stop(Phase.STRATEGY_APPROVE, time);
         }
     }
 
     @Override
     protected RuleAppCost instantiateApp(RuleApp app, PosInOccurrence pio, Goal goal) {
-        var time = System.nanoTime();
+        final ProofMetrics metrics = ProofMetrics.of(goal.proof());
+        var time = metrics.start();
         try {
             return instantiationF.computeCost(app, pio, goal);
         } finally {
-            PERF_INSTANTIATE.addAndGet(System.nanoTime() - time);
+            metrics.stop(Phase.STRATEGY_INSTANTIATE, time);
         }
     }
 
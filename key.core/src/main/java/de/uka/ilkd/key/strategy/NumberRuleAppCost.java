@@ -11,7 +11,32 @@ import org.key_project.util.LRUCache;
 
 public abstract class NumberRuleAppCost implements RuleAppCost {
 
-    private static final NumberRuleAppCost ZERO_COST = new IntRuleAppCost(0);
+    /**
+     * The primitive representation of <code>TopRuleAppCost.INSTANCE</code> (see
+     * {@link #valueOf(RuleAppCost)}). Finite costs are always less than this value.
+     */
+    public static final long TOP_VALUE = Long.MAX_VALUE;
+
+    /** the least cost for which an instance is created in advance */
+    private static final int MIN_PREALLOCATED = -512;
+    /** the greatest cost for which an instance is created in advance */
+    private static final int MAX_PREALLOCATED = 4095;
+
+    /**
+     * The instances of the costs between <code>MIN_PREALLOCATED</code> and
+     * <code>MAX_PREALLOCATED</code>, which cover almost all costs computed by the strategies. They
+     * are shared without synchronization.
+     */
+    private static final NumberRuleAppCost[] PREALLOCATED =
+        new NumberRuleAppCost[MAX_PREALLOCATED - MIN_PREALLOCATED + 1];
+
+    static {
+        for (int i = 0; i < PREALLOCATED.length; i++) {
+            PREALLOCATED[i] = new IntRuleAppCost(i + MIN_PREALLOCATED);
+        }
+    }
+
+    private static final NumberRuleAppCost ZERO_COST = PREALLOCATED[-MIN_PREALLOCATED];
     /**
      * Requires thread save access as multiple proofs may be performed in parallel (Eclipse).
      */
@@ -23,8 +48,8 @@ public abstract class NumberRuleAppCost implements RuleAppCost {
     }
 
     public static RuleAppCost create(int p_cost) {
-        if (p_cost == 0) {
-            return NumberRuleAppCost.getZeroCost();
+        if (p_cost >= MIN_PREALLOCATED && p_cost <= MAX_PREALLOCATED) {
+            return PREALLOCATED[p_cost - MIN_PREALLOCATED];
         }
 
         NumberRuleAppCost ac;
@@ -51,6 +76,58 @@ public abstract class NumberRuleAppCost implements RuleAppCost {
         return new LongRuleAppCost(p_cost);
     }
 
+    /**
+     * Converts a cost into its primitive representation, which features use to combine costs
+     * without creating cost objects (see {@link de.uka.ilkd.key.strategy.feature.Feature}).
+     *
+     * @param cost a cost
+     * @return the value of <code>cost</code>, or {@link #TOP_VALUE} if <code>cost</code> is
+     *         <code>TopRuleAppCost.INSTANCE</code>
+     */
+    public static long valueOf(RuleAppCost cost) {
+        if (cost instanceof NumberRuleAppCost numberRuleAppCost) {
+            return finite(numberRuleAppCost.getValue());
+        }
+        if (cost instanceof TopRuleAppCost) {
+            return TOP_VALUE;
+        }
+        throw new IllegalArgumentException("Don't know what to do with cost class "
+            + cost.getClass());
+    }
+
+    /**
+     * Converts the primitive representation of a cost back into a cost object.
+     *
+     * @param value a cost value or {@link #TOP_VALUE}
+     * @return the cost with value <code>value</code>, or <code>TopRuleAppCost.INSTANCE</code> if
+     *         <code>value</code> is {@link #TOP_VALUE}
+     */
+    public static RuleAppCost fromValue(long value) {
+        return value == TOP_VALUE ? TopRuleAppCost.INSTANCE : create(value);
+    }
+
+    /**
+     * Adds two costs in their primitive representation like {@link RuleAppCost#add(RuleAppCost)}.
+     *
+     * @param value1 a cost value or {@link #TOP_VALUE}
+     * @param value2 a cost value or {@link #TOP_VALUE}
+     * @return the sum, which is {@link #TOP_VALUE} iff one of the summands is
+     */
+    public static long add(long value1, long value2) {
+        if (value1 == TOP_VALUE || value2 == TOP_VALUE) {
+            return TOP_VALUE;
+        }
+        return finite(value1 + value2);
+    }
+
+    /**
+     * @param value the result of an arithmetic operation on finite costs
+     * @return <code>value</code>, unless it happens to coincide with {@link #TOP_VALUE}
+     */
+    public static long finite(long value) {
+        return value == TOP_VALUE ? TOP_VALUE - 1 : value;
+    }
+
     /**
      * returns the cost
      */
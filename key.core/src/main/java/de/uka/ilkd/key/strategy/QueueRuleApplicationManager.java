@@ -5,13 +5,15 @@ package de.uka.ilkd.key.strategy;
 
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics;
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
 import de.uka.ilkd.key.rule.RuleApp;
 
+import org.key_project.util.collection.DaryHeap;
 import org.key_project.util.collection.ImmutableHeap;
 import org.key_project.util.collection.ImmutableLeftistHeap;
 import org.key_project.util.collection.ImmutableList;
@@ -25,11 +27,23 @@ import org.key_project.util.collection.ImmutableSLList;
  * {@link RuleAppCost} by converting it into a {@link RuleAppContainer}. The cost of a
  * {@link RuleApp} is computed according to a given {@link Strategy} (see
  * {@link Strategy#computeCost(RuleApp, PosInOccurrence, Goal)}).
+ * <p>
+ * By default, the queue is an {@link ImmutableLeftistHeap}. If the system property
+ * {@value #DARY_HEAP_PROPERTY} is <code>true</code>, a {@link DaryHeap} is used instead, which
+ * avoids allocations, but takes rule apps of equal cost from the queue in a different order.
+ * Hence, proofs and symbolic execution trees found by the strategy may differ between the two.
+ * </p>
  */
 public class QueueRuleApplicationManager implements AutomatedRuleApplicationManager {
-    public static final AtomicLong PERF_QUEUE_OPS = new AtomicLong();
-    public static final AtomicLong PERF_PEEK = new AtomicLong();
-    public static final AtomicLong PERF_CREATE_CONTAINER = new AtomicLong();
+
+    /**
+     * System property selecting the {@link DaryHeap} as queue instead of the
+     * {@link ImmutableLeftistHeap}.
+     */
+    public static final String DARY_HEAP_PROPERTY = "key.strategy.daryHeap";
+
+    /** whether the {@link DaryHeap} is used, fixed per JVM so that queues can be merged */
+    private static final boolean USE_DARY_HEAP = Boolean.getBoolean(DARY_HEAP_PROPERTY);
 
     /**
      * The goal this manager belongs to.
@@ -38,9 +52,10 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
 
     /**
      * Priority queue containing all {@link RuleAppContainer}s that are candidates for application
-     * on a {@link Goal}.
+     * on a {@link Goal}. The queue belongs to this manager only, on splits it is copied (see
+     * {@link #clone()}).
      */
-    private ImmutableHeap<RuleAppContainer> queue = null;
+    private RuleAppQueue queue = null;
 
     /**
      * The minimum {@link RuleAppContainer} from a previous round. It is taken out of queue
@@ -92,7 +107,7 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
             return;
         }
 
-        queue = ImmutableLeftistHeap.nilHeap();
+        queue = RuleAppQueue.create();
         previousMinimum = null;
 
         // to support encapsulating rule managers (delegation, like in
@@ -114,9 +129,9 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
             return;
         }
 
-        var time = System.nanoTime();
+        var time = metrics(goal).start();
         RuleAppContainer c = RuleAppContainer.createAppContainer(rule, pos, goal);
-        PERF_CREATE_CONTAINER.addAndGet(System.nanoTime() - time);
+        metrics(goal).stop(Phase.QUEUE_CREATE_CONTAINER, time);
 
         ensureQueueExists();
         addRuleApp(c);
@@ -134,70 +149,76 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
             return;
         }
 
-        var time = System.nanoTime();
+        var time = metrics(goal).start();
         final ImmutableList<RuleAppContainer> containers =
             RuleAppContainer.createAppContainers(rules, pos, goal);
-        PERF_CREATE_CONTAINER.addAndGet(System.nanoTime() - time);
+        metrics(goal).stop(Phase.QUEUE_CREATE_CONTAINER, time);
         ensureQueueExists();
-        for (RuleAppContainer rac : containers) {
-            addRuleApp(rac);
+        time = metrics(goal).start();
+        try {
+            queue.insertEach(withoutTop(containers));
+        } finally {
+            metrics(goal).stop(Phase.QUEUE_OPS, time);
         }
     }
 
     private void addRuleApp(RuleAppContainer rac) {
-        var time = System.nanoTime();
+        var time = metrics(goal).start();
         try {
-            queue = push(rac, queue);
+            if (rac.getCost() != TopRuleAppCost.INSTANCE) {
+                queue.insert(rac);
+            }
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
-        }
-    }
-
-    /**
-     * Add a number of new rule apps to the heap
-     */
-    private static ImmutableHeap<RuleAppContainer> push(Iterator<RuleAppContainer> it,
-            ImmutableHeap<RuleAppContainer> sourceQueue) {
-        while (it.hasNext()) {
-            sourceQueue = push(it.next(), sourceQueue);
+            metrics(goal).stop(Phase.QUEUE_OPS, time);
         }
-        return sourceQueue;
     }
 
     /**
-     * Add a new rule app to the heap, provided that the rule app is not infinitely expensive
+     * @return the given rule apps without the ones that are infinitely expensive
      */
-    private static ImmutableHeap<RuleAppContainer> push(RuleAppContainer c,
-            ImmutableHeap<RuleAppContainer> sourceQueue) {
-        if (c.getCost() == TopRuleAppCost.INSTANCE) {
-            return sourceQueue;
-        } else {
-            return sourceQueue.insert(c);
+    private static ArrayList<RuleAppContainer> withoutTop(Iterable<RuleAppContainer> apps) {
+        final ArrayList<RuleAppContainer> actualApps = new ArrayList<>();
+        for (RuleAppContainer app : apps) {
+            if (app.getCost() != TopRuleAppCost.INSTANCE) {
+                actualApps.add(app);
+            }
         }
+        return actualApps;
     }
 
-    private static ImmutableHeap<RuleAppContainer> createFurtherApps(
-            @Nullable RuleAppContainer from, Goal goal) {
+    private static RuleAppQueue createFurtherApps(@Nullable RuleAppContainer from, Goal goal) {
+        final RuleAppQueue result = RuleAppQueue.create();
         if (from == null) {
-            return ImmutableLeftistHeap.nilHeap();
+            return result;
         }
         var apps = from.createFurtherApps(goal);
         if (apps.isEmpty()) {
-            return ImmutableLeftistHeap.nilHeap();
+            return result;
         }
 
-        var actualApps = new ArrayList<RuleAppContainer>(apps.size());
-        for (RuleAppContainer app : apps) {
-            if (app.getCost() == TopRuleAppCost.INSTANCE) {
-                continue;
-            }
-            actualApps.add(app);
+        var time = metrics(goal).start();
+        try {
+            result.insertAll(withoutTop(apps).iterator());
+            return result;
+        } finally {
+            metrics(goal).stop(Phase.QUEUE_OPS, time);
         }
-        var time = System.nanoTime();
+    }
+
+    /**
+     * Creates the queue if necessary and flushes pending sequent changes into the rule app index,
+     * which reports the new rule apps (and thereby computes their costs) to this manager.
+     */
+    @Override
+    public void prepareNext() {
+        var time = metrics(goal).start();
         try {
-            return ImmutableLeftistHeap.<RuleAppContainer>nilHeap().insert(actualApps.iterator());
+            ensureQueueExists();
+            if (goal != null) {
+                goal.ruleAppIndex().fillCache();
+            }
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+            metrics(goal).stop(Phase.QUEUE_PEEK, time);
         }
     }
 
@@ -209,7 +230,7 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
      */
     @Override
     public RuleApp peekNext() {
-        var otime = System.nanoTime();
+        var otime = metrics(goal).start();
         try {
             ensureQueueExists();
 
@@ -229,14 +250,13 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
              * Create further appcontainers from previous minimum, which was removed from queue in a
              * previous round.
              */
-            ImmutableHeap<RuleAppContainer> furtherAppsQueue =
-                createFurtherApps(previousMinimum, goal);
+            RuleAppQueue furtherAppsQueue = createFurtherApps(previousMinimum, goal);
             previousMinimum = null;
 
             computeNextRuleApp(furtherAppsQueue);
             return nextRuleApp;
         } finally {
-            PERF_PEEK.addAndGet(System.nanoTime() - otime);
+            metrics(goal).stop(Phase.QUEUE_PEEK, otime);
         }
     }
 
@@ -260,7 +280,7 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
      * iteration includes all rule app containers that are contained either in primary or secondary
      * queue.
      */
-    private void computeNextRuleApp(ImmutableHeap<RuleAppContainer> furtherAppsQueue) {
+    private void computeNextRuleApp(RuleAppQueue furtherAppsQueue) {
         /*
          * Working list contains rule apps that cannot be completed in the current round but will be
          * reconsidered during the next round.
@@ -273,50 +293,46 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
         while (nextRuleApp == null && !(queue.isEmpty() && furtherAppsQueue.isEmpty())) {
 
             /*
-             * Determine the minimum rule app container, ranging over both queues. Putting this into
-             * a separate method would be convenient. But since we are using immutable data
-             * structures, this cannot be done very elegantly.
+             * Determine the minimum rule app container, ranging over both queues.
              */
             final RuleAppContainer minRuleAppContainer;
             final boolean furtherAppsQueueUsed;
             if (queue.isEmpty()) {
                 // Use furtherAppsQueue in case queue is empty.
                 furtherAppsQueueUsed = true;
-                var time = System.nanoTime();
+                var time = metrics(goal).start();
                 try {
-                    minRuleAppContainer = furtherAppsQueue.findMin();
-                    furtherAppsQueue = furtherAppsQueue.deleteMin();
+                    minRuleAppContainer = furtherAppsQueue.deleteMin();
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    metrics(goal).stop(Phase.QUEUE_OPS, time);
                 }
             } else if (furtherAppsQueue.isEmpty()) {
                 // Use queue in case furtherAppsQueueUsed is empty.
                 furtherAppsQueueUsed = false;
-                var time = System.nanoTime();
+                var time = metrics(goal).start();
                 try {
-                    minRuleAppContainer = queue.findMin();
-                    queue = queue.deleteMin();
+                    minRuleAppContainer = queue.deleteMin();
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    metrics(goal).stop(Phase.QUEUE_OPS, time);
                 }
             } else {
                 // Neither queue is empty. Find a minimum that ranges over both
                 // queues.
-                var time = System.nanoTime();
+                var time = metrics(goal).start();
                 try {
                     RuleAppContainer queueMin = queue.findMin();
                     RuleAppContainer furtherAppsQueueMin = furtherAppsQueue.findMin();
                     assert (queueMin != null && furtherAppsQueueMin != null);
                     furtherAppsQueueUsed = queueMin.compareTo(furtherAppsQueueMin) > 0;
                     if (furtherAppsQueueUsed) {
-                        furtherAppsQueue = furtherAppsQueue.deleteMin();
+                        furtherAppsQueue.deleteMin();
                         minRuleAppContainer = furtherAppsQueueMin;
                     } else {
-                        queue = queue.deleteMin();
+                        queue.deleteMin();
                         minRuleAppContainer = queueMin;
                     }
                 } finally {
-                    PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                    metrics(goal).stop(Phase.QUEUE_OPS, time);
                 }
             }
 
@@ -341,13 +357,12 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
                      * Create further apps if found in main queue. Rule apps obtained this way will
                      * be considered during the current round.
                      */
-                    var time = System.nanoTime();
+                    var time = metrics(goal).start();
                     try {
-                        furtherAppsQueue =
-                            push(minRuleAppContainer.createFurtherApps(goal).iterator(),
-                                furtherAppsQueue);
+                        furtherAppsQueue.insertEach(
+                            withoutTop(minRuleAppContainer.createFurtherApps(goal)));
                     } finally {
-                        PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+                        metrics(goal).stop(Phase.QUEUE_OPS, time);
                     }
                 }
             } else {
@@ -361,26 +376,169 @@ public class QueueRuleApplicationManager implements AutomatedRuleApplicationMana
         /*
          * Put remaining elements into main queue, so they can be considered in the upcoming rounds.
          */
-        var time = System.nanoTime();
+        var time = metrics(goal).start();
         try {
-            queue = queue.insert(workingList.iterator());
-            queue = queue.insert(furtherAppsQueue);
+            queue.insertAll(workingList.iterator());
+            queue.insertAll(furtherAppsQueue);
         } finally {
-            PERF_QUEUE_OPS.addAndGet(System.nanoTime() - time);
+            metrics(goal).stop(Phase.QUEUE_OPS, time);
         }
     }
 
+    private static ProofMetrics metrics(Goal goal) {
+        return goal == null ? ProofMetrics.DISABLED : ProofMetrics.of(goal.proof());
+    }
+
     @Override
     public AutomatedRuleApplicationManager copy() {
         return (AutomatedRuleApplicationManager) clone();
     }
 
+    /**
+     * Creates a copy of this manager for a new goal, e.g., after a split. The queue of the copy
+     * shares its contents with the queue of this manager (until one of them is modified).
+     */
     @Override
     public Object clone() {
         QueueRuleApplicationManager res = new QueueRuleApplicationManager();
-        res.queue = queue;
+        res.queue = queue == null ? null : queue.copy();
         res.previousMinimum = previousMinimum;
         return res;
     }
 
+
+    /**
+     * The queue of rule app containers, either a persistent {@link ImmutableLeftistHeap} or a
+     * mutable {@link DaryHeap} (see {@link #DARY_HEAP_PROPERTY}). Rule apps are added one by one by
+     * {@link #insertEach(Iterable)} and at once by {@link #insertAll(Iterator)}, which only differ
+     * for the leftist heap; the call sites use them like the leftist heap always did, so that the
+     * leftist heap keeps its order of rule apps of equal cost.
+     */
+    private interface RuleAppQueue {
+        static RuleAppQueue create() {
+            return USE_DARY_HEAP ? new DaryQueue(new DaryHeap<>())
+                    : new LeftistQueue(ImmutableLeftistHeap.nilHeap());
+        }
+
+        boolean isEmpty();
+
+        RuleAppContainer findMin();
+
+        RuleAppContainer deleteMin();
+
+        void insert(RuleAppContainer app);
+
+        void insertEach(Iterable<RuleAppContainer> apps);
+
+        void insertAll(Iterator<RuleAppContainer> apps);
+
+        void insertAll(RuleAppQueue other);
+
+        RuleAppQueue copy();
+    }
+
+    private static final class LeftistQueue implements RuleAppQueue {
+        private ImmutableHeap<RuleAppContainer> heap;
+
+        LeftistQueue(ImmutableHeap<RuleAppContainer> heap) {
+            this.heap = heap;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return heap.isEmpty();
+        }
+
+        @Override
+        public RuleAppContainer findMin() {
+            return heap.findMin();
+        }
+
+        @Override
+        public RuleAppContainer deleteMin() {
+            final RuleAppContainer min = heap.findMin();
+            heap = heap.deleteMin();
+            return min;
+        }
+
+        @Override
+        public void insert(RuleAppContainer app) {
+            heap = heap.insert(app);
+        }
+
+        @Override
+        public void insertEach(Iterable<RuleAppContainer> apps) {
+            for (RuleAppContainer app : apps) {
+                heap = heap.insert(app);
+            }
+        }
+
+        @Override
+        public void insertAll(Iterator<RuleAppContainer> apps) {
+            heap = heap.insert(apps);
+        }
+
+        @Override
+        public void insertAll(RuleAppQueue other) {
+            heap = heap.insert(((LeftistQueue) other).heap);
+        }
+
+        @Override
+        public RuleAppQueue copy() {
+            // the heap is persistent
+            return new LeftistQueue(heap);
+        }
+    }
+
+    /**
+     * Containers of equal cost are taken from the {@link DaryHeap} in the order in which they have
+     * been inserted. Many rule apps inserted at once rebuild the heap.
+     */
+    private static final class DaryQueue implements RuleAppQueue {
+        private final DaryHeap<RuleAppContainer> heap;
+
+        DaryQueue(DaryHeap<RuleAppContainer> heap) {
+            this.heap = heap;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return heap.isEmpty();
+        }
+
+        @Override
+        public RuleAppContainer findMin() {
+            return heap.findMin();
+        }
+
+        @Override
+        public RuleAppContainer deleteMin() {
+            return heap.deleteMin();
+        }
+
+        @Override
+        public void insert(RuleAppContainer app) {
+            heap.insert(app);
+        }
+
+        @Override
+        public void insertEach(Iterable<RuleAppContainer> apps) {
+            heap.insertAll(apps.iterator());
+        }
+
+        @Override
+        public void insertAll(Iterator<RuleAppContainer> apps) {
+            heap.insertAll(apps);
+        }
+
+        @Override
+        public void insertAll(RuleAppQueue other) {
+            heap.insertAll(((DaryQueue) other).heap);
+        }
+
+        @Override
+        public RuleAppQueue copy() {
+            return new DaryQueue(heap.copy());
+        }
+    }
 }
@@ -4,7 +4,9 @@
 package de.uka.ilkd.key.strategy;
 
 import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.Sequent;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.rule.IBuiltInRuleApp;
 import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.RuleApp;
@@ -29,9 +31,23 @@ public abstract class RuleAppContainer implements Comparable<RuleAppContainer> {
      */
     private final RuleAppCost cost;
 
-    protected RuleAppContainer(RuleApp p_app, RuleAppCost p_cost) {
+    /**
+     * The node and the sequent of the goal for which the cost was computed. As long as the goal
+     * is in this state, the strategy computes the same cost for the rule app again.
+     */
+    private final Node costNode;
+    private final Sequent costSequent;
+
+    /**
+     * @param p_app the rule app
+     * @param p_cost the cost of <code>p_app</code>
+     * @param p_goal the goal in the state for which <code>p_cost</code> was computed
+     */
+    protected RuleAppContainer(RuleApp p_app, RuleAppCost p_cost, Goal p_goal) {
         ruleApp = p_app;
         cost = p_cost;
+        costNode = p_goal.node();
+        costSequent = p_goal.sequent();
     }
 
     @Override
@@ -58,6 +74,20 @@ public abstract class RuleAppContainer implements Comparable<RuleAppContainer> {
         return cost;
     }
 
+    /**
+     * Costs only depend on the rule app, its position and the state of the goal, i.e. on its
+     * node and its sequent (which may change without a new node being created). A container that
+     * is recreated for the same rule app before the goal has changed can therefore take over the
+     * cost of this container instead of evaluating the features of the strategy again.
+     *
+     * @param p_goal the goal
+     * @return true iff the cost of this container was computed for the current state of
+     *         <code>p_goal</code>
+     */
+    protected final boolean isCostUpToDate(Goal p_goal) {
+        return p_goal.node() == costNode && p_goal.sequent() == costSequent;
+    }
+
     /**
      * Create container for a RuleApp.
      *
@@ -33,8 +33,8 @@ public abstract class TacletAppContainer extends RuleAppContainer {
 
     private final long age;
 
-    protected TacletAppContainer(RuleApp p_app, RuleAppCost p_cost, long p_age) {
-        super(p_app, p_cost);
+    protected TacletAppContainer(RuleApp p_app, RuleAppCost p_cost, Goal p_goal, long p_age) {
+        super(p_app, p_cost, p_goal);
         age = p_age;
     }
 
@@ -64,7 +64,7 @@ public abstract class TacletAppContainer extends RuleAppContainer {
         // never returns a value less than zero
         final long localage = p_initial ? -1 : p_goal.getTime();
         if (p_pio == null) {
-            return new NoFindTacletAppContainer(p_app, p_cost, localage);
+            return new NoFindTacletAppContainer(p_app, p_cost, p_goal, localage);
         } else {
             return new FindTacletAppContainer(p_app, p_pio, p_cost, p_goal, localage);
         }
@@ -171,8 +171,16 @@ public abstract class TacletAppContainer extends RuleAppContainer {
         return true;
     }
 
+    /**
+     * Create a container for the stored taclet app in the current state of the goal. Its cost is
+     * only computed again if the goal has changed since the cost of this container was computed.
+     */
     private TacletAppContainer createContainer(Goal p_goal) {
-        return createContainer(getTacletApp(), getPosInOccurrence(p_goal), p_goal, false);
+        final PosInOccurrence pio = getPosInOccurrence(p_goal);
+        if (isCostUpToDate(p_goal)) {
+            return createContainer(getTacletApp(), pio, p_goal, getCost(), false);
+        }
+        return createContainer(getTacletApp(), pio, p_goal, false);
     }
 
     /**
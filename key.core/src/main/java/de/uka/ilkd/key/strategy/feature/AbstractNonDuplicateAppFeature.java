@@ -117,19 +117,17 @@ public abstract class AbstractNonDuplicateAppFeature extends BinaryTacletAppFeat
     }
 
     /**
-     * Search for a duplicate of the application <code>app</code> by walking upwards in the proof
-     * tree. Here, we assume that <code>pos</code> is non-null, and as an optimisation we stop as
-     * soon as we have reached a point where the formula containing the focus no longer occurs in
-     * the sequent
+     * Search for a duplicate of the application <code>app</code> among the applications on the
+     * branch of the goal. Only the applications with the fingerprint of <code>app</code> in the
+     * {@link AppliedRuleAppsIndex} are compared.
      */
     protected boolean noDuplicateFindTaclet(TacletApp app, PosInOccurrence pos, Goal goal) {
         final Node node = goal.node();
-        final AppliedRuleAppsNameCache cache =
-            node.proof().getServices().getCaches().getAppliedRuleAppsNameCache();
-        List<RuleApp> apps = cache.get(node, app.rule().name());
+        final AppliedRuleAppsIndex index =
+            node.proof().getServices().getCaches().getAppliedRuleAppsIndex();
 
-        // Check all rules with this name
-        for (RuleApp a : apps) {
+        // Check all earlier applications which may be the same
+        for (RuleApp a : index.get(node, app)) {
             if (sameApplication(a, app, pos)) {
                 return false;
             }
@@ -0,0 +1,132 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy.feature;
+
+import javax.annotation.Nonnull;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.op.SchemaVariable;
+import de.uka.ilkd.key.logic.op.SkolemTermSV;
+import de.uka.ilkd.key.logic.op.VariableSV;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.rule.IfFormulaInstantiation;
+import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.rule.TacletApp;
+import de.uka.ilkd.key.rule.inst.InstantiationEntry;
+
+import org.key_project.util.TinyLFUCache;
+import org.key_project.util.collection.HashImmutableMap;
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableMapEntry;
+import org.key_project.util.collection.ImmutableSLList;
+
+/**
+ * An index of the taclet applications performed on the branch above a node, used to detect
+ * duplicate applications (see {@link AbstractNonDuplicateAppFeature}).
+ * <p>
+ * The applications are hashed by a fingerprint of their taclet, their if-formula instantiations
+ * and their interesting schema variable instantiations, such that applications considered the
+ * same by {@link AbstractNonDuplicateAppFeature#sameApplication} have equal fingerprints. The
+ * position is not part of the fingerprint, so the index serves features comparing positions in
+ * different ways. A lookup only returns the applications with the fingerprint of the new one.
+ * </p>
+ * <p>
+ * The index of a node is a persistent map which extends the index of its parent by the rule
+ * application of the parent. Sibling branches thus share the index of their common ancestors
+ * instead of copying it. The indices of recently queried nodes are cached; the index of another
+ * node is derived from the index of its nearest cached ancestor.
+ * </p>
+ */
+public class AppliedRuleAppsIndex {
+    /** number of nodes whose index is cached */
+    private static final int MAX_CACHED_NODES = 256;
+
+    /** the indices of recently queried nodes */
+    private final TinyLFUCache<Node, ImmutableMap<Integer, ImmutableList<RuleApp>>> cache =
+        new TinyLFUCache<>(MAX_CACHED_NODES);
+
+    public AppliedRuleAppsIndex() {}
+
+    /**
+     * Gets the taclet applications on the branch above the given node which may be the same
+     * application as <code>app</code>. The position of the applications is not compared.
+     *
+     * @param node the node
+     * @param app a taclet application
+     * @return the applications on the branch above <code>node</code> with the fingerprint of
+     *         <code>app</code>
+     */
+    public @Nonnull ImmutableList<RuleApp> get(@Nonnull Node node, @Nonnull TacletApp app) {
+        final ImmutableList<RuleApp> apps = indexOf(node).get(fingerprint(app));
+        return apps == null ? ImmutableSLList.nil() : apps;
+    }
+
+    private ImmutableMap<Integer, ImmutableList<RuleApp>> indexOf(Node node) {
+        ImmutableMap<Integer, ImmutableList<RuleApp>> index = cache.get(node);
+        if (index != null) {
+            return index;
+        }
+        // collect the nodes up to the nearest ancestor with a cached index, whose index does not
+        // contain its own application yet
+        ImmutableList<Node> ancestors = ImmutableSLList.nil();
+        Node current = node;
+        while (index == null) {
+            if (current.root()) {
+                index = HashImmutableMap.nilMap();
+            } else {
+                current = current.parent();
+                ancestors = ancestors.prepend(current);
+                index = cache.get(current);
+            }
+        }
+        for (Node ancestor : ancestors) {
+            index = add(index, ancestor.getAppliedRuleApp());
+        }
+        cache.put(node, index);
+        return index;
+    }
+
+    private static ImmutableMap<Integer, ImmutableList<RuleApp>> add(
+            ImmutableMap<Integer, ImmutableList<RuleApp>> index, RuleApp app) {
+        if (!(app instanceof TacletApp tacletApp)) {
+            return index;
+        }
+        final int fingerprint = fingerprint(tacletApp);
+        final ImmutableList<RuleApp> apps = index.get(fingerprint);
+        return index.put(fingerprint, (apps == null ? ImmutableSLList.<RuleApp>nil() : apps)
+                .prepend(app));
+    }
+
+    /**
+     * Computes the fingerprint of a taclet application from its taclet, the formulas of its
+     * if-formula instantiations and its interesting term instantiations. Instantiations that
+     * are not terms are left out, as their hash codes need not agree with their equality.
+     *
+     * @param app a taclet application
+     * @return the fingerprint
+     */
+    static int fingerprint(TacletApp app) {
+        int hash = app.rule().name().hashCode();
+        final ImmutableList<IfFormulaInstantiation> ifInsts = app.ifFormulaInstantiations();
+        if (ifInsts != null) {
+            for (IfFormulaInstantiation ifInst : ifInsts) {
+                hash = 31 * hash + System.identityHashCode(ifInst.getConstrainedFormula());
+            }
+        }
+        // the order of the instantiations is not fixed
+        int insts = 0;
+        for (ImmutableMapEntry<SchemaVariable, InstantiationEntry<?>> entry : app
+                .instantiations().interesting()) {
+            if (entry.key() instanceof SkolemTermSV || entry.key() instanceof VariableSV) {
+                continue;
+            }
+            final Object inst = entry.value().getInstantiation();
+            if (inst instanceof Term) {
+                insts += entry.key().hashCode() ^ inst.hashCode();
+            }
+        }
+        return 31 * hash + insts;
+    }
+}
@@ -22,10 +22,15 @@ public abstract class BinaryFeature implements Feature {
     /** Constant that represents the boolean value false */
     public static final RuleAppCost TOP_COST = TopRuleAppCost.INSTANCE;
 
-    public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
+    public final RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
         return filter(app, pos, goal) ? ZERO_COST : TOP_COST;
     }
 
+    @Override
+    public final long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return filter(app, pos, goal) ? 0 : NumberRuleAppCost.TOP_VALUE;
+    }
+
     /**
      * Compute whether the result of the feature is zero (<code>true</code>) or infinity
      * (<code>false</code>)
@@ -19,7 +19,7 @@ public abstract class CompareCostsFeature extends BinaryFeature {
     public static Feature less(Feature a, Feature b) {
         return new CompareCostsFeature(a, b) {
             protected boolean filter(RuleApp app, PosInOccurrence pos, Goal goal) {
-                return a.computeCost(app, pos, goal).compareTo(b.computeCost(app, pos, goal)) < 0;
+                return a.computeCostValue(app, pos, goal) < b.computeCostValue(app, pos, goal);
             }
         };
     }
@@ -27,7 +27,7 @@ public abstract class CompareCostsFeature extends BinaryFeature {
     public static Feature leq(Feature a, Feature b) {
         return new CompareCostsFeature(a, b) {
             protected boolean filter(RuleApp app, PosInOccurrence pos, Goal goal) {
-                return a.computeCost(app, pos, goal).compareTo(b.computeCost(app, pos, goal)) <= 0;
+                return a.computeCostValue(app, pos, goal) <= b.computeCostValue(app, pos, goal);
             }
         };
     }
@@ -35,7 +35,7 @@ public abstract class CompareCostsFeature extends BinaryFeature {
     public static Feature eq(Feature a, Feature b) {
         return new CompareCostsFeature(a, b) {
             protected boolean filter(RuleApp app, PosInOccurrence pos, Goal goal) {
-                return a.computeCost(app, pos, goal).equals(b.computeCost(app, pos, goal));
+                return a.computeCostValue(app, pos, goal) == b.computeCostValue(app, pos, goal);
             }
         };
     }
@@ -11,7 +11,6 @@ import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.rule.RuleApp;
 import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
-import de.uka.ilkd.key.strategy.TopRuleAppCost;
 import de.uka.ilkd.key.strategy.termProjection.TermBuffer;
 import de.uka.ilkd.key.strategy.termgenerator.TermGenerator;
 
@@ -43,14 +42,19 @@ public class ComprehendedSumFeature implements Feature {
 
 
     public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return NumberRuleAppCost.fromValue(computeCostValue(app, pos, goal));
+    }
+
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
         final Term outerVarContent = var.getContent();
 
         final Iterator<Term> it = generator.generate(app, pos, goal);
-        RuleAppCost res = NumberRuleAppCost.getZeroCost();
-        while (it.hasNext() && !(res instanceof TopRuleAppCost)) {
+        long res = 0;
+        while (it.hasNext() && res != NumberRuleAppCost.TOP_VALUE) {
             var.setContent(it.next());
 
-            res = res.add(body.computeCost(app, pos, goal));
+            res = NumberRuleAppCost.add(res, body.computeCostValue(app, pos, goal));
         }
 
         var.setContent(outerVarContent);
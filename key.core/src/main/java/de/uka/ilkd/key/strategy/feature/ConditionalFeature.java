@@ -30,6 +30,15 @@ public class ConditionalFeature implements Feature {
         }
     }
 
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        if (cond.filter(app.rule())) {
+            return thenFeature.computeCostValue(app, pos, goal);
+        } else {
+            return elseFeature.computeCostValue(app, pos, goal);
+        }
+    }
+
     /**
      * @param cond the filter that decides which value is to be returned
      * @param thenValue the value of the feature, if <code>filter</code> returns true
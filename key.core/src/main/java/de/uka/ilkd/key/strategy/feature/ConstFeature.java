@@ -6,6 +6,7 @@ package de.uka.ilkd.key.strategy.feature;
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
 
 /**
@@ -16,8 +17,14 @@ public class ConstFeature implements Feature {
         return val;
     }
 
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return value;
+    }
+
     private ConstFeature(RuleAppCost p_val) {
         val = p_val;
+        value = NumberRuleAppCost.valueOf(p_val);
     }
 
     public static Feature createConst(RuleAppCost p_val) {
@@ -29,4 +36,7 @@ public class ConstFeature implements Feature {
     }
 
     private final RuleAppCost val;
+
+    /** the primitive representation of <code>val</code> */
+    private final long value;
 }
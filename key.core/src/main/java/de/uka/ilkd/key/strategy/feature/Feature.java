@@ -6,10 +6,17 @@ package de.uka.ilkd.key.strategy.feature;
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
 
 /**
  * A {@link Feature} is a class that is able to compute the cost of a {@link RuleApp}.
+ * <p>
+ * Costs can also be computed as primitive values (see {@link #computeCostValue}), which is how
+ * features combining the costs of other features evaluate them. Such features implement
+ * {@link #computeCostValue} and derive {@link #computeCost} from it, so no cost objects are
+ * created inside of a feature term.
+ * </p>
  */
 public interface Feature {
 
@@ -24,4 +31,19 @@ public interface Feature {
      *         all (it is discarded by the strategy).
      */
     RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal);
+
+    /**
+     * Evaluate the cost of a <code>RuleApp</code> in its primitive representation (see
+     * {@link NumberRuleAppCost#valueOf(RuleAppCost)}). The result has to agree with
+     * {@link #computeCost}.
+     *
+     * @param app the RuleApp
+     * @param pos position where <code>app</code> is to be applied
+     * @param goal the goal on which <code>app</code> is to be applied
+     * @return the cost of the rule application, where {@link NumberRuleAppCost#TOP_VALUE}
+     *         indicates that the rule shall not be applied at all
+     */
+    default long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return NumberRuleAppCost.valueOf(computeCost(app, pos, goal));
+    }
 }
@@ -43,4 +43,15 @@ public class LetFeature implements Feature {
         return res;
     }
 
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        final Term outerVarContent = var.getContent();
+
+        var.setContent(value.toTerm(app, pos, goal));
+        final long res = body.computeCostValue(app, pos, goal);
+
+        var.setContent(outerVarContent);
+        return res;
+    }
+
 }
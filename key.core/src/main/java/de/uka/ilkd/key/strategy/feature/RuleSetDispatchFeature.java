@@ -13,7 +13,6 @@ import de.uka.ilkd.key.rule.RuleSet;
 import de.uka.ilkd.key.rule.TacletApp;
 import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
-import de.uka.ilkd.key.strategy.TopRuleAppCost;
 
 import org.key_project.util.collection.ImmutableList;
 
@@ -29,11 +28,16 @@ public class RuleSetDispatchFeature implements Feature {
     private final Map<RuleSet, Feature> rulesetToFeature = new LinkedHashMap<>();
 
     public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return NumberRuleAppCost.fromValue(computeCostValue(app, pos, goal));
+    }
+
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
         if (!(app instanceof TacletApp)) {
-            return NumberRuleAppCost.getZeroCost();
+            return 0;
         }
 
-        RuleAppCost res = NumberRuleAppCost.getZeroCost();
+        long res = 0;
         ImmutableList<RuleSet> ruleSetsOfAppliedTaclet = ((TacletApp) app).taclet().getRuleSets();
         /*
          * do not use iterator here, as this method is called a lot when proving such that avoiding
@@ -45,8 +49,8 @@ public class RuleSetDispatchFeature implements Feature {
 
             final Feature partialF = rulesetToFeature.get(rs);
             if (partialF != null) {
-                res = res.add(partialF.computeCost(app, pos, goal));
-                if (res instanceof TopRuleAppCost) {
+                res = NumberRuleAppCost.add(res, partialF.computeCostValue(app, pos, goal));
+                if (res == NumberRuleAppCost.TOP_VALUE) {
                     break;
                 }
 
@@ -157,23 +157,22 @@ public abstract class ScaleFeature implements Feature {
         }
 
         public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
-            final RuleAppCost cost = getFeature().computeCost(app, pos, goal);
-            long costVal;
+            return NumberRuleAppCost.fromValue(computeCostValue(app, pos, goal));
+        }
+
+        @Override
+        public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+            long costVal = getFeature().computeCostValue(app, pos, goal);
 
-            if (cost instanceof TopRuleAppCost) {
+            if (costVal == NumberRuleAppCost.TOP_VALUE) {
                 if (isZero(coeff)) {
                     costVal = 0;
                 } else {
-                    return TopRuleAppCost.INSTANCE;
+                    return NumberRuleAppCost.TOP_VALUE;
                 }
-            } else if (cost instanceof NumberRuleAppCost) {
-                costVal = ((NumberRuleAppCost) cost).getValue();
-            } else {
-                illegalCostError(cost);
-                return null;
             }
 
-            return NumberRuleAppCost.create((long) (coeff * costVal) + offset);
+            return NumberRuleAppCost.finite((long) (coeff * costVal) + offset);
         }
     }
 
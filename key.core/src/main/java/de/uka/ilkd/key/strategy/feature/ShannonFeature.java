@@ -24,9 +24,10 @@ public class ShannonFeature implements Feature {
     private final Feature cond;
 
     /**
-     * If the result of <code>cond</code> is this cost, then the condition is assumed to hold
+     * If the result of <code>cond</code> is this cost (in its primitive representation), then the
+     * condition is assumed to hold
      */
-    private final RuleAppCost trueCost;
+    private final long trueValue;
 
     /**
      * The feature for positive results of <code>filter</code>
@@ -41,19 +42,28 @@ public class ShannonFeature implements Feature {
     private ShannonFeature(Feature p_cond, RuleAppCost p_trueCost, Feature p_thenFeature,
             Feature p_elseFeature) {
         cond = p_cond;
-        trueCost = p_trueCost;
+        trueValue = NumberRuleAppCost.valueOf(p_trueCost);
         thenFeature = p_thenFeature;
         elseFeature = p_elseFeature;
     }
 
     public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
-        if (cond.computeCost(app, pos, goal).equals(trueCost)) {
+        if (cond.computeCostValue(app, pos, goal) == trueValue) {
             return thenFeature.computeCost(app, pos, goal);
         } else {
             return elseFeature.computeCost(app, pos, goal);
         }
     }
 
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
+        if (cond.computeCostValue(app, pos, goal) == trueValue) {
+            return thenFeature.computeCostValue(app, pos, goal);
+        } else {
+            return elseFeature.computeCostValue(app, pos, goal);
+        }
+    }
+
     /**
      * @param cond the feature that decides which value is to be returned
      * @param trueCost the value of <code>cond</code> that is regarded as true-value
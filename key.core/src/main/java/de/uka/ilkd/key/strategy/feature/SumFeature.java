@@ -9,8 +9,8 @@ import java.util.LinkedHashSet;
 import de.uka.ilkd.key.logic.PosInOccurrence;
 import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
-import de.uka.ilkd.key.strategy.TopRuleAppCost;
 import de.uka.ilkd.key.util.Debug;
 
 /**
@@ -20,12 +20,17 @@ public class SumFeature implements Feature {
 
     @Override
     public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
+        return NumberRuleAppCost.fromValue(computeCostValue(app, pos, goal));
+    }
+
+    @Override
+    public long computeCostValue(RuleApp app, PosInOccurrence pos, Goal goal) {
         // We require that there is at least one feature (in method
         // <code>createSum</code>)
-        RuleAppCost res = features[0].computeCost(app, pos, goal);
+        long res = features[0].computeCostValue(app, pos, goal);
 
-        for (int i = 1; i < features.length && !(res instanceof TopRuleAppCost); i++) {
-            res = res.add(features[i].computeCost(app, pos, goal));
+        for (int i = 1; i < features.length && res != NumberRuleAppCost.TOP_VALUE; i++) {
+            res = NumberRuleAppCost.add(res, features[i].computeCostValue(app, pos, goal));
         }
 
         return res;
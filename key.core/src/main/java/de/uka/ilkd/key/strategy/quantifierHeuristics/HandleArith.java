@@ -15,7 +15,7 @@ import de.uka.ilkd.key.logic.op.Operator;
 import de.uka.ilkd.key.rule.metaconstruct.arith.Polynomial;
 import de.uka.ilkd.key.util.Pair;
 
-import org.key_project.util.LRUCache;
+import org.key_project.util.TinyLFUCache;
 
 /**
  * This class is used to prove some simple arithmetic problem which are a==b, a>=b, a<=b; Besides it
@@ -34,12 +34,9 @@ public class HandleArith {
      *         <code>problem</code> if it cann't be proved.
      */
     public static Term provedByArith(Term problem, Services services) {
-        final LRUCache<Term, Term> provedByArithCache =
+        final TinyLFUCache<Term, Term> provedByArithCache =
             services.getCaches().getProvedByArithFstCache();
-        Term result;
-        synchronized (provedByArithCache) {
-            result = provedByArithCache.get(problem);
-        }
+        Term result = provedByArithCache.get(problem);
         if (result != null) {
             return result;
         }
@@ -73,11 +70,9 @@ public class HandleArith {
 
 
 
-    private static void putInTermCache(final LRUCache<Term, Term> provedByArithCache,
+    private static void putInTermCache(final TinyLFUCache<Term, Term> provedByArithCache,
             final Term key, final Term value) {
-        synchronized (provedByArithCache) {
-            provedByArithCache.put(key, value);
-        }
+        provedByArithCache.put(key, value);
     }
 
     /**
@@ -126,12 +121,9 @@ public class HandleArith {
      */
     public static Term provedByArith(Term problem, Term axiom, Services services) {
         final Pair<Term, Term> key = new Pair<>(problem, axiom);
-        final LRUCache<Pair<Term, Term>, Term> provedByArithCache =
+        final TinyLFUCache<Pair<Term, Term>, Term> provedByArithCache =
             services.getCaches().getProvedByArithSndCache();
-        Term result;
-        synchronized (provedByArithCache) {
-            result = provedByArithCache.get(key);
-        }
+        Term result = provedByArithCache.get(key);
         if (result != null) {
             return result;
         }
@@ -146,9 +138,7 @@ public class HandleArith {
         final Term falseT = tb.ff();
 
         if (cd.op() == Junctor.FALSE || ab.op() == Junctor.FALSE) {
-            synchronized (provedByArithCache) {
-                provedByArithCache.put(key, problem);
-            }
+            provedByArithCache.put(key, problem);
             return problem;
         }
         Function addfun = integerLDT.getAdd();
@@ -156,9 +146,7 @@ public class HandleArith {
             tb.geq(tb.func(addfun, cd.sub(0), ab.sub(1)), tb.func(addfun, ab.sub(0), cd.sub(1)));
         Term res = provedByArith(arithTerm, services);
         if (res.op() == Junctor.TRUE) {
-            synchronized (provedByArithCache) {
-                provedByArithCache.put(key, trueT);
-            }
+            provedByArithCache.put(key, trueT);
             return trueT;
         }
         Term t0 = formatArithTerm(tb.not(problem), tb, integerLDT, caches);
@@ -166,14 +154,10 @@ public class HandleArith {
             tb.geq(tb.func(addfun, t0.sub(0), ab.sub(1)), tb.func(addfun, ab.sub(0), t0.sub(1)));
         res = provedByArith(arithTerm, services);
         if (res.op() == Junctor.TRUE) {
-            synchronized (provedByArithCache) {
-                provedByArithCache.put(key, falseT);
-            }
+            provedByArithCache.put(key, falseT);
             return falseT;
         }
-        synchronized (provedByArithCache) {
-            provedByArithCache.put(key, problem);
-        }
+        provedByArithCache.put(key, problem);
         return problem;
     }
 
@@ -187,11 +171,8 @@ public class HandleArith {
      */
     private static Term formatArithTerm(final Term problem, TermBuilder tb, IntegerLDT ig,
             ServiceCaches caches) {
-        final LRUCache<Term, Term> formattedTermCache = caches.getFormattedTermCache();
-        Term pro;
-        synchronized (formattedTermCache) {
-            pro = formattedTermCache.get(problem);
-        }
+        final TinyLFUCache<Term, Term> formattedTermCache = caches.getFormattedTermCache();
+        Term pro = formattedTermCache.get(problem);
         if (pro != null) {
             return pro;
         }
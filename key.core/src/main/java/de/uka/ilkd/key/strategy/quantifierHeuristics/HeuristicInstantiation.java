@@ -26,8 +26,7 @@ public class HeuristicInstantiation implements TermGenerator {
         assert pos != null : "Feature is only applicable to rules with find";
 
         final Term qf = pos.sequentFormula().formula();
-        final Instantiation ia =
-            Instantiation.create(qf, goal.sequent(), goal.proof().getServices());
+        final Instantiation ia = Instantiation.create(qf, goal);
         final QuantifiableVariable var = qf.varsBoundHere(0).last();
         return new HIIterator(ia.getSubstitution().iterator(), var, goal.proof().getServices());
     }
@@ -16,6 +16,7 @@ import de.uka.ilkd.key.logic.op.QuantifiableVariable;
 import de.uka.ilkd.key.logic.op.Quantifier;
 import de.uka.ilkd.key.logic.op.SortDependingFunction;
 import de.uka.ilkd.key.logic.sort.Sort;
+import de.uka.ilkd.key.proof.Goal;
 import de.uka.ilkd.key.strategy.NumberRuleAppCost;
 import de.uka.ilkd.key.strategy.RuleAppCost;
 import de.uka.ilkd.key.strategy.TopRuleAppCost;
@@ -46,32 +47,23 @@ class Instantiation {
     /** the <code>TriggersSet</code> of this <code>allTerm</code> */
     private final TriggersSet triggersSet;
 
-    private Instantiation(Term allterm, Sequent seq, Services services) {
+    Instantiation(Term allterm, Sequent seq, TriggerMatchIndex matches, Services services) {
         firstVar = allterm.varsBoundHere(0).get(0);
         matrix = TriggerUtils.discardQuantifiers(allterm);
         /* Terms bound in every formula on <code>goal</code> */
         triggersSet = TriggersSet.create(allterm, services);
         assumedLiterals = initAssertLiterals(seq, services);
-        addInstances(sequentToTerms(seq), services);
+        addInstances(sequentToTerms(seq), matches, services);
     }
 
-    private static Term lastQuantifiedFormula = null;
-    private static Sequent lastSequent = null;
-    private static Instantiation lastResult = null;
-
-    static Instantiation create(Term qf, Sequent seq, Services services) {
-        synchronized (Instantiation.class) {
-            if (qf == lastQuantifiedFormula && seq == lastSequent) {
-                return lastResult;
-            }
-        }
-        final Instantiation result = new Instantiation(qf, seq, services);
-        synchronized (Instantiation.class) {
-            lastQuantifiedFormula = qf;
-            lastSequent = seq;
-            lastResult = result;
-        }
-        return result;
+    /**
+     * @param qf a quantified formula of the sequent of <code>goal</code>
+     * @param goal the goal
+     * @return the instantiation of <code>qf</code>, cached per goal and sequent
+     * @see TriggerMatchIndex
+     */
+    static Instantiation create(Term qf, Goal goal) {
+        return TriggerMatchIndex.get(goal).getInstantiation(qf, goal.proof().getServices());
     }
 
     private static ImmutableSet<Term> sequentToTerms(Sequent seq) {
@@ -87,10 +79,12 @@ class Instantiation {
      *        matching <code>triggers</code> from <code>triggersSet</code> to <code>terms</code>
      *        compute their cost and store the pair of instance (Term) and cost(Long) in
      *        <code>instancesCostCache</code>
+     * @param matches the matches of the uni-triggers against the single terms
      */
-    private void addInstances(ImmutableSet<Term> terms, Services services) {
+    private void addInstances(ImmutableSet<Term> terms, TriggerMatchIndex matches,
+            Services services) {
         for (final Trigger t : triggersSet.getAllTriggers()) {
-            for (final Substitution sub : t.getSubstitutionsFromTerms(terms, services)) {
+            for (final Substitution sub : t.getSubstitutionsFromTerms(terms, matches, services)) {
                 addInstance(sub, services);
             }
         }
@@ -168,8 +162,8 @@ class Instantiation {
     /**
      * Try to find the cost of an instance(inst) according its quantified formula and current goal.
      */
-    static RuleAppCost computeCost(Term inst, Term form, Sequent seq, Services services) {
-        return Instantiation.create(form, seq, services).computeCostHelp(inst);
+    static RuleAppCost computeCost(Term inst, Term form, Goal goal) {
+        return Instantiation.create(form, goal).computeCostHelp(inst);
     }
 
     private RuleAppCost computeCostHelp(Term inst) {
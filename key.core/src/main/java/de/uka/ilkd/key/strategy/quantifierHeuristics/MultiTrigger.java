@@ -33,11 +33,11 @@ class MultiTrigger implements Trigger {
 
     @Override
     public ImmutableSet<Substitution> getSubstitutionsFromTerms(ImmutableSet<Term> targetTerms,
-            Services services) {
+            TriggerMatchIndex matches, Services services) {
         ImmutableList<Substitution> res = ImmutableSLList.nil();
 
         ImmutableSet<Substitution> mulsubs =
-            setMultiSubstitution(triggers.iterator(), targetTerms, services);
+            setMultiSubstitution(triggers.iterator(), targetTerms, matches, services);
 
         for (Substitution sub : mulsubs) {
             if (sub.isTotalOn(qvs)) {
@@ -50,11 +50,13 @@ class MultiTrigger implements Trigger {
 
     /** help function for getMultiSubstitution */
     private ImmutableSet<Substitution> setMultiSubstitution(Iterator<? extends Trigger> ts,
-            ImmutableSet<Term> terms, Services services) {
+            ImmutableSet<Term> terms, TriggerMatchIndex matches, Services services) {
         ImmutableList<Substitution> res = ImmutableSLList.nil();
         if (ts.hasNext()) {
-            ImmutableSet<Substitution> subi = ts.next().getSubstitutionsFromTerms(terms, services);
-            ImmutableSet<Substitution> nextSubs = setMultiSubstitution(ts, terms, services);
+            ImmutableSet<Substitution> subi =
+                ts.next().getSubstitutionsFromTerms(terms, matches, services);
+            ImmutableSet<Substitution> nextSubs =
+                setMultiSubstitution(ts, terms, matches, services);
             if (nextSubs.isEmpty()) {
                 return subi;
             } else if (subi.isEmpty()) {
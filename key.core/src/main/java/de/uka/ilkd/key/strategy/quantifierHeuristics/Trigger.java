@@ -12,11 +12,12 @@ public interface Trigger {
 
     /**
      * @param targetTerm
+     * @param matches the index looked up for the matches of uni-triggers against single terms
      * @param services
      * @return all substitution that found from the targeTerm by matching this trigger to targeTerm.
      */
     ImmutableSet<Substitution> getSubstitutionsFromTerms(
-            ImmutableSet<Term> targetTerm, Services services);
+            ImmutableSet<Term> targetTerm, TriggerMatchIndex matches, Services services);
 
     Term getTriggerTerm();
 }
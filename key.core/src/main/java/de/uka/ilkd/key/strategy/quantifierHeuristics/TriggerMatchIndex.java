@@ -0,0 +1,129 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy.quantifierHeuristics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.StrategyInfoUndoMethod;
+import de.uka.ilkd.key.util.properties.Properties;
+
+import org.key_project.util.collection.ImmutableSet;
+
+/**
+ * The trigger matches and instantiations of the quantified formulas of the sequent of a goal.
+ * <p>
+ * For every formula of the sequent, the index stores the substitutions found by matching each
+ * {@link UniTrigger} against it. When a rule is applied, the index of the new sequent takes over
+ * the matches of all formulas the sequent shares with the previous one, so trigger matching only
+ * runs for the added formulas. The {@link Instantiation}s of the quantified formulas are computed
+ * once per sequent from these matches.
+ * </p>
+ * <p>
+ * The index is kept in the strategy infos of the goal and replaced whenever the sequent of the
+ * goal changes; an index is never changed except for filling in matches and instantiations on
+ * demand, which are functions of the sequent. Goals created by a split start with the index of
+ * their parent, which they may share as long as their sequents are unchanged.
+ * </p>
+ */
+final class TriggerMatchIndex {
+    /** the strategy info storing the index of a goal */
+    static final Properties.Property<TriggerMatchIndex> PROPERTY =
+        new Properties.Property<>(TriggerMatchIndex.class, "trigger match index");
+
+    /**
+     * The index is a cache only, so undoing a rule application leaves it in place. It is
+     * replaced once it is found not to belong to the sequent of the goal.
+     */
+    private static final StrategyInfoUndoMethod KEEP = strategyInfos -> {
+    };
+
+    /** the sequent the index belongs to */
+    private final Sequent sequent;
+
+    /**
+     * The matches of the uni-triggers per formula of the sequent. The triggers are compared by
+     * identity: equal triggers of different quantified formulas may have different matches, as
+     * matching also depends on the {@link TriggersSet} a trigger belongs to.
+     */
+    private final Map<Term, Map<UniTrigger, ImmutableSet<Substitution>>> matches;
+
+    /** the instantiations computed so far, per quantified formula */
+    private final Map<Term, Instantiation> instantiations = new ConcurrentHashMap<>();
+
+    private TriggerMatchIndex(Sequent sequent, TriggerMatchIndex previous) {
+        this.sequent = sequent;
+        this.matches = new HashMap<>(sequent.size() * 2);
+        for (SequentFormula sf : sequent) {
+            final Term formula = sf.formula();
+            Map<UniTrigger, ImmutableSet<Substitution>> formulaMatches =
+                previous == null ? null : previous.matches.get(formula);
+            if (formulaMatches == null) {
+                formulaMatches = Collections.synchronizedMap(new IdentityHashMap<>());
+            }
+            matches.put(formula, formulaMatches);
+        }
+    }
+
+    /**
+     * @param goal a goal
+     * @return the index of the current sequent of the goal
+     */
+    static TriggerMatchIndex get(Goal goal) {
+        final TriggerMatchIndex index = goal.getStrategyInfo(PROPERTY);
+        final Sequent sequent = goal.sequent();
+        if (index != null && index.sequent == sequent) {
+            return index;
+        }
+        final TriggerMatchIndex result = new TriggerMatchIndex(sequent, index);
+        goal.addStrategyInfo(PROPERTY, result, KEEP);
+        return result;
+    }
+
+    /**
+     * @param allTerm a quantified formula
+     * @param services services
+     * @return the instantiation of <code>allTerm</code> in the sequent of this index
+     */
+    Instantiation getInstantiation(Term allTerm, Services services) {
+        Instantiation result = instantiations.get(allTerm);
+        if (result == null) {
+            result = new Instantiation(allTerm, sequent, this, services);
+            final Instantiation present = instantiations.putIfAbsent(allTerm, result);
+            if (present != null) {
+                result = present;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param trigger a uni-trigger
+     * @param formula a formula
+     * @param services services
+     * @return the substitutions found by matching <code>trigger</code> against
+     *         <code>formula</code>
+     */
+    ImmutableSet<Substitution> getMatches(UniTrigger trigger, Term formula, Services services) {
+        final Map<UniTrigger, ImmutableSet<Substitution>> formulaMatches = matches.get(formula);
+        if (formulaMatches == null) {
+            // not a formula of the sequent
+            return trigger.match(formula, services);
+        }
+        ImmutableSet<Substitution> result = formulaMatches.get(trigger);
+        if (result == null) {
+            result = trigger.match(formula, services);
+            formulaMatches.put(trigger, result);
+        }
+        return result;
+    }
+}
@@ -10,7 +10,6 @@ import de.uka.ilkd.key.logic.Term;
 import de.uka.ilkd.key.logic.op.QuantifiableVariable;
 import de.uka.ilkd.key.logic.op.Quantifier;
 
-import org.key_project.util.LRUCache;
 import org.key_project.util.collection.DefaultImmutableSet;
 import org.key_project.util.collection.ImmutableList;
 import org.key_project.util.collection.ImmutableMap;
@@ -28,9 +27,6 @@ class UniTrigger implements Trigger {
     private final boolean onlyUnify;
     private final boolean isElementOfMultitrigger;
 
-    private final LRUCache<Term, ImmutableSet<Substitution>> matchResults =
-        new LRUCache<>(1000);
-
     UniTrigger(Term trigger, ImmutableSet<QuantifiableVariable> uqvs, boolean isUnify,
             boolean isElementOfMultitrigger, TriggersSet triggerSetThisBelongsTo) {
         this.trigger = trigger;
@@ -41,24 +37,21 @@ class UniTrigger implements Trigger {
     }
 
     public ImmutableSet<Substitution> getSubstitutionsFromTerms(ImmutableSet<Term> targetTerm,
-            Services services) {
+            TriggerMatchIndex matches, Services services) {
         ImmutableSet<Substitution> allsubs = DefaultImmutableSet.nil();
         for (Term aTargetTerm : targetTerm) {
-            allsubs = allsubs.union(getSubstitutionsFromTerm(aTargetTerm, services));
+            allsubs = allsubs.union(matches.getMatches(this, aTargetTerm, services));
         }
         return allsubs;
     }
 
-    private ImmutableSet<Substitution> getSubstitutionsFromTerm(Term t, Services services) {
-        ImmutableSet<Substitution> res = matchResults.get(t);
-        if (res == null) {
-            res = getSubstitutionsFromTermHelp(t, services);
-            matchResults.put(t, res);
-        }
-        return res;
-    }
-
-    private ImmutableSet<Substitution> getSubstitutionsFromTermHelp(Term t, Services services) {
+    /**
+     * @param t a term
+     * @param services services
+     * @return all substitutions found by matching this trigger against <code>t</code>
+     * @see TriggerMatchIndex#getMatches(UniTrigger, Term, Services)
+     */
+    ImmutableSet<Substitution> match(Term t, Services services) {
         ImmutableSet<Substitution> newSubs = DefaultImmutableSet.nil();
         if (t.freeVars().size() > 0 || t.op() instanceof Quantifier) {
             newSubs = Matching.twoSidedMatching(this, t, services);
@@ -0,0 +1,56 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.java;
+
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.logic.TermFactory;
+import de.uka.ilkd.key.logic.op.Junctor;
+import de.uka.ilkd.key.proof.init.AbstractProfile;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestServiceCaches {
+
+    private static Term notFalse(Services services) {
+        final TermFactory tf = services.getTermFactory();
+        return tf.createTerm(Junctor.NOT, tf.createTerm(Junctor.FALSE));
+    }
+
+    @Test
+    public void testEnvironmentCachesAreShared() {
+        final Services environment = new Services(AbstractProfile.getDefaultProfile());
+        final Services proof1 = environment.copy(false);
+        final Services proof2 = environment.copy(false);
+        final ServiceCaches caches1 = proof1.getCaches();
+        final ServiceCaches caches2 = proof2.getCaches();
+
+        assertNotSame(caches1, caches2);
+        assertSame(caches1.getTermFactoryCache(), caches2.getTermFactoryCache());
+        assertSame(caches1.getPolynomialCache(), caches2.getPolynomialCache());
+        assertSame(caches1.getMonomialCache(), caches2.getMonomialCache());
+        assertSame(caches1.getDisjointnessCache(), caches2.getDisjointnessCache());
+        assertSame(environment.getCaches().getFormattedTermCache(),
+            caches1.getFormattedTermCache());
+
+        // proof specific caches
+        assertNotSame(caches1.getIntroductionTimeCache(), caches2.getIntroductionTimeCache());
+        assertNotSame(caches1.getTermTacletAppIndexCache(),
+            caches2.getTermTacletAppIndexCache());
+        assertNotSame(caches1.getIfInstantiationCache(), caches2.getIfInstantiationCache());
+
+        // terms are hash-consed across the proofs
+        assertSame(notFalse(proof1), notFalse(proof2));
+    }
+
+    @Test
+    public void testSharedCachesAreKept() {
+        final Services environment = new Services(AbstractProfile.getDefaultProfile());
+        final Services shared = environment.copy(true);
+        assertSame(environment.getCaches(), shared.getCaches());
+        assertNotSame(new ServiceCaches().getTermFactoryCache(),
+            environment.getCaches().getTermFactoryCache());
+    }
+}
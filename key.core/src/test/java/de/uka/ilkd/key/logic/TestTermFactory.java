@@ -5,6 +5,8 @@ package de.uka.ilkd.key.logic;
 
 import de.uka.ilkd.key.java.StatementBlock;
 import de.uka.ilkd.key.java.declaration.LocalVariableDeclaration;
+import de.uka.ilkd.key.logic.label.ParameterlessTermLabel;
+import de.uka.ilkd.key.logic.label.TermLabel;
 import de.uka.ilkd.key.logic.op.*;
 import de.uka.ilkd.key.logic.sort.Sort;
 import de.uka.ilkd.key.logic.sort.SortImpl;
@@ -335,4 +337,34 @@ public class TestTermFactory {
         Assertions.assertNotSame(withJBChild, withJBChildAgain);
         Assertions.assertNotSame(withJBChildChild, withJBChildChildAgain);
     }
+
+    /**
+     * Tests that the hash-consing table distinguishes terms by bound variables and labels, and
+     * that labels are compared independently of their order.
+     */
+    @Test
+    public void testCachingBoundVarsAndLabels() {
+        TermFactory cachingTf = new TermFactory(new HashConsingTermTable());
+        Term px = cachingTf.createTerm(p, cachingTf.createTerm(x));
+        Term pz = cachingTf.createTerm(p, cachingTf.createTerm(z));
+
+        Term allX = cachingTf.createTerm(Quantifier.ALL, new Term[] { px },
+            new ImmutableArray<>(x), null);
+        Assertions.assertSame(allX, cachingTf.createTerm(Quantifier.ALL, new Term[] { px },
+            new ImmutableArray<>(x), null));
+        Assertions.assertNotSame(allX, cachingTf.createTerm(Quantifier.ALL, new Term[] { px },
+            new ImmutableArray<>(z), null));
+        Assertions.assertNotSame(px, pz);
+
+        TermLabel l1 = ParameterlessTermLabel.ANON_HEAP_LABEL;
+        TermLabel l2 = ParameterlessTermLabel.SELECT_SKOLEM_LABEL;
+        Term labeled = cachingTf.createTerm(Junctor.NOT, px, new ImmutableArray<>(l1, l2));
+        Assertions.assertSame(labeled,
+            cachingTf.createTerm(Junctor.NOT, px, new ImmutableArray<>(l2, l1)));
+        Assertions.assertNotSame(labeled,
+            cachingTf.createTerm(Junctor.NOT, px, new ImmutableArray<>(l1)));
+        Assertions.assertNotSame(labeled, cachingTf.createTerm(Junctor.NOT, px));
+        Assertions.assertEquals(labeled,
+            cachingTf.createTerm(Junctor.NOT, px, new ImmutableArray<>(l2, l1)));
+    }
 }
@@ -6,11 +6,15 @@ package de.uka.ilkd.key.proof;
 import java.lang.reflect.Method;
 
 import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.PosInTerm;
 import de.uka.ilkd.key.logic.Semisequent;
 import de.uka.ilkd.key.logic.Sequent;
 import de.uka.ilkd.key.logic.SequentFormula;
 import de.uka.ilkd.key.proof.init.AbstractProfile;
 import de.uka.ilkd.key.proof.init.InitConfig;
+import de.uka.ilkd.key.proof.rulefilter.TacletFilter;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
 import de.uka.ilkd.key.rule.TacletForTests;
 
 import org.key_project.util.collection.ImmutableList;
@@ -138,4 +142,40 @@ public class TestGoal {
 
     }
 
+    @Test
+    public void testSplitSharesIndices() {
+        Sequent seq = Sequent.createSuccSequent(Semisequent.EMPTY_SEMISEQUENT
+                .insert(0, new SequentFormula(TacletForTests.parseTerm("A -> B"))).semisequent());
+
+        final InitConfig initConfig =
+            new InitConfig(new Services(AbstractProfile.getDefaultProfile()));
+        proof = new Proof("", seq, "", initConfig.createTacletIndex(),
+            initConfig.createBuiltInRuleIndex(), initConfig);
+
+        Goal g = proof.openGoals().head();
+        PosInOccurrence pos = new PosInOccurrence(g.sequent().succedent().getFirst(),
+            PosInTerm.getTopLevel(), false);
+        g.addNoPosTacletApp(TacletForTests.getRules().lookup("or_right"));
+        // build the indices, then leave an update pending
+        assertTrue(findTaclets(g, pos).isEmpty());
+        g.addNoPosTacletApp(TacletForTests.getRules().lookup("imp_left"));
+
+        ImmutableList<Goal> lg = g.split(2);
+        Goal first = lg.head();
+        Goal second = lg.tail().head();
+
+        // adding a taclet to one goal must not affect the index of its sibling
+        first.addNoPosTacletApp(TacletForTests.getRules().lookup("imp_right"));
+        assertEquals(1, findTaclets(first, pos).size());
+        assertEquals("imp_right", findTaclets(first, pos).head().taclet().name().toString());
+        assertTrue(findTaclets(second, pos).isEmpty());
+
+        second.addNoPosTacletApp(TacletForTests.getRules().lookup("imp_right"));
+        assertEquals(1, findTaclets(second, pos).size());
+    }
+
+    private static ImmutableList<NoPosTacletApp> findTaclets(Goal goal, PosInOccurrence pos) {
+        return goal.ruleAppIndex().getFindTaclet(TacletFilter.TRUE, pos);
+    }
+
 }
@@ -0,0 +1,165 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBinaryProofFormat {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    private static final String RELAX_PROOF =
+        "../../../../../key.ui/examples/heap/verifyThis15_1_RelaxedPrefix/relax.proof";
+
+    private static final String HEADER = "\\profile \"Java Profile\";\n\n\\problem {\ntrue\n}\n";
+
+    private static final String PROOF = "(keyLog \"0\" (keyUser \"me\" ) (keyVersion \"abc\"))\n"
+        + "(autoModeTime \"1234567890123\")\n"
+        + "(branch \"dummy ID\"\n"
+        + "(rule \"andRight\" (formula \"1\") (term \"1,0\") (userinteraction))\n"
+        + "(branch \"Case 1\"\n"
+        + "   (rule \"eqSymm\" (formula \"2\") (inst \"s=f(\\\"x\\\\y\\\")\")"
+        + " (notes \"a (b)\"))\n"
+        + "   (builtin \"One Step Simplification\" (formula \"1\") (ifInst \"\" (formula \"3\")))\n"
+        + ")\n"
+        + "(branch\n"
+        + "   (rule \"eqSymm\" (formula \"02\") (inst \"s=f(\\\"x\\\\y\\\")\"))\n"
+        + ")\n"
+        + ")\n";
+
+    /**
+     * Records the events as text.
+     */
+    private static class Recorder implements IProofFileParser {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void beginExpr(ProofElementID eid, String str) {
+            events.add("begin " + eid + " " + str);
+        }
+
+        @Override
+        public void endExpr(ProofElementID eid, int stringLiteralLine) {
+            events.add("end " + eid);
+        }
+
+        @Override
+        public String getStatus() {
+            return "";
+        }
+
+        @Override
+        public List<Throwable> getErrors() {
+            return List.of();
+        }
+    }
+
+    private static List<String> readText(String text) throws IOException {
+        Recorder recorder = new Recorder();
+        new BinaryProofFormat.TextReader(recorder).append(text);
+        return recorder.events;
+    }
+
+    @Test
+    public void testTextReader() throws IOException {
+        List<String> events = readText(PROOF);
+        assertEquals("begin KeY_LOG 0", events.get(0));
+        assertEquals("begin KeY_USER me", events.get(1));
+        assertTrue(events.contains("begin TERM 1,0"));
+        assertTrue(events.contains("begin USER_INTERACTION null"));
+        assertTrue(events.contains("begin INSTANTIATION s=f(\"x\\y\")"));
+        assertTrue(events.contains("begin NOTES a (b)"));
+        assertTrue(events.contains("begin ASSUMES_INST_BUILT_IN "));
+        assertTrue(events.contains("begin BRANCH null"));
+        assertEquals("end BRANCH", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BinaryProofFormat.writeHeader(out, HEADER);
+            new BinaryProofFormat.TextReader(new BinaryProofFormat.Encoder(out)).append(PROOF);
+        }
+        assertTrue(bytes.size() < HEADER.length() + PROOF.length());
+
+        Recorder recorder = new Recorder();
+        try (DataInputStream in =
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(HEADER, BinaryProofFormat.readHeader(in));
+            BinaryProofFormat.readProof(in, recorder);
+        }
+        assertEquals(readText(PROOF), recorder.events);
+    }
+
+    /**
+     * @return the names of the rules applied in the proof, in preorder
+     */
+    private static List<String> ruleNames(Proof proof) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<Node> it = proof.root().subtreeIterator(); it.hasNext();) {
+            Node node = it.next();
+            names.add(node.getAppliedRuleApp() == null ? "-"
+                    : node.getAppliedRuleApp().rule().name().toString());
+        }
+        return names;
+    }
+
+    @Test
+    public void testSaveAndLoadProof() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, RELAX_PROOF));
+        Proof proof = env.getLoadedProof();
+        assertTrue(proof.closed());
+        List<String> rules = ruleNames(proof);
+
+        Path dir = Files.createTempDirectory("binaryProof");
+        File file = dir.resolve("relax" + BinaryProofFormat.EXTENSION).toFile();
+        KeYEnvironment<DefaultUserInterfaceControl> env2 = null;
+        try {
+            String error = new BinaryProofSaver(proof, file).save();
+            assertNull(error);
+            try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                // the file is binary, not a textual proof
+                assertTrue(BinaryProofFormat.readHeader(in).contains("\\proofObligation"));
+            }
+
+            env2 = KeYEnvironment.load(file);
+            Proof reloaded = env2.getLoadedProof();
+            assertTrue(reloaded.closed());
+            // the same rules are replayed on the same branches
+            assertEquals(rules, ruleNames(reloaded));
+        } finally {
+            env.dispose();
+            if (env2 != null) {
+                env2.dispose();
+            }
+            Files.deleteIfExists(file.toPath());
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testInvalidFile() {
+        byte[] text = HEADER.getBytes();
+        assertThrows(IOException.class, () -> BinaryProofFormat
+                .readHeader(new DataInputStream(new ByteArrayInputStream(text))));
+    }
+}
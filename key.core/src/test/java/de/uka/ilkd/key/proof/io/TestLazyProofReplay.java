@@ -0,0 +1,83 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.DeferredReplay;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+
+import org.key_project.util.java.IOUtil;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLazyProofReplay {
+
+    /** needs a case distinction */
+    private static final String PROBLEM =
+        "\\functions { int c; }\n\\problem { c = 1 | c = 2 -> c > 0 }\n";
+
+    private static KeYEnvironment<DefaultUserInterfaceControl> loadLazily(Path proofFile)
+            throws Exception {
+        System.setProperty(IntermediateProofReplayer.LAZY_PROPERTY, "true");
+        try {
+            return KeYEnvironment.load(proofFile.toFile());
+        } finally {
+            System.clearProperty(IntermediateProofReplayer.LAZY_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testLazyReplay() throws Exception {
+        Path dir = Files.createTempDirectory("keyLazyReplay");
+        try {
+            Path problemFile = dir.resolve("lazy.key");
+            Path proofFile = dir.resolve("lazy.proof");
+            Files.writeString(problemFile, PROBLEM);
+
+            KeYEnvironment<DefaultUserInterfaceControl> env =
+                KeYEnvironment.load(problemFile.toFile());
+            Proof proof = env.getLoadedProof();
+            env.getProofControl().startAndWaitForAutoMode(proof);
+            assertTrue(proof.closed());
+            final int nodes = proof.countNodes();
+            new ProofSaver(proof, proofFile.toFile()).save();
+            env.dispose();
+
+            env = loadLazily(proofFile);
+            proof = env.getLoadedProof();
+            DeferredReplay replay = proof.lookup(DeferredReplay.class);
+            assertTrue(replay instanceof IntermediateProofReplayer);
+            assertFalse(proof.closed());
+            assertTrue(proof.countNodes() < nodes);
+            for (Goal goal : proof.openGoals()) {
+                assertTrue(replay.isDeferred(goal.node()));
+            }
+
+            // saving replays the deferred branches
+            new ProofSaver(proof, proofFile.toFile()).save();
+            assertTrue(proof.closed());
+            assertEquals(nodes, proof.countNodes());
+            assertNull(proof.lookup(DeferredReplay.class));
+            env.dispose();
+
+            // so does the prover, before it works on the goals of deferred branches
+            env = loadLazily(proofFile);
+            proof = env.getLoadedProof();
+            assertNotNull(proof.lookup(DeferredReplay.class));
+            env.getProofControl().startAndWaitForAutoMode(proof);
+            assertTrue(proof.closed());
+            assertEquals(nodes, proof.countNodes());
+            env.dispose();
+        } finally {
+            IOUtil.delete(dir.toFile());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.io;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProofJournal {
+
+    private static final String HEADER = "\\problem {\ntrue\n}\n";
+
+    private static String entry(String line, String text) {
+        return line + " " + text.length() + "\n" + text;
+    }
+
+    private static String recover(String journal) throws IOException {
+        StringWriter out = new StringWriter();
+        ProofJournal.recover(new StringReader(journal), out);
+        return out.toString();
+    }
+
+    @Test
+    public void testRecover() throws IOException {
+        String journal = entry("header 0", HEADER)
+            + entry("node 0 1", " (rule \"impRight\" (formula \"1\"))\n")
+            + entry("node 1 2,3", " (rule \"orLeft\" (formula \"1\"))\n")
+            + entry("node 3 4", " (rule \"wrong\" (formula \"1\"))\n")
+            + entry("node 4 -", " (rule \"close\" (formula \"1\"))\n")
+            + "prune 3\n"
+            + entry("node 3 -", " (rule \"closeTrue\" (formula \"1\"))\n")
+            + entry("node 2 -", " (rule \"close\" (formula \"2\"))\n")
+            // written incompletely
+            + "node 5 - 40\n (rule";
+
+        assertEquals(HEADER + "\n\\proof {\n(branch \"dummy ID\"\n"
+            + " (rule \"impRight\" (formula \"1\"))\n"
+            + " (rule \"orLeft\" (formula \"1\"))\n"
+            + "(branch\n"
+            + "    (rule \"close\" (formula \"2\"))\n"
+            + ")\n"
+            + "(branch\n"
+            + "    (rule \"closeTrue\" (formula \"1\"))\n"
+            + ")\n"
+            + ")\n}\n", recover(journal));
+    }
+
+    @Test
+    public void testOpenGoals() throws IOException {
+        // the children of the split have no entries yet
+        String journal = entry("header 7", HEADER)
+            + entry("node 7 8,9", " (rule \"andRight\" (formula \"1\"))\n");
+        assertEquals(HEADER + "\n\\proof {\n(branch \"dummy ID\"\n"
+            + " (rule \"andRight\" (formula \"1\"))\n"
+            + "(branch\n)\n(branch\n)\n)\n}\n", recover(journal));
+    }
+
+    @Test
+    public void testBranchLabels() throws IOException {
+        String journal = entry("header 0", HEADER)
+            + entry("node 0 1,2", " (rule \"orLeft\" (formula \"1\"))\n")
+            + entry("label 1", "Case \"1\"") + entry("label 2", "Case 2")
+            + entry("node 1 -", " (rule \"close\" (formula \"2\"))\n");
+        assertEquals(HEADER + "\n\\proof {\n(branch \"dummy ID\"\n"
+            + " (rule \"orLeft\" (formula \"1\"))\n"
+            + "(branch \"Case \\\"1\\\"\"\n"
+            + "    (rule \"close\" (formula \"2\"))\n"
+            + ")\n"
+            + "(branch \"Case 2\"\n"
+            + ")\n"
+            + ")\n}\n", recover(journal));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IOException.class, () -> recover(entry("node 0 -", "(rule)\n")));
+        assertThrows(IOException.class,
+            () -> recover(entry("header 0", HEADER) + "garbage\nprune 1\n"));
+    }
+}
@@ -0,0 +1,105 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.metrics;
+
+import de.uka.ilkd.key.proof.metrics.ProofMetrics.Phase;
+import de.uka.ilkd.key.rule.QueryExpand;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestProofMetrics {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1000, 123456789,
+            Long.MAX_VALUE }) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.upperBound(index) >= value, "upper bound of " + value);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.upperBound(index - 1) < value,
+                    "previous bucket of " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        for (long i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(100, histogram.count());
+        assertEquals(5050 * 1000, histogram.sum());
+        assertEquals(100000, histogram.max());
+        assertEquals(100000, histogram.percentile(1));
+        final long p50 = histogram.percentile(0.5);
+        assertTrue(p50 >= 50000 && p50 <= 50000 * 1.125, "p50 " + p50);
+        final long p90 = histogram.percentile(0.9);
+        assertTrue(p90 >= 90000 && p90 <= 100000, "p90 " + p90);
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void testDisabled() {
+        final ProofMetrics metrics = ProofMetrics.DISABLED;
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.start());
+        metrics.stop(Phase.GOAL_APPLY, 0);
+        metrics.ruleApplied(QueryExpand.INSTANCE, 0);
+        assertEquals(0, metrics.count(Phase.GOAL_APPLY));
+        assertEquals(0, metrics.time(Phase.GOAL_APPLY));
+        assertTrue(metrics.getRuleSets().isEmpty());
+        assertTrue(ProofMetricsExporter.toJson("p", metrics).contains("\"enabled\":false"));
+    }
+
+    @Test
+    public void testRecording() {
+        final ProofMetrics metrics = ProofMetrics.create();
+        metrics.add(Phase.STRATEGY, 2_000_000_000L);
+        metrics.add(Phase.GOAL_APPLY, 10);
+        metrics.add(Phase.GOAL_APPLY, 20);
+        metrics.ruleApplied(QueryExpand.INSTANCE, metrics.start());
+
+        assertEquals(2, metrics.count(Phase.GOAL_APPLY));
+        assertEquals(30, metrics.time(Phase.GOAL_APPLY));
+        assertEquals(1, metrics.count(Phase.RULE_APP_EXECUTE));
+        assertEquals(1, metrics.getRuleApplications().count());
+        assertEquals(1, metrics.getRuleSets().get(ProofMetrics.BUILT_IN_RULES).count());
+        assertEquals(1.0, metrics.ruleApplicationRate(), 1e-9);
+
+        metrics.reset();
+        assertEquals(0, metrics.count(Phase.GOAL_APPLY));
+        assertTrue(metrics.getRuleSets().isEmpty());
+    }
+
+    @Test
+    public void testExport() {
+        final ProofMetrics metrics = ProofMetrics.create();
+        metrics.add(Phase.STRATEGY, 1_000_000_000L);
+        metrics.add(Phase.GOAL_APPLY, 500_000_000L);
+        metrics.ruleApplied(QueryExpand.INSTANCE, metrics.start());
+
+        final String json = ProofMetricsExporter.toJson("a \"b\"", metrics);
+        assertTrue(json.startsWith("{\"proof\":\"a \\\"b\\\"\""), json);
+        assertTrue(json.contains("\"ruleApplicationsPerSecond\":1.000"), json);
+        assertTrue(json.contains("\"goal_apply\":{\"count\":1,\"nanos\":500000000}"), json);
+        assertTrue(json.contains("\"ruleSets\":{\"builtin\":{\"count\":1"), json);
+
+        final String prometheus = ProofMetricsExporter.toPrometheus("a", metrics);
+        assertTrue(prometheus.contains("# TYPE key_phase_seconds_total counter\n"), prometheus);
+        assertTrue(prometheus.contains(
+            "key_phase_seconds_total{proof=\"a\",phase=\"goal_apply\"} 0.500000000\n"), prometheus);
+        assertTrue(prometheus.contains(
+            "key_rule_set_application_seconds_count{proof=\"a\",rule_set=\"builtin\"} 1\n"),
+            prometheus);
+    }
+}
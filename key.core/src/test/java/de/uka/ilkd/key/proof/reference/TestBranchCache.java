@@ -0,0 +1,110 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.reference;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.settings.GeneralSettings;
+
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestBranchCache {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    private static final String RELAX_PROOF =
+        "../../../../../key.ui/examples/heap/verifyThis15_1_RelaxedPrefix/relax.proof";
+
+    @Test
+    void testFingerprintsAreIndependentOfEnvironment() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, RELAX_PROOF));
+        Proof p = env.getLoadedProof();
+        KeYEnvironment<DefaultUserInterfaceControl> env2 =
+            KeYEnvironment.load(new File(testCaseDirectory, RELAX_PROOF));
+        Proof p2 = env2.getLoadedProof();
+
+        var formulas = p.root().sequent().asList();
+        var formulas2 = p2.root().sequent().asList();
+        assertEquals(formulas.size(), formulas2.size());
+        for (int i = 0; i < formulas.size(); i++) {
+            SequentFormula sf = formulas.get(i);
+            SequentFormula sf2 = formulas2.get(i);
+            assertTrue(sf.equalsModProofIrrelevancy(sf2));
+            assertEquals(BranchCache.fingerprint(sf.formula(), new IdentityHashMap<>()),
+                BranchCache.fingerprint(sf2.formula(), new IdentityHashMap<>()));
+        }
+
+        p.dispose();
+        p2.dispose();
+    }
+
+    @Test
+    void testFindAndPersist() throws Exception {
+        GeneralSettings.noPruningClosed = false;
+        KeYEnvironment<DefaultUserInterfaceControl> env =
+            KeYEnvironment.load(new File(testCaseDirectory, RELAX_PROOF));
+        Proof p = env.getLoadedProof();
+        KeYEnvironment<DefaultUserInterfaceControl> env2 =
+            KeYEnvironment.load(new File(testCaseDirectory, RELAX_PROOF));
+        Proof p2 = env2.getLoadedProof();
+
+        // only proofs with a file are written
+        File proofFile = new File(testCaseDirectory, RELAX_PROOF);
+        p2.setProofFile(proofFile);
+        BranchCache cache = new BranchCache();
+        cache.add(p2);
+        Path file = Files.createTempFile("branches", ".cache");
+        cache.save(file);
+        BranchCache stored = BranchCache.load(file);
+        Files.delete(file);
+        assertTrue(stored.getProofs().isEmpty());
+
+        int found = 0;
+        for (Goal g : p.closedGoals()) {
+            Node n = g.node();
+            while (n.parent().childrenCount() == 1) {
+                n = n.parent();
+            }
+            if (!ReferenceSearcher.suitableForCloseByReference(n)) {
+                assertNull(cache.find(n));
+                assertTrue(stored.findStored(n).isEmpty());
+                continue;
+            }
+            ClosedBy c = cache.find(n);
+            assertNotNull(c);
+            assertSame(p2, c.proof());
+            assertEquals(n.serialNr(), c.node().serialNr());
+
+            List<BranchCache.StoredBranch> candidates = stored.findStored(n);
+            int serialNr = n.serialNr();
+            assertTrue(candidates.stream().anyMatch(b -> b.serialNr() == serialNr));
+            assertEquals(proofFile.toPath().toAbsolutePath(), candidates.get(0).proofFile());
+            found++;
+        }
+        assertTrue(found > 0);
+
+        // the proof itself is never referenced
+        cache.add(p);
+        cache.remove(p2);
+        assertNull(cache.find(p.closedGoals().head().node()));
+
+        GeneralSettings.noPruningClosed = true;
+        p.dispose();
+        p2.dispose();
+    }
+}
@@ -73,6 +73,8 @@ public final class RunAllProofsTest {
          */
         List<RunAllProofsTestUnit> units = proofCollection.createRunAllProofsTestUnits();
         new File("build/test-results/rap/").mkdirs();
+        // fill the queue of the worker pool, so that the workers never wait for the next unit
+        units.forEach(RunAllProofsTestUnit::schedule);
         return units.stream()
                 .map(unit -> DynamicTest.dynamicTest(unit.getTestName(), () -> executeUnit(unit)));
     }
@@ -10,6 +10,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import de.uka.ilkd.key.proof.runallproofs.proofcollection.*;
 
@@ -34,6 +37,12 @@ public final class RunAllProofsTestUnit implements Serializable {
     private final List<TestFile> testFiles;
     private final boolean ungrouped;
 
+    /**
+     * The results of the test files submitted to the {@link ForkedWorkerPool}, <code>null</code>
+     * if not yet submitted. Cached results are contained as completed futures.
+     */
+    private transient List<Future<TestResult>> scheduled;
+
     /**
      * Method {@link Object#toString()} is used by class {@link RunAllProofsTest} to determine the
      * name of a test case. It is overridden here so that test cases can be easily recognized by
@@ -85,30 +94,40 @@ public final class RunAllProofsTestUnit implements Serializable {
         }
 
         ForkMode forkMode = settings.getForkMode();
-        switch (forkMode) {
-        case PERGROUP:
-            testResults = ForkedTestFileRunner.processTestFiles(testFiles, getTempDir());
-            break;
-
-        case NOFORK:
+        TestResultCache cache = TestResultCache.create(settings);
+        if (forkMode == ForkMode.POOL) {
+            schedule();
             testResults = new ArrayList<>();
+            for (Future<TestResult> result : scheduled) {
+                try {
+                    testResults.add(result.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        } else {
+            // run only the files without cached result
+            List<TestResult> cached = new ArrayList<>();
+            List<TestFile> uncachedFiles = new ArrayList<>();
             for (TestFile testFile : testFiles) {
-                TestResult testResult = testFile.runKey();
-                testResults.add(testResult);
+                TestResult result = cache == null ? null : cache.lookup(testFile);
+                cached.add(result);
+                if (result == null) {
+                    uncachedFiles.add(testFile);
+                }
             }
-            break;
 
-        case PERFILE:
+            List<TestResult> uncachedResults = runTestFiles(forkMode, uncachedFiles);
             testResults = new ArrayList<>();
-            for (TestFile testFile : testFiles) {
-                TestResult testResult =
-                    ForkedTestFileRunner.processTestFile(testFile, getTempDir());
-                testResults.add(testResult);
+            int next = 0;
+            for (TestResult result : cached) {
+                testResults.add(result != null ? result : uncachedResults.get(next++));
+            }
+        }
+        if (cache != null) {
+            for (int i = 0; i < testResults.size(); i++) {
+                cache.store(testFiles.get(i), testResults.get(i));
             }
-            break;
-
-        default:
-            throw new RuntimeException("Unexpected value for fork mode: " + forkMode);
         }
 
         if (verbose) {
@@ -142,6 +161,58 @@ public final class RunAllProofsTestUnit implements Serializable {
         return new TestResult(message.toString(), success);
     }
 
+    private List<TestResult> runTestFiles(ForkMode forkMode, List<TestFile> files)
+            throws Exception {
+        List<TestResult> testResults;
+        switch (forkMode) {
+        case PERGROUP:
+            testResults = ForkedTestFileRunner.processTestFiles(files, getTempDir());
+            break;
+
+        case NOFORK:
+            testResults = new ArrayList<>();
+            for (TestFile testFile : files) {
+                TestResult testResult = testFile.runKey();
+                testResults.add(testResult);
+            }
+            break;
+
+        case PERFILE:
+            testResults = new ArrayList<>();
+            for (TestFile testFile : files) {
+                TestResult testResult =
+                    ForkedTestFileRunner.processTestFile(testFile, getTempDir());
+                testResults.add(testResult);
+            }
+            break;
+
+        default:
+            throw new RuntimeException("Unexpected value for fork mode: " + forkMode);
+        }
+        return testResults;
+    }
+
+    /**
+     * Submits the test files of this unit to the {@link ForkedWorkerPool} if fork mode
+     * {@link ForkMode#POOL} is used, so that they are proven while earlier units are still
+     * running. Files with a cached result are not submitted. Does nothing in other fork modes or
+     * if the files have already been submitted.
+     */
+    public synchronized void schedule() {
+        if (scheduled != null || settings.getForkMode() != ForkMode.POOL
+                || settings.getIgnoreTest()) {
+            return;
+        }
+        TestResultCache cache = TestResultCache.create(settings);
+        ForkedWorkerPool pool = ForkedWorkerPool.getInstance(settings);
+        scheduled = new ArrayList<>();
+        for (TestFile testFile : testFiles) {
+            TestResult result = cache == null ? null : cache.lookup(testFile);
+            scheduled.add(result != null ? CompletableFuture.completedFuture(result)
+                    : pool.submit(testFile));
+        }
+    }
+
     public String getTestName() {
         return testName;
     }
@@ -31,7 +31,13 @@ public enum ForkMode {
      * In this mode, a new subprocess will be created for each KeY file that is proven during test
      * run of {@link RunAllProofsTest}.
      */
-    PERFILE("perFile");
+    PERFILE("perFile"),
+    /**
+     * In this mode, the KeY files are proven by a pool of long-lived worker processes, which take
+     * the files from a shared queue, see {@link ForkedWorkerPool}. Workers are replaced after a
+     * number of proofs or when their heap runs full.
+     */
+    POOL("pool");
 
     /**
      * Name of every fork mode that can be used in {@link ProofCollectionSettings} to activate that
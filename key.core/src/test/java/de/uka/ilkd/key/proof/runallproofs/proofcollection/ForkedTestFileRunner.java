@@ -94,19 +94,9 @@ public abstract class ForkedTestFileRunner implements Serializable {
         writeObject(getLocationOfSerializedTestFiles(pathToTempDir),
             testFiles.toArray(new TestFile[0]));
 
-        ProcessBuilder pb =
-            new ProcessBuilder("java", "-classpath", System.getProperty("java.class.path"),
-                // pass through the value of key.disregardSettings
-                "-D" + PathConfig.DISREGARD_SETTINGS_PROPERTY + "="
-                    + Boolean.getBoolean(PathConfig.DISREGARD_SETTINGS_PROPERTY));
+        ProcessBuilder pb = new ProcessBuilder(createJavaCommand(settings));
         List<String> command = pb.command();
 
-        // TODO make sure no injection happens here?
-        String forkMemory = settings.getForkMemory();
-        if (forkMemory != null) {
-            command.add("-Xmx" + forkMemory);
-        }
-
         String debugPort = settings.getForkDebugPort();
         if (debugPort != null) {
             String suspend = "n";
@@ -153,6 +143,28 @@ public abstract class ForkedTestFileRunner implements Serializable {
         return Arrays.asList(array);
     }
 
+    /**
+     * Creates the command line of a forked JVM without main class, passing on the relevant
+     * system properties and the memory settings.
+     *
+     * @param settings the settings of the tested files
+     * @return a modifiable command line
+     */
+    static List<String> createJavaCommand(ProofCollectionSettings settings) {
+        List<String> command =
+            new ArrayList<>(List.of("java", "-classpath", System.getProperty("java.class.path"),
+                // pass through the value of key.disregardSettings
+                "-D" + PathConfig.DISREGARD_SETTINGS_PROPERTY + "="
+                    + Boolean.getBoolean(PathConfig.DISREGARD_SETTINGS_PROPERTY)));
+
+        // TODO make sure no injection happens here?
+        String forkMemory = settings.getForkMemory();
+        if (forkMemory != null) {
+            command.add("-Xmx" + forkMemory);
+        }
+        return command;
+    }
+
     public static void main(String[] args) throws IOException {
         /*
          * Check for existence of temp dir before entering try-catch block. Throwables occuring in
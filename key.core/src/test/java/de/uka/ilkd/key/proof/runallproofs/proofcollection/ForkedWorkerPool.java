@@ -0,0 +1,349 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.runallproofs.proofcollection;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.proof.runallproofs.TestResult;
+import de.uka.ilkd.key.util.IOForwarder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of long-lived worker JVMs proving {@link TestFile}s, used in fork mode
+ * {@link ForkMode#POOL}.
+ * <p>
+ * Submitted test files are put into a single queue shared by all workers. An idle worker takes
+ * the next file, so long proofs never block the files queued behind them. Compared to
+ * {@link ForkMode#PERFILE}, the JVM start-up, JIT warm-up and the parsing of the rule base are
+ * paid once per worker instead of once per file, while the isolation of the proofs is retained
+ * by replacing a worker after {@link ProofCollectionSettings#getWorkerMaxProofs()} files or as
+ * soon as more than {@link ProofCollectionSettings#getWorkerMaxHeapUsage()} of its heap is in
+ * use after garbage collection. A worker is also restarted if the JVM options of a file, e.g.,
+ * its <code>forkMemory</code>, differ from those of its process.
+ * </p>
+ * <p>
+ * Workers communicate with the pool by serialized objects over a loopback socket, since their
+ * standard output is forwarded to the log.
+ * </p>
+ */
+public final class ForkedWorkerPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForkedWorkerPool.class);
+
+    /** time to wait for a started worker to connect */
+    private static final int CONNECT_TIMEOUT = (int) TimeUnit.MINUTES.toMillis(2);
+
+    /** the pools of this JVM by their size */
+    private static final Map<Integer, ForkedWorkerPool> POOLS = new HashMap<>();
+
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+
+    private final List<Worker> workers = new ArrayList<>();
+
+    /**
+     * A submitted test file and its future result.
+     */
+    private record Task(TestFile testFile, CompletableFuture<TestResult> result) {
+    }
+
+    /**
+     * The answer of a worker to a task.
+     */
+    private record Response(TestResult result, Throwable error, double heapUsage)
+            implements Serializable {
+    }
+
+    private ForkedWorkerPool(int size) {
+        for (int i = 0; i < size; i++) {
+            Worker worker = new Worker(i);
+            workers.add(worker);
+            worker.start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+    }
+
+    /**
+     * Returns the pool of this JVM with the size given by the settings, which is created on first
+     * use. The JVM options are not part of the pool, each worker (re)starts its process with the
+     * options of the file it proves.
+     *
+     * @param settings the settings of the submitted files
+     * @return the pool
+     */
+    public static synchronized ForkedWorkerPool getInstance(ProofCollectionSettings settings) {
+        return POOLS.computeIfAbsent(settings.getPoolSize(), ForkedWorkerPool::new);
+    }
+
+    /**
+     * Queues a test file for execution by the next idle worker.
+     *
+     * @param testFile the test file
+     * @return the result of the test file
+     */
+    public Future<TestResult> submit(TestFile testFile) {
+        Task task = new Task(testFile, new CompletableFuture<>());
+        queue.add(task);
+        return task.result();
+    }
+
+    private void shutdown() {
+        for (Worker worker : workers) {
+            worker.terminate();
+        }
+    }
+
+    /**
+     * A thread of the pool serving the tasks by a worker process, which is (re)started on
+     * demand.
+     * <p>
+     * The connection to the process is only used by the thread itself. The process handle is
+     * guarded by the lock of the worker, since the shutdown hook kills the process while the
+     * thread may wait for its answer.
+     * </p>
+     */
+    private final class Worker extends Thread {
+        /** the process, guarded by <code>this</code> */
+        private Process process;
+        /** whether the pool is shut down, guarded by <code>this</code> */
+        private boolean terminated;
+        private ServerSocket server;
+        private Socket socket;
+        private ObjectOutputStream out;
+        private ObjectInputStream in;
+        private int proofs;
+        /** the command the process has been started with */
+        private List<String> command;
+
+        Worker(int id) {
+            super("RunAllProofs worker " + id);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                Task task;
+                try {
+                    task = queue.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                TestFile testFile = task.testFile();
+                ProofCollectionSettings settings = testFile.getSettings();
+                try {
+                    List<String> required = ForkedTestFileRunner.createJavaCommand(settings);
+                    if (command != null && !required.equals(command)) {
+                        LOGGER.debug("Restarting {} with {}", getName(), required);
+                        stopProcess();
+                    }
+                    if (command == null) {
+                        startProcess(required);
+                    }
+                    String timeout = settings.getForkTimeout();
+                    socket.setSoTimeout(timeout == null ? 0
+                            : (int) TimeUnit.SECONDS.toMillis(Integer.parseInt(timeout)));
+                    out.writeObject(testFile);
+                    out.flush();
+                    out.reset();
+                    Response response = (Response) in.readObject();
+                    proofs++;
+                    if (response.error() != null) {
+                        task.result().completeExceptionally(response.error());
+                    } else {
+                        task.result().complete(response.result());
+                    }
+                    if (proofs >= settings.getWorkerMaxProofs()
+                            || response.heapUsage() > settings.getWorkerMaxHeapUsage()) {
+                        LOGGER.debug("Recycling {} after {} proofs, heap usage {}", getName(),
+                            proofs, response.heapUsage());
+                        stopProcess();
+                    }
+                } catch (SocketTimeoutException e) {
+                    stopProcess();
+                    task.result().completeExceptionally(new InterruptedException(
+                        "forkTimeout (" + settings.getForkTimeout() + "sec.) elapsed"));
+                } catch (Throwable e) {
+                    // the worker died, e.g., because it ran out of memory, or this thread failed
+                    // to send the test file; the future must be completed in any case, since the
+                    // test waits for it
+                    stopProcess();
+                    task.result().completeExceptionally(e);
+                }
+            }
+            stopProcess();
+        }
+
+        /**
+         * Stops the thread and kills its process, called by the shutdown hook.
+         */
+        void terminate() {
+            interrupt();
+            synchronized (this) {
+                terminated = true;
+                if (process != null) {
+                    // the thread notices the dead process and cleans up
+                    process.destroyForcibly();
+                }
+            }
+        }
+
+        private void startProcess(List<String> javaCommand) throws IOException {
+            server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+            server.setSoTimeout(CONNECT_TIMEOUT);
+            command = javaCommand;
+            List<String> processCommand = new ArrayList<>(javaCommand);
+            processCommand.add(ForkedWorkerPool.class.getName());
+            processCommand.add(Integer.toString(server.getLocalPort()));
+            Process started = new ProcessBuilder(processCommand).start();
+            synchronized (this) {
+                process = started;
+                if (terminated) {
+                    throw new IOException("The pool has been shut down");
+                }
+            }
+            IOForwarder.forward(started);
+            try {
+                socket = server.accept();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("Worker process did not connect", e);
+            }
+            out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.flush();
+            in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            proofs = 0;
+        }
+
+        private void stopProcess() {
+            Process stopped;
+            synchronized (this) {
+                stopped = process;
+                process = null;
+            }
+            if (stopped != null) {
+                try {
+                    // ask the worker to terminate
+                    if (out != null) {
+                        out.writeObject(null);
+                        out.flush();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // the worker is already dead
+                }
+                try {
+                    if (!stopped.waitFor(10, TimeUnit.SECONDS)) {
+                        stopped.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    stopped.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            closeQuietly(socket);
+            closeQuietly(server);
+            command = null;
+            socket = null;
+            server = null;
+            out = null;
+            in = null;
+        }
+
+        private void closeQuietly(Closeable closeable) {
+            try {
+                if (closeable != null) {
+                    closeable.close();
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Closing failed", e);
+            }
+        }
+    }
+
+    /**
+     * Entry point of a worker process. Proves the test files received from the pool until it
+     * receives <code>null</code> or the connection is closed.
+     *
+     * @param args the port of the pool
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            Integer.parseInt(args[0]))) {
+            ObjectOutputStream out =
+                new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.flush();
+            ObjectInputStream in =
+                new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            TestFile testFile;
+            while ((testFile = (TestFile) readTask(in)) != null) {
+                Response response;
+                try {
+                    response = new Response(testFile.runKey(), null, heapUsage());
+                } catch (Throwable t) {
+                    response = new Response(null, serializable(t), heapUsage());
+                }
+                out.writeObject(response);
+                out.flush();
+                out.reset();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Object readTask(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        try {
+            return in.readObject();
+        } catch (EOFException e) {
+            // the pool has terminated
+            return null;
+        }
+    }
+
+    /**
+     * Exceptions may refer to objects that cannot be serialized, then keep the stack trace at
+     * least.
+     */
+    private static Throwable serializable(Throwable t) {
+        try (ObjectOutputStream oos = new ObjectOutputStream(OutputStream.nullOutputStream())) {
+            oos.writeObject(t);
+            return t;
+        } catch (IOException e) {
+            Exception subst = new Exception(t.toString());
+            subst.setStackTrace(t.getStackTrace());
+            return subst;
+        }
+    }
+
+    /**
+     * @return the largest fraction of a heap memory pool in use after the last garbage
+     *         collection
+     */
+    private static double heapUsage() {
+        double result = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null && usage.getMax() > 0) {
+                result = Math.max(result, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.runallproofs.proofcollection;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import de.uka.ilkd.key.proof.runallproofs.TestResult;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the reuse and the replacement of the worker processes of a {@link ForkedWorkerPool}. The
+ * submitted test files do not run KeY but report the process id of the worker.
+ */
+class ForkedWorkerPoolTest {
+    private static Path directory;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        directory = Files.createTempDirectory("workerpool");
+        Files.writeString(directory.resolve("test.key"), "");
+    }
+
+    private static ProofCollectionSettings settings(int maxProofs) {
+        return new ProofCollectionSettings(new Date()).setBaseDirectory(directory.toString())
+                .setPoolSize(1).setWorkerMaxProofs(maxProofs).setForkTimeout(120);
+    }
+
+    private static TestResult run(TestFile testFile) throws Exception {
+        Future<TestResult> result =
+            ForkedWorkerPool.getInstance(testFile.getSettings()).submit(testFile);
+        return result.get(5, TimeUnit.MINUTES);
+    }
+
+    private static String pid(ProofCollectionSettings settings) throws Exception {
+        TestResult result = run(new PidTestFile(settings));
+        assertTrue(result.success());
+        return result.message();
+    }
+
+    @Test
+    void testWorkerIsReused() throws Exception {
+        ProofCollectionSettings settings = settings(25);
+        assertEquals(pid(settings), pid(settings));
+    }
+
+    @Test
+    void testWorkerIsRestartedAfterMaxProofs() throws Exception {
+        ProofCollectionSettings settings = settings(1);
+        assertNotEquals(pid(settings), pid(settings));
+    }
+
+    @Test
+    void testDyingWorkerIsReplaced() throws Exception {
+        ProofCollectionSettings settings = settings(25);
+        ExecutionException e =
+            assertThrows(ExecutionException.class, () -> run(new HaltingTestFile(settings)));
+        assertTrue(e.getCause() instanceof IOException, e.getCause().toString());
+        assertNotNull(pid(settings));
+    }
+
+    @Test
+    void testErrorCompletesResult() throws Exception {
+        ProofCollectionSettings settings = settings(25);
+        ExecutionException e =
+            assertThrows(ExecutionException.class, () -> run(new UnsendableTestFile(settings)));
+        assertTrue(e.getCause() instanceof StackOverflowError, e.getCause().toString());
+        assertNotNull(pid(settings));
+    }
+
+    /**
+     * Reports the process id of the worker instead of running KeY.
+     */
+    private static class PidTestFile extends TestFile {
+        private static final long serialVersionUID = 1L;
+
+        PidTestFile(ProofCollectionSettings settings) throws IOException {
+            super(TestProperty.PROVABLE, "test.key", settings);
+        }
+
+        @Override
+        public TestResult runKey() {
+            return new TestResult(Long.toString(ProcessHandle.current().pid()), true);
+        }
+    }
+
+    /**
+     * Kills the worker process.
+     */
+    private static class HaltingTestFile extends PidTestFile {
+        private static final long serialVersionUID = 1L;
+
+        HaltingTestFile(ProofCollectionSettings settings) throws IOException {
+            super(settings);
+        }
+
+        @Override
+        public TestResult runKey() {
+            Runtime.getRuntime().halt(1);
+            return null;
+        }
+    }
+
+    /**
+     * Fails with an {@link Error} in the pool while it is sent to the worker.
+     */
+    private static class UnsendableTestFile extends PidTestFile {
+        private static final long serialVersionUID = 1L;
+
+        UnsendableTestFile(ProofCollectionSettings settings) throws IOException {
+            super(settings);
+        }
+
+        private void writeObject(ObjectOutputStream out) {
+            throw new StackOverflowError();
+        }
+    }
+}
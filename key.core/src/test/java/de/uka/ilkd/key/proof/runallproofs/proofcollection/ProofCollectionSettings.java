@@ -50,6 +50,14 @@ public class ProofCollectionSettings implements Serializable {
 
     public static final String FORK_DEBUG_PORT = "forkDebugPort";
 
+    public static final String POOL_SIZE_KEY = "poolSize";
+
+    public static final String WORKER_MAX_PROOFS_KEY = "workerMaxProofs";
+
+    public static final String WORKER_MAX_HEAP_USAGE_KEY = "workerMaxHeapUsage";
+
+    public static final String RESULT_CACHE_KEY = "resultCache";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ProofCollectionSettings.class);
 
     /**
@@ -168,7 +176,8 @@ public class ProofCollectionSettings implements Serializable {
              */
             LOGGER.warn("Warning: Unknown value used for runAllProofs fork mode:  {}",
                 forkModeString);
-            LOGGER.warn("Use either of the following: noFork (default), perGroup, perFile");
+            LOGGER.warn(
+                "Use either of the following: noFork (default), perGroup, perFile, pool");
             LOGGER.warn("Using default fork mode: noFork");
             LOGGER.warn("If you want to inspect source code, look up the following location:");
             LOGGER.warn("{}", new Throwable().getStackTrace()[0]);
@@ -371,6 +380,18 @@ public class ProofCollectionSettings implements Serializable {
         return set(LOCAL_SETTINGS_KEY, settings);
     }
 
+    public ProofCollectionSettings setPoolSize(int size) {
+        return set(POOL_SIZE_KEY, "" + size);
+    }
+
+    public ProofCollectionSettings setWorkerMaxProofs(int proofs) {
+        return set(WORKER_MAX_PROOFS_KEY, "" + proofs);
+    }
+
+    public ProofCollectionSettings setResultCacheDirectory(String path) {
+        return set(RESULT_CACHE_KEY, path);
+    }
+
     public boolean getVerboseOutput() {
         return "true".equals(get(VERBOSE_OUTPUT_KEY));
     }
@@ -398,4 +419,62 @@ public class ProofCollectionSettings implements Serializable {
     public ProofCollectionSettings setDirectory(String s) {
         return set(DIRECTORY, s);
     }
+
+    /**
+     * Number of worker JVMs used in fork mode {@link ForkMode#POOL}, by default half of the
+     * available processors.
+     */
+    public int getPoolSize() {
+        return getInt(POOL_SIZE_KEY, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * Number of test files a worker JVM processes before it is replaced by a fresh one.
+     */
+    public int getWorkerMaxProofs() {
+        return getInt(WORKER_MAX_PROOFS_KEY, 25);
+    }
+
+    /**
+     * Fraction of the maximal heap which may still be in use after a garbage collection before a
+     * worker JVM is replaced by a fresh one.
+     */
+    public double getWorkerMaxHeapUsage() {
+        String value = get(WORKER_MAX_HEAP_USAGE_KEY);
+        if (value == null) {
+            return 0.75;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Warning - {} is not a number: {}", WORKER_MAX_HEAP_USAGE_KEY, value);
+            return 0.75;
+        }
+    }
+
+    /**
+     * Directory in which successful test results are cached, see {@link TestResultCache}.
+     *
+     * @return <code>null</code> if results are not cached
+     */
+    public File getResultCacheDirectory() {
+        String cacheDir = get(RESULT_CACHE_KEY);
+        if (cacheDir == null || cacheDir.isEmpty()) {
+            return null;
+        }
+        return getAbsoluteFile(getBaseDirectory(), cacheDir);
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Warning - {} is not an integer: {}", key, value);
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,306 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.runallproofs.proofcollection;
+
+import java.io.*;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.uka.ilkd.key.proof.runallproofs.TestResult;
+import de.uka.ilkd.key.util.KeYConstants;
+
+import org.key_project.util.collection.ImmutableList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches successful {@link TestResult}s of {@link TestFile}s on disk, so that unchanged proof
+ * obligations are skipped in the next run.
+ * <p>
+ * A result is stored under a SHA-256 hash of
+ * <ul>
+ * <li>the version of KeY and the compiled classes of <code>key.core</code> and
+ * <code>key.util</code>, so that uncommitted changes of the prover invalidate the results,</li>
+ * <li>the test property and the KeY settings of the test file,</li>
+ * <li>the test file,</li>
+ * <li>all <code>.key</code> and <code>.java</code> files below the directory of the test file,
+ * which includes the Java sources of all examples,</li>
+ * <li>the files and directories referenced by <code>\javaSource</code>, <code>\classpath</code>,
+ * <code>\bootclasspath</code>, <code>\include</code> and <code>\includeLDTs</code> in the test
+ * file and, transitively, in the included files, and</li>
+ * <li>the rule base, i.e., the content of <code>de/uka/ilkd/key/proof/rules</code>.</li>
+ * </ul>
+ * Failed tests are never cached. If the classes or the rule base cannot be hashed, no results
+ * are cached. The hash of a directory is computed once per JVM, i.e., files are assumed not to
+ * change during a run.
+ * </p>
+ *
+ * @see ProofCollectionSettings#getResultCacheDirectory()
+ */
+public final class TestResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestResultCache.class);
+
+    private static final String RULES = "/de/uka/ilkd/key/proof/rules/";
+
+    private static final String SUFFIX = ".result";
+
+    /** the declarations of a KeY file referring to other files */
+    private static final Pattern REFERENCES = Pattern.compile(
+        "\\\\(javaSource|classpath|bootclasspath|include|includeLDTs)"
+            + "\\s+((\"[^\"]*\"\\s*,?\\s*)+);");
+
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]*)\"");
+
+    /** hash of the rule base, computed once per JVM, empty if it cannot be determined */
+    private static String ruleBaseHash;
+
+    /** hash of the prover classes, computed once per JVM, empty if it cannot be determined */
+    private static String classesHash;
+
+    /** hashes of the KeY and Java files below a directory, computed once per JVM */
+    private static final Map<Path, String> SOURCES_HASHES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    private TestResultCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param settings the settings of a proof collection
+     * @return the cache configured in the settings, <code>null</code> if results are not cached
+     */
+    public static TestResultCache create(ProofCollectionSettings settings) {
+        File dir = settings.getResultCacheDirectory();
+        if (dir == null || getRuleBaseHash().isEmpty() || getClassesHash().isEmpty()) {
+            return null;
+        }
+        return new TestResultCache(dir.toPath());
+    }
+
+    /**
+     * @param testFile a test file
+     * @return the cached result of the test file or <code>null</code>
+     */
+    public TestResult lookup(TestFile testFile) {
+        try {
+            Path file = directory.resolve(hash(testFile) + SUFFIX);
+            if (!Files.isRegularFile(file)) {
+                return null;
+            }
+            try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(file))) {
+                TestResult result = (TestResult) in.readObject();
+                return new TestResult("cached: " + result.message(), result.success());
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            LOGGER.warn("Could not read cached result of {}", testFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the result of a test file if it is successful.
+     *
+     * @param testFile a test file
+     * @param result the result of the test file
+     */
+    public void store(TestFile testFile, TestResult result) {
+        if (!result.success()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(hash(testFile) + SUFFIX);
+            Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(tmp))) {
+                out.writeObject(result);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.warn("Could not cache result of {}", testFile, e);
+        }
+    }
+
+    private static String hash(TestFile testFile) throws IOException {
+        MessageDigest digest = newDigest();
+        ProofCollectionSettings settings = testFile.getSettings();
+        update(digest, KeYConstants.INTERNAL_VERSION);
+        update(digest, getClassesHash());
+        update(digest, getRuleBaseHash());
+        update(digest, String.valueOf(testFile.getTestProperty()));
+        update(digest, settings.getGlobalKeYSettings());
+        update(digest, String.valueOf(settings.getLocalKeYSettings()));
+        update(digest, String.valueOf(settings.reloadEnabled()));
+
+        Path keyFile = testFile.getKeYFile().toPath();
+        digest.update(Files.readAllBytes(keyFile));
+        update(digest, getSourcesHash(keyFile.getParent()));
+        hashReferences(digest, keyFile, new HashSet<>());
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Adds the files referenced by a KeY file to the digest, resolved like the problem loader
+     * does relative to the directory of the KeY file. Included KeY files are followed.
+     */
+    private static void hashReferences(MessageDigest digest, Path keyFile, Set<Path> visited)
+            throws IOException {
+        if (!visited.add(keyFile.toAbsolutePath().normalize())) {
+            return;
+        }
+        final String text = Files.readString(keyFile, StandardCharsets.UTF_8);
+        final Matcher declaration = REFERENCES.matcher(text);
+        while (declaration.find()) {
+            final Matcher quoted = QUOTED.matcher(declaration.group(2));
+            while (quoted.find()) {
+                final Path path = keyFile.getParent().resolve(quoted.group(1)).normalize();
+                update(digest, declaration.group(1) + " " + quoted.group(1));
+                if (Files.isDirectory(path)) {
+                    update(digest, getSourcesHash(path));
+                } else if (Files.isRegularFile(path)) {
+                    digest.update(Files.readAllBytes(path));
+                    if (path.toString().endsWith(".key")) {
+                        hashReferences(digest, path, visited);
+                    }
+                } else {
+                    // e.g., a jar on the class path given by a name only
+                    update(digest, "missing");
+                }
+            }
+        }
+    }
+
+    /**
+     * @param dir a directory
+     * @return the hash of the names and contents of all KeY and Java files below the directory,
+     *         which is computed once per JVM since the example directories are shared by many
+     *         test files
+     */
+    private static String getSourcesHash(Path dir) throws IOException {
+        try {
+            return SOURCES_HASHES.computeIfAbsent(dir.toAbsolutePath().normalize(), d -> {
+                try {
+                    MessageDigest digest = newDigest();
+                    hashFiles(digest, d, p -> p.toString().endsWith(".key")
+                            || p.toString().endsWith(".java"));
+                    return toHex(digest.digest());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return the hash of the compiled classes of <code>key.core</code> and <code>key.util</code>
+     *         (class directories or jars), empty if they cannot be hashed
+     */
+    private static synchronized String getClassesHash() {
+        if (classesHash == null) {
+            classesHash = "";
+            try {
+                MessageDigest digest = newDigest();
+                for (Class<?> c : List.of(KeYConstants.class, ImmutableList.class)) {
+                    URL url = c.getProtectionDomain().getCodeSource().getLocation();
+                    Path location = Paths.get(url.toURI());
+                    if (Files.isDirectory(location)) {
+                        hashFiles(digest, location, p -> p.toString().endsWith(".class"));
+                    } else {
+                        digest.update(Files.readAllBytes(location));
+                    }
+                }
+                classesHash = toHex(digest.digest());
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                LOGGER.warn("Classes cannot be hashed, test results are not cached", e);
+            }
+        }
+        return classesHash;
+    }
+
+    /**
+     * Adds the names and contents of all files below a directory accepted by the filter to the
+     * digest, in a deterministic order.
+     */
+    private static void hashFiles(MessageDigest digest, Path dir, Predicate<Path> filter)
+            throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(dir)) {
+            files = stream.filter(Files::isRegularFile).filter(filter).sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            update(digest, dir.relativize(file).toString());
+            digest.update(Files.readAllBytes(file));
+        }
+    }
+
+    private static synchronized String getRuleBaseHash() {
+        if (ruleBaseHash == null) {
+            ruleBaseHash = "";
+            try {
+                URL url = TestResultCache.class.getResource(RULES);
+                if (url == null) {
+                    LOGGER.warn("Rule base not found, test results are not cached");
+                } else if ("file".equals(url.getProtocol())) {
+                    ruleBaseHash = getSourcesHash(Paths.get(url.toURI()));
+                } else if ("jar".equals(url.getProtocol())) {
+                    URL jar = ((JarURLConnection) url.openConnection()).getJarFileURL();
+                    MessageDigest digest = newDigest();
+                    digest.update(Files.readAllBytes(Paths.get(jar.toURI())));
+                    ruleBaseHash = toHex(digest.digest());
+                } else {
+                    LOGGER.warn("Rule base at {} cannot be hashed, test results are not cached",
+                        url);
+                }
+            } catch (IOException | URISyntaxException e) {
+                LOGGER.warn("Rule base cannot be hashed, test results are not cached", e);
+            }
+        }
+        return ruleBaseHash;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+        // separator, so that consecutive strings cannot be confused
+        digest.update((byte) 0);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
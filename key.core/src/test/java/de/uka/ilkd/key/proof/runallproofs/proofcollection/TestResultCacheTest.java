@@ -0,0 +1,95 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.proof.runallproofs.proofcollection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import de.uka.ilkd.key.proof.runallproofs.TestResult;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the hits and the invalidation of the {@link TestResultCache}.
+ */
+class TestResultCacheTest {
+    private Path directory;
+    private ProofCollectionSettings settings;
+    private TestResultCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("resultcache");
+        Files.createDirectories(directory.resolve("problems"));
+        Files.createDirectories(directory.resolve("include"));
+        Files.writeString(directory.resolve("problems/problem.key"),
+            "\\include \"../include/rules.key\";\n\\problem { true }\n");
+        Files.writeString(directory.resolve("problems/Example.java"), "class Example {}\n");
+        Files.writeString(directory.resolve("include/rules.key"), "\\sorts { S; }\n");
+        settings = new ProofCollectionSettings(new Date())
+                .setBaseDirectory(directory.toString()).setResultCacheDirectory("cache");
+        cache = TestResultCache.create(settings);
+        assertNotNull(cache, "rule base and classes must be hashable in the test environment");
+    }
+
+    private TestFile problem(TestProperty property, ProofCollectionSettings s)
+            throws IOException {
+        return TestFile.createInstance(property, "problems/problem.key", s);
+    }
+
+    @Test
+    void testHit() throws IOException {
+        TestFile file = problem(TestProperty.PROVABLE, settings);
+        assertNull(cache.lookup(file));
+        cache.store(file, new TestResult("proven", true));
+
+        TestResult cached = cache.lookup(problem(TestProperty.PROVABLE, settings));
+        assertNotNull(cached);
+        assertTrue(cached.success());
+        assertEquals("cached: proven", cached.message());
+
+        // the cache is persistent
+        TestResultCache reopened = TestResultCache.create(settings);
+        assertNotNull(reopened.lookup(file));
+    }
+
+    @Test
+    void testFailuresAreNotCached() throws IOException {
+        TestFile file = problem(TestProperty.PROVABLE, settings);
+        cache.store(file, new TestResult("not proven", false));
+        assertNull(cache.lookup(file));
+    }
+
+    @Test
+    void testChangedFileInvalidates() throws IOException {
+        TestFile file = problem(TestProperty.PROVABLE, settings);
+        cache.store(file, new TestResult("proven", true));
+        Files.writeString(directory.resolve("problems/problem.key"),
+            "\\include \"../include/rules.key\";\n\\problem { false }\n");
+        assertNull(cache.lookup(file));
+    }
+
+    @Test
+    void testChangedIncludeInvalidates() throws IOException {
+        TestFile file = problem(TestProperty.PROVABLE, settings);
+        cache.store(file, new TestResult("proven", true));
+        Files.writeString(directory.resolve("include/rules.key"), "\\sorts { T; }\n");
+        assertNull(cache.lookup(file));
+    }
+
+    @Test
+    void testChangedPropertyOrSettingsInvalidate() throws IOException {
+        cache.store(problem(TestProperty.PROVABLE, settings), new TestResult("proven", true));
+        assertNull(cache.lookup(problem(TestProperty.LOADABLE, settings)));
+
+        ProofCollectionSettings local =
+            new ProofCollectionSettings(settings).setLocalKeYSettings("[Strategy]MaxSteps=7");
+        assertNull(cache.lookup(problem(TestProperty.PROVABLE, local)));
+    }
+}
@@ -0,0 +1,71 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.prover.impl;
+
+import java.io.File;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.io.ProblemLoaderException;
+import de.uka.ilkd.key.rule.OneStepSimplifier;
+import de.uka.ilkd.key.util.HelperClassForTests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ParallelGoalPreparation}: an automatic proof search with parallel goal
+ * preparation has to find the same proof as a sequential one.
+ */
+public class TestParallelGoalPreparation {
+    private static final File PROBLEM =
+        new File(HelperClassForTests.TESTCASE_DIRECTORY, "proofStarter/CC/project.key");
+
+    @Test
+    @Timeout(180)
+    public void testSameProofAsSequential() throws ProblemLoaderException {
+        Proof sequential = null;
+        Proof parallel = null;
+        KeYEnvironment<DefaultUserInterfaceControl> envSequential = null;
+        KeYEnvironment<DefaultUserInterfaceControl> envParallel = null;
+        try {
+            envSequential = KeYEnvironment.load(PROBLEM, null, null, null);
+            sequential = envSequential.getLoadedProof();
+            runAuto(sequential, 1);
+
+            envParallel = KeYEnvironment.load(PROBLEM, null, null, null);
+            parallel = envParallel.getLoadedProof();
+            runAuto(parallel, 4);
+
+            assertTrue(sequential.closed());
+            assertTrue(parallel.closed());
+            assertEquals(sequential.countNodes(), parallel.countNodes());
+            assertEquals(sequential.countBranches(), parallel.countBranches());
+        } finally {
+            if (envSequential != null) {
+                envSequential.dispose();
+            }
+            if (envParallel != null) {
+                envParallel.dispose();
+            }
+        }
+    }
+
+    private static void runAuto(Proof proof, int parallelism) {
+        assertNotNull(proof);
+        OneStepSimplifier.refreshOSS(proof);
+        proof.setRuleAppIndexToAutoMode();
+        ApplyStrategy prover = new ApplyStrategy(
+            proof.getInitConfig().getProfile().getSelectedGoalChooserBuilder().create(),
+            parallelism);
+        ApplyStrategyInfo info = prover.start(proof, proof.openGoals());
+        assertNotNull(info);
+        assertTrue(!info.isError(), "Proof search failed: " + info.getException());
+    }
+}
@@ -0,0 +1,87 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match;
+
+import java.io.File;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Name;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.parser.ParserException;
+import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.util.HelperClassForTests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FindPrefilterTest {
+
+    private static final int NR_TACLETS = 6;
+
+    private static Services services;
+    private static final FindTaclet[] taclet = new FindTaclet[NR_TACLETS];
+
+    private static final String[] FORMULAS = { "A & B", "(!A | (A<->B)) & B", "A & (B & A)",
+        "A | (B & A)", "A", "\\forall int x; x >= 0", "\\forall int x; x + 1 > 0",
+        "\\forall int x; 1 + x > 0", "\\forall int x; x * 1 > 0",
+        "\\forall int x; \\forall int y; x + y > 0", "\\forall int x; \\forall int y; x > y",
+        "\\forall int x; (x > 0 & \\forall int y; x + y > 0)",
+        "\\forall int x; (x > 0 | \\forall int y; x + y > 0)",
+        "\\forall int x; (x > 0 & \\forall int y; y + x > 0)", "f(1, 1, 2) = 0",
+        "g(1, 1, 2) = 0" };
+
+    @BeforeAll
+    public static void init() {
+        HelperClassForTests helper = new HelperClassForTests();
+        ProofAggregate pa = helper.parse(
+            new File(HelperClassForTests.TESTCASE_DIRECTORY + "/tacletmatch/tacletMatch1.key"));
+
+        for (int i = 0; i < NR_TACLETS; i++) {
+            taclet[i] = (FindTaclet) pa.getFirstProof().getInitConfig()
+                    .lookupActiveTaclet(new Name("taclet_match_rule_" + (i + 1)));
+            assertNotNull(taclet[i], "Taclet required for test not found");
+        }
+        services = pa.getFirstProof().getServices();
+    }
+
+    private static Term parse(String fml) throws ParserException {
+        return services.getTermBuilder().parseTerm(fml);
+    }
+
+    @Test
+    public void testCompatibleIfMatching() throws ParserException {
+        for (FindTaclet t : taclet) {
+            for (String fml : FORMULAS) {
+                Term term = parse(fml);
+                MatchConditions mc = t.getMatcher().matchFind(term,
+                    MatchConditions.EMPTY_MATCHCONDITIONS, services);
+                if (mc != null) {
+                    assertTrue(t.getFindPrefilter().isCompatible(term),
+                        "Prefilter " + t.getFindPrefilter() + " rejects matching " + term);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsIncompatible() throws ParserException {
+        // phi & psi
+        assertTrue(taclet[0].getFindPrefilter().isCompatible(parse("A & B")));
+        assertFalse(taclet[0].getFindPrefilter().isCompatible(parse("A | (B & A)")));
+        // \forall var; var + t0 > t1
+        assertTrue(taclet[2].getFindPrefilter().isCompatible(parse("\\forall int x; 1 + x > 0")));
+        assertFalse(
+            taclet[2].getFindPrefilter().isCompatible(parse("\\forall int x; x * 1 > 0")));
+        assertFalse(taclet[2].getFindPrefilter().isCompatible(parse("\\forall int x; x >= 0")));
+        // only the operators up to depth 3 are compared
+        assertFalse(taclet[4].getFindPrefilter()
+                .isCompatible(parse("\\forall int x; (x > 0 | \\forall int y; x + y > 0)")));
+        assertTrue(taclet[4].getFindPrefilter()
+                .isCompatible(parse("\\forall int x; (x > 0 & \\forall int y; x * y > 0)")));
+    }
+}
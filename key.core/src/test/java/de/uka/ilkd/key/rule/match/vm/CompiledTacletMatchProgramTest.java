@@ -0,0 +1,81 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.rule.match.vm;
+
+import java.io.File;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Name;
+import de.uka.ilkd.key.logic.Term;
+import de.uka.ilkd.key.parser.ParserException;
+import de.uka.ilkd.key.proof.ProofAggregate;
+import de.uka.ilkd.key.rule.FindTaclet;
+import de.uka.ilkd.key.rule.MatchConditions;
+import de.uka.ilkd.key.util.HelperClassForTests;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledTacletMatchProgramTest {
+
+    private static final int NR_TACLETS = 6;
+
+    private static Services services;
+    private static final FindTaclet[] taclet = new FindTaclet[NR_TACLETS];
+
+    private static final String[] FORMULAS = { "A & B", "(!A | (A<->B)) & B", "A & (B & A)",
+        "(\\forall int x; x>=0) & A", "A | (B & A)", "A", "\\forall int x;(x>=0 & A)",
+        "f(1, 1, 2) = 0", "f(c, c, d) = 0", "f(1,2,1) = 0", "g(1,1,2) = 0",
+        "\\forall int x; x + 1 > 0", "\\forall int x; 1 + x > 0",
+        "\\forall int x; \\forall int y; x + y > 0", "\\forall int x; \\forall int y; y + x > 0",
+        "\\forall int x; (x > 0  & \\forall int y; x + y > 0)",
+        "\\forall int x; (x > 0  & \\forall int y; y + x > 0)",
+        "\\forall int x; (x > 0  & \\forall int x; x + x > 0)" };
+
+    @BeforeAll
+    public static void init() {
+        HelperClassForTests helper = new HelperClassForTests();
+        ProofAggregate pa = helper.parse(
+            new File(HelperClassForTests.TESTCASE_DIRECTORY + "/tacletmatch/tacletMatch1.key"));
+
+        for (int i = 0; i < NR_TACLETS; i++) {
+            taclet[i] = (FindTaclet) pa.getFirstProof().getInitConfig()
+                    .lookupActiveTaclet(new Name("taclet_match_rule_" + (i + 1)));
+            assertNotNull(taclet[i], "Taclet required for test not found");
+        }
+        services = pa.getFirstProof().getServices();
+    }
+
+    @Test
+    public void testSameResultsAsInterpreter() throws ParserException {
+        for (FindTaclet t : taclet) {
+            final TacletMatchProgram interpreted = TacletMatchProgram.createProgram(t.find());
+            final TacletMatchProgram compiled = CompiledTacletMatchProgram.createProgram(t.find());
+            for (String fml : FORMULAS) {
+                final Term term = services.getTermBuilder().parseTerm(fml);
+                final MatchConditions expected =
+                    interpreted.match(term, MatchConditions.EMPTY_MATCHCONDITIONS, services);
+                final MatchConditions actual =
+                    compiled.match(term, MatchConditions.EMPTY_MATCHCONDITIONS, services);
+                if (expected == null) {
+                    assertNull(actual, t.name() + " should not match " + term);
+                } else {
+                    assertNotNull(actual, t.name() + " should match " + term);
+                    assertEquals(expected.getInstantiations(), actual.getInstantiations());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledMatcher() throws ParserException {
+        final VMTacletMatcher matcher = new VMTacletMatcher(taclet[1], true);
+        assertNotNull(matcher.matchFind(services.getTermBuilder().parseTerm("f(c, c, d)"),
+            MatchConditions.EMPTY_MATCHCONDITIONS, services));
+        assertNull(matcher.matchFind(services.getTermBuilder().parseTerm("f(c, d, c)"),
+            MatchConditions.EMPTY_MATCHCONDITIONS, services));
+    }
+}
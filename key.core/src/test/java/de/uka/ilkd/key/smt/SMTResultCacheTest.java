@@ -0,0 +1,71 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+import org.key_project.util.java.IOUtil;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SMTResultCacheTest {
+
+    private static final String PROBLEM = "; --- Preamble\n(set-option :print-success true)\n"
+        + "(declare-fun |a b| () Int)\n(assert (= (str.len \"x  ;y\") 4))\n(check-sat)";
+
+    @Test
+    public void testNormalization() {
+        assertEquals("(set-option :print-success true) (declare-fun |a b| () Int) "
+            + "(assert (= (str.len \"x  ;y\") 4)) (check-sat)", SMTResultCache.normalize(PROBLEM));
+        assertEquals(SMTResultCache.key("Z3", PROBLEM), SMTResultCache.key("Z3",
+            PROBLEM.replace("\n", "\n\n  ").replace("(check-sat)", "(check-sat) ; done")));
+        assertNotEquals(SMTResultCache.key("Z3", PROBLEM), SMTResultCache.key("CVC5", PROBLEM));
+        assertNotEquals(SMTResultCache.key("Z3", PROBLEM),
+            SMTResultCache.key("Z3", PROBLEM.replace("4", "5")));
+    }
+
+    @Test
+    public void testUnknownDependsOnTimeout() {
+        SMTResultCache cache = new SMTResultCache(10, null);
+        String key = SMTResultCache.key("Z3", PROBLEM);
+        assertNull(cache.lookup(key, 1000));
+
+        cache.store(key, new SMTResultCache.Entry(ThreeValuedTruth.UNKNOWN, 1000, List.of()));
+        assertNotNull(cache.lookup(key, 500));
+        assertNotNull(cache.lookup(key, 1000));
+        assertNull(cache.lookup(key, 2000));
+
+        cache.store(key, new SMTResultCache.Entry(ThreeValuedTruth.VALID, 2000, List.of()));
+        assertEquals(ThreeValuedTruth.VALID, cache.lookup(key, 5000).truth());
+        // a decided problem is not replaced by unknown
+        cache.store(key, new SMTResultCache.Entry(ThreeValuedTruth.UNKNOWN, 9000, List.of()));
+        assertEquals(ThreeValuedTruth.VALID, cache.lookup(key, 5000).truth());
+    }
+
+    @Test
+    public void testPersistentCache() throws IOException {
+        Path dir = Files.createTempDirectory("key-smt-results");
+        try {
+            String key = SMTResultCache.key("Z3", PROBLEM);
+            List<String> output = List.of("sat", "(\n  (define-fun a () Int 0)\n)");
+            new SMTResultCache(10, dir).store(key,
+                new SMTResultCache.Entry(ThreeValuedTruth.FALSIFIABLE, 1000, output));
+
+            SMTResultCache.Entry entry = new SMTResultCache(10, dir).lookup(key, 1000);
+            assertNotNull(entry);
+            assertEquals(ThreeValuedTruth.FALSIFIABLE, entry.truth());
+            assertEquals(output, entry.output());
+            assertEquals(ThreeValuedTruth.FALSIFIABLE, entry.toResult("Z3").isValid());
+        } finally {
+            IOUtil.delete(dir.toFile());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uka.ilkd.key.smt.SMTSolverResult.ThreeValuedTruth;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SolverPortfolioTest {
+
+    @Test
+    public void testOrder() {
+        SolverPortfolio portfolio = new SolverPortfolio();
+        for (int i = 0; i < 10; i++) {
+            portfolio.record("A", ThreeValuedTruth.VALID, 100);
+            portfolio.record("B", i < 3 ? ThreeValuedTruth.VALID : ThreeValuedTruth.UNKNOWN, 10);
+            portfolio.record("C", ThreeValuedTruth.FALSIFIABLE, 50);
+        }
+        List<String> names = new ArrayList<>(List.of("B", "New", "A", "C"));
+        names.sort(portfolio.order());
+        // equal success rates are ordered by runtime, unknown solvers have a neutral rate
+        assertEquals(List.of("C", "A", "New", "B"), names);
+    }
+
+    @Test
+    public void testTimeout() {
+        SolverPortfolio portfolio = new SolverPortfolio();
+        for (int i = 1; i < SolverPortfolio.MIN_SAMPLES; i++) {
+            portfolio.record("Z3", ThreeValuedTruth.VALID, 1000 + i);
+            portfolio.record("Z3", ThreeValuedTruth.UNKNOWN, 60000);
+        }
+        assertEquals(60000, portfolio.timeout("Z3", 60000));
+        portfolio.record("Z3", ThreeValuedTruth.VALID, 3000);
+        // 95 percent of the successful runs took at most 1019 ms
+        assertEquals(2 * 1019, portfolio.timeout("Z3", 60000));
+        assertEquals(1500, portfolio.timeout("Z3", 1500));
+        assertEquals(60000, portfolio.timeout("CVC5", 60000));
+    }
+}
@@ -0,0 +1,103 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimplePipeTest {
+
+    private static final String PROBLEM =
+        "(declare-fun a () Int)\n(assert (> a 0))\n(check-sat)";
+
+    /**
+     * A process whose output is given and whose input is recorded.
+     */
+    private static final class FakeProcess extends Process {
+        private final InputStream output;
+        private final ByteArrayOutputStream input = new ByteArrayOutputStream();
+
+        FakeProcess(String output) {
+            this.output = new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return input;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return output;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+
+    private static List<String> contents(Iterable<SolverCommunication.Message> messages) {
+        List<String> result = new ArrayList<>();
+        for (SolverCommunication.Message m : messages) {
+            result.add(m.content());
+        }
+        return result;
+    }
+
+    @Test
+    public void testStreamedMessage() throws IOException, InterruptedException {
+        FakeProcess process = new FakeProcess("success\nsat\n");
+        SolverCommunication communication = new SolverCommunication();
+        SimplePipe pipe = new SimplePipe(process.getInputStream(), new String[] { "\n" },
+            process.getOutputStream(), communication, process);
+
+        pipe.sendMessage("(set-option :print-success true)");
+        pipe.sendMessage(out -> {
+            // written in pieces, like the translator does
+            for (String line : PROBLEM.split("\n")) {
+                out.write(line);
+                out.write('\n');
+            }
+        });
+
+        // the process receives the complete problem
+        assertEquals("(set-option :print-success true)" + System.lineSeparator() + PROBLEM
+            + "\n" + System.lineSeparator(), process.input.toString(StandardCharsets.UTF_8));
+
+        // the log only notes the length of the streamed problem
+        String note = "; " + (PROBLEM.length() + 1) + " characters streamed to the solver";
+        assertEquals(List.of("(set-option :print-success true)", note),
+            contents(communication.getMessages(SolverCommunication.MessageType.INPUT)));
+        assertFalse(pipe.getSentMessages().contains("check-sat"));
+        assertTrue(pipe.getSentMessages().contains(note));
+
+        assertEquals("success", pipe.readMessage().trim());
+        assertEquals("sat", pipe.readMessage().trim());
+    }
+}
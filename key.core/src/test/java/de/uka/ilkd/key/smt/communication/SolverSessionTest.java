@@ -0,0 +1,67 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.communication;
+
+import java.io.IOException;
+
+import de.uka.ilkd.key.smt.solvertypes.SolverType;
+import de.uka.ilkd.key.smt.solvertypes.SolverTypes;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SolverSessionTest {
+
+    private static final String PRELUDE =
+        "(set-option :print-success true)\n(set-logic ALL)\n(declare-fun a () Int)";
+
+    private static final SolverType Z3 = SolverTypes.getSolverTypes().stream()
+            .filter(it -> it.getName().equals("Z3")).findFirst().orElse(null);
+
+    @AfterAll
+    public static void tearDown() {
+        SolverSessionPool.getInstance().clear();
+    }
+
+    private static String solve(SolverSession session, String problem)
+            throws IOException, InterruptedException {
+        session.startProblem(new SolverCommunication(), problem);
+        String result = null;
+        String msg;
+        while ((msg = session.readMessage()) != null) {
+            msg = msg.trim();
+            if (result == null && (msg.equals("sat") || msg.equals("unsat"))) {
+                result = msg;
+                session.sendMessage("(exit)");
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testReuseSession() throws IOException, InterruptedException {
+        Assumptions.assumeTrue(Z3 != null && Z3.isInstalled(false));
+        String[] command = (Z3.getSolverCommand() + " " + Z3.getSolverParameters()).split(" ");
+        String[] delimiters = { "\n", "\r" };
+        SolverSessionPool pool = SolverSessionPool.getInstance();
+
+        SolverSession session = pool.acquire(command, PRELUDE, delimiters);
+        assertEquals("sat",
+            solve(session, "(declare-fun b () Int)\n(assert (> a b))\n(check-sat)"));
+        pool.release(session);
+
+        SolverSession second = pool.acquire(command, PRELUDE, delimiters);
+        assertSame(session, second);
+        // b is declared again and the assertion of the first problem has been popped
+        assertEquals("unsat",
+            solve(second, "(declare-fun b () Int)\n(assert (and (<= a b) (> a b)))\n(check-sat)"));
+        assertEquals("sat", solve(second, "(assert (<= a 0))\n(check-sat)"));
+        assertEquals(3, second.getProblemCount());
+        pool.release(second);
+    }
+}
@@ -0,0 +1,57 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.smt.newsmt2;
+
+import java.util.List;
+
+import de.uka.ilkd.key.smt.newsmt2.SExpr.Type;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SharedSubexpressionsTest {
+
+    private static SExpr select(String obj) {
+        return new SExpr("select", Type.UNIVERSE, new SExpr("heap", Type.UNIVERSE),
+            new SExpr(obj, Type.UNIVERSE), new SExpr("field_f", Type.UNIVERSE));
+    }
+
+    private static String toString(List<? extends Writable> list) {
+        StringBuilder sb = new StringBuilder();
+        for (Writable w : list) {
+            w.appendTo(sb);
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testSharing() {
+        SExpr a = new SExpr("=", Type.BOOL, select("o"), select("p"));
+        SExpr b = new SExpr("not", Type.BOOL, new SExpr("=", Type.BOOL, select("o"), select("p")));
+        // occurrences below binders are neither shared nor counted
+        SExpr c = new SExpr("forall", Type.BOOL, new SExpr(new SExpr("x", "U")), select("o"));
+        // the subexpressions of a shared subexpression are counted once
+        SExpr d = new SExpr("=", Type.BOOL, select("o"), new SExpr("y", Type.UNIVERSE));
+
+        SharedSubexpressions sharing = new SharedSubexpressions();
+        List<SExpr> result = sharing.share(List.of(a, b, c, d));
+
+        assertEquals("(define-fun share_0 () U (select heap o field_f))\n"
+            + "(define-fun share_1 () Bool (= share_0 (select heap p field_f)))\n",
+            toString(sharing.getDefinitions()));
+        assertEquals("share_1\n(not share_1)\n(forall ((x U)) (select heap o field_f))\n"
+            + "(= share_0 y)\n", toString(result));
+    }
+
+    @Test
+    public void testNoSharing() {
+        SExpr a = new SExpr("=", Type.BOOL, select("o"), select("p"));
+        SharedSubexpressions sharing = new SharedSubexpressions();
+        List<SExpr> result = sharing.share(List.of(a));
+        assertEquals(List.of(), sharing.getDefinitions());
+        assertEquals(toString(List.of(a)), toString(result));
+    }
+}
@@ -0,0 +1,129 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy;
+
+import de.uka.ilkd.key.java.Services;
+import de.uka.ilkd.key.logic.Name;
+import de.uka.ilkd.key.logic.PosInOccurrence;
+import de.uka.ilkd.key.logic.PosInTerm;
+import de.uka.ilkd.key.logic.Semisequent;
+import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.logic.SequentFormula;
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.init.AbstractProfile;
+import de.uka.ilkd.key.proof.init.InitConfig;
+import de.uka.ilkd.key.rule.NoPosTacletApp;
+import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.rule.TacletForTests;
+
+import org.key_project.util.collection.ImmutableList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the cost of a taclet app is only computed again by the strategy if the goal has
+ * changed since the container of the app was created.
+ */
+public class TestTacletAppContainer {
+
+    private Proof proof;
+    private Goal goal;
+    private CountingStrategy strategy;
+    private RuleAppContainer container;
+
+    /**
+     * A strategy that approves every app at cost zero and counts how often it computed the cost
+     * of an app of <code>imp_right</code>.
+     */
+    private static class CountingStrategy implements Strategy {
+        private int costComputations;
+
+        @Override
+        public Name name() {
+            return new Name("CountingStrategy");
+        }
+
+        @Override
+        public RuleAppCost computeCost(RuleApp app, PosInOccurrence pos, Goal goal) {
+            if ("imp_right".equals(app.rule().name().toString())) {
+                ++costComputations;
+            }
+            return NumberRuleAppCost.getZeroCost();
+        }
+
+        @Override
+        public boolean isApprovedApp(RuleApp app, PosInOccurrence pio, Goal goal) {
+            return true;
+        }
+
+        @Override
+        public void instantiateApp(RuleApp app, PosInOccurrence pio, Goal goal,
+                RuleAppCostCollector collector) {
+        }
+
+        @Override
+        public boolean isStopAtFirstNonCloseableGoal() {
+            return false;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        TacletForTests.parse();
+        Sequent seq = Sequent.createSuccSequent(Semisequent.EMPTY_SEMISEQUENT
+                .insert(0, new SequentFormula(TacletForTests.parseTerm("A -> B"))).semisequent());
+        final InitConfig initConfig =
+            new InitConfig(new Services(AbstractProfile.getDefaultProfile()));
+        proof = new Proof("", seq, "", initConfig.createTacletIndex(),
+            initConfig.createBuiltInRuleIndex(), initConfig);
+
+        goal = proof.openGoals().head();
+        strategy = new CountingStrategy();
+        goal.setGoalStrategy(strategy);
+
+        final PosInOccurrence pio = new PosInOccurrence(goal.sequent().succedent().getFirst(),
+            PosInTerm.getTopLevel(), false);
+        final NoPosTacletApp app = TacletForTests.getRules().lookup("imp_right")
+                .matchFind(pio, proof.getServices());
+        assertNotNull(app);
+        container = RuleAppContainer.createAppContainer(app, pio, goal);
+        assertEquals(1, strategy.costComputations);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        proof.dispose();
+        proof = null;
+    }
+
+    @Test
+    public void testCostIsReusedInUnchangedGoal() {
+        ImmutableList<RuleAppContainer> further = container.createFurtherApps(goal);
+        assertEquals(1, further.size());
+        assertEquals(container.getCost(), further.head().getCost());
+        assertEquals(1, strategy.costComputations, "cost computed again for an unchanged goal");
+
+        // the recreated container can be recreated without computing the cost as well
+        further.head().createFurtherApps(goal);
+        assertEquals(1, strategy.costComputations);
+    }
+
+    @Test
+    public void testCostIsRecomputedAfterSequentChange() {
+        goal.addFormula(new SequentFormula(TacletForTests.parseTerm("D")), true, true);
+
+        ImmutableList<RuleAppContainer> further = container.createFurtherApps(goal);
+        assertEquals(1, further.size());
+        assertEquals(2, strategy.costComputations, "cost not computed again for a changed goal");
+
+        // the cost of the recreated container belongs to the changed goal
+        further.head().createFurtherApps(goal);
+        assertEquals(2, strategy.costComputations);
+    }
+}
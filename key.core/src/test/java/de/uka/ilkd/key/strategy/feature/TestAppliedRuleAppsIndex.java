@@ -0,0 +1,60 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy.feature;
+
+import java.io.File;
+import java.util.Iterator;
+
+import de.uka.ilkd.key.control.DefaultUserInterfaceControl;
+import de.uka.ilkd.key.control.KeYEnvironment;
+import de.uka.ilkd.key.proof.Node;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.rule.RuleApp;
+import de.uka.ilkd.key.rule.TacletApp;
+
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.helper.FindResources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestAppliedRuleAppsIndex {
+    private static final File testCaseDirectory = FindResources.getTestCasesDirectory();
+
+    @Test
+    void testFindsEarlierApplications() throws Exception {
+        KeYEnvironment<DefaultUserInterfaceControl> env = KeYEnvironment
+                .load(new File(testCaseDirectory, "proofCaching/proofWithoutRule.proof"));
+        Proof proof = env.getLoadedProof();
+        AppliedRuleAppsIndex index = new AppliedRuleAppsIndex();
+
+        int checked = 0;
+        Iterator<Node> it = proof.root().subtreeIterator();
+        while (it.hasNext()) {
+            Node n = it.next();
+            if (n.getAppliedRuleApp() instanceof TacletApp tacletApp) {
+                // applications below a node are not found
+                assertFalse(contains(index.get(n, tacletApp), tacletApp));
+            }
+            if (n.leaf()) {
+                // from the leaf and from the nodes of its branch
+                for (Node m = n; !m.root(); m = m.parent()) {
+                    if (m.parent().getAppliedRuleApp() instanceof TacletApp tacletApp) {
+                        assertTrue(contains(index.get(m, tacletApp), tacletApp));
+                        assertTrue(contains(index.get(n, tacletApp), tacletApp));
+                        checked++;
+                    }
+                }
+            }
+        }
+        assertTrue(checked > 0);
+
+        proof.dispose();
+    }
+
+    private static boolean contains(ImmutableList<RuleApp> apps, RuleApp app) {
+        return apps.exists(a -> a == app);
+    }
+}
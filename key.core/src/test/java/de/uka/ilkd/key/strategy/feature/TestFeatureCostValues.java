@@ -0,0 +1,69 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy.feature;
+
+import de.uka.ilkd.key.strategy.NumberRuleAppCost;
+import de.uka.ilkd.key.strategy.RuleAppCost;
+import de.uka.ilkd.key.strategy.TopRuleAppCost;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestFeatureCostValues {
+
+    private static Feature c(long value) {
+        return ConstFeature.createConst(NumberRuleAppCost.create(value));
+    }
+
+    private static final Feature TOP = ConstFeature.createConst(TopRuleAppCost.INSTANCE);
+
+    private static void assertAgree(Feature f) {
+        final RuleAppCost cost = f.computeCost(null, null, null);
+        assertEquals(NumberRuleAppCost.valueOf(cost), f.computeCostValue(null, null, null));
+    }
+
+    @Test
+    void testConversion() {
+        assertEquals(NumberRuleAppCost.TOP_VALUE,
+            NumberRuleAppCost.valueOf(TopRuleAppCost.INSTANCE));
+        assertSame(TopRuleAppCost.INSTANCE,
+            NumberRuleAppCost.fromValue(NumberRuleAppCost.TOP_VALUE));
+        for (long v : new long[] { -100000, -1, 0, 1, 4095, 4096, 1L << 40 }) {
+            assertEquals(v, NumberRuleAppCost.valueOf(NumberRuleAppCost.fromValue(v)));
+        }
+        assertSame(NumberRuleAppCost.create(42), NumberRuleAppCost.create(42));
+        assertSame(NumberRuleAppCost.getZeroCost(), NumberRuleAppCost.create(0L));
+    }
+
+    @Test
+    void testArithmetic() {
+        assertEquals(5, NumberRuleAppCost.add(2, 3));
+        assertEquals(NumberRuleAppCost.TOP_VALUE,
+            NumberRuleAppCost.add(-7, NumberRuleAppCost.TOP_VALUE));
+        // finite costs never become infinite
+        assertNotEquals(NumberRuleAppCost.TOP_VALUE,
+            NumberRuleAppCost.add(NumberRuleAppCost.TOP_VALUE - 1, 1));
+    }
+
+    @Test
+    void testFeaturesAgree() {
+        assertAgree(SumFeature.createSum(c(3), c(-10), c(100)));
+        assertAgree(SumFeature.createSum(c(3), TOP, c(100)));
+        assertAgree(ScaleFeature.createAffine(c(7), 2.5, 3));
+        assertAgree(ScaleFeature.createScaled(TOP, 0));
+        assertAgree(ScaleFeature.createScaled(TOP, 2));
+        assertAgree(ShannonFeature.createConditionalBinary(c(0), c(5), c(6)));
+        assertAgree(ShannonFeature.createConditionalBinary(TOP, c(5), c(6)));
+        assertAgree(CompareCostsFeature.less(c(1), TOP));
+        assertAgree(CompareCostsFeature.eq(TOP, TOP));
+
+        assertEquals(93, SumFeature.createSum(c(3), c(-10), c(100))
+                .computeCostValue(null, null, null));
+        assertEquals(NumberRuleAppCost.TOP_VALUE,
+            SumFeature.createSum(c(3), TOP).computeCostValue(null, null, null));
+        assertSame(TopRuleAppCost.INSTANCE,
+            SumFeature.createSum(c(3), TOP).computeCost(null, null, null));
+    }
+}
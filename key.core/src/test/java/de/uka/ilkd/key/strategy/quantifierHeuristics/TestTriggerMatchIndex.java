@@ -0,0 +1,128 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package de.uka.ilkd.key.strategy.quantifierHeuristics;
+
+import de.uka.ilkd.key.logic.*;
+import de.uka.ilkd.key.logic.op.Function;
+import de.uka.ilkd.key.logic.op.LogicVariable;
+import de.uka.ilkd.key.logic.op.QuantifiableVariable;
+import de.uka.ilkd.key.logic.sort.Sort;
+import de.uka.ilkd.key.logic.sort.SortImpl;
+import de.uka.ilkd.key.proof.*;
+import de.uka.ilkd.key.rule.TacletForTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTriggerMatchIndex {
+
+    private Proof proof;
+
+    private final Namespace<QuantifiableVariable> variables = new Namespace<>();
+
+    private final Namespace<Function> functions = new Namespace<>();
+
+    private final Namespace<Sort> sorts = new Namespace<>();
+
+    private Goal g;
+
+    private Term allTerm;
+
+    @BeforeEach
+    public void setUp() {
+        Sort s = new SortImpl(new Name("s"));
+        sorts.add(s);
+        functions.add(new Function(new Name("s_a"), s, new Sort[0]));
+        functions.add(new Function(new Name("s_b"), s, new Sort[0]));
+        functions.add(new Function(new Name("ps"), Sort.FORMULA, s));
+        functions.add(new Function(new Name("qs"), Sort.FORMULA, s));
+
+        proof = new Proof("TestTriggerMatchIndex", TacletForTests.initConfig());
+        proof.setNamespaces(new NamespaceSet(variables, functions, sorts, new Namespace<>(),
+            new Namespace<>(), new Namespace<>()));
+
+        allTerm = parseTerm("\\forall s x;(ps(x))");
+        Sequent seq = Sequent.EMPTY_SEQUENT
+                .addFormula(new SequentFormula(allTerm), true, true).sequent()
+                .addFormula(new SequentFormula(parseTerm("ps(s_a)")), false, true).sequent();
+        g = new Goal(new Node(proof, seq), TacletIndexKit.getKit().createTacletIndex(),
+            new BuiltInRuleAppIndex(new BuiltInRuleIndex()), proof.getServices());
+        proof.setRoot(g.node());
+        proof.add(g);
+    }
+
+    private Term parseTerm(String termstr) {
+        return TacletForTests.parseTerm(termstr, new NamespaceSet(variables, functions, sorts,
+            new Namespace<>(), new Namespace<>(), new Namespace<>()));
+    }
+
+    private UniTrigger trigger() {
+        Trigger trigger =
+            TriggersSet.create(allTerm, proof.getServices()).getAllTriggers().iterator().next();
+        assertTrue(trigger instanceof UniTrigger);
+        return (UniTrigger) trigger;
+    }
+
+    private UniTrigger trigger(Term allTerm, Term triggerTerm) {
+        for (Trigger t : TriggersSet.create(allTerm, proof.getServices()).getAllTriggers()) {
+            if (t instanceof UniTrigger && t.getTriggerTerm().equals(triggerTerm)) {
+                return (UniTrigger) t;
+            }
+        }
+        fail("No trigger " + triggerTerm + " for " + allTerm);
+        return null;
+    }
+
+    @Test
+    public void testCachedPerSequent() {
+        Instantiation inst = Instantiation.create(allTerm, g);
+        assertSame(inst, Instantiation.create(allTerm, g));
+        assertSame(TriggerMatchIndex.get(g), TriggerMatchIndex.get(g));
+        assertTrue(inst.getSubstitution().contains(parseTerm("s_a")));
+    }
+
+    @Test
+    public void testMatchesOfRetainedFormulasAreReused() {
+        Term psa = parseTerm("ps(s_a)");
+        TriggerMatchIndex before = TriggerMatchIndex.get(g);
+        Instantiation inst = Instantiation.create(allTerm, g);
+        var matchesOfPsa = before.getMatches(trigger(), psa, proof.getServices());
+        assertFalse(matchesOfPsa.isEmpty());
+
+        g.addFormula(new SequentFormula(parseTerm("ps(s_b)")), false, true);
+
+        TriggerMatchIndex after = TriggerMatchIndex.get(g);
+        assertNotSame(before, after);
+        assertSame(matchesOfPsa, after.getMatches(trigger(), psa, proof.getServices()));
+        Instantiation newInst = Instantiation.create(allTerm, g);
+        assertNotSame(inst, newInst);
+        assertTrue(newInst.getSubstitution().contains(parseTerm("s_a")));
+        assertTrue(newInst.getSubstitution().contains(parseTerm("s_b")));
+    }
+
+    @Test
+    public void testEqualTriggersOfDifferentFormulas() {
+        // quantified formulas sharing their bound variable, e.g. after splitting a quantifier
+        TermBuilder tb = proof.getServices().getTermBuilder();
+        LogicVariable x = new LogicVariable(new Name("x"), sorts.lookup(new Name("s")));
+        Term psx = tb.func(functions.lookup(new Name("ps")), tb.var(x));
+        Term qsx = tb.func(functions.lookup(new Name("qs")), tb.var(x));
+        UniTrigger first = trigger(tb.all(x, psx), psx);
+        UniTrigger second = trigger(tb.all(x, tb.and(psx, qsx)), psx);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+
+        Term psa = parseTerm("ps(s_a)");
+        TriggerMatchIndex index = TriggerMatchIndex.get(g);
+        var firstMatches = index.getMatches(first, psa, proof.getServices());
+        var secondMatches = index.getMatches(second, psa, proof.getServices());
+        assertFalse(firstMatches.isEmpty());
+        // each trigger is matched on its own
+        assertNotSame(firstMatches, secondMatches);
+        assertSame(secondMatches, index.getMatches(second, psa, proof.getServices()));
+        assertEquals(second.match(psa, proof.getServices()), secondMatches);
+    }
+}
@@ -12,6 +12,7 @@ import javax.swing.filechooser.FileFilter;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import de.uka.ilkd.key.core.Main;
+import de.uka.ilkd.key.proof.io.BinaryProofFormat;
 
 import org.key_project.util.java.IOUtil;
 
@@ -36,7 +37,8 @@ public final class KeYFileChooser extends JFileChooser {
         public boolean accept(File f) {
             String s = f.toString().toLowerCase(Locale.ROOT);
             return f.isDirectory() || s.endsWith(".java") || s.endsWith(".key")
-                    || s.endsWith(".proof") || s.endsWith(".proof.gz") || s.endsWith(".zproof");
+                    || s.endsWith(".proof") || s.endsWith(".proof.gz") || s.endsWith(".zproof")
+                    || s.endsWith(BinaryProofFormat.EXTENSION);
         }
 
         @Override
@@ -78,6 +80,21 @@ public final class KeYFileChooser extends JFileChooser {
         }
     };
 
+    /** filter for binary proof files */
+    public static final FileFilter BINARY_FILTER = new FileFilter() {
+        // FileNameExtensionFilter is not sufficient, as it only checks the part after the last dot
+        @Override
+        public boolean accept(File f) {
+            return f.isDirectory() || f.toString().toLowerCase(Locale.ROOT)
+                    .endsWith(BinaryProofFormat.EXTENSION);
+        }
+
+        @Override
+        public String getDescription() {
+            return "binary proof files (" + BinaryProofFormat.EXTENSION + ")";
+        }
+    };
+
     /** filter for interaction log files */
     public static final FileFilter INTERACTION_LOG_FILTER =
         new FileNameExtensionFilter("interaction logs (.xml)", "xml");
@@ -112,6 +129,7 @@ public final class KeYFileChooser extends JFileChooser {
         addChoosableFileFilter(PROOF_MANAGEMENT_REPORT_FILTER);
         addChoosableFileFilter(JAVA_FILTER);
         addChoosableFileFilter(COMPRESSED_FILTER);
+        addChoosableFileFilter(BINARY_FILTER);
         addChoosableFileFilter(INTERACTION_LOG_FILTER);
         addChoosableFileFilter(ZIP_FILTER);
         addChoosableFileFilter(PROOF_BUNDLE_FILTER);
@@ -122,6 +140,10 @@ public final class KeYFileChooser extends JFileChooser {
         return getSelectedFile().getName().endsWith(".proof.gz");
     }
 
+    public boolean useBinaryFormat() {
+        return getSelectedFile().getName().endsWith(BinaryProofFormat.EXTENSION);
+    }
+
     @Override
     public void approveSelection() {
         File file = getSelectedFile();
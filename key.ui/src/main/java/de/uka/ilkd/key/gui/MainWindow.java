@@ -56,9 +56,12 @@ import de.uka.ilkd.key.gui.utilities.GuiUtilities;
 import de.uka.ilkd.key.gui.utilities.LruCached;
 import de.uka.ilkd.key.logic.Name;
 import de.uka.ilkd.key.logic.Sequent;
+import de.uka.ilkd.key.proof.DeferredReplay;
 import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Node;
 import de.uka.ilkd.key.proof.Proof;
 import de.uka.ilkd.key.proof.ProofEvent;
+import de.uka.ilkd.key.proof.io.IntermediateProofReplayer;
 import de.uka.ilkd.key.rule.RuleApp;
 import de.uka.ilkd.key.settings.GeneralSettings;
 import de.uka.ilkd.key.settings.ProofIndependentSettings;
@@ -1693,9 +1696,31 @@ public final class MainWindow extends JFrame {
             if (getMediator().isInAutoMode()) {
                 return;
             }
+            replayDeferredBranch(e.getSource().getSelectedNode());
             SwingUtilities.invokeLater(MainWindow.this::updateSequentView);
         }
 
+        /**
+         * Replays the branch of a loaded proof when it is opened, if its replay has been deferred
+         * (see {@link IntermediateProofReplayer#LAZY_PROPERTY}).
+         */
+        private void replayDeferredBranch(Node node) {
+            if (node == null) {
+                return;
+            }
+            final DeferredReplay replay = node.proof().lookup(DeferredReplay.class);
+            if (replay != null && replay.isDeferred(node)) {
+                SwingUtilities.invokeLater(() -> {
+                    final List<Throwable> replayErrors = new ArrayList<>();
+                    replay.replayBranch(node, replayErrors);
+                    if (!replayErrors.isEmpty()) {
+                        IssueDialog.showExceptionDialog(MainWindow.this,
+                            replay.replayFailure(replayErrors));
+                    }
+                });
+            }
+        }
+
         /**
          * the selected proof has changed (e.g. a new proof has been loaded)
          */
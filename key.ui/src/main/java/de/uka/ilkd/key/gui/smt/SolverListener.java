@@ -472,6 +472,9 @@ public class SolverListener implements SolverLauncherListener {
         case User:
             progressModel.setText("Interrupted by user.", x, y);
             break;
+        case Portfolio:
+            progressModel.setText("Decided by another solver.", x, y);
+            break;
         }
     }
 
@@ -0,0 +1,529 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A thread-safe cache bounded by the total weight of its entries, evicting entries by the
+ * W-TinyLFU policy.
+ * <p>
+ * Lookups are served by a {@link ConcurrentHashMap} without locking. Reads are recorded in striped,
+ * lossy buffers and replayed on the eviction policy when a buffer fills up or the cache is
+ * written, so that reading threads neither block each other nor mutate shared lists as an
+ * {@link LRUCache} does. The policy keeps new entries in a small LRU window (one percent of the
+ * maximal weight). Entries leaving the window are admitted to the main segmented LRU only if they
+ * have been used more frequently than the entry the main segment would evict; the frequencies are
+ * estimated by a count-min sketch of 4-bit counters which are halved periodically. Entries used
+ * again in the probation segment of the main space move to its protected segment.
+ * </p>
+ * <p>
+ * Without a weigher, every entry has the weight 1, i.e., the cache is bounded by its number of
+ * entries. Neither keys nor values may be <code>null</code>. The iterators of {@link #entrySet()}
+ * are weakly consistent and do not support removal.
+ * </p>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> {
+    /** segments of the policy */
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+    /** the entry is not (or no longer) part of the policy */
+    private static final byte NONE = 3;
+
+    /** number of read buffers, a power of two */
+    private static final int STRIPES =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors())) * 2;
+
+    private final ConcurrentHashMap<K, Entry<K, V>> data = new ConcurrentHashMap<>();
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final ReadBuffer<K, V>[] readBuffers;
+
+    /** guards the policy: the segments, their weights and the sketch */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final Segment<K, V> window = new Segment<>();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+    private final FrequencySketch sketch;
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most the given number of entries.
+     *
+     * @param maxEntries the maximal number of entries
+     */
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, (k, v) -> 1);
+    }
+
+    /**
+     * Creates a cache bounded by the total weight of its entries.
+     *
+     * @param maximumWeight the maximal total weight of the entries
+     * @param weigher computes the (non-negative) weight of an entry when it is added
+     */
+    public TinyLFUCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximal weight must not be negative");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 4 / 5;
+        this.sketch = new FrequencySketch(maximumWeight);
+        @SuppressWarnings("unchecked")
+        final ReadBuffer<K, V>[] buffers = (ReadBuffer<K, V>[]) new ReadBuffer<?, ?>[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            buffers[i] = new ReadBuffer<>();
+        }
+        this.readBuffers = buffers;
+    }
+
+    /**
+     * An entry of the cache, linked into one of the segments.
+     */
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final int weight;
+        /** guarded by the eviction lock */
+        byte segment = NONE;
+        Entry<K, V> prev;
+        Entry<K, V> next;
+
+        Entry(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A doubly linked list of entries from the least to the most recently used one.
+     */
+    private static final class Segment<K, V> {
+        private Entry<K, V> first;
+        private Entry<K, V> last;
+
+        Entry<K, V> first() {
+            return first;
+        }
+
+        void addLast(Entry<K, V> e) {
+            e.prev = last;
+            e.next = null;
+            if (last == null) {
+                first = e;
+            } else {
+                last.next = e;
+            }
+            last = e;
+        }
+
+        void remove(Entry<K, V> e) {
+            if (e.prev == null) {
+                first = e.next;
+            } else {
+                e.prev.next = e.next;
+            }
+            if (e.next == null) {
+                last = e.prev;
+            } else {
+                e.next.prev = e.prev;
+            }
+            e.prev = null;
+            e.next = null;
+        }
+
+        void moveToLast(Entry<K, V> e) {
+            if (last != e) {
+                remove(e);
+                addLast(e);
+            }
+        }
+
+        void clear() {
+            first = null;
+            last = null;
+        }
+    }
+
+    /**
+     * A lossy ring buffer of read entries: if it is full, reads are not recorded.
+     */
+    private static final class ReadBuffer<K, V> {
+        static final int SIZE = 16;
+        static final int MASK = SIZE - 1;
+        final AtomicReferenceArray<Entry<K, V>> buffer = new AtomicReferenceArray<>(SIZE);
+        final AtomicLong writeCount = new AtomicLong();
+        /** written under the eviction lock only */
+        volatile long readCount;
+
+        /**
+         * @return the number of pending reads, or -1 if the buffer is full
+         */
+        long offer(Entry<K, V> e) {
+            final long head = readCount;
+            final long tail = writeCount.get();
+            final long size = tail - head;
+            if (size >= SIZE) {
+                return -1;
+            }
+            if (writeCount.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & MASK), e);
+            }
+            return size + 1;
+        }
+    }
+
+    /**
+     * Estimates the frequency of keys by four 4-bit counters each, which are halved when the
+     * number of increments reaches ten times the table size.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long HALF = 0x7777777777777777L;
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int size;
+
+        FrequencySketch(long capacity) {
+            // at least one long of 16 counters per expected entry
+            final int entries = (int) Math.max(8, Math.min(capacity, 1 << 22));
+            table = new long[Integer.highestOneBit(entries - 1) << 1];
+            mask = table.length - 1;
+            sampleSize = 10 * table.length;
+        }
+
+        private static int hash(Object o, int i) {
+            long h = (o.hashCode() + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h;
+        }
+
+        int frequency(Object o) {
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                final int h = hash(o, i);
+                final int shift = (h & 15) << 2;
+                frequency = Math.min(frequency, (int) (table[(h >>> 4) & mask] >>> shift) & 15);
+            }
+            return frequency;
+        }
+
+        void increment(Object o) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                final int h = hash(o, i);
+                final int index = (h >>> 4) & mask;
+                final int shift = (h & 15) << 2;
+                if (((table[index] >>> shift) & 15) < 15) {
+                    table[index] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++size >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & HALF;
+                }
+                size /= 2;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(table, 0);
+            size = 0;
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of a cache.
+     *
+     * @param hits number of lookups finding a value
+     * @param misses number of lookups finding no value
+     * @param evictions number of entries evicted because of the bound
+     * @param weight current total weight of the entries
+     */
+    public record Stats(long hits, long misses, long evictions, long weight) {
+        /**
+         * @return the ratio of hits to lookups, 1 if there have not been any lookups
+         */
+        public double hitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 1.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * @return the statistics of this cache
+     */
+    public Stats stats() {
+        final long weight;
+        evictionLock.lock();
+        try {
+            weight = totalWeight;
+        } finally {
+            evictionLock.unlock();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), weight);
+    }
+
+    /**
+     * @return the maximal total weight of the entries
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    @Override
+    public V get(Object key) {
+        final Entry<K, V> e = data.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        final ReadBuffer<K, V> buffer =
+            readBuffers[(int) Thread.currentThread().getId() & (STRIPES - 1)];
+        final long pending = buffer.offer(e);
+        if ((pending < 0 || pending >= ReadBuffer.SIZE / 2) && evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        return e.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return data.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        final Entry<K, V> e = new Entry<>(key, value, weigher.applyAsInt(key, value));
+        final Entry<K, V> prior = data.put(key, e);
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            if (prior != null) {
+                unlink(prior);
+            }
+            // a concurrent put or remove of the same key may have replaced the entry already
+            if (data.get(key) == e) {
+                e.segment = WINDOW;
+                window.addLast(e);
+                windowWeight += e.weight;
+                totalWeight += e.weight;
+                sketch.increment(key);
+                evict();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return prior == null ? null : prior.value;
+    }
+
+    @Override
+    public V remove(Object key) {
+        final Entry<K, V> e = data.remove(key);
+        if (e == null) {
+            return null;
+        }
+        evictionLock.lock();
+        try {
+            unlink(e);
+        } finally {
+            evictionLock.unlock();
+        }
+        return e.value;
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            // reads of the removed entries may still be recorded
+            for (Entry<K, V> e : data.values()) {
+                e.segment = NONE;
+            }
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+            windowWeight = 0;
+            protectedWeight = 0;
+            totalWeight = 0;
+            sketch.clear();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                final Iterator<Entry<K, V>> it = data.values().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, V> next() {
+                        final Entry<K, V> e = it.next();
+                        return new SimpleImmutableEntry<>(e.key, e.value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return data.size();
+            }
+        };
+    }
+
+    /** Replays the recorded reads on the policy, requires the eviction lock. */
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            long head = buffer.readCount;
+            final long tail = buffer.writeCount.get();
+            while (head < tail) {
+                final int index = (int) (head & ReadBuffer.MASK);
+                final Entry<K, V> e = buffer.buffer.get(index);
+                if (e == null) {
+                    // not written yet
+                    break;
+                }
+                buffer.buffer.lazySet(index, null);
+                onAccess(e);
+                head++;
+            }
+            buffer.readCount = head;
+        }
+    }
+
+    private void onAccess(Entry<K, V> e) {
+        sketch.increment(e.key);
+        switch (e.segment) {
+        case WINDOW -> window.moveToLast(e);
+        case PROBATION -> {
+            probation.remove(e);
+            e.segment = PROTECTED;
+            protectedSegment.addLast(e);
+            protectedWeight += e.weight;
+            while (protectedWeight > protectedMaximum) {
+                final Entry<K, V> demoted = protectedSegment.first();
+                protectedSegment.remove(demoted);
+                protectedWeight -= demoted.weight;
+                demoted.segment = PROBATION;
+                probation.addLast(demoted);
+            }
+        }
+        case PROTECTED -> protectedSegment.moveToLast(e);
+        default -> {
+            // removed in the meantime
+        }
+        }
+    }
+
+    private void unlink(Entry<K, V> e) {
+        switch (e.segment) {
+        case WINDOW -> {
+            window.remove(e);
+            windowWeight -= e.weight;
+        }
+        case PROBATION -> probation.remove(e);
+        case PROTECTED -> {
+            protectedSegment.remove(e);
+            protectedWeight -= e.weight;
+        }
+        default -> {
+            return;
+        }
+        }
+        totalWeight -= e.weight;
+        e.segment = NONE;
+    }
+
+    private void evict(Entry<K, V> e) {
+        unlink(e);
+        data.remove(e.key, e);
+        evictions.increment();
+    }
+
+    /** Moves the overflow of the window to the main space and enforces the bound. */
+    private void evict() {
+        while (windowWeight > windowMaximum) {
+            final Entry<K, V> candidate = window.first();
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            candidate.segment = PROBATION;
+            probation.addLast(candidate);
+            if (totalWeight > maximumWeight) {
+                // admit the candidate only if it is used more frequently than the victim
+                Entry<K, V> victim = probation.first();
+                if (victim == candidate) {
+                    victim = protectedSegment.first();
+                }
+                if (victim != null
+                        && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                }
+            }
+        }
+        while (totalWeight > maximumWeight) {
+            Entry<K, V> victim = probation.first();
+            if (victim == null) {
+                victim = protectedSegment.first();
+            }
+            if (victim == null) {
+                victim = window.first();
+            }
+            evict(victim);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A mutable priority queue implemented as an array-backed d-ary min-heap with <code>d = 4</code>.
+ * <p>
+ * Compared to {@link ImmutableLeftistHeap}, insertion and removal of the minimum do not allocate
+ * nodes and work on a contiguous array. Many elements can be inserted at once by
+ * {@link #insertAll(Iterator)}, which rebuilds the heap bottom-up if that is cheaper than inserting
+ * the elements one by one.
+ * </p>
+ * <p>
+ * The heap is not persistent, but {@link #copy()} is cheap: the copy shares the array with the
+ * original until one of them is modified, then the modified heap copies the array once. Hence,
+ * the costs of a persistent structure are only paid when a heap is actually copied and both heaps
+ * are modified afterwards.
+ * </p>
+ * <p>
+ * Elements with equal priority are returned in the order in which they have been inserted; the
+ * elements inserted by {@link #insertAll(Iterator)} count as inserted in the order of the
+ * iterator. Hence, the order of the returned elements only depends on the sequence of operations,
+ * but not on how the heap is organized internally. The class is not thread-safe.
+ * </p>
+ *
+ * @param <T> the type of the elements
+ */
+public final class DaryHeap<T extends Comparable<T>> implements Iterable<T> {
+
+    /** the number of children of a node */
+    private static final int ARITY = 4;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private static final long[] NO_SEQUENCES = new long[0];
+
+    /** the elements, <code>elements[0]</code> is the minimum */
+    private Object[] elements;
+
+    /**
+     * the insertion sequence numbers of the elements at the same indices, which break ties
+     * between elements with equal priority
+     */
+    private long[] sequences;
+
+    /** the sequence number of the next inserted element */
+    private long nextSequence;
+
+    private int size;
+
+    /**
+     * whether {@link #elements} and {@link #sequences} may be shared with other heaps and must be
+     * copied before writing
+     */
+    private boolean shared;
+
+    /**
+     * creates an empty heap
+     */
+    public DaryHeap() {
+        this.elements = EMPTY;
+        this.sequences = NO_SEQUENCES;
+    }
+
+    private DaryHeap(Object[] elements, long[] sequences, int size, long nextSequence) {
+        this.elements = elements;
+        this.sequences = sequences;
+        this.size = size;
+        this.nextSequence = nextSequence;
+        this.shared = true;
+    }
+
+    /**
+     * @return true iff this heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of elements this heap holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the minimum element of this heap, or <code>null</code> if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T findMin() {
+        return size == 0 ? null : (T) elements[0];
+    }
+
+    /**
+     * Removes the minimum element of this heap.
+     *
+     * @return the removed element, or <code>null</code> if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T deleteMin() {
+        if (size == 0) {
+            return null;
+        }
+        ensureWritable(size);
+        final T min = (T) elements[0];
+        size--;
+        final T last = (T) elements[size];
+        final long lastSequence = sequences[size];
+        elements[size] = null;
+        if (size > 0) {
+            siftDown(0, last, lastSequence);
+        }
+        return min;
+    }
+
+    /**
+     * Inserts an element into this heap.
+     *
+     * @param element the element to insert
+     */
+    public void insert(T element) {
+        ensureWritable(size + 1);
+        siftUp(size, element, nextSequence++);
+        size++;
+    }
+
+    /**
+     * Inserts all elements of the given iterator into this heap. If the number of new elements is
+     * not small compared to the size of the heap, the heap is rebuilt in linear time instead of
+     * inserting the elements one by one.
+     *
+     * @param it the elements to insert
+     */
+    @SuppressWarnings("unchecked")
+    public void insertAll(Iterator<? extends T> it) {
+        if (!it.hasNext()) {
+            return;
+        }
+        final int oldSize = size;
+        ensureWritable(size + 1);
+        while (it.hasNext()) {
+            if (size == elements.length) {
+                final int capacity = grow(size + 1);
+                elements = Arrays.copyOf(elements, capacity);
+                sequences = Arrays.copyOf(sequences, capacity);
+            }
+            elements[size] = it.next();
+            sequences[size] = nextSequence++;
+            size++;
+        }
+        final int added = size - oldSize;
+        if (added * log(size) <= size) {
+            for (int i = oldSize; i < size; i++) {
+                siftUp(i, (T) elements[i], sequences[i]);
+            }
+        } else {
+            heapify();
+        }
+    }
+
+    /**
+     * Inserts all elements of the given heap into this heap.
+     *
+     * @param other the heap whose elements are inserted; it is not modified
+     */
+    public void insertAll(DaryHeap<? extends T> other) {
+        insertAll(other.iterator());
+    }
+
+    /**
+     * Creates a copy of this heap in constant time. The array holding the elements is shared until
+     * one of the heaps is modified.
+     *
+     * @return a heap with the same elements as this heap
+     */
+    public DaryHeap<T> copy() {
+        if (size == 0) {
+            return new DaryHeap<>();
+        }
+        shared = true;
+        return new DaryHeap<>(elements, sequences, size, nextSequence);
+    }
+
+    /**
+     * Removes all elements of this heap.
+     */
+    public void clear() {
+        elements = EMPTY;
+        sequences = NO_SEQUENCES;
+        size = 0;
+        shared = false;
+    }
+
+    /**
+     * @return an iterator over the elements of this heap in no particular order; the heap must not
+     *         be modified during the iteration
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final Object[] arr = elements;
+        final int n = size;
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < n;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (next >= n) {
+                    throw new NoSuchElementException();
+                }
+                return (T) arr[next++];
+            }
+        };
+    }
+
+    /**
+     * Makes sure that {@link #elements} is owned by this heap and has at least the given capacity.
+     */
+    private void ensureWritable(int capacity) {
+        if (shared) {
+            final int newCapacity = Math.max(capacity, size + (size >> 1));
+            elements = Arrays.copyOf(elements, newCapacity);
+            sequences = Arrays.copyOf(sequences, newCapacity);
+            shared = false;
+        } else if (capacity > elements.length) {
+            final int newCapacity = grow(capacity);
+            elements = Arrays.copyOf(elements, newCapacity);
+            sequences = Arrays.copyOf(sequences, newCapacity);
+        }
+    }
+
+    private int grow(int capacity) {
+        return Math.max(capacity, Math.max(DEFAULT_CAPACITY, elements.length << 1));
+    }
+
+    /**
+     * @return an approximation of the height of a heap with the given number of elements
+     */
+    private static int log(int n) {
+        return Math.max(1, (31 - Integer.numberOfLeadingZeros(n)) / 2);
+    }
+
+    /**
+     * Restores the heap property for all elements bottom-up (Floyd's algorithm).
+     */
+    @SuppressWarnings("unchecked")
+    private void heapify() {
+        for (int i = (size - 2) / ARITY; i >= 0; i--) {
+            siftDown(i, (T) elements[i], sequences[i]);
+        }
+    }
+
+    /**
+     * @return true iff the element <code>a</code> with sequence number <code>sa</code> has to be
+     *         returned before the element <code>b</code> with sequence number <code>sb</code>
+     */
+    private static <T extends Comparable<T>> boolean less(T a, long sa, T b, long sb) {
+        final int c = a.compareTo(b);
+        return c < 0 || (c == 0 && sa < sb);
+    }
+
+    /**
+     * Moves the given element from the free position <code>pos</code> towards the root.
+     */
+    @SuppressWarnings("unchecked")
+    private void siftUp(int pos, T element, long sequence) {
+        while (pos > 0) {
+            final int parent = (pos - 1) / ARITY;
+            final T p = (T) elements[parent];
+            final long ps = sequences[parent];
+            if (!less(element, sequence, p, ps)) {
+                break;
+            }
+            elements[pos] = p;
+            sequences[pos] = ps;
+            pos = parent;
+        }
+        elements[pos] = element;
+        sequences[pos] = sequence;
+    }
+
+    /**
+     * Moves the given element from the free position <code>pos</code> towards the leaves.
+     */
+    @SuppressWarnings("unchecked")
+    private void siftDown(int pos, T element, long sequence) {
+        while (true) {
+            final int first = pos * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int min = first;
+            T minElement = (T) elements[first];
+            long minSequence = sequences[first];
+            final int end = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < end; c++) {
+                final T child = (T) elements[c];
+                if (less(child, sequences[c], minElement, minSequence)) {
+                    min = c;
+                    minElement = child;
+                    minSequence = sequences[c];
+                }
+            }
+            if (!less(minElement, minSequence, element, sequence)) {
+                break;
+            }
+            elements[pos] = minElement;
+            sequences[pos] = minSequence;
+            pos = min;
+        }
+        elements[pos] = element;
+        sequences[pos] = sequence;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -343,7 +343,7 @@ public class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
      * @param key   the key
      * @param value the value
      */
-        private record MapEntry<S,T>(
+        record MapEntry<S,T>(
     S key, T value)implements ImmutableMapEntry<S,T>
     {
     /**
@@ -354,7 +354,7 @@ public class DefaultImmutableMap<S, T> implements ImmutableMap<S, T> {
     /**
      * creates a new map entry that contains key and value
      */
-    private MapEntry
+    MapEntry
     {
     }
 
@@ -413,7 +413,7 @@ public class DefaultImmutableSet<T> implements ImmutableSet<T> {
          */
         @Override
         public boolean equals(Object o) {
-            return o instanceof NILSet<?>;
+            return o instanceof ImmutableSet<?> set && set.isEmpty();
         }
 
         @Override
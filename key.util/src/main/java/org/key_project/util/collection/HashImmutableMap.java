@@ -0,0 +1,200 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Implementation of a persistent map as a hash array mapped trie. Other than
+ * {@link DefaultImmutableMap}, {@link #get(Object)}, {@link #put(Object, Object)} and
+ * {@link #remove(Object)} take O(log<sub>32</sub> n) and maps derived from each other share most
+ * of their structure.
+ * <p>
+ * The entries are iterated in the order of the hash codes of their keys, see
+ * {@link HashImmutableSet} for the consequences.
+ * </p>
+ *
+ * @param <S> type of the keys
+ * @param <T> type of the values
+ */
+public final class HashImmutableMap<S, T> implements ImmutableMap<S, T> {
+
+    private static final long serialVersionUID = 5390215478003429176L;
+
+    private static final HashImmutableMap<?, ?> EMPTY_MAP =
+        new HashImmutableMap<>(HashTrie.EMPTY, 0);
+
+    /** the trie of {@link DefaultImmutableMap.MapEntry}s */
+    private final HashTrie.Node root;
+
+    private final int size;
+
+    private HashImmutableMap(HashTrie.Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** the empty map */
+    @SuppressWarnings("unchecked")
+    public static <S, T> HashImmutableMap<S, T> nilMap() {
+        return (HashImmutableMap<S, T>) EMPTY_MAP;
+    }
+
+    @Override
+    public HashImmutableMap<S, T> put(S key, T value) {
+        final HashTrie.Change change = new HashTrie.Change();
+        final HashTrie.Node newRoot =
+            HashTrie.MAP_ENTRIES.insert(root, new DefaultImmutableMap.MapEntry<>(key, value), key,
+                HashTrie.hash(key), 0, true, change);
+        return new HashImmutableMap<>(newRoot, change.found() ? size : size + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T get(S key) {
+        final Object entry = HashTrie.MAP_ENTRIES.find(root, key, HashTrie.hash(key));
+        return entry == HashTrie.NOT_FOUND ? null : ((ImmutableMapEntry<S, T>) entry).value();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(S key) {
+        return HashTrie.MAP_ENTRIES.find(root, key, HashTrie.hash(key)) != HashTrie.NOT_FOUND;
+    }
+
+    @Override
+    public boolean containsValue(T value) {
+        for (ImmutableMapEntry<S, T> entry : this) {
+            if (Objects.equals(entry.value(), value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public HashImmutableMap<S, T> remove(S key) {
+        final HashTrie.Change change = new HashTrie.Change();
+        final HashTrie.Node newRoot =
+            HashTrie.MAP_ENTRIES.delete(root, key, HashTrie.hash(key), 0, change);
+        if (!change.found()) {
+            return this;
+        }
+        return size == 1 ? nilMap() : new HashImmutableMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public HashImmutableMap<S, T> removeAll(T value) {
+        HashImmutableMap<S, T> result = this;
+        for (ImmutableMapEntry<S, T> entry : this) {
+            if (Objects.equals(entry.value(), value)) {
+                result = result.remove(entry.key());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<S> keyIterator() {
+        final Iterator<ImmutableMapEntry<S, T>> it = iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public S next() {
+                return it.next().key();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<T> valueIterator() {
+        final Iterator<ImmutableMapEntry<S, T>> it = iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return it.next().value();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<ImmutableMapEntry<S, T>> iterator() {
+        return new HashTrie.EntryIterator<>(root);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("[");
+        final Iterator<ImmutableMapEntry<S, T>> it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(",");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ImmutableMap)) {
+            return false;
+        }
+        final ImmutableMap<S, T> other = (ImmutableMap<S, T>) o;
+        if (other.size() != size) {
+            return false;
+        }
+        for (ImmutableMapEntry<S, T> entry : this) {
+            if (!Objects.equals(entry.value(), other.get(entry.key()))
+                    || entry.value() == null && !other.containsKey(entry.key())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The hash code is computed like the one of {@link DefaultImmutableMap}.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 1;
+        for (ImmutableMapEntry<S, T> entry : this) {
+            hashCode += 7 * entry.hashCode();
+        }
+        return hashCode;
+    }
+
+    /**
+     * the empty map is a singleton. Deserialization builds a new object that has to be replaced
+     * by the singleton.
+     */
+    private Object readResolve() throws java.io.ObjectStreamException {
+        return size == 0 ? EMPTY_MAP : this;
+    }
+}
@@ -0,0 +1,262 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of a persistent set as a hash array mapped trie. Other than
+ * {@link DefaultImmutableSet}, adding, removing and searching an element take O(log<sub>32</sub>
+ * n) and sets derived from each other share most of their structure.
+ * <p>
+ * The elements are iterated in the order of their hash codes, not in the order they were added.
+ * As the hash codes of many objects (e.g., of operators and terms) differ from run to run, this
+ * set should be used where the iteration order does not influence the result, e.g., for sets
+ * which are only queried by {@link #contains(Object)}.
+ * </p>
+ *
+ * @param <T> type of object to store
+ */
+public final class HashImmutableSet<T> implements ImmutableSet<T> {
+
+    private static final long serialVersionUID = -1829730286455071957L;
+
+    private static final HashImmutableSet<?> NIL = new HashImmutableSet<>(HashTrie.EMPTY, 0, 0);
+
+    private final HashTrie.Node root;
+
+    private final int size;
+
+    /** the sum of the hash codes of the elements */
+    private final int hashSum;
+
+    private HashImmutableSet(HashTrie.Node root, int size, int hashSum) {
+        this.root = root;
+        this.size = size;
+        this.hashSum = hashSum;
+    }
+
+    /** the empty set */
+    @SuppressWarnings("unchecked")
+    public static <T> HashImmutableSet<T> nil() {
+        return (HashImmutableSet<T>) NIL;
+    }
+
+    /**
+     * Create an immutable set from a collection
+     *
+     * @param seq a collection
+     * @return a set containing the elements of the collection
+     */
+    public static <T> HashImmutableSet<T> fromCollection(Collection<? extends T> seq) {
+        HashImmutableSet<T> result = nil();
+        for (T element : seq) {
+            result = result.add(element);
+        }
+        return result;
+    }
+
+    @Override
+    public HashImmutableSet<T> add(T element) {
+        final HashTrie.Change change = new HashTrie.Change();
+        final HashTrie.Node newRoot = HashTrie.ELEMENTS.insert(root, element, element,
+            HashTrie.hash(element), 0, false, change);
+        if (change.found()) {
+            return this;
+        }
+        return new HashImmutableSet<>(newRoot, size + 1, hashSum + Objects.hashCode(element));
+    }
+
+    @Override
+    public ImmutableSet<T> addUnique(T element) throws NotUniqueException {
+        final HashImmutableSet<T> result = add(element);
+        if (result == this) {
+            throw new NotUniqueException(element);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ImmutableSet<T> union(ImmutableSet<? extends T> set) {
+        if (set.isEmpty()) {
+            return this;
+        }
+        HashImmutableSet<T> result = this;
+        Iterable<? extends T> elements = set;
+        if (set instanceof HashImmutableSet && set.size() > size) {
+            // This cast is safe due to the set's immutability.
+            result = (HashImmutableSet<T>) set;
+            elements = this;
+        }
+        for (T element : elements) {
+            result = result.add(element);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public ImmutableSet<T> intersect(ImmutableSet<? extends T> set) {
+        // This cast is safe due to the set's immutability.
+        final ImmutableSet<T> other = (ImmutableSet<T>) set;
+        HashImmutableSet<T> result = nil();
+        if (size <= other.size()) {
+            for (T element : this) {
+                if (other.contains(element)) {
+                    result = result.add(element);
+                }
+            }
+            return result.size == size ? this : result;
+        }
+        for (T element : other) {
+            if (contains(element)) {
+                result = result.add(element);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new HashTrie.EntryIterator<>(root);
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public boolean exists(Predicate<T> predicate) {
+        for (T element : this) {
+            if (predicate.test(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(T obj) {
+        return HashTrie.ELEMENTS.find(root, obj, HashTrie.hash(obj)) != HashTrie.NOT_FOUND;
+    }
+
+    @Override
+    public boolean subset(ImmutableSet<T> s) {
+        if (size > s.size()) {
+            return false;
+        }
+        for (T element : this) {
+            if (!s.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public HashImmutableSet<T> remove(T element) {
+        final HashTrie.Change change = new HashTrie.Change();
+        final HashTrie.Node newRoot =
+            HashTrie.ELEMENTS.delete(root, element, HashTrie.hash(element), 0, change);
+        if (!change.found()) {
+            return this;
+        }
+        if (size == 1) {
+            return nil();
+        }
+        return new HashImmutableSet<>(newRoot, size - 1, hashSum - Objects.hashCode(element));
+    }
+
+    /**
+     * @return true iff the this set is subset of o and vice versa.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ImmutableSet)) {
+            return false;
+        }
+        final ImmutableSet<T> o = (ImmutableSet<T>) obj;
+        if (o.size() != size || (o instanceof HashImmutableSet && o.hashCode() != hashCode())) {
+            return false;
+        }
+        return subset(o);
+    }
+
+    /**
+     * The hash code is the sum of the hash codes of the elements (like the one of
+     * {@link DefaultImmutableSet}).
+     */
+    @Override
+    public int hashCode() {
+        return size == 0 ? DefaultImmutableSet.nil().hashCode() : hashSum;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <S> S[] toArray(S[] array) {
+        final S[] result = array.length < size
+                ? (S[]) Array.newInstance(array.getClass().getComponentType(), size)
+                : array;
+        int i = 0;
+        for (T element : this) {
+            result[i++] = (S) element;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<T> toSet() {
+        final Set<T> result = new HashSet<>();
+        for (T element : this) {
+            result.add(element);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final Iterator<T> it = iterator();
+        final StringBuilder str = new StringBuilder("{");
+        while (it.hasNext()) {
+            str.append(it.next());
+            if (it.hasNext()) {
+                str.append(",");
+            }
+        }
+        str.append("}");
+        return str.toString();
+    }
+
+    /**
+     * the empty set is a singleton. Deserialization builds a new object that has to be replaced
+     * by the singleton.
+     */
+    private Object readResolve() throws java.io.ObjectStreamException {
+        return size == 0 ? NIL : this;
+    }
+}
@@ -0,0 +1,358 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A persistent hash array mapped trie (HAMT) in the compressed layout of Steindorfer and Vinju
+ * (CHAMP). It is the common implementation of {@link HashImmutableSet} and
+ * {@link HashImmutableMap}; the entries of a set are its elements, those of a map are
+ * {@link ImmutableMapEntry}s hashed by their key.
+ * <p>
+ * Every level of the trie consumes {@value #BITS} bits of the hash code of a key. A node has two
+ * bitmaps: <code>dataMap</code> marks the positions holding an entry directly,
+ * <code>nodeMap</code> those holding a sub node. Both are stored densely, ordered by position, so
+ * a lookup takes at most seven array accesses. Keys whose hash codes are equal in all bits share a
+ * {@link CollisionNode}. Updates copy the path from the root to the changed node and share all
+ * other nodes with the original trie; a sub node left with a single entry by a removal is inlined
+ * into its parent.
+ * </p>
+ */
+abstract class HashTrie {
+    /** bits of the hash code consumed per level */
+    static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** maximal number of nodes on a path from the root to an entry */
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 1;
+
+    /** returned by {@link #find(Node, Object, int)} if there is no entry for a key */
+    static final Object NOT_FOUND = new Object();
+
+    private static final Object[] NO_ENTRIES = new Object[0];
+
+    private static final Node[] NO_NODES = new Node[0];
+
+    /** the empty trie */
+    static final Node EMPTY = new Node(0, 0, NO_ENTRIES, NO_NODES);
+
+    /** tries whose entries are their keys, used by sets */
+    static final HashTrie ELEMENTS = new HashTrie() {
+        @Override
+        Object key(Object entry) {
+            return entry;
+        }
+    };
+
+    /** tries of {@link ImmutableMapEntry}s, used by maps */
+    static final HashTrie MAP_ENTRIES = new HashTrie() {
+        @Override
+        Object key(Object entry) {
+            return ((ImmutableMapEntry<?, ?>) entry).key();
+        }
+    };
+
+    /**
+     * @param entry an entry of the trie
+     * @return the key of the entry
+     */
+    abstract Object key(Object entry);
+
+    /**
+     * @param key a key (may be <code>null</code>)
+     * @return the hash code of the key used to place it in the trie
+     */
+    static int hash(Object key) {
+        final int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Looks up the entry for a key.
+     *
+     * @param root the root of the trie
+     * @param key the key
+     * @param hash the hash of the key, see {@link #hash(Object)}
+     * @return the entry, {@link #NOT_FOUND} if there is none
+     */
+    final Object find(Node root, Object key, int hash) {
+        Node node = root;
+        int shift = 0;
+        while (!(node instanceof CollisionNode)) {
+            final int bit = bit(hash, shift);
+            if ((node.dataMap & bit) != 0) {
+                final Object entry = node.entries[index(node.dataMap, bit)];
+                return Objects.equals(key(entry), key) ? entry : NOT_FOUND;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            node = node.nodes[index(node.nodeMap, bit)];
+            shift += BITS;
+        }
+        for (Object entry : node.entries) {
+            if (Objects.equals(key(entry), key)) {
+                return entry;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param node the (sub) trie to add the entry to
+     * @param entry the entry
+     * @param key the key of the entry
+     * @param hash the hash of the key
+     * @param shift the number of bits of the hash consumed by the levels above <code>node</code>
+     * @param replace whether an entry with an equal key is replaced (or kept)
+     * @param change records the entry with an equal key, if there is one
+     * @return the new trie, <code>node</code> itself if it is unchanged
+     */
+    final Node insert(Node node, Object entry, Object key, int hash, int shift, boolean replace,
+            Change change) {
+        if (node instanceof CollisionNode collision) {
+            final Object[] entries = collision.entries;
+            for (int i = 0; i < entries.length; i++) {
+                if (Objects.equals(key(entries[i]), key)) {
+                    change.old = entries[i];
+                    if (!replace || entries[i] == entry) {
+                        return node;
+                    }
+                    final Object[] copy = entries.clone();
+                    copy[i] = entry;
+                    return new CollisionNode(copy);
+                }
+            }
+            return new CollisionNode(insert(entries, entries.length, entry));
+        }
+
+        final int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            final int i = index(node.dataMap, bit);
+            final Object present = node.entries[i];
+            final Object presentKey = key(present);
+            if (Objects.equals(presentKey, key)) {
+                change.old = present;
+                if (!replace || present == entry) {
+                    return node;
+                }
+                final Object[] entries = node.entries.clone();
+                entries[i] = entry;
+                return new Node(node.dataMap, node.nodeMap, entries, node.nodes);
+            }
+            final Node sub = merge(present, hash(presentKey), entry, hash, shift + BITS);
+            return new Node(node.dataMap ^ bit, node.nodeMap | bit, remove(node.entries, i),
+                insert(node.nodes, index(node.nodeMap, bit), sub));
+        }
+        if ((node.nodeMap & bit) != 0) {
+            final int i = index(node.nodeMap, bit);
+            final Node sub = node.nodes[i];
+            final Node newSub = insert(sub, entry, key, hash, shift + BITS, replace, change);
+            if (newSub == sub) {
+                return node;
+            }
+            final Node[] nodes = node.nodes.clone();
+            nodes[i] = newSub;
+            return new Node(node.dataMap, node.nodeMap, node.entries, nodes);
+        }
+        return new Node(node.dataMap | bit, node.nodeMap,
+            insert(node.entries, index(node.dataMap, bit), entry), node.nodes);
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param node the (sub) trie to remove the entry from
+     * @param key the key
+     * @param hash the hash of the key
+     * @param shift the number of bits of the hash consumed by the levels above <code>node</code>
+     * @param change records the removed entry
+     * @return the new trie, <code>node</code> itself if there is no entry for the key
+     */
+    final Node delete(Node node, Object key, int hash, int shift, Change change) {
+        if (node instanceof CollisionNode) {
+            final Object[] entries = node.entries;
+            for (int i = 0; i < entries.length; i++) {
+                if (Objects.equals(key(entries[i]), key)) {
+                    change.old = entries[i];
+                    return new CollisionNode(remove(entries, i));
+                }
+            }
+            return node;
+        }
+
+        final int bit = bit(hash, shift);
+        if ((node.dataMap & bit) != 0) {
+            final int i = index(node.dataMap, bit);
+            if (!Objects.equals(key(node.entries[i]), key)) {
+                return node;
+            }
+            change.old = node.entries[i];
+            return new Node(node.dataMap ^ bit, node.nodeMap, remove(node.entries, i), node.nodes);
+        }
+        if ((node.nodeMap & bit) != 0) {
+            final int i = index(node.nodeMap, bit);
+            final Node sub = node.nodes[i];
+            final Node newSub = delete(sub, key, hash, shift + BITS, change);
+            if (newSub == sub) {
+                return node;
+            }
+            if (newSub.isSingleton()) {
+                if (shift > 0 && node.entries.length == 0 && node.nodes.length == 1) {
+                    // the parent inlines the remaining entry
+                    return newSub;
+                }
+                return new Node(node.dataMap | bit, node.nodeMap ^ bit,
+                    insert(node.entries, index(node.dataMap, bit), newSub.entries[0]),
+                    remove(node.nodes, i));
+            }
+            final Node[] nodes = node.nodes.clone();
+            nodes[i] = newSub;
+            return new Node(node.dataMap, node.nodeMap, node.entries, nodes);
+        }
+        return node;
+    }
+
+    /**
+     * @return a trie holding exactly the two given entries whose keys are different
+     */
+    private static Node merge(Object e1, int h1, Object e2, int h2, int shift) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(new Object[] { e1, e2 });
+        }
+        final int b1 = (h1 >>> shift) & MASK;
+        final int b2 = (h2 >>> shift) & MASK;
+        if (b1 != b2) {
+            return new Node((1 << b1) | (1 << b2), 0,
+                b1 < b2 ? new Object[] { e1, e2 } : new Object[] { e2, e1 }, NO_NODES);
+        }
+        return new Node(0, 1 << b1, NO_ENTRIES,
+            new Node[] { merge(e1, h1, e2, h2, shift + BITS) });
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /** @return the position of <code>bit</code> in the dense array of <code>bitmap</code> */
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static <E> E[] insert(E[] array, int index, E element) {
+        final E[] result = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        result[index] = element;
+        return result;
+    }
+
+    private static <E> E[] remove(E[] array, int index) {
+        final E[] result = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    /** A node of the trie. */
+    static class Node implements Serializable {
+        private static final long serialVersionUID = 3914625217396052391L;
+
+        /** positions holding an entry */
+        final int dataMap;
+        /** positions holding a sub node */
+        final int nodeMap;
+        /** the entries in the order of their positions */
+        final Object[] entries;
+        /** the sub nodes in the order of their positions */
+        final Node[] nodes;
+
+        Node(int dataMap, int nodeMap, Object[] entries, Node[] nodes) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.entries = entries;
+            this.nodes = nodes;
+        }
+
+        /** @return whether this (sub) trie holds exactly one entry */
+        final boolean isSingleton() {
+            return nodes.length == 0 && entries.length == 1;
+        }
+    }
+
+    /** A node holding the entries whose keys have equal hash codes. */
+    static final class CollisionNode extends Node {
+        private static final long serialVersionUID = -6471237059013742841L;
+
+        CollisionNode(Object[] entries) {
+            super(0, 0, entries, NO_NODES);
+        }
+    }
+
+    /** Records the entry replaced, kept or removed by an update. */
+    static final class Change {
+        /** the entry with the key of the update, {@link #NOT_FOUND} if there was none */
+        Object old = NOT_FOUND;
+
+        boolean found() {
+            return old != NOT_FOUND;
+        }
+    }
+
+    /**
+     * Iterates over the entries of a trie, depth-first.
+     *
+     * @param <E> the type of the entries
+     */
+    static final class EntryIterator<E> implements Iterator<E> {
+        private final Node[] path = new Node[MAX_DEPTH];
+        /** index of the next sub node to visit per node of the path */
+        private final int[] nextNode = new int[MAX_DEPTH];
+        private int depth;
+        private Object[] entries;
+        private int nextEntry;
+
+        EntryIterator(Node root) {
+            path[0] = root;
+            entries = root.entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextEntry >= entries.length) {
+                if (depth < 0) {
+                    return false;
+                }
+                final Node node = path[depth];
+                if (nextNode[depth] < node.nodes.length) {
+                    final Node sub = node.nodes[nextNode[depth]++];
+                    depth++;
+                    path[depth] = sub;
+                    nextNode[depth] = 0;
+                    entries = sub.entries;
+                    nextEntry = 0;
+                } else {
+                    path[depth] = null;
+                    depth--;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (E) entries[nextEntry++];
+        }
+    }
+}
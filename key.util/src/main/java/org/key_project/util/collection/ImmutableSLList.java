@@ -537,7 +537,7 @@ public abstract class ImmutableSLList<T> implements ImmutableList<T> {
 
         @Override
         public boolean equals(Object o) {
-            return o instanceof NIL<?>;
+            return o instanceof ImmutableList<?> list && list.isEmpty();
         }
 
         @Override
@@ -0,0 +1,474 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.collection;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a non-destructive list with indexed access, a persistent radix-balanced
+ * vector. The elements are stored in the leaves of a trie with 32 children per node; an update
+ * copies the nodes on the path to the changed leaf and shares all others with the original list.
+ * <p>
+ * The elements occupy a window of the index range of the trie. Prepending and appending an element
+ * write the slot before or after the window and take O(log<sub>32</sub> n); once the window
+ * reaches an end of the trie, the trie gets a new root with the old one in its middle (or, if it
+ * is mostly empty, is rebuilt). {@link #get(int)} takes O(log<sub>32</sub> n), {@link #head()},
+ * {@link #tail()}, {@link #take(int)} and {@link #size()} take O(1). Note that the tails of a list
+ * keep the dropped elements reachable.
+ * </p>
+ * <p>
+ * The trie is not relaxed: concatenating two lists adds the elements of the shorter list one by
+ * one or rebuilds the trie, i.e., it takes O(min(n, m) log<sub>32</sub> (n + m)) or O(n + m).
+ * Prefer {@link ImmutableSLList} for lists built by prepending and traversed from the front.
+ * </p>
+ *
+ * @param <T> the type of the elements
+ */
+@SuppressWarnings("unchecked")
+public final class ImmutableVector<T> implements ImmutableList<T> {
+
+    private static final long serialVersionUID = 6652340217871003542L;
+
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    /** the maximal shift, i.e., the trie has a capacity of up to 2<sup>30</sup> elements */
+    private static final int MAX_SHIFT = 25;
+
+    private static final ImmutableVector<?> NIL =
+        new ImmutableVector<>(new Object[WIDTH], 0, WIDTH / 2, 0);
+
+    /** the root of the trie, its leaves hold the elements */
+    private final Object[] root;
+
+    /** number of bits of an index used by the levels below the root */
+    private final int shift;
+
+    /** index in the trie of the first element */
+    private final int origin;
+
+    private final int size;
+
+    private ImmutableVector(Object[] root, int shift, int origin, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.origin = origin;
+        this.size = size;
+    }
+
+    /** the empty list */
+    public static <T> ImmutableVector<T> nil() {
+        return (ImmutableVector<T>) NIL;
+    }
+
+    /**
+     * Creates a vector with the elements of an iterable.
+     *
+     * @param elements the elements
+     * @return a vector with the elements in the order of the iterable
+     */
+    public static <T> ImmutableVector<T> copyOf(Iterable<? extends T> elements) {
+        if (elements instanceof ImmutableVector) {
+            return (ImmutableVector<T>) elements;
+        }
+        final List<T> list = new ArrayList<>();
+        for (T element : elements) {
+            list.add(element);
+        }
+        return build(list.toArray(), list.size());
+    }
+
+    /**
+     * @return a vector with the first <code>n</code> elements of the array, which has been
+     *         created for this purpose and is not shared
+     */
+    private static <T> ImmutableVector<T> build(Object[] elements, int n) {
+        if (n == 0) {
+            return nil();
+        }
+        int shift = 0;
+        while ((1L << (shift + BITS)) < 2L * n) {
+            shift += BITS;
+        }
+        if (shift > MAX_SHIFT) {
+            throw new IllegalStateException("Too many elements for a vector: " + n);
+        }
+        final int origin = ((1 << (shift + BITS)) - n) / 2;
+        final Object[] root = new Object[WIDTH];
+        for (int i = 0; i < n; i++) {
+            store(root, shift, origin + i, elements[i]);
+        }
+        return new ImmutableVector<>(root, shift, origin, n);
+    }
+
+    /** writes an element into a trie under construction */
+    private static void store(Object[] root, int shift, int index, Object element) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            final int i = (index >>> level) & MASK;
+            if (node[i] == null) {
+                node[i] = new Object[WIDTH];
+            }
+            node = (Object[]) node[i];
+        }
+        node[index & MASK] = element;
+    }
+
+    /** @return a copy of the trie in which the slot <code>index</code> holds the element */
+    private static Object[] assoc(Object[] node, int shift, int index, Object element) {
+        final Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (shift == 0) {
+            copy[index & MASK] = element;
+        } else {
+            final int i = (index >>> shift) & MASK;
+            copy[i] = assoc((Object[]) copy[i], shift - BITS, index, element);
+        }
+        return copy;
+    }
+
+    private int capacity() {
+        return 1 << (shift + BITS);
+    }
+
+    /**
+     * @return this list in a trie with free slots on both sides of the window
+     */
+    private ImmutableVector<T> withRoom() {
+        if (size <= capacity() / 4 || shift >= MAX_SHIFT) {
+            return build(toArray(new Object[size]), size);
+        }
+        final Object[] newRoot = new Object[WIDTH];
+        newRoot[WIDTH / 2] = root;
+        return new ImmutableVector<>(newRoot, shift + BITS, origin + (WIDTH / 2) * capacity(),
+            size);
+    }
+
+    /** @return the leaf containing the slot <code>index</code> */
+    private Object[] leaf(int index) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    @Override
+    public T get(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException(
+                "Index " + idx + " out of bounds for length " + size);
+        }
+        final int index = origin + idx;
+        return (T) leaf(index)[index & MASK];
+    }
+
+    @Override
+    public T last() {
+        if (size == 0) {
+            throw new IllegalStateException("last() called on empty list");
+        }
+        return get(size - 1);
+    }
+
+    @Override
+    public ImmutableVector<T> prepend(T element) {
+        final ImmutableVector<T> v = origin == 0 ? withRoom() : this;
+        return new ImmutableVector<>(assoc(v.root, v.shift, v.origin - 1, element), v.shift,
+            v.origin - 1, size + 1);
+    }
+
+    @Override
+    public ImmutableVector<T> append(T element) {
+        final ImmutableVector<T> v = origin + size == capacity() ? withRoom() : this;
+        return new ImmutableVector<>(assoc(v.root, v.shift, v.origin + size, element), v.shift,
+            v.origin, size + 1);
+    }
+
+    /**
+     * @return the list of the given elements followed by the elements of this list
+     */
+    private ImmutableVector<T> prepend(Object[] elements, int n) {
+        if (n <= size) {
+            ImmutableVector<T> result = this;
+            for (int i = n - 1; i >= 0; i--) {
+                result = result.prepend((T) elements[i]);
+            }
+            return result;
+        }
+        final Object[] all = new Object[n + size];
+        System.arraycopy(elements, 0, all, 0, n);
+        copyInto(all, n);
+        return build(all, all.length);
+    }
+
+    /**
+     * @return the list of the elements of this list followed by the given elements
+     */
+    private ImmutableVector<T> append(Object[] elements, int n) {
+        if (n <= size) {
+            ImmutableVector<T> result = this;
+            for (int i = 0; i < n; i++) {
+                result = result.append((T) elements[i]);
+            }
+            return result;
+        }
+        final Object[] all = new Object[size + n];
+        copyInto(all, 0);
+        System.arraycopy(elements, 0, all, size, n);
+        return build(all, all.length);
+    }
+
+    private void copyInto(Object[] array, int offset) {
+        int i = offset;
+        for (T element : this) {
+            array[i++] = element;
+        }
+    }
+
+    private static Object[] elementsOf(Iterable<?> elements) {
+        if (elements instanceof ImmutableList<?> list) {
+            return list.toArray(new Object[list.size()]);
+        }
+        final List<Object> list = new ArrayList<>();
+        for (Object element : elements) {
+            list.add(element);
+        }
+        return list.toArray();
+    }
+
+    @Override
+    public ImmutableList<T> prepend(ImmutableList<T> list) {
+        final Object[] elements = elementsOf(list);
+        return prepend(elements, elements.length);
+    }
+
+    @Override
+    public ImmutableList<T> prependReverse(ImmutableList<T> collection) {
+        return prependReverse((Iterable<T>) collection);
+    }
+
+    @Override
+    public ImmutableList<T> prependReverse(Iterable<T> collection) {
+        final Object[] elements = elementsOf(collection);
+        for (int i = 0, j = elements.length - 1; i < j; i++, j--) {
+            final Object tmp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = tmp;
+        }
+        return prepend(elements, elements.length);
+    }
+
+    @Override
+    public ImmutableList<T> prepend(T... array) {
+        return prepend(array, array.length);
+    }
+
+    @Override
+    public ImmutableList<T> append(ImmutableList<T> list) {
+        final Object[] elements = elementsOf(list);
+        return append(elements, elements.length);
+    }
+
+    @Override
+    public ImmutableList<T> append(Iterable<T> collection) {
+        final Object[] elements = elementsOf(collection);
+        return append(elements, elements.length);
+    }
+
+    @Override
+    public ImmutableList<T> append(T... array) {
+        return append(array, array.length);
+    }
+
+    @Override
+    public T head() {
+        return size == 0 ? null : get(0);
+    }
+
+    @Override
+    public boolean exists(Predicate<T> predicate) {
+        for (T element : this) {
+            if (predicate.test(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ImmutableVector<T> tail() {
+        return size == 0 ? this : new ImmutableVector<>(root, shift, origin + 1, size - 1);
+    }
+
+    /**
+     * first <code>n</code> elements of the list are truncated
+     *
+     * @param n an int specifying the number of elements to be truncated
+     * @return this list without the first <code>n</code> elements
+     */
+    @Override
+    public ImmutableVector<T> take(int n) {
+        if (n < 0 || n > size) {
+            throw new IndexOutOfBoundsException(
+                "Unable to take " + n + " elements from list " + this);
+        }
+        return n == 0 ? this : new ImmutableVector<>(root, shift, origin + n, size - n);
+    }
+
+    @Override
+    public ImmutableVector<T> reverse() {
+        if (size <= 1) {
+            return this;
+        }
+        final Object[] elements = new Object[size];
+        int i = size;
+        for (T element : this) {
+            elements[--i] = element;
+        }
+        return build(elements, size);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int next;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                final int index = origin + next++;
+                if (leaf == null || (index & MASK) == 0) {
+                    leaf = leaf(index);
+                }
+                return (T) leaf[index & MASK];
+            }
+        };
+    }
+
+    @Override
+    public boolean contains(T obj) {
+        return exists(element -> Objects.equals(element, obj));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public ImmutableVector<T> removeFirst(T obj) {
+        int i = 0;
+        for (T element : this) {
+            if (Objects.equals(element, obj)) {
+                if (i == 0) {
+                    return tail();
+                }
+                final Object[] elements = toArray(new Object[size]);
+                System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+                return build(elements, size - 1);
+            }
+            i++;
+        }
+        return this;
+    }
+
+    @Override
+    public ImmutableVector<T> removeAll(T obj) {
+        final Object[] elements = new Object[size];
+        int n = 0;
+        for (T element : this) {
+            if (!Objects.equals(element, obj)) {
+                elements[n++] = element;
+            }
+        }
+        return n == size ? this : build(elements, n);
+    }
+
+    @Override
+    public <S> S[] toArray(S[] array) {
+        final S[] result = array.length < size
+                ? (S[]) Array.newInstance(array.getClass().getComponentType(), size)
+                : array;
+        int i = 0;
+        for (T element : this) {
+            result[i++] = (S) element;
+        }
+        return result;
+    }
+
+    @Override
+    public <S> S[] toArray(Class<S> type) {
+        return toArray((S[]) Array.newInstance(type, size));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof ImmutableList)) {
+            return false;
+        }
+        final ImmutableList<T> o1 = (ImmutableList<T>) o;
+        if (o1.size() != size) {
+            return false;
+        }
+        final Iterator<T> p = iterator();
+        final Iterator<T> q = o1.iterator();
+        while (p.hasNext()) {
+            if (!Objects.equals(p.next(), q.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The hash code is computed like the one of {@link ImmutableSLList}.
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (T element : this) {
+            hashCode = Objects.hashCode(element) + 31 * hashCode;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        final Iterator<T> it = iterator();
+        final StringBuilder str = new StringBuilder("[");
+        while (it.hasNext()) {
+            str.append(it.next());
+            if (it.hasNext()) {
+                str.append(",");
+            }
+        }
+        str.append("]");
+        return str.toString();
+    }
+}
@@ -0,0 +1,125 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.testcase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.key_project.util.TinyLFUCache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TinyLFUCacheTest {
+
+    @Test
+    public void testBound() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.stats().weight());
+        assertEquals(900, cache.stats().evictions());
+        assertEquals(Integer.valueOf(999), cache.get(999));
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get(i);
+            }
+        }
+        // an LRU cache would lose all frequently used entries
+        for (int i = 1000; i < 3000; i++) {
+            cache.put(i, i);
+        }
+        int hot = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey(i)) {
+                hot++;
+            }
+        }
+        assertTrue(hot >= 45, "only " + hot + " frequent entries left");
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void testWeights() {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10, (k, v) -> v.length());
+        cache.put("a", "aaaaa");
+        cache.put("b", "bbbbb");
+        assertEquals(10, cache.stats().weight());
+        cache.put("c", "c");
+        assertTrue(cache.stats().weight() <= 10);
+        assertEquals(2, cache.size());
+        cache.put("d", "dddddddddddd");
+        assertFalse(cache.containsKey("d"));
+        cache.remove("c");
+        cache.remove("a");
+        cache.remove("b");
+        assertEquals(0, cache.stats().weight());
+    }
+
+    @Test
+    public void testMapOperations() {
+        TinyLFUCache<String, Integer> cache = new TinyLFUCache<>(10);
+        assertNull(cache.put("x", 1));
+        assertEquals(Integer.valueOf(1), cache.put("x", 2));
+        assertEquals(Integer.valueOf(2), cache.get("x"));
+        assertNull(cache.get("y"));
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(0.5, cache.stats().hitRate());
+        assertEquals(1, cache.entrySet().size());
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertEquals(0, cache.stats().weight());
+        assertThrows(NullPointerException.class, () -> cache.put("z", null));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(64);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final Random random = new Random(t);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    int key = random.nextInt(256);
+                    Integer value = cache.get(key);
+                    if (value == null) {
+                        cache.put(key, key);
+                    } else if (value != key) {
+                        throw new AssertionError("wrong value for " + key);
+                    }
+                    if (i % 1000 == 0) {
+                        cache.remove(key);
+                    }
+                }
+            });
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(), errors);
+        assertTrue(cache.size() <= 64);
+        assertEquals(cache.size(), cache.stats().weight());
+    }
+}
@@ -0,0 +1,172 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.testcase.collection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.key_project.util.collection.DaryHeap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestDaryHeapOfInteger {
+
+    private static final List<Integer> A = List.of(-34, 20, 60, 16, 7, 5, 20, 13);
+
+    final Random rand = new Random();
+
+    /**
+     * checks the elements of the heap and empties it
+     */
+    private void checkHeap(List<Integer> elements, DaryHeap<Integer> h) {
+        assertEquals(elements.size(), h.size(), "Heap has incorrect size");
+        assertEquals(elements.isEmpty(), h.isEmpty());
+
+        List<Integer> expected = new ArrayList<>(elements);
+        Collections.sort(expected);
+
+        List<Integer> unsorted = new ArrayList<>();
+        h.forEach(unsorted::add);
+        Collections.sort(unsorted);
+        assertEquals(expected, unsorted, "Heap iterator does not return the right elements");
+
+        List<Integer> sorted = new ArrayList<>();
+        while (!h.isEmpty()) {
+            Integer min = h.findMin();
+            assertEquals(min, h.deleteMin());
+            sorted.add(min);
+        }
+        assertEquals(expected, sorted, "deleteMin does not return the sorted elements");
+        assertNull(h.findMin());
+        assertNull(h.deleteMin());
+    }
+
+    @Test
+    public void testInsertElements() {
+        DaryHeap<Integer> h = new DaryHeap<>();
+        assertTrue(h.isEmpty() && h.size() == 0, "Empty heap should be empty");
+
+        h.insert(1);
+        assertTrue(!h.isEmpty() && h.size() == 1 && h.findMin() == 1,
+            "Heap should contain one element");
+
+        h.insert(2);
+        h.insert(0);
+        assertTrue(h.size() == 3 && h.findMin() == 0, "Heap should contain three elements");
+        checkHeap(List.of(0, 1, 2), h);
+    }
+
+    @Test
+    public void testInsertAll() {
+        DaryHeap<Integer> h = new DaryHeap<>();
+        h.insertAll(Collections.<Integer>emptyIterator());
+        assertTrue(h.isEmpty());
+
+        h.insertAll(A.iterator());
+        DaryHeap<Integer> copy = h.copy();
+        checkHeap(A, h);
+
+        // few elements are inserted one by one, many elements by rebuilding the heap
+        List<Integer> expected = new ArrayList<>(A);
+        copy.insert(100);
+        expected.add(100);
+        copy.insertAll(List.of(-100).iterator());
+        expected.add(-100);
+        copy.insertAll(copy.copy());
+        expected.addAll(expected);
+        checkHeap(expected, copy);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        DaryHeap<Integer> h = new DaryHeap<>();
+        h.insertAll(A.iterator());
+
+        DaryHeap<Integer> c0 = h.copy();
+        DaryHeap<Integer> c1 = c0.copy();
+
+        c0.deleteMin();
+        h.insert(-1000);
+
+        List<Integer> expected = new ArrayList<>(A);
+        expected.add(-1000);
+        checkHeap(expected, h);
+        checkHeap(A.subList(1, A.size()), c0);
+        checkHeap(A, c1);
+    }
+
+    @Test
+    public void testLargeHeap() {
+        DaryHeap<Integer> h = new DaryHeap<>();
+        List<Integer> l = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            int n = rand.nextInt(1000000);
+            l.add(n);
+            if (i % 3 == 0) {
+                h.insert(n);
+            } else {
+                h.insertAll(List.of(n).iterator());
+            }
+        }
+        DaryHeap<Integer> copy = h.copy();
+        checkHeap(l, h);
+
+        List<Integer> more = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            more.add(rand.nextInt(1000000));
+        }
+        copy.insertAll(more.iterator());
+        l.addAll(more);
+        checkHeap(l, copy);
+    }
+
+    /** an element whose priority does not determine it */
+    private record Item(int priority, int id) implements Comparable<Item> {
+        @Override
+        public int compareTo(Item o) {
+            return Integer.compare(priority, o.priority);
+        }
+    }
+
+    @Test
+    public void testEqualPrioritiesInInsertionOrder() {
+        DaryHeap<Item> h = new DaryHeap<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            items.add(new Item(rand.nextInt(10), i));
+        }
+        // one by one, then many at once, which rebuilds the heap
+        for (Item item : items.subList(0, 100)) {
+            h.insert(item);
+        }
+        h.insertAll(items.subList(100, items.size()).iterator());
+        DaryHeap<Item> copy = h.copy();
+
+        List<Item> expected = new ArrayList<>(items);
+        // stable, i.e., ties stay in insertion order
+        expected.sort(null);
+        List<Item> actual = new ArrayList<>();
+        while (!h.isEmpty()) {
+            actual.add(h.deleteMin());
+        }
+        assertEquals(expected, actual);
+
+        // the copy continues the sequence of the original
+        Item last = new Item(0, -1);
+        copy.insert(last);
+        List<Item> zeros = new ArrayList<>();
+        while (!copy.isEmpty() && copy.findMin().priority() == 0) {
+            zeros.add(copy.deleteMin());
+        }
+        assertEquals(last, zeros.get(zeros.size() - 1));
+        assertEquals(expected.subList(0, zeros.size() - 1), zeros.subList(0, zeros.size() - 1));
+    }
+}
@@ -0,0 +1,92 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.testcase.collection;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.key_project.util.collection.DefaultImmutableMap;
+import org.key_project.util.collection.HashImmutableMap;
+import org.key_project.util.collection.ImmutableMap;
+import org.key_project.util.collection.ImmutableMapEntry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests the hash trie map against {@link HashMap}
+ */
+public class TestHashImmutableMap {
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(42);
+        final Map<Integer, String> expected = new HashMap<>();
+        HashImmutableMap<Integer, String> map = HashImmutableMap.nilMap();
+        for (int i = 0; i < 20000; i++) {
+            final int key = random.nextInt(3000) << 12;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                final String value = "v" + random.nextInt(10);
+                expected.put(key, value);
+                map = map.put(key, value);
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.get(key), map.get(key));
+        }
+        final Map<Integer, String> actual = new HashMap<>();
+        for (ImmutableMapEntry<Integer, String> entry : map) {
+            assertNull(actual.put(entry.key(), entry.value()));
+        }
+        assertEquals(expected, actual);
+
+        final Iterator<Integer> keys = map.keyIterator();
+        final Iterator<String> values = map.valueIterator();
+        while (keys.hasNext()) {
+            assertEquals(expected.get(keys.next()), values.next());
+        }
+        assertFalse(values.hasNext());
+    }
+
+    @Test
+    public void testOperations() {
+        final ImmutableMap<String, Integer> m1 =
+            HashImmutableMap.<String, Integer>nilMap().put("a", 1).put("b", 2).put("c", 1);
+        final ImmutableMap<String, Integer> m2 = m1.put("a", 3);
+        assertEquals(Integer.valueOf(1), m1.get("a"));
+        assertEquals(Integer.valueOf(3), m2.get("a"));
+        assertEquals(3, m2.size());
+        assertTrue(m1.containsKey("c"));
+        assertFalse(m1.containsKey("d"));
+        assertTrue(m1.containsValue(2));
+        assertFalse(m1.containsValue(3));
+        assertSame(m1, m1.remove("d"));
+
+        final ImmutableMap<String, Integer> m3 = m1.removeAll(1);
+        assertEquals(1, m3.size());
+        assertEquals(Integer.valueOf(2), m3.get("b"));
+        assertTrue(m3.remove("b").isEmpty());
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        ImmutableMap<Integer, String> hashed = HashImmutableMap.nilMap();
+        ImmutableMap<Integer, String> listed = DefaultImmutableMap.nilMap();
+        assertEquals(hashed, listed);
+        assertEquals(listed.hashCode(), hashed.hashCode());
+        for (int i = 0; i < 50; i++) {
+            hashed = hashed.put(i, "s" + i);
+            listed = listed.put(i, "s" + i);
+        }
+        assertEquals(hashed, listed);
+        assertEquals(listed, hashed);
+        assertEquals(listed.hashCode(), hashed.hashCode());
+        assertNotEquals(hashed, listed.put(3, "x"));
+    }
+}
@@ -0,0 +1,139 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.testcase.collection;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.key_project.util.collection.DefaultImmutableSet;
+import org.key_project.util.collection.HashImmutableSet;
+import org.key_project.util.collection.ImmutableSet;
+import org.key_project.util.collection.NotUniqueException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests the hash trie set against {@link HashSet}
+ */
+public class TestHashImmutableSet {
+
+    /** a key whose hash codes collide often */
+    private record Key(int value) {
+        @Override
+        public int hashCode() {
+            return value % 7;
+        }
+    }
+
+    private static void assertSameElements(Set<?> expected, ImmutableSet<?> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual.toSet());
+        int count = 0;
+        for (Object ignored : actual) {
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(4711);
+        final Set<Integer> expected = new HashSet<>();
+        HashImmutableSet<Integer> set = HashImmutableSet.nil();
+        for (int i = 0; i < 20000; i++) {
+            // the upper bits vary to test deep tries
+            final int value = random.nextInt(2000) * 0x10001;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.contains(value));
+                set = set.remove(value);
+            } else {
+                assertEquals(!expected.add(value), set.contains(value));
+                set = set.add(value);
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        assertSameElements(expected, set);
+        for (Integer value : expected) {
+            assertTrue(set.contains(value));
+        }
+    }
+
+    @Test
+    public void testCollisions() {
+        final Set<Key> expected = new HashSet<>();
+        HashImmutableSet<Key> set = HashImmutableSet.nil();
+        for (int i = 0; i < 100; i++) {
+            expected.add(new Key(i));
+            set = set.add(new Key(i));
+        }
+        assertSameElements(expected, set);
+        for (int i = 0; i < 100; i += 2) {
+            expected.remove(new Key(i));
+            set = set.remove(new Key(i));
+        }
+        assertSameElements(expected, set);
+        assertFalse(set.contains(new Key(2)));
+        assertTrue(set.contains(new Key(3)));
+        for (int i = 1; i < 100; i += 2) {
+            set = set.remove(new Key(i));
+        }
+        assertTrue(set.isEmpty());
+        assertSame(HashImmutableSet.nil(), set);
+    }
+
+    @Test
+    public void testPersistence() {
+        final HashImmutableSet<String> s1 = HashImmutableSet.<String>nil().add("a").add("b");
+        final HashImmutableSet<String> s2 = s1.add("c");
+        final HashImmutableSet<String> s3 = s2.remove("a");
+        assertEquals(2, s1.size());
+        assertFalse(s1.contains("c"));
+        assertTrue(s2.contains("a"));
+        assertFalse(s3.contains("a"));
+        assertSame(s1, s1.add("a"));
+        assertSame(s1, s1.remove("x"));
+        assertThrows(NotUniqueException.class, () -> s1.addUnique("a"));
+    }
+
+    @Test
+    public void testSetOperations() {
+        ImmutableSet<Integer> a = HashImmutableSet.nil();
+        ImmutableSet<Integer> b = DefaultImmutableSet.nil();
+        for (int i = 0; i < 10; i++) {
+            a = a.add(i);
+            b = b.add(i + 5);
+        }
+        assertEquals(15, a.union(b).size());
+        assertEquals(15, b.union(a).size());
+        final ImmutableSet<Integer> intersection = a.intersect(b);
+        assertEquals(5, intersection.size());
+        for (int i = 5; i < 10; i++) {
+            assertTrue(intersection.contains(i));
+        }
+        assertTrue(intersection.subset(a));
+        assertFalse(a.subset(intersection));
+        assertTrue(a.exists(i -> i == 9));
+    }
+
+    @Test
+    public void testEqualsAndHashCode() {
+        ImmutableSet<String> hashed = HashImmutableSet.nil();
+        ImmutableSet<String> listed = DefaultImmutableSet.nil();
+        assertEquals(hashed, listed);
+        assertEquals(listed, hashed);
+        assertEquals(listed.hashCode(), hashed.hashCode());
+        for (String s : new String[] { "Dies", "ist", "ein", "Test" }) {
+            hashed = hashed.add(s);
+            listed = listed.add(s);
+        }
+        assertEquals(hashed, listed);
+        assertEquals(listed, hashed);
+        assertEquals(listed.hashCode(), hashed.hashCode());
+        assertNotEquals(hashed, listed.remove("ist"));
+        assertEquals(4, hashed.toArray(new String[0]).length);
+    }
+}
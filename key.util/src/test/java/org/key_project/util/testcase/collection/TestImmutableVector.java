@@ -0,0 +1,102 @@
+/* This file is part of KeY - https://key-project.org
+ * KeY is licensed under the GNU General Public License Version 2
+ * SPDX-License-Identifier: GPL-2.0-only */
+package org.key_project.util.testcase.collection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.key_project.util.collection.ImmutableList;
+import org.key_project.util.collection.ImmutableSLList;
+import org.key_project.util.collection.ImmutableVector;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * tests the persistent vector against {@link ArrayList} and {@link ImmutableSLList}
+ */
+public class TestImmutableVector {
+
+    private static void assertSameList(List<Integer> expected, ImmutableList<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual.toList());
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        final Random random = new Random(17);
+        final List<Integer> expected = new ArrayList<>();
+        ImmutableList<Integer> vector = ImmutableVector.nil();
+        for (int i = 0; i < 20000; i++) {
+            switch (random.nextInt(4)) {
+            case 0 -> {
+                expected.add(0, i);
+                vector = vector.prepend(i);
+            }
+            case 1, 2 -> {
+                expected.add(i);
+                vector = vector.append(i);
+            }
+            default -> {
+                if (!expected.isEmpty()) {
+                    expected.remove(0);
+                }
+                vector = vector.tail();
+            }
+            }
+            assertEquals(expected.size(), vector.size());
+            assertEquals(expected.isEmpty() ? null : expected.get(0), vector.head());
+        }
+        assertSameList(expected, vector);
+    }
+
+    @Test
+    public void testQueue() {
+        // appending to the end and removing from the front must not exhaust the trie
+        ImmutableList<Integer> queue = ImmutableVector.nil();
+        for (int i = 0; i < 200000; i++) {
+            queue = queue.append(i);
+            if (i >= 10) {
+                assertEquals(Integer.valueOf(i - 10), queue.head());
+                queue = queue.tail();
+            }
+        }
+        assertEquals(10, queue.size());
+        assertEquals(Integer.valueOf(199999), queue.last());
+    }
+
+    @Test
+    public void testListOperations() {
+        final ImmutableList<String> list = ImmutableSLList.<String>nil().prepend("a", "b", "c", "d");
+        final ImmutableList<String> vector = ImmutableVector.copyOf(list);
+        assertEquals(list, vector);
+        assertEquals(vector, list);
+        assertEquals(list.hashCode(), vector.hashCode());
+        assertEquals(ImmutableSLList.nil(), ImmutableVector.nil());
+        assertEquals(ImmutableVector.nil(), ImmutableSLList.nil());
+
+        assertEquals(list.take(2), vector.take(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.take(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(4));
+        assertEquals(list.reverse(), vector.reverse());
+        assertEquals(list.prepend(list), vector.prepend(list));
+        assertEquals(list.append(list), vector.append(vector));
+        assertEquals(list.prependReverse(list), vector.prependReverse(list));
+        assertEquals(list.append("x", "y"), vector.append("x", "y"));
+        assertEquals(list.prepend("x", "y"), vector.prepend("x", "y"));
+        assertEquals(list.removeFirst("c"), vector.removeFirst("c"));
+        assertEquals(list.append(list).removeAll("a"), vector.append(vector).removeAll("a"));
+        assertSame(vector, vector.removeAll("x"));
+        assertTrue(vector.contains("b"));
+        assertFalse(vector.contains("x"));
+        assertEquals("[a,b,c,d]", vector.toString());
+        assertArrayEquals(new String[] { "a", "b", "c", "d" }, vector.toArray(String.class));
+        assertNull(ImmutableVector.nil().head());
+    }
+}
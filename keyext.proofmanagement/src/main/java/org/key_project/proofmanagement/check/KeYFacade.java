@@ -378,6 +378,8 @@ public final class KeYFacade {
 
             // passing null is ok since ProblemLoader is only used for error reporting as origin
             replayer = new IntermediateProofReplayer(null, proof, parserResult);
+            // a checker has to replay all branches
+            replayer.setLazy(false);
             // pass false here to keep the intermediate tree (may be needed for later checkers)!
             replayResult = replayer.replay(null, null, false);
 
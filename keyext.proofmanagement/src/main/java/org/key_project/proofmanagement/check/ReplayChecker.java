@@ -3,19 +3,106 @@
  * SPDX-License-Identifier: GPL-2.0-only */
 package org.key_project.proofmanagement.check;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import de.uka.ilkd.key.proof.Goal;
+import de.uka.ilkd.key.proof.Proof;
+import de.uka.ilkd.key.proof.reference.BranchCache;
+import de.uka.ilkd.key.proof.reference.ClosedBy;
+
+import org.key_project.proofmanagement.io.LogLevel;
 import org.key_project.proofmanagement.io.ProofBundleHandler;
 
 /**
  * Checks that all files stored in the bundle can successfully be replayed.
+ * <p>
+ * If a branch cache file is given, the open goals of the replayed proofs are additionally looked
+ * up in a {@link BranchCache} of the closed branches of the other proofs of the bundle and of the
+ * proofs stored in the cache file by earlier runs. Goals that could be closed by reference are
+ * reported. Afterwards, the cache file is updated with the branches of the replayed proofs.
+ * </p>
  *
  * @author Wolfram Pfeifer
  */
 public class ReplayChecker implements Checker {
+    /** the file of the branch cache, null if no cache is used */
+    private final Path branchCacheFile;
+
+    /**
+     * Creates a replay checker without branch cache.
+     */
+    public ReplayChecker() {
+        this(null);
+    }
+
+    /**
+     * Creates a replay checker that looks up open goals in a branch cache.
+     *
+     * @param branchCacheFile the file of the branch cache, which is read if it exists and
+     *        (over)written afterwards, null if no cache is used
+     */
+    public ReplayChecker(Path branchCacheFile) {
+        this.branchCacheFile = branchCacheFile;
+    }
 
     @Override
     public void check(ProofBundleHandler pbh, CheckerData data) throws ProofManagementException {
         data.addCheck("replay");
         data.print("Running replay checker ...");
         KeYFacade.ensureProofsReplayed(data);
+        if (branchCacheFile != null) {
+            checkBranchCache(data);
+        }
+    }
+
+    private void checkBranchCache(CheckerData data) {
+        BranchCache cache;
+        try {
+            cache = Files.exists(branchCacheFile) ? BranchCache.load(branchCacheFile)
+                    : new BranchCache();
+        } catch (IOException e) {
+            data.print(LogLevel.WARNING,
+                "Ignoring unreadable branch cache " + branchCacheFile + ": " + e.getMessage());
+            cache = new BranchCache();
+        }
+        for (CheckerData.ProofEntry line : data.getProofEntries()) {
+            if (line.proof != null && line.replaySuccess()) {
+                if (line.proof.getProofFile() == null) {
+                    // the cache only stores proofs with a file
+                    line.proof.setProofFile(line.proofFile.toFile());
+                }
+                cache.add(line.proof);
+            }
+        }
+
+        for (Proof proof : cache.getProofs()) {
+            for (Goal goal : proof.openGoals()) {
+                ClosedBy reference = cache.find(goal.node());
+                if (reference != null) {
+                    data.print(LogLevel.INFO, "Goal " + goal.node().serialNr() + " of "
+                        + proof.name() + " can be closed by reference to node "
+                        + reference.node().serialNr() + " of " + reference.proof().name());
+                    continue;
+                }
+                List<BranchCache.StoredBranch> stored = cache.findStored(goal.node());
+                if (!stored.isEmpty()) {
+                    BranchCache.StoredBranch branch = stored.get(0);
+                    data.print(LogLevel.INFO, "Goal " + goal.node().serialNr() + " of "
+                        + proof.name() + " may be closed by reference to node "
+                        + branch.serialNr() + " of " + branch.proofFile());
+                }
+            }
+        }
+
+        try {
+            cache.save(branchCacheFile);
+            data.print(LogLevel.DEBUG, "Branch cache written to " + branchCacheFile);
+        } catch (IOException e) {
+            data.print(LogLevel.WARNING,
+                "Could not write branch cache " + branchCacheFile + ": " + e.getMessage());
+        }
     }
 }